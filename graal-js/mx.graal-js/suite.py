@@ -428,6 +428,7 @@ suite = {
       "dependencies" : [
         "sdk:GRAAL_SDK",
         "GRAALJS",
+        "GRAALJS_SCRIPTENGINE",
         "mx:JMH_1_21"
       ],
       "checkstyle" : "com.oracle.truffle.js",
@@ -648,7 +649,8 @@ suite = {
       ],
       "distDependencies" : [
         "sdk:GRAAL_SDK",
-        "GRAALJS"
+        "GRAALJS",
+        "GRAALJS_SCRIPTENGINE"
       ]
     }
   }
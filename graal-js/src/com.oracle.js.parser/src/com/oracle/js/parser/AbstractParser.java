@@ -587,4 +587,13 @@ public abstract class AbstractParser {
     protected Function<Number, String> getNumberToStringConverter() {
         return null;
     }
+
+    /**
+     * Custom string interner used for identifiers and string literals that are new to this parse.
+     *
+     * @return custom string interner or {@code null} to only intern strings within this parse
+     */
+    protected Function<String, String> getStringInterner() {
+        return null;
+    }
 }
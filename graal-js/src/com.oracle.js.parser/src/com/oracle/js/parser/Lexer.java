@@ -71,8 +71,7 @@ import static com.oracle.js.parser.TokenType.TEMPLATE_TAIL;
 import static com.oracle.js.parser.TokenType.XML;
 
 import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Responsible for converting source content into a stream of tokens.
@@ -118,8 +117,8 @@ public class Lexer extends Scanner {
     private boolean pauseOnNextLeftBrace;
     boolean pauseOnRightBrace;
 
-    /** Map to intern strings during parsing (memory footprint). */
-    private final Map<String, String> internedStrings;
+    /** Table to intern strings during parsing (memory footprint). */
+    final StringTable internedStrings;
 
     private static final String MESSAGE_INVALID_HEX = "invalid.hex";
 
@@ -194,7 +193,24 @@ public class Lexer extends Scanner {
      */
     public Lexer(final Source source, final int start, final int len, final TokenStream stream, final boolean scripting, final int ecmaScriptVersion, final boolean shebang, final boolean isModule,
                     final boolean pauseOnFunctionBody, final boolean allowBigInt) {
-        super(source.getContent().toString().toCharArray(), 1, start, len);
+        this(source, start, len, stream, scripting, ecmaScriptVersion, shebang, isModule, pauseOnFunctionBody, allowBigInt, new StringTable(null));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param stringInterner function used to intern strings that are new to this lexer, e.g. to
+     *            share identifiers and string literals between parses, or {@code null}
+     * @see #Lexer(Source, int, int, TokenStream, boolean, int, boolean, boolean, boolean, boolean)
+     */
+    public Lexer(final Source source, final int start, final int len, final TokenStream stream, final boolean scripting, final int ecmaScriptVersion, final boolean shebang, final boolean isModule,
+                    final boolean pauseOnFunctionBody, final boolean allowBigInt, final Function<String, String> stringInterner) {
+        this(source, start, len, stream, scripting, ecmaScriptVersion, shebang, isModule, pauseOnFunctionBody, allowBigInt, new StringTable(stringInterner));
+    }
+
+    Lexer(final Source source, final int start, final int len, final TokenStream stream, final boolean scripting, final int ecmaScriptVersion, final boolean shebang, final boolean isModule,
+                    final boolean pauseOnFunctionBody, final boolean allowBigInt, final StringTable internedStrings) {
+        super(source.getContent(), 1, start, len);
         this.source = source;
         this.stream = stream;
         this.scripting = scripting;
@@ -207,7 +223,7 @@ public class Lexer extends Scanner {
         this.last = EOL;
 
         this.pauseOnFunctionBody = pauseOnFunctionBody;
-        this.internedStrings = new HashMap<>();
+        this.internedStrings = internedStrings;
     }
 
     private Lexer(final Lexer lexer, final State state) {
@@ -931,7 +947,7 @@ public class Lexer extends Scanner {
         }
 
         for (int i = 0; i < len; ++i) {
-            if (content[start + i] != keyword.charAt(i)) {
+            if (content.charAt(start + i) != keyword.charAt(i)) {
                 return false;
             }
         }
@@ -950,6 +966,10 @@ public class Lexer extends Scanner {
     private String valueOfIdent(final int start, final int length, final boolean convertUnicode) {
         // End of scan.
         final int end = start + length;
+        if (!convertUnicode || !containsBackslash(start, end)) {
+            // Plain identifier, intern it straight from the source content.
+            return internedStrings.intern(content, start, length);
+        }
         // Buffer for recording characters.
         final StringBuilder sb = new StringBuilder(length);
 
@@ -958,7 +978,7 @@ public class Lexer extends Scanner {
         // Scan until end of line or end of file.
         while (pos < end) {
 
-            char curCh0 = content[pos];
+            char curCh0 = content.charAt(pos);
 
             // If escape character.
             if (convertUnicode && curCh0 == '\\' && charAt(pos + 1) == 'u') {
@@ -1600,7 +1620,7 @@ public class Lexer extends Scanner {
     private boolean identifierEqual(final int aStart, final int aLength, final int bStart, final int bLength) {
         if (aLength == bLength) {
             for (int i = 0; i < aLength; i++) {
-                if (content[aStart + i] != content[bStart + i]) {
+                if (content.charAt(aStart + i) != content.charAt(bStart + i)) {
                     return false;
                 }
             }
@@ -1882,12 +1902,12 @@ public class Lexer extends Scanner {
             // Remove last end of line if specified.
             if (excludeLastEOL) {
                 // Handles \n.
-                if (content[stringEnd - 1] == '\n') {
+                if (content.charAt(stringEnd - 1) == '\n') {
                     stringEnd--;
                 }
 
                 // Handles \r and \r\n.
-                if (content[stringEnd - 1] == '\r') {
+                if (content.charAt(stringEnd - 1) == '\r') {
                     stringEnd--;
                 }
 
@@ -2066,7 +2086,7 @@ public class Lexer extends Scanner {
                 }
                 return value;
             case STRING:
-                return stringIntern(source.getString(start, len)); // String
+                return internedStrings.intern(content, start, len); // String
             case ESCSTRING:
                 return valueOfString(start, len, strict); // String
             case IDENT:
@@ -2151,8 +2171,16 @@ public class Lexer extends Scanner {
     }
 
     public String stringIntern(String candidate) {
-        String interned = internedStrings.putIfAbsent(candidate, candidate);
-        return interned == null ? candidate : interned;
+        return internedStrings.intern(candidate);
+    }
+
+    private boolean containsBackslash(final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (content.charAt(i) == '\\') {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
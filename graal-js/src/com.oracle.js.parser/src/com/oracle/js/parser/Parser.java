@@ -54,8 +54,10 @@ import static com.oracle.js.parser.TokenType.COLON;
 import static com.oracle.js.parser.TokenType.COMMARIGHT;
 import static com.oracle.js.parser.TokenType.COMMENT;
 import static com.oracle.js.parser.TokenType.CONST;
+import static com.oracle.js.parser.TokenType.DECIMAL;
 import static com.oracle.js.parser.TokenType.DECPOSTFIX;
 import static com.oracle.js.parser.TokenType.DECPREFIX;
+import static com.oracle.js.parser.TokenType.DEFAULT;
 import static com.oracle.js.parser.TokenType.ELLIPSIS;
 import static com.oracle.js.parser.TokenType.ELSE;
 import static com.oracle.js.parser.TokenType.EOF;
@@ -65,12 +67,15 @@ import static com.oracle.js.parser.TokenType.ESCSTRING;
 import static com.oracle.js.parser.TokenType.EXPORT;
 import static com.oracle.js.parser.TokenType.EXTENDS;
 import static com.oracle.js.parser.TokenType.FINALLY;
+import static com.oracle.js.parser.TokenType.FLOATING;
+import static com.oracle.js.parser.TokenType.FOR;
 import static com.oracle.js.parser.TokenType.FROM;
 import static com.oracle.js.parser.TokenType.FUNCTION;
 import static com.oracle.js.parser.TokenType.GET;
 import static com.oracle.js.parser.TokenType.IDENT;
 import static com.oracle.js.parser.TokenType.IF;
 import static com.oracle.js.parser.TokenType.IMPORT;
+import static com.oracle.js.parser.TokenType.IN;
 import static com.oracle.js.parser.TokenType.INCPOSTFIX;
 import static com.oracle.js.parser.TokenType.INCPREFIX;
 import static com.oracle.js.parser.TokenType.LBRACE;
@@ -78,7 +83,9 @@ import static com.oracle.js.parser.TokenType.LBRACKET;
 import static com.oracle.js.parser.TokenType.LET;
 import static com.oracle.js.parser.TokenType.LPAREN;
 import static com.oracle.js.parser.TokenType.MUL;
+import static com.oracle.js.parser.TokenType.NEW;
 import static com.oracle.js.parser.TokenType.OF;
+import static com.oracle.js.parser.TokenType.OPTIONAL_CHAIN;
 import static com.oracle.js.parser.TokenType.PERIOD;
 import static com.oracle.js.parser.TokenType.RBRACE;
 import static com.oracle.js.parser.TokenType.RBRACKET;
@@ -96,9 +103,11 @@ import static com.oracle.js.parser.TokenType.TEMPLATE_HEAD;
 import static com.oracle.js.parser.TokenType.TEMPLATE_MIDDLE;
 import static com.oracle.js.parser.TokenType.TEMPLATE_TAIL;
 import static com.oracle.js.parser.TokenType.TERNARY;
+import static com.oracle.js.parser.TokenType.THIS;
 import static com.oracle.js.parser.TokenType.VAR;
 import static com.oracle.js.parser.TokenType.VOID;
 import static com.oracle.js.parser.TokenType.WHILE;
+import static com.oracle.js.parser.TokenType.WITH;
 import static com.oracle.js.parser.TokenType.YIELD;
 import static com.oracle.js.parser.TokenType.YIELD_STAR;
 
@@ -109,6 +118,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import org.graalvm.collections.Pair;
@@ -144,6 +154,7 @@ import com.oracle.js.parser.ir.ImportSpecifierNode;
 import com.oracle.js.parser.ir.IndexNode;
 import com.oracle.js.parser.ir.JoinPredecessorExpression;
 import com.oracle.js.parser.ir.LabelNode;
+import com.oracle.js.parser.ir.LazyFunctionBody;
 import com.oracle.js.parser.ir.LexicalContext;
 import com.oracle.js.parser.ir.LiteralNode;
 import com.oracle.js.parser.ir.LiteralNode.ArrayLiteralNode;
@@ -271,6 +282,15 @@ public class Parser extends AbstractParser {
 
     private RecompilableScriptFunctionData reparsedFunction;
 
+    /** Position of the lazily parsed function that is being parsed in full, or -1. */
+    private int lazyFunctionPosition = -1;
+
+    /** Number of function bodies that have only been pre-parsed. */
+    private int lazyFunctionCount;
+
+    /** Total source length of the functions whose bodies have only been pre-parsed. */
+    private int lazyFunctionLength;
+
     private boolean isModule;
 
     public static final boolean PROFILE_PARSING = Options.getBooleanProperty("parser.profiling", false);
@@ -372,7 +392,7 @@ public class Parser extends AbstractParser {
      */
     private void prepareLexer(final int startPos, final int len) {
         stream = new TokenStream();
-        lexer = new Lexer(source, startPos, len, stream, scripting, env.ecmaScriptVersion, shebang, isModule, reparsedFunction != null, allowBigInt);
+        lexer = new Lexer(source, startPos, len, stream, scripting, env.ecmaScriptVersion, shebang, isModule, reparsedFunction != null, allowBigInt, getStringInterner());
         lexer.line = lexer.pendingLine = lineOffset + 1;
         line = lineOffset;
     }
@@ -482,7 +502,7 @@ public class Parser extends AbstractParser {
     public void parseFormalParameterList() {
         try {
             stream = new TokenStream();
-            lexer = new Lexer(source, stream, scripting, env.ecmaScriptVersion, shebang, isModule, allowBigInt);
+            lexer = new Lexer(source, 0, source.getLength(), stream, scripting, env.ecmaScriptVersion, shebang, isModule, false, allowBigInt, getStringInterner());
 
             scanFirstToken();
 
@@ -502,7 +522,7 @@ public class Parser extends AbstractParser {
     public FunctionNode parseFunctionBody(boolean generator, boolean async) {
         try {
             stream = new TokenStream();
-            lexer = new Lexer(source, stream, scripting, env.ecmaScriptVersion, shebang, isModule, allowBigInt);
+            lexer = new Lexer(source, 0, source.getLength(), stream, scripting, env.ecmaScriptVersion, shebang, isModule, false, allowBigInt, getStringInterner());
             final int functionLine = line;
 
             scanFirstToken();
@@ -546,6 +566,52 @@ public class Parser extends AbstractParser {
         }
     }
 
+    /**
+     * Parses a function whose body has only been pre-parsed (see
+     * {@link FunctionNode#isLazilyParsed()}). Functions nested in it may be pre-parsed again.
+     *
+     * @param lazyFunction the lazily parsed function; must have been parsed from the source of this
+     *            parser
+     * @return the fully parsed function, to be combined with the lazily parsed one using
+     *         {@link FunctionNode#withParsedBody(FunctionNode)}
+     */
+    public FunctionNode parseLazyFunction(final FunctionNode lazyFunction) {
+        final LazyFunctionBody lazyBody = lazyFunction.getLazyBody();
+        final int position = lazyBody.getPosition();
+        try {
+            isModule = lazyBody.isModule();
+            isStrictMode = lazyFunction.isStrict();
+            lazyFunctionPosition = position;
+            stream = new TokenStream();
+            // Lex only up to the end of the function, the tokens after it may depend on context.
+            lexer = new Lexer(source, position, lazyFunction.getFinish() - position, stream, scripting, env.ecmaScriptVersion, false, isModule, false,
+                            allowBigInt, getStringInterner());
+            lexer.restoreState(new Lexer.State(position, Integer.MAX_VALUE, lazyBody.getLine(), -1, lazyBody.getLinePosition(), SEMICOLON));
+            line = lazyBody.getLine();
+            linePosition = lazyBody.getLinePosition();
+
+            scanFirstToken();
+
+            // Parse the function as an expression nested in a fake program.
+            final long programToken = Token.toDesc(FUNCTION, 0, source.getLength());
+            final IdentNode ident = new IdentNode(programToken, Token.descPosition(programToken), PROGRAM_NAME);
+            final ParserContextFunctionNode program = createParserContextFunctionNode(ident, programToken, 0, line, Collections.<IdentNode> emptyList(), 0);
+            lc.push(program);
+            final ParserContextBlockNode body = newBlock(program.createBodyScope());
+            functionDeclarations = new ArrayList<>();
+            try {
+                return (FunctionNode) functionExpression(false, false);
+            } finally {
+                functionDeclarations = null;
+                restoreBlock(body);
+                lc.pop(program);
+            }
+        } catch (final Exception e) {
+            handleParseException(e);
+            return null;
+        }
+    }
+
     private void handleParseException(final Exception e) {
         // Extract message from exception. The message will be in error
         // message format.
@@ -691,6 +757,7 @@ public class Parser extends AbstractParser {
                         function.getEndParserState(),
                         function.getModule(),
                         function.getInternalName());
+        functionNode.setLazyBody(function.getLazyBody());
 
         return functionNode;
     }
@@ -2041,7 +2108,7 @@ public class Parser extends AbstractParser {
     }
 
     private static boolean isReservedWordSequence(final String name) {
-        TokenType tokenType = TokenLookup.lookupKeyword(name.toCharArray(), 0, name.length());
+        TokenType tokenType = TokenLookup.lookupKeyword(name, 0, name.length());
         return (tokenType != IDENT && !tokenType.isContextualKeyword() && !tokenType.isFutureStrict());
     }
 
@@ -2089,7 +2156,7 @@ public class Parser extends AbstractParser {
         if (ident.tokenType().isFutureStrict()) {
             return true;
         } else if (isEscapedIdent(ident)) {
-            TokenType tokenType = TokenLookup.lookupKeyword(ident.getName().toCharArray(), 0, ident.getName().length());
+            TokenType tokenType = TokenLookup.lookupKeyword(ident.getName(), 0, ident.getName().length());
             return (tokenType != IDENT && tokenType.isFutureStrict());
         }
         return false;
@@ -5162,7 +5229,10 @@ public class Parser extends AbstractParser {
                 bodyFinish = finish;
             } else {
                 expectDontAdvance(LBRACE);
-                if (parseBody || !skipFunctionBody(functionNode)) {
+                if (parseBody && canPreparseFunctionBody(functionNode) && preparseFunctionBody(functionNode)) {
+                    // The body is parsed in full when the function is first called.
+                    assert type == RBRACE;
+                } else if (parseBody || !skipFunctionBody(functionNode)) {
                     next();
                     // Gather the function elements.
                     final List<Statement> prevFunctionDecls = functionDeclarations;
@@ -5287,6 +5357,821 @@ public class Parser extends AbstractParser {
         return true;
     }
 
+    /**
+     * Bodies of plain function declarations and expressions can be pre-parsed if lazy parsing is
+     * enabled. Arrow functions, methods, generators, and async functions are always parsed in full.
+     */
+    private boolean canPreparseFunctionBody(final ParserContextFunctionNode functionNode) {
+        final int nonPlainFunction = FunctionNode.IS_PROGRAM | FunctionNode.IS_SCRIPT | FunctionNode.IS_MODULE | FunctionNode.IS_ARROW | FunctionNode.IS_METHOD |
+                        FunctionNode.IS_GETTER | FunctionNode.IS_SETTER | FunctionNode.IS_GENERATOR | FunctionNode.IS_ASYNC | FunctionNode.IS_CLASS_CONSTRUCTOR |
+                        FunctionNode.IS_CLASS_FIELD_INITIALIZER;
+        return env.lazyParsing && reparsedFunction == null && functionNode.getFlag(nonPlainFunction) == 0 && functionNode.getId() != lazyFunctionPosition;
+    }
+
+    /**
+     * Pre-parses a function body: checks its syntax without building an AST, collecting the names
+     * of all identifiers that may refer to bindings of enclosing scopes, so that the body can be
+     * parsed in full once the function is called (see {@link #parseLazyFunction(FunctionNode)}).
+     *
+     * The pre-parser only recognizes a subset of the language, for which it reports exactly the
+     * early errors of the full parser. It gives up on anything else, as well as on anything that
+     * affects the enclosing functions (like {@code eval}) and on any syntax error, in which case the
+     * lexer is reset to the opening brace and the body is parsed in full, reporting the error.
+     *
+     * @return true if the body has been pre-parsed and the current token is its closing brace
+     */
+    private boolean preparseFunctionBody(final ParserContextFunctionNode functionNode) {
+        assert type == LBRACE;
+        final ParserState bodyStart = new ParserState(start, line, linePosition);
+        final Set<String> identifiers = new HashSet<>();
+        preparseIdentifiers = identifiers;
+        try {
+            preparseFunctionBodyStatements();
+            final int functionPosition = functionNode.getId();
+            final int functionLinePosition = functionPosition - source.getColumn(functionPosition);
+            functionNode.setLazyBody(new LazyFunctionBody(functionPosition, functionNode.getLineNumber(), functionLinePosition, isModule,
+                            identifiers.toArray(new String[identifiers.size()])));
+            lazyFunctionCount++;
+            lazyFunctionLength += start + 1 - functionPosition;
+            return true;
+        } catch (final PreparseBailout | ParserException e) {
+            // Leave it to the full parse to report the error, if there is one.
+            return resetToFunctionBody(bodyStart);
+        } finally {
+            preparseIdentifiers = null;
+            preparseLoopDepth = 0;
+            preparseBreakableDepth = 0;
+        }
+    }
+
+    /**
+     * Thrown by the pre-parser if the source is not in the subset it recognizes or contains a
+     * syntax error.
+     */
+    @SuppressWarnings("serial")
+    private static final class PreparseBailout extends RuntimeException {
+        static final PreparseBailout INSTANCE = new PreparseBailout();
+
+        private PreparseBailout() {
+            super(null, null, false, false);
+        }
+    }
+
+    /** Identifiers collected by the pre-parser, or null if not pre-parsing. */
+    private Set<String> preparseIdentifiers;
+    private int preparseLoopDepth;
+    private int preparseBreakableDepth;
+
+    /** Results of pre-parsed expressions, as far as needed to check assignment targets. */
+    private static final int PREPARSED_OTHER = 0;
+    private static final int PREPARSED_IDENT = 1;
+    private static final int PREPARSED_MEMBER = 2;
+    private static final int PREPARSED_UNARY = 3;
+
+    private static PreparseBailout preparseBailout() {
+        return PreparseBailout.INSTANCE;
+    }
+
+    private void preparseExpect(final TokenType expected) {
+        if (type != expected) {
+            throw preparseBailout();
+        }
+        next();
+    }
+
+    private void preparseEndOfStatement() {
+        if (type == SEMICOLON) {
+            next();
+        } else if (type != RBRACE && last != EOL) {
+            throw preparseBailout();
+        }
+    }
+
+    /**
+     * Pre-parses the body of a function, from its opening to its closing brace (exclusive).
+     */
+    private void preparseFunctionBodyStatements() {
+        assert type == LBRACE;
+        next();
+        if (type == STRING || type == ESCSTRING) {
+            // Possibly a directive prologue that changes the strictness of the function.
+            throw preparseBailout();
+        }
+        final int outerLoopDepth = preparseLoopDepth;
+        final int outerBreakableDepth = preparseBreakableDepth;
+        preparseLoopDepth = 0;
+        preparseBreakableDepth = 0;
+        while (type != RBRACE) {
+            preparseStatementListItem();
+        }
+        preparseLoopDepth = outerLoopDepth;
+        preparseBreakableDepth = outerBreakableDepth;
+    }
+
+    private void preparseStatementListItem() {
+        if (type == FUNCTION) {
+            next();
+            preparseBindingIdentifier();
+            preparseFunctionRest();
+        } else {
+            preparseStatement();
+        }
+    }
+
+    private void preparseStatement() {
+        switch (type) {
+            case LBRACE:
+                preparseBlock();
+                break;
+            case SEMICOLON:
+                next();
+                break;
+            case VAR:
+                next();
+                preparseVariableDeclarationList(false);
+                preparseEndOfStatement();
+                break;
+            case IF:
+                next();
+                preparseParenthesizedExpression();
+                preparseStatement();
+                if (type == ELSE) {
+                    next();
+                    preparseStatement();
+                }
+                break;
+            case WHILE:
+                next();
+                preparseParenthesizedExpression();
+                preparseLoopBody();
+                break;
+            case DO:
+                next();
+                preparseLoopBody();
+                preparseExpect(WHILE);
+                preparseParenthesizedExpression();
+                if (type == SEMICOLON) {
+                    next();
+                }
+                break;
+            case FOR:
+                next();
+                preparseForHead();
+                preparseLoopBody();
+                break;
+            case CONTINUE:
+                next();
+                if (preparseLoopDepth == 0) {
+                    throw preparseBailout();
+                }
+                preparseEndOfStatement();
+                break;
+            case BREAK:
+                next();
+                if (preparseBreakableDepth == 0) {
+                    throw preparseBailout();
+                }
+                preparseEndOfStatement();
+                break;
+            case RETURN:
+                next();
+                if (last != EOL && type != SEMICOLON && type != RBRACE) {
+                    preparseExpression(false);
+                }
+                preparseEndOfStatement();
+                break;
+            case THROW:
+                next();
+                if (last == EOL) {
+                    throw preparseBailout();
+                }
+                preparseExpression(false);
+                preparseEndOfStatement();
+                break;
+            case TRY:
+                preparseTryStatement();
+                break;
+            case SWITCH:
+                preparseSwitchStatement();
+                break;
+            case WITH:
+                if (isStrictMode) {
+                    throw preparseBailout();
+                }
+                next();
+                preparseParenthesizedExpression();
+                preparseStatement();
+                break;
+            case DEBUGGER:
+                next();
+                preparseEndOfStatement();
+                break;
+            case FUNCTION:
+            case CLASS:
+            case LET:
+            case CONST:
+            case ASYNC:
+            case IMPORT:
+                // Declarations, in positions where they may or may not be allowed.
+                throw preparseBailout();
+            default:
+                preparseExpression(false);
+                if (type == COLON) {
+                    // Labelled statement.
+                    throw preparseBailout();
+                }
+                preparseEndOfStatement();
+                break;
+        }
+    }
+
+    private void preparseBlock() {
+        preparseExpect(LBRACE);
+        while (type != RBRACE) {
+            preparseStatementListItem();
+        }
+        next();
+    }
+
+    private void preparseLoopBody() {
+        preparseLoopDepth++;
+        preparseBreakableDepth++;
+        preparseStatement();
+        preparseLoopDepth--;
+        preparseBreakableDepth--;
+    }
+
+    private void preparseParenthesizedExpression() {
+        preparseExpect(LPAREN);
+        preparseExpression(false);
+        preparseExpect(RPAREN);
+    }
+
+    private void preparseVariableDeclarationList(final boolean noIn) {
+        while (true) {
+            preparseBindingIdentifier();
+            if (type == ASSIGN) {
+                next();
+                preparseAssignmentExpression(noIn);
+            }
+            if (type != COMMARIGHT) {
+                break;
+            }
+            next();
+        }
+    }
+
+    private void preparseForHead() {
+        preparseExpect(LPAREN);
+        if (type == VAR) {
+            next();
+            preparseBindingIdentifier();
+            if (type == IN || (type == OF && isES6())) {
+                next();
+                preparseForInOfRest();
+                return;
+            }
+            if (type == ASSIGN) {
+                next();
+                preparseAssignmentExpression(true);
+            }
+            if (type == COMMARIGHT) {
+                next();
+                preparseVariableDeclarationList(true);
+            }
+        } else if (type == LET || type == CONST || type == ASYNC) {
+            throw preparseBailout();
+        } else if (type != SEMICOLON) {
+            final int init = preparseExpression(true);
+            if (type == IN || (type == OF && isES6())) {
+                if (init != PREPARSED_IDENT && init != PREPARSED_MEMBER) {
+                    throw preparseBailout();
+                }
+                next();
+                preparseForInOfRest();
+                return;
+            }
+        }
+        preparseExpect(SEMICOLON);
+        if (type != SEMICOLON) {
+            preparseExpression(false);
+        }
+        preparseExpect(SEMICOLON);
+        if (type != RPAREN) {
+            preparseExpression(false);
+        }
+        preparseExpect(RPAREN);
+    }
+
+    private void preparseForInOfRest() {
+        // for-of takes an AssignmentExpression, for-in an Expression
+        preparseExpression(false);
+        preparseExpect(RPAREN);
+    }
+
+    private void preparseTryStatement() {
+        next();
+        preparseBlock();
+        boolean hasHandler = false;
+        if (type == CATCH) {
+            next();
+            if (type == LPAREN) {
+                next();
+                preparseBindingIdentifier();
+                preparseExpect(RPAREN);
+            } else if (env.ecmaScriptVersion < 10) {
+                throw preparseBailout();
+            }
+            preparseBlock();
+            hasHandler = true;
+        }
+        if (type == FINALLY) {
+            next();
+            preparseBlock();
+            hasHandler = true;
+        }
+        if (!hasHandler) {
+            throw preparseBailout();
+        }
+    }
+
+    private void preparseSwitchStatement() {
+        next();
+        preparseParenthesizedExpression();
+        preparseExpect(LBRACE);
+        preparseBreakableDepth++;
+        boolean hasDefault = false;
+        while (type != RBRACE) {
+            if (type == CASE) {
+                next();
+                preparseExpression(false);
+            } else if (type == DEFAULT && !hasDefault) {
+                next();
+                hasDefault = true;
+            } else {
+                throw preparseBailout();
+            }
+            preparseExpect(COLON);
+            while (type != CASE && type != DEFAULT && type != RBRACE) {
+                preparseStatementListItem();
+            }
+        }
+        next();
+        preparseBreakableDepth--;
+    }
+
+    /**
+     * Pre-parses the parameters and the body of a nested plain function. Only simple parameter
+     * lists are recognized.
+     */
+    private void preparseFunctionRest() {
+        preparseExpect(LPAREN);
+        final Set<String> parameters = new HashSet<>();
+        while (type != RPAREN) {
+            if (!parameters.add(preparseBindingIdentifier()) && isStrictMode) {
+                throw preparseBailout();
+            }
+            if (type == COMMARIGHT) {
+                next();
+                if (type == RPAREN && !isES2017()) {
+                    throw preparseBailout();
+                }
+            } else if (type != RPAREN) {
+                throw preparseBailout();
+            }
+        }
+        next();
+        if (type != LBRACE) {
+            throw preparseBailout();
+        }
+        preparseFunctionBodyStatements();
+        next();
+    }
+
+    private String preparseBindingIdentifier() {
+        final String name = preparseIdentifier();
+        if (isStrictMode && ARGUMENTS_NAME.equals(name)) {
+            throw preparseBailout();
+        }
+        next();
+        return name;
+    }
+
+    /**
+     * Checks that the current token is an identifier that may be used in this position, records
+     * it, and returns its name. Does not advance.
+     */
+    private String preparseIdentifier() {
+        final String name;
+        if (type == IDENT) {
+            name = (String) getValue();
+            if (name.length() != Token.descLength(token)) {
+                // An escaped identifier might spell a reserved word.
+                throw preparseBailout();
+            }
+        } else if ((type.isContextualKeyword() && type != AWAIT) || isNonStrictModeIdent()) {
+            name = type.getName();
+        } else {
+            throw preparseBailout();
+        }
+        if (EVAL_NAME.equals(name)) {
+            // Direct eval may access any binding of the enclosing functions.
+            throw preparseBailout();
+        } else if (!ARGUMENTS_NAME.equals(name)) {
+            preparseIdentifiers.add(name);
+        }
+        return name;
+    }
+
+    private int preparseExpression(final boolean noIn) {
+        int result = preparseAssignmentExpression(noIn);
+        while (type == COMMARIGHT) {
+            next();
+            preparseAssignmentExpression(noIn);
+            result = PREPARSED_OTHER;
+        }
+        return result;
+    }
+
+    private int preparseAssignmentExpression(final boolean noIn) {
+        final int lhs = preparseConditionalExpression(noIn);
+        switch (type) {
+            case ARROW:
+                throw preparseBailout();
+            case ASSIGN:
+            case ASSIGN_ADD:
+            case ASSIGN_SUB:
+            case ASSIGN_MUL:
+            case ASSIGN_DIV:
+            case ASSIGN_MOD:
+            case ASSIGN_SHL:
+            case ASSIGN_SAR:
+            case ASSIGN_SHR:
+            case ASSIGN_BIT_AND:
+            case ASSIGN_BIT_OR:
+            case ASSIGN_BIT_XOR:
+                if (lhs != PREPARSED_IDENT && lhs != PREPARSED_MEMBER) {
+                    // Destructuring, or an invalid assignment target.
+                    throw preparseBailout();
+                }
+                next();
+                preparseAssignmentExpression(noIn);
+                return PREPARSED_OTHER;
+            default:
+                if (type.isAssignment()) {
+                    throw preparseBailout();
+                }
+                return lhs;
+        }
+    }
+
+    private int preparseConditionalExpression(final boolean noIn) {
+        int result = preparseUnaryExpression();
+        while (true) {
+            switch (type) {
+                case IN:
+                    if (noIn) {
+                        return result;
+                    }
+                    // fall through
+                case NE:
+                case NE_STRICT:
+                case EQ:
+                case EQ_STRICT:
+                case LT:
+                case LE:
+                case GT:
+                case GE:
+                case INSTANCEOF:
+                case ADD:
+                case SUB:
+                case MUL:
+                case DIV:
+                case MOD:
+                case SHL:
+                case SAR:
+                case SHR:
+                case BIT_AND:
+                case BIT_OR:
+                case BIT_XOR:
+                case AND:
+                case OR:
+                    next();
+                    preparseUnaryExpression();
+                    result = PREPARSED_OTHER;
+                    break;
+                case TERNARY:
+                    next();
+                    preparseAssignmentExpression(false);
+                    preparseExpect(COLON);
+                    preparseAssignmentExpression(noIn);
+                    return PREPARSED_OTHER;
+                case EXP:
+                case NULLISHCOALESC:
+                    // Not allowed next to some other operators.
+                    throw preparseBailout();
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private int preparseUnaryExpression() {
+        switch (type) {
+            case DELETE:
+                next();
+                if (preparseUnaryExpression() == PREPARSED_IDENT && isStrictMode) {
+                    throw preparseBailout();
+                }
+                return PREPARSED_UNARY;
+            case VOID:
+            case TYPEOF:
+            case ADD:
+            case SUB:
+            case BIT_NOT:
+            case NOT:
+                next();
+                preparseUnaryExpression();
+                return PREPARSED_UNARY;
+            case INCPREFIX:
+            case DECPREFIX:
+                next();
+                preparseCheckUpdateTarget(preparseUnaryExpression());
+                return PREPARSED_UNARY;
+            default:
+                break;
+        }
+        final int expression = preparseLeftHandSideExpression();
+        if (last != EOL && (type == INCPREFIX || type == DECPREFIX)) {
+            preparseCheckUpdateTarget(expression);
+            next();
+            return PREPARSED_OTHER;
+        }
+        return expression;
+    }
+
+    private static void preparseCheckUpdateTarget(final int expression) {
+        if (expression != PREPARSED_IDENT && expression != PREPARSED_MEMBER) {
+            throw preparseBailout();
+        }
+    }
+
+    private int preparseLeftHandSideExpression() {
+        int result;
+        if (type == NEW) {
+            next();
+            if (type == PERIOD) {
+                // new.target
+                throw preparseBailout();
+            }
+            // The member expression of `new X(...)` must not contain a call.
+            preparseMemberExpressionRest(preparseNewTarget(), false);
+            if (type == LPAREN) {
+                preparseArguments();
+            }
+            result = PREPARSED_OTHER;
+        } else {
+            result = preparsePrimaryExpression();
+        }
+        return preparseMemberExpressionRest(result, true);
+    }
+
+    private int preparseNewTarget() {
+        if (type == NEW) {
+            return preparseLeftHandSideExpression();
+        }
+        return preparsePrimaryExpression();
+    }
+
+    private int preparseMemberExpressionRest(final int expression, final boolean allowCall) {
+        int result = expression;
+        while (true) {
+            switch (type) {
+                case PERIOD:
+                    next();
+                    if (type != IDENT && !isIdentifierName()) {
+                        throw preparseBailout();
+                    }
+                    next();
+                    result = PREPARSED_MEMBER;
+                    break;
+                case LBRACKET:
+                    next();
+                    preparseExpression(false);
+                    preparseExpect(RBRACKET);
+                    result = PREPARSED_MEMBER;
+                    break;
+                case LPAREN:
+                    if (!allowCall) {
+                        return result;
+                    }
+                    preparseArguments();
+                    result = PREPARSED_OTHER;
+                    break;
+                case OPTIONAL_CHAIN:
+                case TEMPLATE:
+                case TEMPLATE_HEAD:
+                    throw preparseBailout();
+                default:
+                    return result;
+            }
+        }
+    }
+
+    private void preparseArguments() {
+        preparseExpect(LPAREN);
+        while (type != RPAREN) {
+            if (type == ELLIPSIS) {
+                if (!isES6()) {
+                    throw preparseBailout();
+                }
+                next();
+            }
+            preparseAssignmentExpression(false);
+            if (type == COMMARIGHT) {
+                next();
+                if (type == RPAREN && !isES2017()) {
+                    throw preparseBailout();
+                }
+            } else if (type != RPAREN) {
+                throw preparseBailout();
+            }
+        }
+        next();
+    }
+
+    private int preparsePrimaryExpression() {
+        switch (type) {
+            case THIS:
+                next();
+                return PREPARSED_OTHER;
+            case TRUE:
+            case FALSE:
+            case NULL:
+            case STRING:
+            case DECIMAL:
+            case HEXADECIMAL:
+            case OCTAL:
+            case BINARY_NUMBER:
+            case BIGINT:
+            case FLOATING:
+            case ESCSTRING:
+                // checks numbers and escape sequences
+                getValue();
+                next();
+                return PREPARSED_OTHER;
+            case NON_OCTAL_DECIMAL:
+            case OCTAL_LEGACY:
+                if (isStrictMode) {
+                    throw preparseBailout();
+                }
+                getValue();
+                next();
+                return PREPARSED_OTHER;
+            case DIV:
+            case ASSIGN_DIV:
+                if (!lexer.scanLiteral(token, type, lineInfoReceiver)) {
+                    throw preparseBailout();
+                }
+                next();
+                final Object regex = getValue();
+                if (!(regex instanceof Lexer.LexerToken)) {
+                    throw preparseBailout();
+                }
+                validateLexerToken((Lexer.LexerToken) regex);
+                next();
+                return PREPARSED_OTHER;
+            case LBRACKET:
+                preparseArrayLiteral();
+                return PREPARSED_OTHER;
+            case LBRACE:
+                preparseObjectLiteral();
+                return PREPARSED_OTHER;
+            case LPAREN: {
+                next();
+                final int expression = preparseExpression(false);
+                preparseExpect(RPAREN);
+                if (type == ARROW) {
+                    throw preparseBailout();
+                }
+                return expression == PREPARSED_IDENT || expression == PREPARSED_MEMBER ? expression : PREPARSED_OTHER;
+            }
+            case FUNCTION:
+                next();
+                if (type != LPAREN) {
+                    preparseBindingIdentifier();
+                }
+                preparseFunctionRest();
+                return PREPARSED_OTHER;
+            default: {
+                final String name = preparseIdentifier();
+                next();
+                return isStrictMode && ARGUMENTS_NAME.equals(name) ? PREPARSED_OTHER : PREPARSED_IDENT;
+            }
+        }
+    }
+
+    private void preparseArrayLiteral() {
+        next();
+        while (type != RBRACKET) {
+            if (type == COMMARIGHT) {
+                next();
+                continue;
+            }
+            if (type == ELLIPSIS) {
+                if (!isES6()) {
+                    throw preparseBailout();
+                }
+                next();
+            }
+            preparseAssignmentExpression(false);
+            if (type == COMMARIGHT) {
+                next();
+            } else if (type != RBRACKET) {
+                throw preparseBailout();
+            }
+        }
+        next();
+    }
+
+    private void preparseObjectLiteral() {
+        next();
+        boolean hasProto = false;
+        while (type != RBRACE) {
+            if (type == LBRACKET && isES6()) {
+                next();
+                preparseAssignmentExpression(false);
+                preparseExpect(RBRACKET);
+                preparseExpect(COLON);
+                preparseAssignmentExpression(false);
+            } else if (type == IDENT || type == STRING || type == ESCSTRING || type == DECIMAL || type == FLOATING || isIdentifierName()) {
+                final TokenType nameType = type;
+                final long nameToken = token;
+                final Object name = type == IDENT || type == STRING || type == ESCSTRING ? getValue() : null;
+                final boolean shorthand = nameType == IDENT || nameType.isContextualKeyword() || nameType.getKind() == TokenKind.FUTURESTRICT;
+                next();
+                if (type == COLON) {
+                    next();
+                    preparseAssignmentExpression(false);
+                    if (PROTO_NAME.equals(name)) {
+                        if (hasProto) {
+                            throw preparseBailout();
+                        }
+                        hasProto = true;
+                    }
+                } else if ((type == COMMARIGHT || type == RBRACE) && shorthand && isES6()) {
+                    if (nameType == IDENT && ((String) name).length() != Token.descLength(nameToken)) {
+                        throw preparseBailout();
+                    }
+                    if (EVAL_NAME.equals(name) || (nameType != IDENT && (nameType == AWAIT || (isStrictMode && nameType.getKind() == TokenKind.FUTURESTRICT)))) {
+                        throw preparseBailout();
+                    }
+                    final String identifier = nameType == IDENT ? (String) name : nameType.getName();
+                    if (!ARGUMENTS_NAME.equals(identifier)) {
+                        preparseIdentifiers.add(identifier);
+                    }
+                } else {
+                    // Methods, accessors, and initializers.
+                    throw preparseBailout();
+                }
+            } else {
+                throw preparseBailout();
+            }
+            if (type == COMMARIGHT) {
+                next();
+            } else if (type != RBRACE) {
+                throw preparseBailout();
+            }
+        }
+        next();
+    }
+
+    private boolean resetToFunctionBody(final ParserState bodyStart) {
+        stream.reset();
+        lexer.restoreState(new Lexer.State(bodyStart.position, Integer.MAX_VALUE, bodyStart.line, -1, bodyStart.linePosition, SEMICOLON));
+        line = bodyStart.line;
+        linePosition = bodyStart.linePosition;
+        type = SEMICOLON;
+        scanFirstToken();
+        assert type == LBRACE;
+        return false;
+    }
+
+    /**
+     * Returns the number of function bodies that have only been pre-parsed so far.
+     */
+    public int getLazyFunctionCount() {
+        return lazyFunctionCount;
+    }
+
+    /**
+     * Returns the total source length of the functions whose bodies have only been pre-parsed so
+     * far.
+     */
+    public int getLazyFunctionLength() {
+        return lazyFunctionLength;
+    }
+
     /**
      * Encapsulates part of the state of the parser, enough to reconstruct the state of both parser
      * and lexer for resuming parsing after skipping a function body.
@@ -5304,7 +6189,8 @@ public class Parser extends AbstractParser {
 
         Lexer createLexer(final Source source, final Lexer lexer, final TokenStream stream,
                         final boolean scripting, final int ecmaScriptVersion, final boolean shebang, final boolean isModule, final boolean allowBigInt) {
-            final Lexer newLexer = new Lexer(source, position, lexer.limit - position, stream, scripting, ecmaScriptVersion, shebang, isModule, true, allowBigInt);
+            final Lexer newLexer = new Lexer(source, position, lexer.limit - position, stream, scripting, ecmaScriptVersion, shebang, isModule, true, allowBigInt,
+                            lexer.internedStrings);
             newLexer.restoreState(new Lexer.State(position, Integer.MAX_VALUE, line, -1, linePosition, SEMICOLON));
             return newLexer;
         }
@@ -49,6 +49,7 @@ import com.oracle.js.parser.ir.Expression;
 import com.oracle.js.parser.ir.ExpressionStatement;
 import com.oracle.js.parser.ir.FunctionNode;
 import com.oracle.js.parser.ir.IdentNode;
+import com.oracle.js.parser.ir.LazyFunctionBody;
 import com.oracle.js.parser.ir.Module;
 import com.oracle.js.parser.ir.ParameterNode;
 import com.oracle.js.parser.ir.Scope;
@@ -90,6 +91,9 @@ class ParserContextFunctionNode extends ParserContextBaseNode {
     /** Opaque node for parser end state, see {@link Parser} */
     private Object endParserState;
 
+    /** Pre-parse state if the body of this function was skipped, see {@link Parser} */
+    private LazyFunctionBody lazyBody;
+
     private int length;
     private int parameterCount;
     private IdentNode duplicateParameterBinding;
@@ -246,6 +250,14 @@ class ParserContextFunctionNode extends ParserContextBaseNode {
         this.endParserState = endParserState;
     }
 
+    public LazyFunctionBody getLazyBody() {
+        return lazyBody;
+    }
+
+    public void setLazyBody(final LazyFunctionBody lazyBody) {
+        this.lazyBody = lazyBody;
+    }
+
     /**
      * Returns the if of this function
      *
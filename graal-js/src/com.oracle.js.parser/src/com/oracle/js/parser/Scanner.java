@@ -42,11 +42,11 @@
 package com.oracle.js.parser;
 
 /**
- * Utility for scanning thru a char array.
+ * Utility for scanning thru a char sequence.
  */
 public class Scanner {
-    /** Characters to scan. */
-    protected final char[] content;
+    /** Characters to scan. This is the original source content, it is not copied. */
+    protected final CharSequence content;
 
     /** Position in content. */
     protected int position;
@@ -74,7 +74,7 @@ public class Scanner {
      * @param start position index in content where to start
      * @param length length of input
      */
-    protected Scanner(final char[] content, final int line, final int start, final int length) {
+    protected Scanner(final CharSequence content, final int line, final int start, final int length) {
         this.content = content;
         this.position = start;
         this.limit = start + length;
@@ -173,7 +173,7 @@ public class Scanner {
      */
     protected final char charAt(final int i) {
         // Get a character from the content, '\0' if beyond the end of file.
-        return i < limit ? content[i] : '\0';
+        return i < limit ? content.charAt(i) : '\0';
     }
 
     /**
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.oracle.js.parser;
+
+import java.util.function.Function;
+
+/**
+ * String intern table used by the lexer. In addition to interning strings, it can look up a range
+ * of the source content directly, so that no substring has to be allocated for identifiers and
+ * string literals that have been seen before. Strings that are new to the table can be passed to
+ * a shared interner, e.g. one that is used by all parses of an engine.
+ */
+final class StringTable {
+    /** Initial table size, must be a power of two. */
+    private static final int INITIAL_SIZE = 256;
+
+    /** Open addressing hash table of interned strings. */
+    private String[] table;
+
+    /** Number of interned strings. */
+    private int count;
+
+    /** Interner consulted for strings that are new to this table, or {@code null}. */
+    private final Function<String, String> sharedInterner;
+
+    StringTable(final Function<String, String> sharedInterner) {
+        this.table = new String[INITIAL_SIZE];
+        this.sharedInterner = sharedInterner;
+    }
+
+    /**
+     * Intern a string.
+     *
+     * @param candidate the string
+     * @return an equal string, the first one interned
+     */
+    String intern(final String candidate) {
+        final int mask = table.length - 1;
+        int index = candidate.hashCode() & mask;
+        for (String entry = table[index]; entry != null; entry = table[index]) {
+            if (entry.equals(candidate)) {
+                return entry;
+            }
+            index = (index + 1) & mask;
+        }
+        return insert(index, candidate);
+    }
+
+    /**
+     * Intern a range of a character sequence. The substring is only created if no equal string
+     * has been interned yet.
+     *
+     * @param content the character sequence
+     * @param start start of the range
+     * @param length length of the range
+     * @return an interned string equal to the range
+     */
+    String intern(final CharSequence content, final int start, final int length) {
+        // Same hash function as String.hashCode().
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + content.charAt(start + i);
+        }
+        final int mask = table.length - 1;
+        int index = hash & mask;
+        for (String entry = table[index]; entry != null; entry = table[index]) {
+            if (regionMatches(entry, content, start, length)) {
+                return entry;
+            }
+            index = (index + 1) & mask;
+        }
+        return insert(index, content.subSequence(start, start + length).toString());
+    }
+
+    private static boolean regionMatches(final String entry, final CharSequence content, final int start, final int length) {
+        if (entry.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (entry.charAt(i) != content.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String insert(final int index, final String candidate) {
+        final String interned = sharedInterner == null ? candidate : sharedInterner.apply(candidate);
+        table[index] = interned;
+        // Keep the load factor below 1/2.
+        if (++count * 2 > table.length) {
+            rehash();
+        }
+        return interned;
+    }
+
+    private void rehash() {
+        final String[] oldTable = table;
+        final String[] newTable = new String[oldTable.length * 2];
+        final int mask = newTable.length - 1;
+        for (String entry : oldTable) {
+            if (entry != null) {
+                int index = entry.hashCode() & mask;
+                while (newTable[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                newTable[index] = entry;
+            }
+        }
+        table = newTable;
+    }
+}
@@ -102,6 +102,9 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
 
     private boolean usesAncestorScope;
 
+    /** Pre-parse state if the body of this function has not been parsed yet. */
+    private LazyFunctionBody lazyBody;
+
     /** Is anonymous function flag. */
     public static final int IS_ANONYMOUS = 1 << 0;
 
@@ -238,6 +241,10 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
     /** Is this function a class field initializer? */
     public static final int IS_CLASS_FIELD_INITIALIZER = 1 << 30;
 
+    /** Flags that are derived from the function body rather than from the function header. */
+    private static final int BODY_FLAGS = USES_ARGUMENTS | DEFINES_ARGUMENTS | USES_THIS | USES_SELF_SYMBOL | HAS_SCOPE_BLOCK |
+                    HAS_FUNCTION_DECLARATIONS | HAS_APPLY_ARGUMENTS_CALL | HAS_ARROW_EVAL;
+
     /**
      * Constructor
      *
@@ -316,6 +323,7 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         this.numOfParams = functionNode.numOfParams;
         this.module = functionNode.module;
         this.internalName = functionNode.internalName;
+        this.lazyBody = functionNode.lazyBody;
     }
 
     @Override
@@ -756,6 +764,43 @@ public final class FunctionNode extends LexicalContextExpression implements Flag
         this.usesAncestorScope = usesAncestorScope;
     }
 
+    /**
+     * Returns true if the body of this function has only been pre-parsed and is still empty.
+     */
+    public boolean isLazilyParsed() {
+        return lazyBody != null;
+    }
+
+    public LazyFunctionBody getLazyBody() {
+        return lazyBody;
+    }
+
+    public void setLazyBody(LazyFunctionBody lazyBody) {
+        this.lazyBody = lazyBody;
+    }
+
+    /**
+     * Returns a copy of this lazily parsed function with the body, and the flags that depend on
+     * the body, taken from the given full parse of the same function.
+     *
+     * @param parsed the fully parsed function
+     * @return the function with the parsed body
+     */
+    public FunctionNode withParsedBody(final FunctionNode parsed) {
+        assert isLazilyParsed() && !parsed.isLazilyParsed() && parsed.getStart() == getStart();
+        FunctionNode functionNode = new FunctionNode(
+                        this,
+                        parsed.lastToken,
+                        parsed.endParserState,
+                        flags | (parsed.flags & BODY_FLAGS),
+                        name,
+                        parsed.body,
+                        parsed.parameters,
+                        source);
+        functionNode.lazyBody = null;
+        return functionNode;
+    }
+
     public boolean isNormal() {
         return !getFlag(IS_SCRIPT | IS_MODULE | IS_GETTER | IS_SETTER | IS_METHOD | IS_ARROW | IS_GENERATOR | IS_ASYNC);
     }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.js.parser.ir;
+
+/**
+ * Parser state of a function whose body has only been pre-parsed. The body of such a function is
+ * empty; it is parsed in full, starting from the function keyword, when the function is first
+ * needed.
+ */
+public final class LazyFunctionBody {
+    private final int position;
+    private final int line;
+    private final int linePosition;
+    private final boolean module;
+    private final String[] identifiers;
+
+    public LazyFunctionBody(int position, int line, int linePosition, boolean module, String[] identifiers) {
+        this.position = position;
+        this.line = line;
+        this.linePosition = linePosition;
+        this.module = module;
+        this.identifiers = identifiers;
+    }
+
+    /**
+     * Source position of the function keyword.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Line of the function keyword.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * Source position of the start of the line of the function keyword.
+     */
+    public int getLinePosition() {
+        return linePosition;
+    }
+
+    /**
+     * Whether the function is part of module code.
+     */
+    public boolean isModule() {
+        return module;
+    }
+
+    /**
+     * Names of all identifiers that occur in the skipped body and may refer to bindings of
+     * enclosing scopes (a superset of the free variables of the body).
+     */
+    public String[] getIdentifiers() {
+        return identifiers;
+    }
+}
@@ -123,9 +123,7 @@ public class BinaryDecoder {
     public byte[] getByteArray() {
         int size = getUInt();
         byte[] array = new byte[size];
-        for (int i = 0; i < size; i++) {
-            array[i] = (byte) getU1();
-        }
+        buffer.get(array);
         return array;
     }
 
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Atomics operations on a SharedArrayBuffer executed concurrently by several agents, each
+ * running on its own thread. In every round, each agent performs {@code iterations} Atomics.add
+ * and Atomics.compareExchange increments, either all on the same element ({@code shared}) or each
+ * on its own element (placed on separate cache lines). The score is rounds per second; run with
+ * increasing {@code agents} to see how the operations scale across cores.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHAtomicsBenchmark {
+    /** Int32 elements between the counters of two agents. */
+    private static final int STRIDE = 16;
+
+    @State(Scope.Thread)
+    public static class MyState {
+        @Param({"1", "2", "4", "8"}) int agents;
+        @Param({"100000"}) int iterations;
+
+        Context context;
+        Value sab;
+        Value round;
+        Value stop;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.newBuilder("js").allowExperimentalOptions(true).option("js.test262-mode", "true").build();
+            for (int id = 0; id < agents; id++) {
+                context.eval("js", "$262.agent.start(`" +
+                                "  $262.agent.receiveBroadcast(function(sab) {" +
+                                "    const i32a = new Int32Array(sab);" +
+                                "    if (Atomics.load(i32a, 0) < 0) { $262.agent.leaving(); return; }" +
+                                "    const index = Atomics.load(i32a, 0) === 0 ? " + STRIDE + " : " + STRIDE * (id + 2) + ";" +
+                                "    for (let i = 0; i < " + iterations + "; i++) {" +
+                                "      Atomics.add(i32a, index, 1);" +
+                                "      let v;" +
+                                "      do { v = Atomics.load(i32a, index); } while (Atomics.compareExchange(i32a, index, v, v + 1) !== v);" +
+                                "    }" +
+                                "    Atomics.add(i32a, 1, 1);" +
+                                "  });" +
+                                "`);");
+            }
+            sab = context.eval("js", "new SharedArrayBuffer(" + 4 * STRIDE * (agents + 2) + ")");
+            round = context.eval("js", "(function(sab, agents, mode) {" +
+                            "  const i32a = new Int32Array(sab);" +
+                            "  Atomics.store(i32a, 0, mode);" +
+                            "  Atomics.store(i32a, 1, 0);" +
+                            "  $262.agent.broadcast(sab);" +
+                            "  while (Atomics.load(i32a, 1) < agents) {}" +
+                            "  return Atomics.load(i32a, " + STRIDE + ");" +
+                            "})");
+            stop = context.eval("js", "(function(sab) { Atomics.store(new Int32Array(sab), 0, -1); $262.agent.broadcast(sab); })");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            stop.execute(sab);
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Value testShared(MyState state) {
+        return state.round.execute(state.sab, state.agents, 0);
+    }
+
+    @Benchmark
+    public Value testPerAgent(MyState state) {
+        return state.round.execute(state.sab, state.agents, 1);
+    }
+}
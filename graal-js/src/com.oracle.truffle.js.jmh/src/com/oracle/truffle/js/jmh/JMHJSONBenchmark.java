@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures JSON.stringify and JSON.parse on an array of identically shaped records and on a
+ * deeply nested document. Run against two revisions to compare them.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHJSONBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        @Param({"10000"}) int records;
+        @Param({"200"}) int depth;
+
+        Context context;
+        Value stringify;
+        Value parse;
+        Value recordArray;
+        Value nestedDocument;
+        String recordArrayText;
+        String nestedDocumentText;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.create("js");
+            stringify = context.eval("js", "(function(value, space) { return JSON.stringify(value, null, space); })");
+            parse = context.eval("js", "JSON.parse");
+            recordArray = context.eval("js", "(function(n) {" +
+                            "  var result = [];" +
+                            "  for (var i = 0; i < n; i++) {" +
+                            "    result.push({id: i, name: 'record \"' + i + '\"', price: i * 0.25, active: (i & 1) === 0, tags: ['a', 'b'], owner: {id: i % 97, email: 'user' + i + '@example.com'}});" +
+                            "  }" +
+                            "  return result;" +
+                            "})").execute(records);
+            nestedDocument = context.eval("js", "(function(depth) {" +
+                            "  var root = {level: 0, children: []};" +
+                            "  var current = root;" +
+                            "  for (var i = 1; i < depth; i++) {" +
+                            "    var next = {level: i, label: 'node' + i, children: []};" +
+                            "    current.children.push(next, {leaf: true, level: i});" +
+                            "    current = next;" +
+                            "  }" +
+                            "  return root;" +
+                            "})").execute(depth);
+            recordArrayText = stringify.execute(recordArray).asString();
+            nestedDocumentText = stringify.execute(nestedDocument).asString();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Value testStringifyRecords(MyState state) {
+        return state.stringify.execute(state.recordArray);
+    }
+
+    @Benchmark
+    public Value testStringifyRecordsIndented(MyState state) {
+        return state.stringify.execute(state.recordArray, 2);
+    }
+
+    @Benchmark
+    public Value testStringifyNested(MyState state) {
+        return state.stringify.execute(state.nestedDocument);
+    }
+
+    @Benchmark
+    public Value testParseRecords(MyState state) {
+        return state.parse.execute(state.recordArrayText);
+    }
+
+    @Benchmark
+    public Value testParseNested(MyState state) {
+        return state.parse.execute(state.nestedDocumentText);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures megamorphic property accesses: reads of an own property, of a property inherited
+ * through a few prototypes, and of an absent property, as well as {@code in} checks, over objects
+ * of many different shapes. Compare {@code cacheSize} 0 (megamorphic property cache disabled) with
+ * the default size to see the gain of the cache.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHMegamorphicPropertyBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        @Param({"0", "1024"}) String cacheSize;
+        @Param({"64"}) int shapes;
+
+        Context context;
+        Value getOwn;
+        Value getInherited;
+        Value getAbsent;
+        Value hasInherited;
+        Value objects;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            context = Context.newBuilder("js").allowExperimentalOptions(true).option("js.megamorphic-property-cache-size", cacheSize).build();
+            objects = context.eval("js", "(function(n) {" +
+                            "  var base = {inherited: 1};" +
+                            "  var middle = Object.create(base); middle.m = 2;" +
+                            "  var result = [];" +
+                            "  for (var i = 0; i < n; i++) {" +
+                            "    var o = Object.create(Object.create(middle));" +
+                            "    o['p' + i] = i; o.own = i;" +
+                            "    result.push(o);" +
+                            "  }" +
+                            "  return result;" +
+                            "})").execute(shapes);
+            getOwn = context.eval("js", "(function(objects) { var sum = 0; for (var k = 0; k < 100; k++) for (var i = 0; i < objects.length; i++) sum += objects[i].own; return sum; })");
+            getInherited = context.eval("js",
+                            "(function(objects) { var sum = 0; for (var k = 0; k < 100; k++) for (var i = 0; i < objects.length; i++) sum += objects[i].inherited; return sum; })");
+            getAbsent = context.eval("js",
+                            "(function(objects) { var n = 0; for (var k = 0; k < 100; k++) for (var i = 0; i < objects.length; i++) if (objects[i].absent === undefined) n++; return n; })");
+            hasInherited = context.eval("js", "(function(objects) { var n = 0; for (var k = 0; k < 100; k++) for (var i = 0; i < objects.length; i++) if ('m' in objects[i]) n++; return n; })");
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Value testGetOwn(MyState state) {
+        return state.getOwn.execute(state.objects);
+    }
+
+    @Benchmark
+    public Value testGetInherited(MyState state) {
+        return state.getInherited.execute(state.objects);
+    }
+
+    @Benchmark
+    public Value testGetAbsent(MyState state) {
+        return state.getAbsent.execute(state.objects);
+    }
+
+    @Benchmark
+    public Value testHasInherited(MyState state) {
+        return state.hasInherited.execute(state.objects);
+    }
+}
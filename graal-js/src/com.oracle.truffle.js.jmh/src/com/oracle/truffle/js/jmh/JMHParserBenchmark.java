@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.js.parser.ErrorManager;
+import com.oracle.js.parser.Parser;
+import com.oracle.js.parser.ScriptEnvironment;
+import com.oracle.js.parser.Source;
+import com.oracle.js.parser.ir.FunctionNode;
+
+/**
+ * Measures the throughput of the parser on a large generated script. Run with {@code -prof gc} to
+ * also compare the allocation rate of the lexer.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHParserBenchmark {
+    @State(Scope.Thread)
+    public static class MyState {
+        @Param({"5000"}) int functions;
+
+        ScriptEnvironment env;
+        String script;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            env = ScriptEnvironment.builder().ecmaScriptVersion(11).build();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < functions; i++) {
+                sb.append("function compute").append(i).append("(input, options) {\n");
+                sb.append("  var total = 0, label = 'item-").append(i % 100).append("';\n");
+                sb.append("  for (var index = 0; index < input.length; index++) {\n");
+                sb.append("    if (input[index].enabled && options.filter !== \"none\") {\n");
+                sb.append("      total += input[index].value * ").append(i).append(";\n");
+                sb.append("    }\n");
+                sb.append("  }\n");
+                sb.append("  return {label: label, total: total, text: `total: ${total}`};\n");
+                sb.append("}\n");
+            }
+            script = sb.toString();
+        }
+    }
+
+    @Benchmark
+    public FunctionNode testParse(MyState state) {
+        Source source = Source.sourceFor("benchmark.js", state.script);
+        return new Parser(state.env, source, new ErrorManager.ThrowErrorManager()).parse();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.jmh;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
+
+/**
+ * Measures the evaluation of a small rule script through the JSR-223 script engine: evaluated from
+ * its source every time ({@code testEval}), as a {@link CompiledScript} ({@code testCompiled}), and
+ * as a compiled script alternately evaluated in two {@link ScriptContext}s
+ * ({@code testCompiledAlternatingContexts}), which requires parsing it again whenever the context
+ * changes.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(2)
+public class JMHScriptEngineBenchmark {
+    private static final String RULE = "amount > 1000 && country !== 'CH' ? 'review' : 'accept'";
+
+    @State(Scope.Thread)
+    public static class MyState {
+        GraalJSScriptEngine engine;
+        CompiledScript compiled;
+        ScriptContext otherContext;
+        boolean useOtherContext;
+
+        @Setup(Level.Trial)
+        public void doSetup() throws ScriptException {
+            engine = GraalJSScriptEngine.create();
+            engine.put("amount", 1500);
+            engine.put("country", "AT");
+            compiled = ((Compilable) engine).compile(RULE);
+
+            Bindings bindings = engine.createBindings();
+            bindings.put("amount", 500);
+            bindings.put("country", "CH");
+            otherContext = new SimpleScriptContext();
+            otherContext.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            engine.close();
+        }
+    }
+
+    @Benchmark
+    public Object testEval(MyState state) throws ScriptException {
+        return state.engine.eval(RULE);
+    }
+
+    @Benchmark
+    public Object testCompiled(MyState state) throws ScriptException {
+        return state.compiled.eval();
+    }
+
+    @Benchmark
+    public Object testCompiledAlternatingContexts(MyState state) throws ScriptException {
+        state.useOtherContext = !state.useOtherContext;
+        return state.compiled.eval(state.useOtherContext ? state.otherContext : state.engine.getContext());
+    }
+}
@@ -40,7 +40,12 @@
  */
 package com.oracle.truffle.js.parser;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
 
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.codec.BinaryDecoder;
@@ -52,9 +57,18 @@ import com.oracle.truffle.js.runtime.JSContext;
 public class BinarySnapshotProvider implements SnapshotProvider {
     public static final int MAGIC = 0x314e4942;
     private final ByteBuffer buffer;
+    private final IntConsumer extractedCodeVerifier;
 
     public BinarySnapshotProvider(ByteBuffer buffer) {
+        this(buffer, null);
+    }
+
+    /**
+     * @param extractedCodeVerifier see {@link JSNodeDecoder#JSNodeDecoder(IntConsumer)}
+     */
+    public BinarySnapshotProvider(ByteBuffer buffer, IntConsumer extractedCodeVerifier) {
         this.buffer = buffer;
+        this.extractedCodeVerifier = extractedCodeVerifier;
         assert checkFormat(new BinaryDecoder(buffer));
     }
 
@@ -74,6 +88,29 @@ public class BinarySnapshotProvider implements SnapshotProvider {
         this(ByteBuffer.wrap(bytes));
     }
 
+    /**
+     * Creates a snapshot provider backed by a read-only memory mapping of the given file. Lazily
+     * decoded functions keep referring to the mapping, so function bodies that are never called
+     * are never paged in nor copied onto the Java heap.
+     */
+    public static BinarySnapshotProvider fromFile(Path file) throws IOException {
+        return new BinarySnapshotProvider(map(file));
+    }
+
+    /**
+     * Maps the given file read-only into memory. The mapping stays valid after the channel has
+     * been closed.
+     */
+    public static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return map(channel);
+        }
+    }
+
+    static ByteBuffer map(FileChannel channel) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
     @Override
     public Object apply(NodeFactory nodeFactory, JSContext context, Source source) {
         BinaryDecoder decoder = new BinaryDecoder(buffer);
@@ -84,6 +121,6 @@ public class BinarySnapshotProvider implements SnapshotProvider {
         if (code.length() != sourceLength || code.hashCode() != sourceHash) {
             throw new IllegalArgumentException("Snapshot verification failed");
         }
-        return new JSNodeDecoder().decodeNode(new NodeDecoder.DecoderState(decoder), nodeFactory, context, source);
+        return new JSNodeDecoder(extractedCodeVerifier).decodeNode(new NodeDecoder.DecoderState(decoder), nodeFactory, context, source);
     }
 }
@@ -54,7 +54,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
 
+import com.oracle.js.parser.Lexer.RegexToken;
 import com.oracle.js.parser.ir.Expression;
+import com.oracle.js.parser.ir.FunctionNode;
 import com.oracle.js.parser.ir.Module;
 import com.oracle.js.parser.ir.Module.ExportEntry;
 import com.oracle.truffle.api.CallTarget;
@@ -113,6 +115,7 @@ import com.oracle.truffle.js.runtime.objects.JSModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.JSModuleRecord.Status;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.PreparsedModule;
 import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
@@ -271,6 +274,9 @@ public final class GraalJSEvaluator implements JSParser {
             return fakeScriptForModule(context, source);
         }
         try {
+            if (PersistentCodeCache.isCacheable(context, source, prolog, epilog)) {
+                return PersistentCodeCache.parseScript(context, source, context.getParserOptions().isStrict());
+            }
             return JavaScriptTranslator.translateScript(NodeFactory.getInstance(context), context, source, context.getParserOptions().isStrict(), prolog, epilog);
         } catch (com.oracle.js.parser.ParserException e) {
             throw Errors.createSyntaxError(e.getMessage());
@@ -394,6 +400,49 @@ public final class GraalJSEvaluator implements JSParser {
         }
     }
 
+    @Override
+    public PreparsedModule preparseModule(JSContext context, Source source) {
+        JSParserOptions parserOptions = context.getParserOptions().putStrict(true);
+        List<RegexToken> regexLiterals = new ArrayList<>();
+        FunctionNode parsed = GraalJSParserHelper.parseModule(context, source, parserOptions, regexLiterals);
+        return new ParsedModule(source, parsed, parserOptions, regexLiterals);
+    }
+
+    @TruffleBoundary
+    @Override
+    public JSModuleRecord parseModule(JSContext context, PreparsedModule preparsedModule, JSModuleLoader moduleLoader) {
+        ParsedModule parsedModule = (ParsedModule) preparsedModule;
+        if (!GraalJSParserHelper.validateRegexLiterals(context, parsedModule.regexLiterals, parsedModule.parserOptions)) {
+            // parse again to report the error exactly as an eager parse would
+            return parseModule(context, parsedModule.source, moduleLoader);
+        }
+        return JavaScriptTranslator.translateModule(NodeFactory.getInstance(context), context, parsedModule.source, moduleLoader, parsedModule.functionNode);
+    }
+
+    private static final class ParsedModule implements PreparsedModule {
+        final Source source;
+        final FunctionNode functionNode;
+        final JSParserOptions parserOptions;
+        final List<RegexToken> regexLiterals;
+
+        ParsedModule(Source source, FunctionNode functionNode, JSParserOptions parserOptions, List<RegexToken> regexLiterals) {
+            this.source = source;
+            this.functionNode = functionNode;
+            this.parserOptions = parserOptions;
+            this.regexLiterals = regexLiterals;
+        }
+
+        @Override
+        public Source getSource() {
+            return source;
+        }
+
+        @Override
+        public List<String> getRequestedModules() {
+            return functionNode.getModule().getRequestedModules();
+        }
+    }
+
     @TruffleBoundary
     @Override
     public JSModuleRecord hostResolveImportedModule(JSContext context, ScriptOrModule referrer, String specifier) {
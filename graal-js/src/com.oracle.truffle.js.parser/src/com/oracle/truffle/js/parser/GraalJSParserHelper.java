@@ -41,6 +41,7 @@
 package com.oracle.truffle.js.parser;
 
 import java.io.PrintWriter;
+import java.util.List;
 import java.util.function.Function;
 
 import com.oracle.js.parser.ErrorManager;
@@ -81,15 +82,41 @@ public final class GraalJSParserHelper {
 
     public static FunctionNode parseScript(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions, boolean eval, boolean evalInFunction,
                     Scope evalScope, String prologue, String epilogue) {
-        return parseSource(context, truffleSource, parserOptions, false, eval, evalInFunction, evalScope, prologue, epilogue);
+        return parseSource(context, truffleSource, parserOptions, false, eval, evalInFunction, evalScope, prologue, epilogue, null);
     }
 
     public static FunctionNode parseModule(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions) {
-        return parseSource(context, truffleSource, parserOptions, true, false, false, null, "", "");
+        return parseSource(context, truffleSource, parserOptions, true, false, false, null, "", "", null);
+    }
+
+    /**
+     * Parses a module without validating its regular expression literals, which requires the
+     * context to be entered; the literals are added to {@code regexLiterals} instead and have to be
+     * checked with {@link #validateRegexLiterals} on the evaluating thread. May be called from any
+     * thread.
+     */
+    public static FunctionNode parseModule(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions, List<RegexToken> regexLiterals) {
+        return parseSource(context, truffleSource, parserOptions, true, false, false, null, "", "", regexLiterals);
+    }
+
+    /**
+     * Validates regular expression literals collected by
+     * {@link #parseModule(JSContext, com.oracle.truffle.api.source.Source, JSParserOptions, List)}
+     * . Returns {@code false} if any of them is invalid.
+     */
+    public static boolean validateRegexLiterals(JSContext context, List<RegexToken> regexLiterals, JSParserOptions parserOptions) {
+        for (RegexToken regex : regexLiterals) {
+            try {
+                RegexCompilerInterface.validate(context, regex.getExpression(), regex.getOptions(), parserOptions.getEcmaScriptVersion());
+            } catch (JSException e) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static FunctionNode parseSource(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions,
-                    boolean parseModule, boolean eval, boolean evalInFunction, Scope evalScope, String prologue, String epilogue) {
+                    boolean parseModule, boolean eval, boolean evalInFunction, Scope evalScope, String prologue, String epilogue, List<RegexToken> regexLiterals) {
         CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
         CharSequence code;
         if (prologue.isEmpty() && epilogue.isEmpty()) {
@@ -103,7 +130,8 @@ public final class GraalJSParserHelper {
         }
         com.oracle.js.parser.Source source = com.oracle.js.parser.Source.sourceFor(truffleSource.getName(), code, eval);
 
-        ScriptEnvironment env = makeScriptEnvironment(parserOptions);
+        boolean lazyParsing = !eval && context.getContextOptions().isLazyParsing();
+        ScriptEnvironment env = makeScriptEnvironment(parserOptions, lazyParsing);
         ErrorManager errors;
         if (eval) {
             errors = new ErrorManager.ThrowErrorManager();
@@ -112,7 +140,7 @@ public final class GraalJSParserHelper {
         }
         errors.setLimit(0);
 
-        Parser parser = createParser(context, env, source, errors, parserOptions);
+        Parser parser = createParser(context, env, source, errors, parserOptions, regexLiterals);
 
         FunctionNode parsed;
         if (parseModule) {
@@ -126,9 +154,37 @@ public final class GraalJSParserHelper {
         if (errors.hasErrors()) {
             throwErrors(truffleSource, errors);
         }
+        if (lazyParsing && context.getContextOptions().isProfileTime()) {
+            context.getTimeProfiler().preparsed(parser.getLazyFunctionLength());
+        }
         return parsed;
     }
 
+    /**
+     * Parses the body of a function that has only been pre-parsed.
+     *
+     * @param truffleSource the source the function was parsed from
+     * @param lazyFunction the lazily parsed function
+     * @return the function with the parsed body
+     */
+    public static FunctionNode parseLazyFunction(JSContext context, com.oracle.truffle.api.source.Source truffleSource, FunctionNode lazyFunction) {
+        CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
+        JSParserOptions parserOptions = context.getParserOptions();
+        ScriptEnvironment env = makeScriptEnvironment(parserOptions, true);
+        ErrorManager errors = new ErrorManager.StringBuilderErrorManager();
+        errors.setLimit(0);
+
+        Parser parser = createParser(context, env, lazyFunction.getSource(), errors, parserOptions);
+        FunctionNode parsed = parser.parseLazyFunction(lazyFunction);
+        if (errors.hasErrors()) {
+            throwErrors(truffleSource, errors);
+        }
+        if (context.getContextOptions().isProfileTime()) {
+            context.getTimeProfiler().preparsed(parser.getLazyFunctionLength());
+        }
+        return lazyFunction.withParsedBody(parsed);
+    }
+
     public static Expression parseExpression(JSContext context, com.oracle.truffle.api.source.Source truffleSource, JSParserOptions parserOptions) {
         CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
         CharSequence code = truffleSource.getCharacters();
@@ -148,13 +204,22 @@ public final class GraalJSParserHelper {
     }
 
     private static Parser createParser(JSContext context, ScriptEnvironment env, com.oracle.js.parser.Source source, ErrorManager errors, JSParserOptions parserOptions) {
+        return createParser(context, env, source, errors, parserOptions, null);
+    }
+
+    private static Parser createParser(JSContext context, ScriptEnvironment env, com.oracle.js.parser.Source source, ErrorManager errors, JSParserOptions parserOptions,
+                    List<RegexToken> regexLiterals) {
         return new Parser(env, source, errors) {
             @Override
             protected void validateLexerToken(LexerToken lexerToken) {
                 if (lexerToken instanceof RegexToken) {
                     final RegexToken regex = (RegexToken) lexerToken;
                     // validate regular expression
-                    if (context.getContextOptions().isValidateRegExpLiterals()) {
+                    if (regexLiterals != null) {
+                        if (context.getContextOptions().isValidateRegExpLiterals()) {
+                            regexLiterals.add(regex);
+                        }
+                    } else if (context.getContextOptions().isValidateRegExpLiterals()) {
                         try {
                             RegexCompilerInterface.validate(context, regex.getExpression(), regex.getOptions(), parserOptions.getEcmaScriptVersion());
                         } catch (JSException e) {
@@ -166,12 +231,21 @@ public final class GraalJSParserHelper {
 
             @Override
             protected Function<Number, String> getNumberToStringConverter() {
-                return JSRuntime::numberToString;
+                return number -> context.getStringInterner().intern(JSRuntime.numberToString(number));
+            }
+
+            @Override
+            protected Function<String, String> getStringInterner() {
+                return context.getStringInterner();
             }
         };
     }
 
     private static ScriptEnvironment makeScriptEnvironment(JSParserOptions parserOptions) {
+        return makeScriptEnvironment(parserOptions, false);
+    }
+
+    private static ScriptEnvironment makeScriptEnvironment(JSParserOptions parserOptions, boolean lazyParsing) {
         ScriptEnvironment.Builder builder = ScriptEnvironment.builder();
         builder.strict(parserOptions.isStrict());
         builder.ecmaScriptVersion(parserOptions.getEcmaScriptVersion());
@@ -183,6 +257,7 @@ public final class GraalJSParserHelper {
         builder.allowBigInt(parserOptions.isAllowBigInt());
         builder.annexB(parserOptions.isAnnexB());
         builder.classFields(parserOptions.isClassFields());
+        builder.lazyParsing(lazyParsing);
         if (parserOptions.isFunctionStatementError()) {
             builder.functionStatementBehavior(FunctionStatementBehavior.ERROR);
         } else {
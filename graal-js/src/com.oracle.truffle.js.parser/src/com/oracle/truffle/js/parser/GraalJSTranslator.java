@@ -352,12 +352,19 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
             LexicalContext savedLC = lc.copy();
             Environment parentEnv = environment;
             functionData.setLazyInit(fd -> {
-                GraalJSTranslator translator = newTranslator(parentEnv, savedLC);
-                translator.translateFunctionOnDemand(functionNode, fd, isStrict, isArrowFunction, isGeneratorFunction, isAsyncFunction, isDerivedConstructor, isGlobal,
+                FunctionNode parsedFunctionNode = functionNode;
+                LexicalContext functionLC = savedLC;
+                if (functionNode.isLazilyParsed()) {
+                    functionLC = savedLC.copy();
+                    parsedFunctionNode = parseLazyFunction(functionNode, functionLC, functionName);
+                }
+                GraalJSTranslator translator = newTranslator(parentEnv, functionLC);
+                translator.translateFunctionOnDemand(parsedFunctionNode, fd, isStrict, isArrowFunction, isGeneratorFunction, isAsyncFunction, isDerivedConstructor, isGlobal,
                                 needsNewTarget, needsParentFrame, functionName);
             });
             functionRoot = null;
         } else {
+            assert !functionNode.isLazilyParsed() : "lazy parsing requires lazy translation";
             try (EnvironmentCloseable functionEnv = enterFunctionEnvironment(isStrict, isArrowFunction, isGeneratorFunction, isDerivedConstructor, isAsyncFunction, isGlobal)) {
                 FunctionEnvironment currentFunction = currentFunction();
                 currentFunction.setFunctionName(functionName);
@@ -486,6 +493,25 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         }
     }
 
+    /**
+     * Parses the body of a function that has only been pre-parsed and replaces the function on top
+     * of the given lexical context with the parsed one.
+     */
+    private FunctionNode parseLazyFunction(FunctionNode lazyFunctionNode, LexicalContext functionLC, String functionName) {
+        boolean profileTime = context.getContextOptions().isProfileTime();
+        long startTime = profileTime ? System.nanoTime() : 0L;
+        FunctionNode functionNode = GraalJSParserHelper.parseLazyFunction(context, source, lazyFunctionNode);
+        if (profileTime) {
+            context.getTimeProfiler().printLazyParsed(startTime, functionName, lazyFunctionNode.getFinish() - lazyFunctionNode.getStart());
+        }
+
+        functionLC.pop(lazyFunctionNode);
+        // the nested functions have not been analyzed yet
+        functionNeedsParentFramePass(functionNode, functionLC, context);
+        functionLC.push(functionNode);
+        return functionNode;
+    }
+
     private FunctionRootNode createFunctionRoot(FunctionNode functionNode, JSFunctionData functionData, FunctionEnvironment currentFunction, JavaScriptNode body) {
         SourceSection functionSourceSection = createSourceSection(functionNode);
         FunctionBodyNode functionBody = factory.createFunctionBody(body);
@@ -929,11 +955,19 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
     }
 
     private static void functionNeedsParentFramePass(FunctionNode rootFunctionNode, JSContext context) {
+        functionNeedsParentFramePass(rootFunctionNode, new LexicalContext(), context);
+    }
+
+    /**
+     * Determines which functions need their parent frame, i.e., use bindings of enclosing
+     * functions. The given lexical context contains the enclosing nodes of the root function node.
+     */
+    private static void functionNeedsParentFramePass(FunctionNode rootFunctionNode, LexicalContext outerLC, JSContext context) {
         if (!context.getContextOptions().isLazyTranslation()) {
             return; // nothing to do
         }
 
-        com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext> visitor = new com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext>(new LexicalContext()) {
+        com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext> visitor = new com.oracle.js.parser.ir.visitor.NodeVisitor<LexicalContext>(outerLC) {
             @Override
             public boolean enterIdentNode(IdentNode identNode) {
                 if (!identNode.isPropertyName()) {
@@ -1048,6 +1082,20 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 // TODO if function does not have nested functions we can skip it
                 return true;
             }
+
+            @Override
+            public boolean enterBlock(Block block) {
+                if (block.isFunctionBody()) {
+                    FunctionNode function = lc.getCurrentFunction();
+                    if (function.isLazilyParsed()) {
+                        // the body has not been parsed yet, so resolve any identifier it contains
+                        for (String varName : function.getLazyBody().getIdentifiers()) {
+                            findSymbol(varName);
+                        }
+                    }
+                }
+                return true;
+            }
         };
 
         rootFunctionNode.accept(visitor);
@@ -2136,7 +2184,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         if (baseNode instanceof AccessNode) {
             AccessNode accessNode = (AccessNode) baseNode;
             assert !accessNode.isPrivate();
-            key = factory.createConstantString(accessNode.getProperty());
+            key = factory.createConstantString(propertyKey(accessNode.getProperty()));
         } else {
             assert baseNode instanceof IndexNode;
             IndexNode indexNode = (IndexNode) baseNode;
@@ -2703,7 +2751,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 JavaScriptNode excludedItemsArray = excludedKeys.length == 0 ? null : factory.createArrayLiteral(context, excludedKeys);
                 rhsNode = factory.createRestObject(context, valueTempVar.createReadNode(), excludedItemsArray);
             } else if (property.getKey() instanceof IdentNode && !property.isComputed()) {
-                String keyName = property.getKeyName();
+                String keyName = propertyKey(property.getKeyName());
                 if (hasRest) {
                     excludedKeys[i] = factory.createConstantString(keyName);
                 }
@@ -2739,7 +2787,8 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
 
     private JavaScriptNode createOptionalAccessNode(AccessNode accessNode, JavaScriptNode base) {
         assert !accessNode.isPrivate();
-        JavaScriptNode read = factory.createReadProperty(context, filterOptionalChainTarget(base, accessNode.isOptional()), accessNode.getProperty(), accessNode.isFunction());
+        JavaScriptNode read = factory.createReadProperty(context, filterOptionalChainTarget(base, accessNode.isOptional()), propertyKey(accessNode.getProperty()),
+                        accessNode.isFunction());
         tagExpression(read, accessNode);
         return factory.createOptionalChain(read);
     }
@@ -2748,7 +2797,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         if (accessNode.isPrivate()) {
             return createPrivateFieldGet(accessNode, base);
         } else {
-            return factory.createReadProperty(context, base, accessNode.getProperty(), accessNode.isFunction());
+            return factory.createReadProperty(context, base, propertyKey(accessNode.getProperty()), accessNode.isFunction());
         }
     }
 
@@ -2756,10 +2805,18 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
         if (accessNode.isPrivate()) {
             return createPrivateFieldSet(accessNode, base, rhs);
         } else {
-            return factory.createWriteProperty(base, accessNode.getProperty(), rhs, context, environment.isStrictMode());
+            return factory.createWriteProperty(base, propertyKey(accessNode.getProperty()), rhs, context, environment.isStrictMode());
         }
     }
 
+    /**
+     * Returns the engine-wide interned instance of a property key, so that equal keys used by
+     * different scripts are identical.
+     */
+    private String propertyKey(String key) {
+        return key == null ? null : context.getStringInterner().intern(key);
+    }
+
     private JavaScriptNode createPrivateFieldGet(AccessNode accessNode, JavaScriptNode base) {
         VarRef privateNameVar = environment.findLocalVar(accessNode.getPrivateName());
         JavaScriptNode privateName = privateNameVar.createReadNode();
@@ -2846,7 +2903,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
             JSWriteFrameSlotNode writePrivateNode = (JSWriteFrameSlotNode) privateVar.createWriteNode(null);
             return factory.createPrivateAccessorMember(property.isStatic(), getter, setter, writePrivateNode);
         } else {
-            return factory.createAccessorMember(property.getKeyName(), property.isStatic(), enumerable, getter, setter);
+            return factory.createAccessorMember(propertyKey(property.getKeyName()), property.isStatic(), enumerable, getter, setter);
         }
     }
 
@@ -2892,7 +2949,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
             JavaScriptNode computedKey = transform(property.getKey());
             return factory.createComputedDataMember(computedKey, property.isStatic(), enumerable, value, property.isClassField(), property.isAnonymousFunctionDefinition());
         } else if (!isClass && property.isProto()) {
-            return factory.createProtoMember(property.getKeyName(), property.isStatic(), value);
+            return factory.createProtoMember(propertyKey(property.getKeyName()), property.isStatic(), value);
         } else if (property.isPrivate()) {
             VarRef privateVar = environment.findLocalVar(property.getPrivateName());
             if (property.isClassField()) {
@@ -2903,7 +2960,7 @@ abstract class GraalJSTranslator extends com.oracle.js.parser.ir.visitor.Transla
                 return factory.createPrivateMethodMember(property.isStatic(), value, writePrivateNode);
             }
         } else {
-            return factory.createDataMember(property.getKeyName(), property.isStatic(), enumerable, value, property.isClassField());
+            return factory.createDataMember(propertyKey(property.getKeyName()), property.isStatic(), enumerable, value, property.isClassField());
         }
     }
 
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32;
+
+import org.graalvm.home.Version;
+
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.nodes.JSNodeDecoder;
+import com.oracle.truffle.js.nodes.NodeFactory;
+import com.oracle.truffle.js.nodes.ScriptNode;
+import com.oracle.truffle.js.nodes.function.FunctionRootNode;
+import com.oracle.truffle.js.parser.snapshot.Recording;
+import com.oracle.truffle.js.parser.snapshot.RecordingProxy;
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.GraalJSException;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.runtime.util.BufferUtil;
+
+/**
+ * Persistent cache of translated scripts, stored in the binary snapshot format in the directory
+ * given by {@link JSContextOptions#CODE_CACHE_DIR}.
+ *
+ * Entries are named after a digest of the source characters, the strictness of the parent scope,
+ * the engine version, the snapshot format checksum and the parser and context options, and repeat
+ * the full digest in their header. The snapshot is split into segments, one per function, and the
+ * header holds an index with a CRC32 of each segment. Only the segment of the top-level code is
+ * verified when the entry is loaded; the segment of a lazily decoded function is verified on its
+ * first call, so that the bodies of functions that are never called are not read. On a miss, the
+ * script is translated
+ * through a recording node factory and the recording is written next to the final file and then
+ * atomically renamed, so concurrent processes never observe partially written entries. Any entry
+ * that cannot be read or decoded is ignored (and later overwritten), and the script is translated
+ * normally.
+ */
+final class PersistentCodeCache {
+
+    private static final int MAGIC = 0x4343534a; // "JSCC"
+    private static final int FORMAT_VERSION = 2;
+    private static final String FILE_SUFFIX = ".jsc";
+    private static final int HEADER_SIZE = 4 + 4 + 32 + 8 + 4;
+
+    private PersistentCodeCache() {
+    }
+
+    static boolean isCacheable(JSContext context, Source source, String prolog, String epilog) {
+        return !context.getContextOptions().getCodeCacheDir().isEmpty() && !context.getContextOptions().isLazyTranslation() && prolog.isEmpty() && epilog.isEmpty() &&
+                        source.hasCharacters() && !source.isInternal() && !source.isInteractive() && !containsSourceURL(source.getCharacters());
+    }
+
+    private static final String SOURCE_URL_DIRECTIVE = "sourceURL=";
+
+    /**
+     * An explicit {@code sourceURL} replaces the source during translation, which the snapshot
+     * format does not record. Looks for a {@code //# sourceURL=} or {@code //@ sourceURL=}
+     * directive comment, as recognized by the lexer, without copying the characters.
+     */
+    private static boolean containsSourceURL(CharSequence code) {
+        int directiveLength = 4 + SOURCE_URL_DIRECTIVE.length();
+        for (int i = 0; i <= code.length() - directiveLength; i++) {
+            if (code.charAt(i) == '/' && code.charAt(i + 1) == '/' && (code.charAt(i + 2) == '#' || code.charAt(i + 2) == '@') && code.charAt(i + 3) == ' ' &&
+                            regionMatches(code, i + 4, SOURCE_URL_DIRECTIVE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(CharSequence code, int offset, String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (code.charAt(offset + i) != str.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static ScriptNode parseScript(JSContext context, Source source, boolean strict) {
+        Env env = context.getRealm().getEnv();
+        byte[] digest;
+        TruffleFile file;
+        try {
+            digest = computeKey(context, source, strict);
+            file = env.getPublicTruffleFile(context.getContextOptions().getCodeCacheDir()).resolve(toHex(digest) + FILE_SUFFIX);
+        } catch (SecurityException | UnsupportedOperationException | IllegalArgumentException e) {
+            return translate(context, source, strict);
+        }
+
+        ScriptNode cached = load(context, source, file, digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Recording recording = new Recording();
+        ScriptNode program;
+        try {
+            program = JavaScriptTranslator.translateScript(RecordingProxy.createRecordingNodeFactory(recording, NodeFactory.getInstance(context)), context, source, strict, "", "");
+        } catch (com.oracle.js.parser.ParserException | GraalJSException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // the recording factory may not support every node; translate without it
+            return translate(context, source, strict);
+        }
+        store(env, recording, program, file, digest);
+        return program;
+    }
+
+    private static ScriptNode translate(JSContext context, Source source, boolean strict) {
+        return JavaScriptTranslator.translateScript(NodeFactory.getInstance(context), context, source, strict, "", "");
+    }
+
+    private static ScriptNode load(JSContext context, Source source, TruffleFile file, byte[] digest) {
+        ByteBuffer buffer;
+        try {
+            if (!file.isRegularFile()) {
+                return null;
+            }
+            buffer = read(file);
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            return null;
+        }
+        if (buffer.remaining() <= HEADER_SIZE) {
+            return null;
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        byte[] storedDigest = new byte[digest.length];
+        buffer.get(storedDigest);
+        if (!Arrays.equals(digest, storedDigest)) {
+            return null;
+        }
+        long storedIndexChecksum = buffer.getLong();
+        int indexStart = buffer.position();
+        int segmentCount = buffer.getInt();
+        if (segmentCount <= 0 || segmentCount > buffer.remaining() / 8) {
+            return null;
+        }
+        int[] segmentStarts = new int[segmentCount];
+        int[] segmentChecksums = new int[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segmentStarts[i] = buffer.getInt();
+            segmentChecksums[i] = buffer.getInt();
+        }
+        ByteBuffer index = buffer.duplicate();
+        BufferUtil.asBaseBuffer(index).limit(buffer.position()).position(indexStart);
+        CRC32 crc = new CRC32();
+        crc.update(index);
+        if (crc.getValue() != storedIndexChecksum) {
+            return null;
+        }
+        ByteBuffer payload = buffer.slice();
+        SegmentVerifier verifier = new SegmentVerifier(file, payload, segmentStarts, segmentChecksums);
+        if (!verifier.isValidIndex() || !verifier.verify(0)) {
+            return null;
+        }
+        try {
+            BinarySnapshotProvider provider = new BinarySnapshotProvider(payload, verifier);
+            return ScriptNode.fromFunctionRoot(context, (FunctionRootNode) provider.apply(NodeFactory.getInstance(context), context, source));
+        } catch (RuntimeException e) {
+            // corrupt or incompatible entry
+            return null;
+        }
+    }
+
+    /**
+     * Maps the entry into memory if the file system hands out a {@link FileChannel}, so that the
+     * bodies of lazily decoded functions stay off-heap until they are first called; otherwise
+     * reads the whole entry.
+     */
+    private static ByteBuffer read(TruffleFile file) throws IOException {
+        try (SeekableByteChannel channel = file.newByteChannel(EnumSet.of(StandardOpenOption.READ))) {
+            if (channel instanceof FileChannel) {
+                return BinarySnapshotProvider.map((FileChannel) channel);
+            }
+        }
+        return ByteBuffer.wrap(file.readAllBytes());
+    }
+
+    private static void store(Env env, Recording recording, ScriptNode program, TruffleFile file, byte[] digest) {
+        TruffleFile tempFile = null;
+        try {
+            recording.finish(program.getRootNode());
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            recording.saveToStream(file.getName(), snapshot, true);
+
+            TruffleFile dir = file.getParent();
+            dir.createDirectories();
+            tempFile = dir.resolve(file.getName() + "." + Long.toHexString(System.nanoTime()) + "." + Thread.currentThread().getId() + ".tmp");
+            try (OutputStream out = tempFile.newOutputStream(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                byte[] snapshotBytes = snapshot.toByteArray();
+                int[] segmentStarts = segmentStarts(recording.getExtractedPositions());
+                ByteBuffer index = ByteBuffer.allocate(4 + segmentStarts.length * 8);
+                index.putInt(segmentStarts.length);
+                for (int i = 0; i < segmentStarts.length; i++) {
+                    int end = i + 1 < segmentStarts.length ? segmentStarts[i + 1] : snapshotBytes.length;
+                    CRC32 segmentCrc = new CRC32();
+                    segmentCrc.update(snapshotBytes, segmentStarts[i], end - segmentStarts[i]);
+                    index.putInt(segmentStarts[i]).putInt((int) segmentCrc.getValue());
+                }
+                CRC32 crc = new CRC32();
+                crc.update(index.array(), 0, index.capacity());
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE - 4);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).put(digest).putLong(crc.getValue());
+                out.write(header.array());
+                out.write(index.array());
+                out.write(snapshotBytes);
+            }
+            tempFile.move(file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            tempFile = null;
+        } catch (IOException | RuntimeException e) {
+            // caching is best effort
+        } finally {
+            if (tempFile != null) {
+                try {
+                    tempFile.delete();
+                } catch (IOException | SecurityException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * The first segment spans the snapshot preamble and the top-level function, which is encoded
+     * first; every other function starts a new segment.
+     */
+    private static int[] segmentStarts(int[] functionPositions) {
+        if (functionPositions == null || functionPositions.length == 0) {
+            return new int[]{0};
+        }
+        int[] starts = functionPositions.clone();
+        starts[0] = 0;
+        return starts;
+    }
+
+    /**
+     * Verifies the checksum of a segment of the snapshot the first time a function in it is
+     * decoded. If a lazily decoded function turns out to be corrupt, the entry is deleted so that
+     * it is recreated by the next translation.
+     */
+    private static final class SegmentVerifier implements IntConsumer {
+        private final TruffleFile file;
+        private final ByteBuffer payload;
+        private final int[] starts;
+        private final int[] checksums;
+        private final boolean[] verified;
+
+        SegmentVerifier(TruffleFile file, ByteBuffer payload, int[] starts, int[] checksums) {
+            this.file = file;
+            this.payload = payload;
+            this.starts = starts;
+            this.checksums = checksums;
+            this.verified = new boolean[starts.length];
+        }
+
+        boolean isValidIndex() {
+            if (starts[0] != 0) {
+                return false;
+            }
+            for (int i = 1; i < starts.length; i++) {
+                if (starts[i] <= starts[i - 1]) {
+                    return false;
+                }
+            }
+            return starts[starts.length - 1] < payload.remaining();
+        }
+
+        boolean verify(int segment) {
+            if (verified[segment]) {
+                return true;
+            }
+            int end = segment + 1 < starts.length ? starts[segment + 1] : payload.remaining();
+            ByteBuffer bytes = payload.duplicate();
+            BufferUtil.asBaseBuffer(bytes).limit(end).position(starts[segment]);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if ((int) crc.getValue() != checksums[segment]) {
+                return false;
+            }
+            // racy but idempotent
+            verified[segment] = true;
+            return true;
+        }
+
+        @Override
+        public void accept(int position) {
+            int segment = Arrays.binarySearch(starts, position);
+            if (segment < 0) {
+                segment = -segment - 2;
+            }
+            if (segment < 0 || !verify(segment)) {
+                try {
+                    file.delete();
+                } catch (IOException | SecurityException e) {
+                    // ignore
+                }
+                throw Errors.createError("Corrupt code cache entry " + file.getName());
+            }
+        }
+    }
+
+    private static byte[] computeKey(JSContext context, Source source, boolean strict) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnsupportedOperationException(e);
+        }
+        String header = Version.getCurrent() + "|" + JSNodeDecoder.getChecksum() + "|" + FORMAT_VERSION + "|" + strict + "|" + context.getParserOptions() + "|" +
+                        context.getContextOptions().toCanonicalString() + "|";
+        md.update(header.getBytes(StandardCharsets.UTF_8));
+        md.update(source.getCharacters().toString().getBytes(StandardCharsets.UTF_8));
+        return md.digest();
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
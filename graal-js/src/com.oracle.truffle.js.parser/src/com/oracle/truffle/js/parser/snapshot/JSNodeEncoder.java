@@ -38,7 +38,7 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-package com.oracle.truffle.js.snapshot;
+package com.oracle.truffle.js.parser.snapshot;
 
 import static com.oracle.truffle.js.nodes.JSNodeDecoder.BREAK_TARGET_LABEL;
 import static com.oracle.truffle.js.nodes.JSNodeDecoder.BREAK_TARGET_SWITCH;
@@ -367,6 +367,19 @@ public class JSNodeEncoder {
         }
     }
 
+    /**
+     * Returns the sorted positions of all extracted functions encoded so far.
+     */
+    public int[] getExtractedPositions() {
+        int[] positions = new int[resolvedPositions.size()];
+        int i = 0;
+        for (int position : resolvedPositions.values()) {
+            positions[i++] = position;
+        }
+        Arrays.sort(positions);
+        return positions;
+    }
+
     private void resetRegisterMapping() {
         valueIdToRegMap.clear();
         nextReg = FIRST_REG;
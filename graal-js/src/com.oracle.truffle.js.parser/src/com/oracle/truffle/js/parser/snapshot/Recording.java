@@ -38,7 +38,7 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-package com.oracle.truffle.js.snapshot;
+package com.oracle.truffle.js.parser.snapshot;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -139,6 +139,7 @@ public class Recording {
     private final List<InstBatch> instBatches = new ArrayList<>();
 
     private Source source;
+    private int[] extractedPositions;
 
     private static final class MethodCall {
         final Method method;
@@ -1722,6 +1723,7 @@ public class Recording {
         } else {
             encodeMethod(encoder, ENTRY_METHOD_NAME, insts, Collections.emptyList());
         }
+        extractedPositions = encoder.getExtractedPositions();
         try {
             outs.write(byteBufferToByteArray(sink.getBuffer()));
         } catch (IOException e) {
@@ -1735,6 +1737,14 @@ public class Recording {
         return sink.getBuffer();
     }
 
+    /**
+     * Returns the sorted start positions of the functions in the last binary snapshot saved by
+     * {@link #saveToStream}. Each function extends up to the start of the next one.
+     */
+    public int[] getExtractedPositions() {
+        return extractedPositions;
+    }
+
     private static byte[] byteBufferToByteArray(ByteBuffer buffer) {
         byte[] bytes = new byte[buffer.remaining()];
         buffer.get(bytes);
@@ -1868,7 +1878,7 @@ public class Recording {
         }
     }
 
-    static void logv(String format, Object... args) {
+    public static void logv(String format, Object... args) {
         if (VERBOSE) {
             System.out.println(String.format(format, args));
         }
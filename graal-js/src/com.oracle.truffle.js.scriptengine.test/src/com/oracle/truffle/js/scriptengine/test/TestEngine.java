@@ -52,12 +52,14 @@ import java.io.StringWriter;
 
 import javax.script.Bindings;
 import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.Invocable;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
 
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
@@ -96,6 +98,19 @@ public class TestEngine {
         assertEquals(true, ((Compilable) getEngine()).compile("true").eval());
     }
 
+    @Test
+    public void compileAndEvalInContexts() throws ScriptException {
+        ScriptEngine engine = getEngine();
+        CompiledScript script = ((Compilable) engine).compile("var counter = (typeof counter === 'undefined') ? 1 : counter + 1; counter");
+        assertEquals(1, script.eval());
+        assertEquals(2, script.eval());
+        ScriptContext ctx = new SimpleScriptContext();
+        ctx.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+        assertEquals(1, script.eval(ctx));
+        assertEquals(2, script.eval(ctx));
+        assertEquals(3, script.eval());
+    }
+
     @Test
     public void compileSyntaxError() throws ScriptException {
         expectedException.expect(ScriptException.class);
@@ -44,11 +44,13 @@ import java.util.AbstractMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.script.Bindings;
 import javax.script.ScriptContext;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.TypeLiteral;
 import org.graalvm.polyglot.Value;
 
@@ -67,6 +69,8 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
     private Context.Builder contextBuilder;
     // ScriptContext of the ScriptEngine where these bindings form ENGINE_SCOPE bindings
     private ScriptContext engineScriptContext;
+    // compiled scripts parsed in the context of these bindings
+    private Map<Object, Value> parsedScripts;
 
     GraalJSBindings(Context.Builder contextBuilder, ScriptContext scriptContext) {
         this.contextBuilder = contextBuilder;
@@ -165,6 +169,23 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
         return context;
     }
 
+    /**
+     * Returns the given source parsed in the context of these bindings. The parsed script is kept
+     * as long as both these bindings and the compiled script are alive.
+     */
+    Value getParsedScript(Object compiledScript, Source source) {
+        requireContext();
+        if (parsedScripts == null) {
+            parsedScripts = new WeakHashMap<>();
+        }
+        Value parsed = parsedScripts.get(compiledScript);
+        if (parsed == null) {
+            parsed = context.parse(source);
+            parsedScripts.put(compiledScript, parsed);
+        }
+        return parsed;
+    }
+
     @Override
     public Set<Entry<String, Object>> entrySet() {
         requireContext();
@@ -173,6 +194,7 @@ final class GraalJSBindings extends AbstractMap<String, Object> implements Bindi
 
     @Override
     public void close() {
+        parsedScripts = null;
         if (context != null) {
             context.close();
         }
@@ -389,6 +389,10 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     private Object eval(Source source, ScriptContext scriptContext) throws ScriptException {
+        return eval(source, null, scriptContext);
+    }
+
+    private Object eval(Source source, GraalJSCompiledScript compiledScript, ScriptContext scriptContext) throws ScriptException {
         GraalJSBindings engineBindings = getOrCreateGraalJSBindings(scriptContext);
         Context polyglotContext = engineBindings.getContext();
         ((DelegatingOutputStream) polyglotContext.getPolyglotBindings().getMember(OUT_SYMBOL).asProxyObject()).setWriter(scriptContext.getWriter());
@@ -399,7 +403,8 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
                 jrunscriptInitWorkaround(source, polyglotContext);
             }
             engineBindings.importGlobalBindings(scriptContext);
-            return polyglotContext.eval(source).as(Object.class);
+            Value result = (compiledScript == null) ? polyglotContext.eval(source) : compiledScript.getParsed(engineBindings).execute();
+            return result.as(Object.class);
         } catch (PolyglotException e) {
             throw new ScriptException(e);
         } finally {
@@ -544,29 +549,43 @@ public final class GraalJSScriptEngine extends AbstractScriptEngine implements C
     }
 
     private CompiledScript compile(Source source) throws ScriptException {
-        checkSyntax(source);
-        return new CompiledScript() {
-            @Override
-            public ScriptEngine getEngine() {
-                return GraalJSScriptEngine.this;
-            }
-
-            @Override
-            public Object eval(ScriptContext ctx) throws ScriptException {
-                return GraalJSScriptEngine.this.eval(source, ctx);
-            }
-        };
-    }
-
-    private void checkSyntax(Source source) throws ScriptException {
-        GraalJSBindings engineBindings = getOrCreateGraalJSBindings(context);
-        Context polyglotContext = engineBindings.getContext();
-        Value syntaxChecker = polyglotContext.getBindings("js").getMember("checkSyntaxForScriptEngine");
+        GraalJSCompiledScript compiledScript = new GraalJSCompiledScript(source);
         try {
-            syntaxChecker.execute(source.getCharacters());
+            // reports syntax errors and parses the script for the default context
+            compiledScript.getParsed(getOrCreateGraalJSBindings(getContext()));
         } catch (PolyglotException pex) {
             throw new ScriptException(pex);
         }
+        return compiledScript;
+    }
+
+    /**
+     * A script that is parsed once per polyglot context. The parsed code is shared by all contexts
+     * of the polyglot engine, so parsing the script for another {@link ScriptContext} is cheap.
+     * The parsed scripts are kept by the {@link GraalJSBindings} of the contexts, so this script
+     * does not keep any polyglot context alive.
+     */
+    private final class GraalJSCompiledScript extends CompiledScript {
+
+        private final Source source;
+
+        GraalJSCompiledScript(Source source) {
+            this.source = source;
+        }
+
+        Value getParsed(GraalJSBindings engineBindings) {
+            return engineBindings.getParsedScript(this, source);
+        }
+
+        @Override
+        public ScriptEngine getEngine() {
+            return GraalJSScriptEngine.this;
+        }
+
+        @Override
+        public Object eval(ScriptContext ctx) throws ScriptException {
+            return GraalJSScriptEngine.this.eval(source, this, ctx);
+        }
     }
 
     private static class DelegatingInputStream extends InputStream implements Proxy {
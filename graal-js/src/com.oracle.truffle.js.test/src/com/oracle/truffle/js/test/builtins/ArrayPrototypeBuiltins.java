@@ -81,4 +81,35 @@ public class ArrayPrototypeBuiltins {
         }
     }
 
+    @Test
+    public void testSortPrimitiveArrays() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            // default order compares string representations
+            Value value = context.eval(JavaScriptLanguage.ID, "[10, 9, -1, 100, 0, -20, 1, 2147483647, -2147483648].sort().join()");
+            assertEquals("-1,-20,-2147483648,0,1,10,100,2147483647,9", value.asString());
+            value = context.eval(JavaScriptLanguage.ID, "[1.5, 10, -0, 0.25, NaN, 2, -1.5].sort().join()");
+            assertEquals("-1.5,0,0.25,1.5,10,2,NaN", value.asString());
+            value = context.eval(JavaScriptLanguage.ID, "[3, 1, 2, 10].sort((a, b) => b - a).join()");
+            assertEquals("10,3,2,1", value.asString());
+            // compare function modifying the array
+            value = context.eval(JavaScriptLanguage.ID, "var a = [3, 1, 2]; a.sort((x, y) => { a[5] = 'x'; return x - y; }); a.join()");
+            assertEquals("1,2,3,,,x", value.asString());
+        }
+    }
+
+    @Test
+    public void testSortTypedArrays() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            Value value = context.eval(JavaScriptLanguage.ID, "new Float64Array([3, NaN, -0, 0, -Infinity, 1.5]).sort().map(x => Object.is(x, -0) ? -1000 : x).join()");
+            assertEquals("-Infinity,-1000,0,1.5,3,NaN", value.asString());
+            value = context.eval(JavaScriptLanguage.ID, "new Uint32Array([4294967295, 1, 2147483648, 0]).sort().join()");
+            assertEquals("0,1,2147483648,4294967295", value.asString());
+            value = context.eval(JavaScriptLanguage.ID, "new Int8Array([5, -128, 127, 0]).sort((a, b) => b - a).join()");
+            assertEquals("127,5,0,-128", value.asString());
+            // stability with a compare function
+            value = context.eval(JavaScriptLanguage.ID, "new Int32Array([21, 11, 22, 12, 23]).sort((a, b) => (a % 10) - (b % 10)).join()");
+            assertEquals("21,11,22,12,23", value.asString());
+        }
+    }
+
 }
@@ -40,7 +40,10 @@
  */
 package com.oracle.truffle.js.test.builtins;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Value;
 import org.junit.Assert;
 import org.junit.Test;
@@ -80,4 +83,130 @@ public class AtomicsBuiltinsTest {
         }
     }
 
+    @Test
+    public void testConcurrentUpdates() {
+        int agentCount = 4;
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.TEST262_MODE_NAME, "true").build()) {
+            String code = "let agentCount = " + agentCount + ";\n" //
+                            + "for (let i = 0; i < agentCount; i++) {\n" //
+                            + "  $262.agent.start(`\n" //
+                            + "    $262.agent.receiveBroadcast(function(sab) {\n" //
+                            + "      const i8a = new Int8Array(sab, 0, 8);\n" //
+                            + "      const u16a = new Uint16Array(sab, 8, 4);\n" //
+                            + "      const i32a = new Int32Array(sab, 16, 4);\n" //
+                            + "      const i64a = new BigInt64Array(sab, 32, 2);\n" //
+                            + "      for (let j = 0; j < 1000; j++) {\n" //
+                            + "        Atomics.add(i8a, 1, 1);\n" //
+                            + "        Atomics.sub(u16a, 2, 1);\n" //
+                            + "        Atomics.add(i32a, 3, 3);\n" //
+                            + "        Atomics.add(i64a, 1, 5n);\n" //
+                            + "        let v;\n" //
+                            + "        do { v = Atomics.load(i8a, 2); } while (Atomics.compareExchange(i8a, 2, v, v ^ 1) !== v);\n" //
+                            + "      }\n" //
+                            + "      Atomics.add(i32a, 0, 1);\n" //
+                            + "      $262.agent.leaving();\n" //
+                            + "    });\n" //
+                            + "  `);\n" //
+                            + "}\n" //
+                            + "const sab = new SharedArrayBuffer(48);\n" //
+                            + "const i8a = new Int8Array(sab, 0, 8);\n" //
+                            + "const u16a = new Uint16Array(sab, 8, 4);\n" //
+                            + "const i32a = new Int32Array(sab, 16, 4);\n" //
+                            + "const i64a = new BigInt64Array(sab, 32, 2);\n" //
+                            + "i8a.fill(7);\n" //
+                            + "$262.agent.broadcast(sab);\n" //
+                            + "while (Atomics.load(i32a, 0) < agentCount) {}\n" //
+                            + "[i8a.join(), u16a.join(), i32a[3], i64a[1]].join(';');"; //
+            Value result = context.eval(JavaScriptLanguage.ID, code);
+            // neighbouring elements of the same word must not be affected by sub-word updates
+            Assert.assertEquals("7,-89,7,7,7,7,7,7;0,0,61536,0;12000;20000", result.asString());
+        }
+    }
+
+    @Test
+    public void testOddBufferLength() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String code = "const sab = new SharedArrayBuffer(7);\n" //
+                            + "const i8a = new Int8Array(sab);\n" //
+                            + "const u16a = new Uint16Array(sab, 4, 1);\n" //
+                            + "var log = [];\n" //
+                            + "log.push(Atomics.store(i8a, 6, -3), Atomics.load(i8a, 6));\n" //
+                            + "log.push(Atomics.add(i8a, 6, 5), Atomics.load(i8a, 6));\n" //
+                            + "log.push(Atomics.compareExchange(i8a, 6, 1, 9), Atomics.compareExchange(i8a, 6, 2, 9), Atomics.exchange(i8a, 6, 127));\n" //
+                            + "log.push(Atomics.store(u16a, 0, 0xFFFF), Atomics.sub(u16a, 0, 1), Atomics.or(u16a, 0, 1), Atomics.load(u16a, 0));\n" //
+                            + "log.push(Atomics.store(i8a, 3, 42), Atomics.and(i8a, 3, 15), Atomics.xor(i8a, 3, 1), Atomics.load(i8a, 3));\n" //
+                            + "log.push(i8a[4], i8a[5], i8a[6]);\n" //
+                            + "log.join();"; //
+            Value result = context.eval(JavaScriptLanguage.ID, code);
+            Assert.assertEquals("-3,-3,-3,2,2,2,9,65535,65535,65534,65535,42,42,10,11,-1,-1,127", result.asString());
+        }
+    }
+
+    @Test
+    public void testWaitNotifiedByAgent() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.TEST262_MODE_NAME, "true").build()) {
+            String code = "$262.agent.start(`\n" //
+                            + "  $262.agent.receiveBroadcast(function(sab) {\n" //
+                            + "    const i32a = new Int32Array(sab);\n" //
+                            + "    while (Atomics.notify(i32a, 1) === 0) {}\n" //
+                            + "    $262.agent.leaving();\n" //
+                            + "  });\n" //
+                            + "`);\n" //
+                            + "const sab = new SharedArrayBuffer(Int32Array.BYTES_PER_ELEMENT * 4);\n" //
+                            + "$262.agent.broadcast(sab);\n" //
+                            + "Atomics.wait(new Int32Array(sab), 1, 0, 10000);"; //
+            Value result = context.eval(JavaScriptLanguage.ID, code);
+            // a spawned agent must be able to wake the main agent
+            Assert.assertEquals("ok", result.asString());
+        }
+    }
+
+    @Test
+    public void testWaitInterrupted() throws InterruptedException {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            AtomicReference<PolyglotException> error = new AtomicReference<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    context.eval(JavaScriptLanguage.ID, "Atomics.wait(new Int32Array(new SharedArrayBuffer(4)), 0, 0);");
+                } catch (PolyglotException e) {
+                    error.set(e);
+                }
+            });
+            thread.start();
+            // an interrupt must cancel the wait
+            long deadline = System.currentTimeMillis() + 60000;
+            while (thread.isAlive() && System.currentTimeMillis() < deadline) {
+                thread.interrupt();
+                thread.join(100);
+            }
+            Assert.assertFalse(thread.isAlive());
+            Assert.assertNotNull(error.get());
+            Assert.assertTrue(error.get().isCancelled());
+        }
+    }
+
+    @Test
+    public void testWaitAsync() throws InterruptedException {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.ECMASCRIPT_VERSION_NAME, "2021").build()) {
+            String code = "const i32a = new Int32Array(new SharedArrayBuffer(Int32Array.BYTES_PER_ELEMENT * 4));\n" //
+                            + "var log = [];\n" //
+                            + "let r = Atomics.waitAsync(i32a, 0, 1);\n" //
+                            + "log.push(r.async + ':' + r.value);\n" //
+                            + "r = Atomics.waitAsync(i32a, 0, 0, 0);\n" //
+                            + "log.push(r.async + ':' + r.value);\n" //
+                            + "r = Atomics.waitAsync(i32a, 0, 0);\n" //
+                            + "log.push(r.async);\n" //
+                            + "r.value.then(v => log.push(v));\n" //
+                            + "Atomics.waitAsync(i32a, 1, 0, 1).value.then(v => log.push(v));\n" //
+                            + "log.push(Atomics.notify(i32a, 0));\n"; //
+            context.eval(JavaScriptLanguage.ID, code);
+            // let the timeout of the second waiter expire
+            Thread.sleep(10);
+            // promises are settled the next time the job queue is processed
+            context.eval(JavaScriptLanguage.ID, "undefined;");
+            Value result = context.eval(JavaScriptLanguage.ID, "log.join();");
+            Assert.assertEquals("false:not-equal,false:timed-out,true,1,ok,timed-out", result.asString());
+        }
+    }
+
 }
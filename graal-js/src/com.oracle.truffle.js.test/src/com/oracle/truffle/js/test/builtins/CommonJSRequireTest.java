@@ -41,6 +41,7 @@
 package com.oracle.truffle.js.test.builtins;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.HostAccess;
 import org.graalvm.polyglot.PolyglotAccess;
 import org.graalvm.polyglot.PolyglotException;
@@ -55,6 +56,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -68,6 +70,9 @@ import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_REQUIRE_CW
 import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_CORE_MODULES_REPLACEMENTS_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_REQUIRE_GLOBAL_PROPERTIES_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_REQUIRE_NAME;
+import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_RESOLUTION_CACHE_NAME;
+import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_RESOLUTION_CACHE_WATCH_NAME;
+import static com.oracle.truffle.js.runtime.JSContextOptions.COMMONJS_SOURCE_CACHE_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.ECMASCRIPT_VERSION_NAME;
 import static com.oracle.truffle.js.runtime.JSContextOptions.GLOBAL_PROPERTY_NAME;
 import static org.junit.Assert.assertEquals;
@@ -649,4 +654,76 @@ public class CommonJSRequireTest {
         options.put(COMMONJS_CORE_MODULES_REPLACEMENTS_NAME, "assert:./builtin-assert-mockup.mjs");
         runAndExpectOutput(Source.newBuilder(ID, dirFile.toFile()).build(), "all OK!\n", options);
     }
+
+    @Test
+    public void sharedSourceCache() throws IOException {
+        Path tempFolder = Files.createTempDirectory("commonjs-source-cache");
+        Path module = tempFolder.resolve("answer.js");
+        Files.write(module, "module.exports = 42;".getBytes(StandardCharsets.UTF_8));
+        Map<String, String> options = new HashMap<>();
+        options.put(COMMONJS_REQUIRE_NAME, "true");
+        options.put(COMMONJS_REQUIRE_CWD_NAME, tempFolder.toAbsolutePath().toString());
+        options.put(COMMONJS_SOURCE_CACHE_NAME, "true");
+        try (Engine engine = Engine.newBuilder().build()) {
+            for (int i = 0; i < 2; i++) {
+                try (Context context = JSTest.newContextBuilder().engine(engine).allowIO(true).options(options).build()) {
+                    assertEquals(42, context.eval(ID, "require('./answer.js');").asInt());
+                }
+            }
+            // a changed file must not be served from the cache
+            Files.write(module, "module.exports = 4242;".getBytes(StandardCharsets.UTF_8));
+            try (Context context = JSTest.newContextBuilder().engine(engine).allowIO(true).options(options).build()) {
+                assertEquals(4242, context.eval(ID, "require('./answer.js');").asInt());
+            }
+            // neither if its size and modification time stay the same
+            long lastModified = module.toFile().lastModified();
+            Files.write(module, "module.exports = 4343;".getBytes(StandardCharsets.UTF_8));
+            module.toFile().setLastModified(lastModified);
+            try (Context context = JSTest.newContextBuilder().engine(engine).allowIO(true).options(options).build()) {
+                assertEquals(4343, context.eval(ID, "require('./answer.js');").asInt());
+            }
+        }
+    }
+
+    @Test
+    public void resolutionCache() throws IOException {
+        Path tempFolder = Files.createTempDirectory("commonjs-resolution-cache");
+        Files.write(tempFolder.resolve("present.js"), "module.exports = 'present';".getBytes(StandardCharsets.UTF_8));
+        Map<String, String> options = new HashMap<>();
+        options.put(COMMONJS_REQUIRE_NAME, "true");
+        options.put(COMMONJS_REQUIRE_CWD_NAME, tempFolder.toAbsolutePath().toString());
+        options.put(COMMONJS_RESOLUTION_CACHE_NAME, "true");
+        try (Context context = JSTest.newContextBuilder().allowIO(true).options(options).build()) {
+            String code = "function load(name) { try { return require(name); } catch (e) { return 'missing'; } }";
+            context.eval(ID, code);
+            assertEquals("present", context.eval(ID, "load('./present')").asString());
+            assertEquals("missing", context.eval(ID, "load('./absent')").asString());
+            // failed lookups are cached, too
+            Files.write(tempFolder.resolve("absent.js"), "module.exports = 'absent';".getBytes(StandardCharsets.UTF_8));
+            assertEquals("missing", context.eval(ID, "load('./absent')").asString());
+            assertEquals("present", context.eval(ID, "load('./present')").asString());
+        }
+    }
+
+    @Test
+    public void resolutionCacheWatch() throws IOException, InterruptedException {
+        Path tempFolder = Files.createTempDirectory("commonjs-resolution-cache-watch");
+        Map<String, String> options = new HashMap<>();
+        options.put(COMMONJS_REQUIRE_NAME, "true");
+        options.put(COMMONJS_REQUIRE_CWD_NAME, tempFolder.toAbsolutePath().toString());
+        options.put(COMMONJS_RESOLUTION_CACHE_NAME, "true");
+        options.put(COMMONJS_RESOLUTION_CACHE_WATCH_NAME, "true");
+        try (Context context = JSTest.newContextBuilder().allowIO(true).options(options).build()) {
+            context.eval(ID, "function load(name) { try { return require(name); } catch (e) { return 'missing'; } }");
+            assertEquals("missing", context.eval(ID, "load('./absent')").asString());
+            Files.write(tempFolder.resolve("absent.js"), "module.exports = 'absent';".getBytes(StandardCharsets.UTF_8));
+            // the change is reported asynchronously
+            String result = "missing";
+            for (int i = 0; i < 100 && result.equals("missing"); i++) {
+                Thread.sleep(50);
+                result = context.eval(ID, "load('./absent')").asString();
+            }
+            assertEquals("absent", result);
+        }
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Date string parsing by {@code Date.parse} and the {@code Date} constructor.
+ */
+public class DateParseTest {
+
+    private static String eval(String source) {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.TIME_ZONE_NAME, "America/New_York").build()) {
+            return context.eval(JavaScriptLanguage.ID, source).toString();
+        }
+    }
+
+    @Test
+    public void testCommonFormats() {
+        String source = "['2020-01-01T00:00:00.000Z', '2020-01-01', '2020-01-01T01:00:00.000+01:00', '2019-12-31T19:00:00', 'Wed, 01 Jan 2020 00:00:00 GMT', " +
+                        "'Wed Jan 01 2020 01:00:00 GMT+0100 (Central European Standard Time)', '31 Dec 2019 16:00:00 -0800', 'Dec 31 2019 19:00:00']" +
+                        ".map(s => Date.parse(s) === 1577836800000 && new Date(s).getTime() === 1577836800000).join();";
+        assertEquals("true,true,true,true,true,true,true,true", eval(source));
+    }
+
+    @Test
+    public void testLocalTime() {
+        assertEquals("1577854800000,1593576000000,1593576000000", eval("[Date.parse('2020-01-01T00:00'), Date.parse('2020-07-01T00:00:00.000'), Date.parse('Jul 1 2020 00:00:00')].join();"));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        String source = "var bad = 0; for (var t = Date.UTC(1900, 0, 1); t < Date.UTC(2100, 0, 1); t += 86400000 * 37 + 3600000 * 5 + 61001) { var d = new Date(t); " +
+                        "if (Date.parse(d.toISOString()) !== t) bad++; " +
+                        "if (Date.parse(d.toUTCString()) !== t - t % 1000) bad++; " +
+                        "if (Date.parse(d.toString()) !== t - t % 1000) bad++; } String(bad);";
+        assertEquals("0", eval(source));
+    }
+
+    @Test
+    public void testRepeatedStrings() {
+        String source = "var result = []; for (var i = 0; i < 3; i++) { result.push(Date.parse('1/2/2020'), Date.parse(' 2020-01-02T05:00Z '), Date.parse('2020-13-01'), Date.parse('foo')); } result.join();";
+        assertEquals("1577941200000,1577941200000,NaN,NaN,1577941200000,1577941200000,NaN,NaN,1577941200000,1577941200000,NaN,NaN", eval(source));
+    }
+}
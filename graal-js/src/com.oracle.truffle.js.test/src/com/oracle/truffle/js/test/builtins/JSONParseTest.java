@@ -43,11 +43,19 @@ package com.oracle.truffle.js.test.builtins;
 import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
 import org.graalvm.polyglot.Value;
 import org.junit.Test;
 
+import com.oracle.truffle.js.runtime.JSContextOptions;
 import com.oracle.truffle.js.test.JSTest;
 
 public class JSONParseTest {
@@ -61,4 +69,107 @@ public class JSONParseTest {
         }
     }
 
+    @Test
+    public void testJSONParseRecordArrays() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            String[] inputs = new String[]{
+                            "[{\"a\":1,\"b\":\"x\"},{\"a\":2,\"b\":\"y\"},{\"a\":3.5,\"b\":null},{\"a\":\"s\",\"b\":{\"c\":[1]}}]",
+                            "[{\"a\":1,\"b\":2},{\"b\":3,\"a\":4},{\"a\":5},{\"a\":6,\"b\":7,\"c\":8},{\"a\":9,\"b\":10}]",
+                            "[{\"a\":1,\"a\":2},{\"a\":3,\"a\":4},{\"a\\u0062\":1},{\"ab\":2},{\"1\":0,\"__proto__\":1},{\"1\":2,\"__proto__\":3}]",
+                            "[{\"p\":{\"q\":1}},{\"p\":{\"q\":true}},{\"p\":{\"r\":2}},{\"p\":[{\"q\":3}]}]",
+            };
+            Value check = context.eval(ID, "(function(text) {" +
+                            "  var result = JSON.parse(text);" +
+                            "  var expected = JSON.parse(text, function(k, v) { return v; });" +
+                            "  return JSON.stringify(result) === JSON.stringify(expected) &&" +
+                            "    result.every(function(o, i) { return JSON.stringify(Object.keys(o)) === JSON.stringify(Object.keys(expected[i])); });" +
+                            "})");
+            for (String input : inputs) {
+                assertTrue(input, check.execute(input).asBoolean());
+            }
+            Value records = context.eval(ID, "var r = JSON.parse('[' + Array(100).fill('{\"id\":1,\"name\":\"n\",\"tags\":[]}').join(',') + ']');" +
+                            "r[50].id = 'changed'; delete r[60].name; r[70].extra = true;" +
+                            "[r.length, r[50].id, r[60].name, r[70].extra, r[99].id, Object.keys(r[99]).join()]");
+            assertEquals(100, records.getArrayElement(0).asInt());
+            assertEquals("changed", records.getArrayElement(1).asString());
+            assertTrue(records.getArrayElement(2).isNull());
+            assertTrue(records.getArrayElement(3).asBoolean());
+            assertEquals(1, records.getArrayElement(4).asInt());
+            assertEquals("id,name,tags", records.getArrayElement(5).asString());
+        }
+    }
+
+    private static Context newBufferContext() {
+        return JSTest.newContextBuilder().allowHostAccess(HostAccess.ALL).option(JSContextOptions.JSON_PARSE_BUFFERS_NAME, "true").build();
+    }
+
+    @Test
+    public void testJSONParseArrayBuffer() {
+        try (Context context = newBufferContext()) {
+            String code = "var text = '{\"a\":[1,-0,2.5e1,\"\\u00e9\u00e9\ud83d\ude00\"],\"b\":{\"c\":null,\"d\":true}}';" +
+                            "var bytes = new Uint8Array(unescape(encodeURIComponent(text)).split('').map(function(c) { return c.charCodeAt(0); }));" +
+                            "var expected = JSON.stringify(JSON.parse(text));" +
+                            "var padded = new Uint8Array(bytes.length + 4); padded.set(bytes, 2);" +
+                            "[JSON.stringify(JSON.parse(bytes.buffer)) === expected," +
+                            " JSON.stringify(JSON.parse(new Uint8Array(padded.buffer, 2, bytes.length))) === expected," +
+                            " JSON.stringify(JSON.parse(new DataView(padded.buffer, 2, bytes.length))) === expected," +
+                            " Object.is(JSON.parse(bytes.buffer).a[1], -0)," +
+                            " JSON.parse(bytes.buffer, function(k, v) { return k === 'c' ? 42 : v; }).b.c === 42].every(function(x) { return x; })";
+            assertTrue(context.eval(ID, code).asBoolean());
+        }
+    }
+
+    @Test
+    public void testJSONParseHostInputs() {
+        try (Context context = newBufferContext()) {
+            Value parse = context.eval(ID, "JSON.parse");
+            Value fromBuffer = parse.execute(ByteBuffer.wrap("[1, \"x\", {\"y\": false}]".getBytes(StandardCharsets.UTF_8)));
+            assertEquals(3, fromBuffer.getArraySize());
+            assertEquals("x", fromBuffer.getArrayElement(1).asString());
+            Value fromReader = parse.execute(new StringReader("{\"key\": 12345678901234567890}"));
+            assertEquals(12345678901234567890d, fromReader.getMember("key").asDouble(), 0.0);
+        }
+    }
+
+    @Test
+    public void testJSONParseBufferSyntaxError() {
+        try (Context context = newBufferContext()) {
+            Value parse = context.eval(ID, "JSON.parse");
+            for (String text : new String[]{"[1,]", "{\"a\" 1}", "01", "[1", "\"abc"}) {
+                try {
+                    parse.execute(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+                    fail(text);
+                } catch (PolyglotException e) {
+                    assertTrue(e.getMessage(), e.getMessage().startsWith("SyntaxError"));
+                }
+            }
+            for (String text : new String[]{"[1", "\"abc", "{\"a\":"}) {
+                String expected = null;
+                try {
+                    parse.execute(text);
+                    fail(text);
+                } catch (PolyglotException e) {
+                    expected = e.getMessage();
+                }
+                try {
+                    parse.execute(new StringReader(text));
+                    fail(text);
+                } catch (PolyglotException e) {
+                    assertEquals(expected, e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testJSONParseBufferDisabledByDefault() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            try {
+                context.eval(ID, "JSON.parse(new Uint8Array([0x31]).buffer)");
+                fail();
+            } catch (PolyglotException e) {
+                assertTrue(e.isGuestException());
+            }
+        }
+    }
 }
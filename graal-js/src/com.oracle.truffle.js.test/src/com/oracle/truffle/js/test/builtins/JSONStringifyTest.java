@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.builtins;
+
+import static com.oracle.truffle.js.lang.JavaScriptLanguage.ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.junit.Test;
+
+import com.oracle.truffle.js.test.JSTest;
+
+public class JSONStringifyTest {
+
+    private static String eval(String code) {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            return context.eval(ID, code).asString();
+        }
+    }
+
+    @Test
+    public void testSameShapeRecords() {
+        assertEquals("[{\"a\":1,\"b\\\"c\":\"x\"},{\"a\":2,\"b\\\"c\":\"y\"}]", eval("JSON.stringify([{a: 1, 'b\"c': 'x'}, {a: 2, 'b\"c': 'y'}])"));
+        assertEquals("[\n  {\n    \"a\": 1\n  },\n  {\n    \"a\": 2\n  }\n]", eval("JSON.stringify([{a: 1}, {a: 2}], null, 2)"));
+        assertEquals("[{\"1\":1,\"b\":2},{\"1\":3,\"b\":4}]", eval("JSON.stringify([{b: 2, 1: 1}, {b: 4, 1: 3}])"));
+        assertEquals("[{\"a\":1},{\"a\":2}]", eval("JSON.stringify([{a: 1, f: function() {}, u: undefined}, {a: 2, f: function() {}, u: undefined}])"));
+    }
+
+    @Test
+    public void testAccessorsAndHiddenProperties() {
+        assertEquals("[{\"a\":1,\"g\":0},{\"a\":2,\"g\":42}]", eval("JSON.stringify([{a: 1, g: 0}, {a: 2, get g() { return 42; }}])"));
+        assertEquals("{\"a\":1,\"g\":2}", eval("JSON.stringify({a: 1, get g() { return this.a + 1; }})"));
+        assertEquals("{\"a\":1}", eval("var o = {a: 1}; Object.defineProperty(o, 'h', {value: 2, enumerable: false}); JSON.stringify(o)"));
+    }
+
+    @Test
+    public void testMutationDuringSerialization() {
+        assertEquals("{\"a\":{\"x\":1},\"c\":4}", eval("var o = {a: {toJSON: function() { delete o.b; o.c = 4; return {x: 1}; }}, b: 2, c: 3}; JSON.stringify(o)"));
+        assertEquals("{\"a\":1,\"b\":\"changed\"}", eval("var o = {a: 1, b: 2}; JSON.stringify(o, function(k, v) { if (k === 'a') { o.b = 'changed'; } return v; })"));
+        assertEquals("{\"a\":1,\"b\":\"proto\"}", eval("var o = Object.create({b: 'proto'}); o.a = {toJSON: function() { delete o.b; return 1; }}; o.b = 2; JSON.stringify(o)"));
+    }
+
+    @Test
+    public void testCycleDetection() {
+        assertEquals("{\"a\":{},\"b\":{}}", eval("var shared = {}; JSON.stringify({a: shared, b: shared})"));
+        for (String code : new String[]{"var o = {}; o.self = o; JSON.stringify(o)", "var a = [{}]; a[0].a = a; JSON.stringify(a)"}) {
+            try {
+                eval(code);
+                fail(code);
+            } catch (PolyglotException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("TypeError"));
+            }
+        }
+    }
+}
@@ -47,6 +47,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
 import com.oracle.truffle.js.test.JSTest;
 
 public class RegExpBuiltinTest {
@@ -65,4 +66,29 @@ public class RegExpBuiltinTest {
         }
     }
 
+    @Test
+    public void testDynamicPatterns() {
+        String source = "var n = 0; for (var i = 0; i < 400; i++) { var re = new RegExp('^/route' + (i % 20) + '/(\\\\d+)$', i % 2 ? 'i' : ''); " +
+                        "var m = re.exec((i % 3 ? '/ROUTE' : '/route') + (i % 20) + '/' + i); if (m) { n++; if (m[1] !== String(i)) throw m; } } n;";
+        try (Context context = JSTest.newContextBuilder().build()) {
+            Assert.assertEquals(267, context.eval(JavaScriptLanguage.ID, source).asInt());
+        }
+        // entries are evicted from a tiny cache
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.REGEX_CACHE_SIZE_NAME, "2").build()) {
+            Assert.assertEquals(267, context.eval(JavaScriptLanguage.ID, source).asInt());
+        }
+    }
+
+    @Test
+    public void testDynamicPatternsInvalidFlags() {
+        String source = "function re(p, f) { return new RegExp(p, f); }\n" +
+                        "for (var i = 0; i < 20; i++) { re('p' + i, 'g'); }\n" +
+                        "re('/x', 'g');\n" +
+                        "try { re('x', 'g/'); 'no error'; } catch (e) { e.constructor.name; }";
+        try (Context context = JSTest.newContextBuilder().build()) {
+            // must not return the cached regex of a different pattern/flags pair
+            Assert.assertEquals("SyntaxError", context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+
 }
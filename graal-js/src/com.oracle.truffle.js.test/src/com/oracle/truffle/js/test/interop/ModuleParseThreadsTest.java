@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.interop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Tests ES module loading with {@link JSContextOptions#MODULE_PARSE_THREADS background parsing}.
+ */
+public class ModuleParseThreadsTest {
+
+    private static void write(Path dir, String name, String code) throws IOException {
+        Files.write(dir.resolve(name), code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String evalModule(Path main) throws IOException {
+        try (Context context = JSTest.newContextBuilder().allowIO(true).option(JSContextOptions.MODULE_PARSE_THREADS_NAME, "4").build()) {
+            context.eval(Source.newBuilder(JavaScriptLanguage.ID, main.toFile()).mimeType(JavaScriptLanguage.MODULE_MIME_TYPE).build());
+            return context.eval(JavaScriptLanguage.ID, "globalThis.order.join()").asString();
+        }
+    }
+
+    @Test
+    public void testEvaluationOrder() throws IOException {
+        Path dir = Files.createTempDirectory("js-modules");
+        write(dir, "log.mjs", "globalThis.order = []; export function log(s) { globalThis.order.push(s); }");
+        write(dir, "a.mjs", "import {log} from './log.mjs'; import './c.mjs'; log('a');");
+        write(dir, "b.mjs", "import {log} from './log.mjs'; import {c} from './c.mjs'; log('b' + c);");
+        write(dir, "c.mjs", "import {log} from './log.mjs'; export const c = /c+/.source; log('c');");
+        for (int i = 0; i < 20; i++) {
+            write(dir, "m" + i + ".mjs", "import {log} from './log.mjs'; log('m" + i + "');");
+        }
+        StringBuilder main = new StringBuilder("import {log} from './log.mjs'; import './a.mjs'; import './b.mjs';\n");
+        StringBuilder expected = new StringBuilder("c,a,bc+");
+        for (int i = 0; i < 20; i++) {
+            main.append("import './m").append(i).append(".mjs';\n");
+            expected.append(",m").append(i);
+        }
+        main.append("log('main');");
+        expected.append(",main");
+        write(dir, "main.mjs", main.toString());
+
+        assertEquals(expected.toString(), evalModule(dir.resolve("main.mjs")));
+    }
+
+    @Test
+    public void testSyntaxErrorInDependency() throws IOException {
+        Path dir = Files.createTempDirectory("js-modules");
+        write(dir, "log.mjs", "globalThis.order = []; export function log(s) { globalThis.order.push(s); }");
+        write(dir, "bad.mjs", "export const x = /(/;");
+        write(dir, "main.mjs", "import {log} from './log.mjs'; import {x} from './bad.mjs'; log(x);");
+        try {
+            evalModule(dir.resolve("main.mjs"));
+            fail("expected SyntaxError");
+        } catch (PolyglotException e) {
+            assertTrue(e.isSyntaxError());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Objects with many dynamically added properties switch to dictionary mode.
+ */
+public class DictionaryObjectTest {
+
+    private static final String FILL = "var o = {}; for (var i = 0; i < 2000; i++) o['k' + i] = i; ";
+
+    private static String eval(String source) {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            return context.eval(JavaScriptLanguage.ID, source).toString();
+        }
+    }
+
+    @Test
+    public void testGetSet() {
+        assertEquals("1999000", eval(FILL + "var s = 0; for (var k in o) s += o[k]; String(s);"));
+        assertEquals("2000,1,2999", eval(FILL + "for (var j = 0; j < 3; j++) o.k1999 += 1000; [Object.keys(o).length, o.k1, o.k1999 - 2000].join();"));
+    }
+
+    @Test
+    public void testKeyOrder() {
+        assertEquals("k0,k1,k1999,k3,10", eval(FILL + "delete o.k2; o.k3 = -1; delete o.k1999; o.k1999 = 0; o[10] = 1; var keys = Object.keys(o); " +
+                        "[keys[1], keys[2], keys[keys.length - 1], keys[3], keys[0]].join();"));
+    }
+
+    @Test
+    public void testDelete() {
+        assertEquals("true,undefined,1999", eval(FILL + "var r = delete o.k5; o.k5; [r, o.k5, Object.keys(o).length].join();"));
+        assertEquals("false,7", eval(FILL + "Object.defineProperty(o, 'fixed', {value: 7}); [delete o.fixed, o.fixed].join();"));
+    }
+
+    @Test
+    public void testAttributes() {
+        assertEquals("1,false", eval(FILL + "Object.defineProperty(o, 'ro', {value: 1, enumerable: true}); o.ro = 2; [o.ro, Object.getOwnPropertyDescriptor(o, 'ro').writable].join();"));
+        assertEquals("42,43", eval(FILL + "var v = 42; Object.defineProperty(o, 'acc', {get() { return v; }, set(x) { v = x; }, configurable: true}); " +
+                        "var r = o.acc; o.acc = 43; [r, o.acc].join();"));
+        assertEquals("5,true", eval(FILL + "Object.defineProperty(o, 'k1', {value: 5, writable: false}); [o.k1, 'k1999' in o].join();"));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class IntlFormatterCacheTest {
+
+    private static Context.Builder newContextBuilder() {
+        return JSTest.newContextBuilder().option(JSContextOptions.INTL_402_NAME, "true").option(JSContextOptions.DEBUG_BUILTIN_NAME, "true");
+    }
+
+    @Test
+    public void testSharedFormatters() {
+        String source = "var r = []; for (var i = 0; i < 100; i++) r.push((1234.5 + i).toLocaleString('en-US', {style: 'currency', currency: 'USD'})); " +
+                        "r.push((1234.5).toLocaleString('de-DE'), new Date(0).toLocaleString('en-US', {timeZone: 'UTC', year: 'numeric'})); " +
+                        "var c = Debug.intlFormatterCacheCounters(); [r[0], r[99], r[100], r[101], c.misses, c.hits].join(';');";
+        try (Context context = newContextBuilder().build()) {
+            assertEquals("$1,234.50;$1,333.50;1.234,5;1970;3;99", context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+
+    @Test
+    public void testSharedAmongContexts() {
+        String source = "new Intl.DateTimeFormat('en-US', {timeZone: 'UTC', hour: 'numeric'}).format(0) + ';' + Debug.intlFormatterCacheCounters().hits;";
+        try (Engine engine = Engine.newBuilder().build()) {
+            try (Context context = newContextBuilder().engine(engine).build()) {
+                assertEquals("12 AM;0", context.eval(JavaScriptLanguage.ID, source).asString());
+            }
+            try (Context context = newContextBuilder().engine(engine).build()) {
+                assertEquals("12 AM;1", context.eval(JavaScriptLanguage.ID, source).asString());
+            }
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        try (Context context = newContextBuilder().option(JSContextOptions.INTL_FORMATTER_CACHE_SIZE_NAME, "0").build()) {
+            assertEquals("1.235;true", context.eval(JavaScriptLanguage.ID, "(1.2345).toLocaleString('en') + ';' + (Debug.intlFormatterCacheCounters() === undefined);").asString());
+        }
+    }
+}
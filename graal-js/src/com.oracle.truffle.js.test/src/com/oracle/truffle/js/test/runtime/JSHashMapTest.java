@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oracle.truffle.js.runtime.util.JSHashMap;
+
+public class JSHashMapTest {
+
+    private static List<Object> keys(JSHashMap.Cursor cursor) {
+        List<Object> keys = new ArrayList<>();
+        while (cursor.advance()) {
+            keys.add(cursor.getKey());
+        }
+        return keys;
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "v" + i);
+            map.put("k" + i, i);
+        }
+        assertEquals(2000, map.size());
+        for (int i = 0; i < 1000; i += 2) {
+            assertTrue(map.remove(i));
+            assertTrue(map.remove("k" + i));
+        }
+        assertFalse(map.remove(0));
+        assertEquals(1000, map.size());
+        assertEquals("v1", map.get(1));
+        assertEquals("v1", map.getIntKey(1));
+        assertNull(map.getIntKey(2));
+        assertTrue(map.hasIntKey(999));
+        assertEquals(999, map.get("k999"));
+
+        List<Object> keys = keys(map.getEntries());
+        assertEquals(1000, keys.size());
+        assertEquals(Arrays.asList(1, "k1", 3, "k3"), keys.subList(0, 4));
+
+        // re-inserting a removed key appends it at the end
+        map.put(0, "v0");
+        keys = keys(map.getEntries());
+        assertEquals(0, keys.get(keys.size() - 1));
+    }
+
+    @Test
+    public void testCursorWithConcurrentModification() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        JSHashMap.Cursor cursor = map.getEntries();
+        List<Object> visited = new ArrayList<>();
+        while (cursor.advance()) {
+            Object key = cursor.getKey();
+            visited.add(key);
+            int i = (Integer) key;
+            // removes the current and the next entry, triggering compaction of the table
+            map.remove(i);
+            map.remove(i + 1);
+            if (i == 50) {
+                map.put(1000, 1000);
+            }
+        }
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i += 2) {
+            expected.add(i);
+        }
+        expected.add(1000);
+        assertEquals(expected, visited);
+        assertEquals(0, map.size());
+        assertFalse(cursor.advance());
+        map.put(1, 1);
+        assertFalse("exhausted cursor must stay exhausted", cursor.advance());
+    }
+
+    @Test
+    public void testCursorAcrossClear() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+        JSHashMap.Cursor cursor = map.getEntries();
+        assertTrue(cursor.advance());
+        assertTrue(cursor.advance());
+        JSHashMap.Cursor copy = cursor.copy();
+        map.clear();
+        map.put("a", "a");
+        map.put("b", "b");
+        assertEquals(Arrays.asList("a", "b"), keys(cursor));
+        assertEquals(1, copy.getKey());
+        assertEquals(Arrays.asList("a", "b"), keys(copy));
+    }
+
+    @Test
+    public void testCursorValueIsLive() {
+        JSHashMap map = new JSHashMap();
+        for (int i = 0; i < 10; i++) {
+            map.putIntKey(i, "v" + i);
+        }
+        map.putIntKey(3, "w3");
+        assertEquals(10, map.size());
+        assertEquals("w3", map.getIntKey(3));
+
+        JSHashMap.Cursor cursor = map.getEntries();
+        assertTrue(cursor.advance());
+        assertTrue(cursor.advance());
+        assertEquals("v1", cursor.getValue());
+        map.put(1, "w1");
+        assertEquals("w1", cursor.getValue());
+        // a removed entry keeps its last value, also across a rehash that drops it
+        map.remove(1);
+        for (int i = 2; i < 10; i++) {
+            map.remove(i);
+        }
+        assertEquals(1, cursor.getKey());
+        assertEquals("w1", cursor.getValue());
+        assertEquals(Arrays.asList(0), keys(map.getEntries()));
+        assertFalse(cursor.advance());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class LazyParsingTest {
+
+    private static Context newContext() {
+        return JSTest.newContextBuilder().option(JSContextOptions.LAZY_TRANSLATION_NAME, "true").option(JSContextOptions.LAZY_PARSING_NAME, "true").build();
+    }
+
+    private static void assertResult(String expected, String source) {
+        try (Context context = newContext()) {
+            assertEquals(expected, context.eval(JavaScriptLanguage.ID, source).toString());
+        }
+    }
+
+    @Test
+    public void testClosures() {
+        assertResult("42", "function outer() { var x = 40; function inner(y) { return function() { return x + y; }; } return inner(2)(); } outer();");
+        assertResult("3", "function counter() { var c = 0; return function inc() { return ++c; }; } var f = counter(); f(); f(); f();");
+        assertResult("120", "var fact = function f(n) { return n <= 1 ? 1 : n * f(n - 1); }; fact(5);");
+    }
+
+    @Test
+    public void testRegExpAndDivision() {
+        assertResult("true,2,1", "function f(a, b) { var r = /[}{]/g; if (a) /x/.test('x'); var q = a / b / 1; return [r.test('}'), q, (a) / 2]; } f(2, 1).join();");
+    }
+
+    @Test
+    public void testArgumentsAndThis() {
+        assertResult("3", "function f() { return arguments.length; } f(1, 2, 3);");
+        assertResult("7", "function f() { return this.x; } f.call({x: 7});");
+    }
+
+    @Test
+    public void testFallback() {
+        assertResult("5", "var x = 5; function f() { return eval('x'); } f();");
+        assertResult("1-2", "function f(a, b) { return `${a}-${b}`; } f(1, 2);");
+        assertResult("true", "function f() { 'use strict'; return this === undefined; } f();");
+    }
+
+    @Test
+    public void testToString() {
+        String fn = "function f(a) { return a / 2; }";
+        assertResult(fn, fn + " f.toString();");
+    }
+
+    @Test
+    public void testEarlySyntaxError() {
+        String[] sources = {
+                        "function f() { return 1 +; }",
+                        "function f() { break; }",
+                        "function f() { 1 = 2; }",
+                        "function f() { try {} }",
+                        "function f() { 'use strict'; return 010; }",
+        };
+        try (Context context = newContext()) {
+            for (String source : sources) {
+                try {
+                    context.eval(JavaScriptLanguage.ID, source);
+                    fail("SyntaxError expected: " + source);
+                } catch (PolyglotException e) {
+                    assertTrue(e.getMessage(), e.isSyntaxError());
+                }
+            }
+        }
+    }
+}
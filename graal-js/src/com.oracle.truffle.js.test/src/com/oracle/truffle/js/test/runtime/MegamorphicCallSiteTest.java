@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class MegamorphicCallSiteTest {
+
+    private static final String SOURCE = "var fns = [], ctors = []; for (var i = 0; i < 20; i++) { fns.push(new Function('x', 'return x + ' + i)); " +
+                    "ctors.push(new Function('x', 'this.v = x * ' + i)); } fns.push(function(x) { return x; }.bind(null), Math.abs); " +
+                    "function callIt(f, x) { return f(x); } function construct(C, x) { return new C(x).v; } " +
+                    "var sum = 0; for (var k = 0; k < 10; k++) { for (var i = 0; i < fns.length; i++) sum += callIt(fns[i], k); " +
+                    "for (var i = 0; i < ctors.length; i++) sum += construct(ctors[i], k); } sum;";
+
+    private static Context.Builder newContextBuilder(int dispatchSize) {
+        return JSTest.newContextBuilder().option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").option(JSContextOptions.MEGAMORPHIC_CALL_CACHE_SIZE_NAME, String.valueOf(dispatchSize));
+    }
+
+    @Test
+    public void testResults() {
+        for (int dispatchSize : new int[]{0, 4, 8, 64}) {
+            try (Context context = newContextBuilder(dispatchSize).build()) {
+                assertEquals(10 * 190 + 45 * (20 + 2 + 190), context.eval(JavaScriptLanguage.ID, SOURCE).asInt());
+            }
+        }
+    }
+
+    @Test
+    public void testFrequentTargets() {
+        String source = "var fns = []; for (var i = 0; i < 20; i++) { fns.push(new Function('x', 'return x + ' + i)); } " +
+                        "function callIt(f, x) { return f(x); } var sum = 0; for (var k = 0; k < 10; k++) { " +
+                        "for (var i = 0; i < fns.length; i++) sum += callIt(fns[i], k); " +
+                        "for (var j = 0; j < 3; j++) for (var r = 0; r < 20; r++) sum += callIt(fns[j], k); } sum;";
+        try (Context context = newContextBuilder(4).build()) {
+            assertEquals(10 * 190 + 45 * 20 + 10 * 20 * 3 + 45 * 60, context.eval(JavaScriptLanguage.ID, source).asInt());
+            Value counters = context.eval(JavaScriptLanguage.ID, "Debug.megamorphicCallSiteCounters()");
+            assertTrue(counters.getMember("sites").asLong() >= 1);
+            assertTrue(counters.getMember("targets").asLong() >= 3);
+            assertEquals(0, counters.getMember("full").asLong());
+        }
+    }
+
+    @Test
+    public void testInfrequentTargets() {
+        try (Context context = newContextBuilder(4).build()) {
+            context.eval(JavaScriptLanguage.ID, SOURCE);
+            Value counters = context.eval(JavaScriptLanguage.ID, "Debug.megamorphicCallSiteCounters()");
+            assertTrue(counters.getMember("sites").asLong() >= 2);
+            assertEquals(0, counters.getMember("targets").asLong());
+        }
+    }
+}
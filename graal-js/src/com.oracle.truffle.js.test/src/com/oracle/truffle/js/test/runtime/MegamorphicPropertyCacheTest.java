@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class MegamorphicPropertyCacheTest {
+
+    private static final String SHAPES = "var objects = []; for (var i = 0; i < 64; i++) { var o = {}; o['p' + i] = i; o.x = i; objects.push(o); } " +
+                    "var proto = {inherited: 'p'}; Object.defineProperty(proto, 'getter', {get: function() { return this.x * 2; }}); " +
+                    "for (var i = 0; i < 8; i++) { var o = Object.create(proto); o['q' + i] = i; o.x = 100 + i; objects.push(o); } " +
+                    "var frozen = Object.freeze({x: 'frozen'}); objects.push(frozen); " +
+                    "var proxy = new Proxy({x: 'target'}, {get: function(t, k) { return k === 'x' ? 'proxy' : t[k]; }}); objects.push(proxy); " +
+                    "objects.push([1, 2, 3], new Map(), function f() {}, 'string', 42);";
+
+    private static Context.Builder newContextBuilder() {
+        return JSTest.newContextBuilder().option(JSContextOptions.DEBUG_BUILTIN_NAME, "true");
+    }
+
+    private static String run(Context.Builder builder) {
+        String source = SHAPES +
+                        "function getX(o) { return o.x; } function getInherited(o) { return o.inherited; } function getGetter(o) { return o.getter; } " +
+                        "function hasX(o) { return typeof o === 'object' && 'x' in o; } function setX(o, v) { o.x = v; } " +
+                        "var r = []; for (var k = 0; k < 3; k++) { r = []; for (var i = 0; i < objects.length; i++) { " +
+                        "var o = objects[i]; r.push(String(getX(o)), String(getInherited(o)), String(getGetter(o)), String(hasX(o))); } } " +
+                        "for (var i = 0; i < objects.length; i++) { if (typeof objects[i] === 'object') setX(objects[i], 'set' + i); } " +
+                        "for (var i = 0; i < objects.length; i++) { r.push(String(getX(objects[i]))); } r.join(',');";
+        try (Context context = builder.build()) {
+            return context.eval(JavaScriptLanguage.ID, source).asString();
+        }
+    }
+
+    @Test
+    public void testSameResultsAsWithoutCache() {
+        String expected = run(newContextBuilder().option(JSContextOptions.MEGAMORPHIC_PROPERTY_CACHE_SIZE_NAME, "0"));
+        assertEquals(expected, run(newContextBuilder()));
+        assertEquals(expected, run(newContextBuilder().option(JSContextOptions.MEGAMORPHIC_PROPERTY_CACHE_SIZE_NAME, "1")));
+    }
+
+    @Test
+    public void testPrototypeChanges() {
+        String source = SHAPES + "function getX(o) { return o.x; } function getY(o) { return o.y; } function hasY(o) { return 'y' in o; } " +
+                        "var r = []; function probe() { for (var i = 64; i < 72; i++) { r.push(String(getX(objects[i])), String(getY(objects[i])), String(hasY(objects[i]))); } } " +
+                        "for (var k = 0; k < 3; k++) { for (var i = 0; i < 64; i++) { getX(objects[i]); getY(objects[i]); hasY(objects[i]); } probe(); } " +
+                        "proto.y = 'added'; probe(); " +
+                        "Object.setPrototypeOf(proto, {y: 'inherited', x: 'shadowed'}); probe(); " +
+                        "delete proto.y; probe(); " +
+                        "Object.setPrototypeOf(objects[64], {y: 'other'}); probe(); r.join(',');";
+        String expected;
+        try (Context context = newContextBuilder().option(JSContextOptions.MEGAMORPHIC_PROPERTY_CACHE_SIZE_NAME, "0").build()) {
+            expected = context.eval(JavaScriptLanguage.ID, source).asString();
+        }
+        try (Context context = newContextBuilder().build()) {
+            assertEquals(expected, context.eval(JavaScriptLanguage.ID, source).asString());
+        }
+    }
+
+    @Test
+    public void testCounters() {
+        try (Context context = newContextBuilder().option(JSContextOptions.MEGAMORPHIC_PROPERTY_CACHE_STATS_NAME, "true").build()) {
+            Value counters = context.eval(JavaScriptLanguage.ID, SHAPES + "function getX(o) { return o.x; } " +
+                            "for (var k = 0; k < 10; k++) for (var i = 0; i < 64; i++) getX(objects[i]); Debug.megamorphicPropertyCacheCounters();");
+            assertTrue(counters.getMember("misses").asLong() > 0);
+            assertTrue(counters.getMember("hits").asLong() > counters.getMember("misses").asLong());
+        }
+    }
+
+    @Test
+    public void testCountersDisabled() {
+        try (Context context = newContextBuilder().build()) {
+            assertTrue(context.eval(JavaScriptLanguage.ID, "Debug.megamorphicPropertyCacheCounters() === undefined").asBoolean());
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        Context.Builder builder = newContextBuilder().option(JSContextOptions.MEGAMORPHIC_PROPERTY_CACHE_SIZE_NAME, "0");
+        try (Context context = builder.option(JSContextOptions.MEGAMORPHIC_PROPERTY_CACHE_STATS_NAME, "true").build()) {
+            assertTrue(context.eval(JavaScriptLanguage.ID, "Debug.megamorphicPropertyCacheCounters() === undefined").asBoolean());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class PromiseJobQueueTest {
+
+    @Test
+    public void testJobOrder() {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            context.eval(JavaScriptLanguage.ID, "var log = [];" +
+                            "var thenable = { then(resolve) { log.push('then'); resolve('t'); } };" +
+                            "Promise.resolve(thenable).then(v => log.push(v));" +
+                            "Promise.resolve(1).then(v => log.push(v)).then(() => log.push(2));" +
+                            "Promise.reject(new Error('x')).catch(e => log.push(e.message));" +
+                            "(async function() { log.push('a'); await null; log.push('b'); })();");
+            assertEquals("a,then,1,x,b,t,2", context.eval(JavaScriptLanguage.ID, "log.join()").asString());
+        }
+    }
+
+    @Test
+    public void testCounters() {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.DEBUG_BUILTIN_NAME, "true").build()) {
+            context.eval(JavaScriptLanguage.ID, "var p = Promise.resolve(0); for (var i = 0; i < 100; i++) { p = p.then(v => v + 1); } p.then(v => globalThis.result = v);");
+            assertEquals(100, context.eval(JavaScriptLanguage.ID, "result").asInt());
+            Value counters = context.eval(JavaScriptLanguage.ID, "Debug.promiseJobCounters()");
+            long enqueued = counters.getMember("enqueued").asLong();
+            long run = counters.getMember("run").asLong();
+            long batches = counters.getMember("batches").asLong();
+            assertTrue(enqueued >= 101);
+            assertEquals(enqueued, run);
+            assertTrue(batches >= 1 && batches < run);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.test.JSTest;
+
+public class SparseArrayTest {
+
+    private static String eval(String source) {
+        try (Context context = JSTest.newContextBuilder().build()) {
+            return context.eval(JavaScriptLanguage.ID, source).toString();
+        }
+    }
+
+    @Test
+    public void testScatteredIndices() {
+        assertEquals("3,7,100000,2000000000,4000000000,4000000001", eval("var a = []; [4000000000, 7, 2000000000, 3, 100000, 4000000001].forEach(i => a[i] = i); Object.keys(a).join();"));
+        assertEquals("4000000002", eval("var a = []; a[4000000001] = 1; a[5] = 2; String(a.length);"));
+        assertEquals("2,1", eval("var a = []; a[5] = 1; a[100000] = 2; var r = []; a.forEach(v => r.unshift(v)); r.join();"));
+    }
+
+    @Test
+    public void testTruncate() {
+        assertEquals("0,64,128", eval("var a = []; for (var i = 0; i < 1000000; i += 64) a[i] = i; a.length = 129; Object.keys(a).join();"));
+        assertEquals("", eval("var a = []; a[10] = 1; a[100000] = 2; a.length = 0; Object.keys(a).join();"));
+    }
+
+    @Test
+    public void testShift() {
+        assertEquals("0:a,99999:b", eval("var a = []; a[1] = 'a'; a[100000] = 'b'; a.shift(); Object.keys(a).map(k => k + ':' + a[k]).join();"));
+        assertEquals("0:x,2:a,100001:b", eval("var a = []; a[1] = 'a'; a[100000] = 'b'; a.unshift('x'); Object.keys(a).map(k => k + ':' + a[k]).join();"));
+    }
+
+    @Test
+    public void testDenseAgain() {
+        assertEquals("200001,199999,100000,0", eval("var a = []; a[100000] = 0; for (var i = 199999; i > 100000; i--) a[i] = i; a[200000] = 1; " +
+                        "a.push(2); [a.length - 1, a.lastIndexOf(199999), a.indexOf(0), a.indexOf(undefined) + 1].join();"));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+/**
+ * Local time computations around daylight saving time transitions.
+ */
+public class TimeZoneOffsetCacheTest {
+
+    private static String eval(String timeZone, String source) {
+        try (Context context = JSTest.newContextBuilder().option(JSContextOptions.TIME_ZONE_NAME, timeZone).build()) {
+            return context.eval(JavaScriptLanguage.ID, source).toString();
+        }
+    }
+
+    @Test
+    public void testAroundTransitions() {
+        // 2020-03-08T07:00Z and 2020-11-01T06:00Z are the DST transitions in New York
+        String source = "[Date.UTC(2020, 2, 8, 6, 59, 59, 999), Date.UTC(2020, 2, 8, 7), Date.UTC(2020, 10, 1, 5, 59, 59, 999), Date.UTC(2020, 10, 1, 6)]" +
+                        ".map(t => { var d = new Date(t); return d.getHours() + ':' + d.getTimezoneOffset(); }).join();";
+        assertEquals("1:300,3:240,1:240,1:300", eval("America/New_York", source));
+    }
+
+    @Test
+    public void testLocalTimeInGapAndOverlap() {
+        assertEquals("3,240", eval("America/New_York", "var d = new Date(2020, 2, 8, 2, 30); [d.getHours(), d.getTimezoneOffset()].join();"));
+        assertEquals("1,240", eval("America/New_York", "var d = new Date(2020, 10, 1, 1, 30); [d.getHours(), d.getTimezoneOffset()].join();"));
+    }
+
+    @Test
+    public void testManyYears() {
+        assertEquals("0", eval("Europe/Prague", "var bad = 0; for (var t = Date.UTC(1990, 0, 1); t < Date.UTC(2030, 0, 1); t += 3600000 * 7) { " +
+                        "var d = new Date(t); if (new Date(d.getFullYear(), d.getMonth(), d.getDate(), d.getHours(), d.getMinutes()).getTime() !== t) bad++; } String(bad);"));
+    }
+}
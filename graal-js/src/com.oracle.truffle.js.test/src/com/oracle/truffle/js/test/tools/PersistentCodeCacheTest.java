@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.test.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.junit.Test;
+
+import com.oracle.truffle.js.lang.JavaScriptLanguage;
+import com.oracle.truffle.js.runtime.JSContextOptions;
+import com.oracle.truffle.js.test.JSTest;
+
+public class PersistentCodeCacheTest {
+
+    private static final String CODE = "function fib(n) { return n < 2 ? n : fib(n - 1) + fib(n - 2); }\n" +
+                    "var obj = {a: [1, 2, 3], s: 'text'};\n" +
+                    "class Point { constructor(x, y) { this.x = x; this.y = y; } sum() { return this.x + this.y; } }\n" +
+                    "fib(15) + obj.a.length + new Point(1, 2).sum();\n";
+
+    private static int eval(Path cacheDir, String code) {
+        try (Context context = JSTest.newContextBuilder().allowIO(true).option(JSContextOptions.CODE_CACHE_DIR_NAME, cacheDir.toString()).build()) {
+            return context.eval(Source.create(JavaScriptLanguage.ID, code)).asInt();
+        }
+    }
+
+    private static Path[] cacheFiles(Path cacheDir) throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.toArray(Path[]::new);
+        }
+    }
+
+    @Test
+    public void testStoreAndLoad() throws IOException {
+        Path cacheDir = Files.createTempDirectory("js-code-cache");
+        try {
+            assertEquals(616, eval(cacheDir, CODE));
+            Path[] files = cacheFiles(cacheDir);
+            assertEquals(1, files.length);
+            assertTrue(files[0].toString().endsWith(".jsc"));
+            long modified = files[0].toFile().lastModified();
+
+            assertEquals(616, eval(cacheDir, CODE));
+            assertEquals(1, cacheFiles(cacheDir).length);
+            assertEquals(modified, files[0].toFile().lastModified());
+
+            assertEquals(617, eval(cacheDir, CODE + "+ 1;"));
+            assertEquals(2, cacheFiles(cacheDir).length);
+        } finally {
+            deleteRecursively(cacheDir.toFile());
+        }
+    }
+
+    @Test
+    public void testCorruptEntry() throws IOException {
+        Path cacheDir = Files.createTempDirectory("js-code-cache");
+        try {
+            assertEquals(616, eval(cacheDir, CODE));
+            Path entry = cacheFiles(cacheDir)[0];
+            byte[] bytes = Files.readAllBytes(entry);
+            for (int i = bytes.length / 2; i < bytes.length; i++) {
+                bytes[i] = (byte) 0xff;
+            }
+            Files.write(entry, bytes);
+            try {
+                assertEquals(616, eval(cacheDir, CODE));
+            } catch (PolyglotException e) {
+                // corrupt functions are only detected when they are first called
+                assertTrue(e.getMessage(), e.getMessage().contains("Corrupt code cache entry"));
+            }
+            assertEquals(616, eval(cacheDir, CODE));
+
+            Files.write(entry, new byte[]{1, 2, 3});
+            assertEquals(616, eval(cacheDir, CODE));
+            assertTrue(Files.size(entry) > 3);
+        } finally {
+            deleteRecursively(cacheDir.toFile());
+        }
+    }
+
+    @Test
+    public void testSourceURLDirective() throws IOException {
+        Path cacheDir = Files.createTempDirectory("js-code-cache");
+        try {
+            assertEquals(616, eval(cacheDir, CODE + "//# sourceURL=fib.js\n"));
+            assertEquals(616, eval(cacheDir, CODE + "//@ sourceURL=fib.js\n"));
+            assertEquals(0, cacheFiles(cacheDir).length);
+
+            assertEquals(616, eval(cacheDir, "'sourceURL';\n" + CODE + "// sourceURL=fib.js\n"));
+            assertEquals(1, cacheFiles(cacheDir).length);
+        } finally {
+            deleteRecursively(cacheDir.toFile());
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -52,9 +52,9 @@ import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.NodeFactory;
 import com.oracle.truffle.js.nodes.ScriptNode;
 import com.oracle.truffle.js.parser.JavaScriptTranslator;
+import com.oracle.truffle.js.parser.snapshot.Recording;
+import com.oracle.truffle.js.parser.snapshot.RecordingProxy;
 import com.oracle.truffle.js.runtime.JSContext;
-import com.oracle.truffle.js.snapshot.Recording;
-import com.oracle.truffle.js.snapshot.RecordingProxy;
 import com.oracle.truffle.js.test.JSTest;
 
 public class RecordingTest extends JSTest {
@@ -101,6 +101,7 @@ import com.oracle.truffle.js.builtins.ArrayPrototypeBuiltinsFactory.JSArraySplic
 import com.oracle.truffle.js.builtins.ArrayPrototypeBuiltinsFactory.JSArrayToLocaleStringNodeGen;
 import com.oracle.truffle.js.builtins.ArrayPrototypeBuiltinsFactory.JSArrayToStringNodeGen;
 import com.oracle.truffle.js.builtins.ArrayPrototypeBuiltinsFactory.JSArrayUnshiftNodeGen;
+import com.oracle.truffle.js.builtins.helper.PrimitiveArraySort;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JSNodeUtil;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
@@ -155,6 +156,9 @@ import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.array.ScriptArray;
 import com.oracle.truffle.js.runtime.array.SparseArray;
 import com.oracle.truffle.js.runtime.array.TypedArray;
+import com.oracle.truffle.js.runtime.array.TypedArray.AbstractUint32Array;
+import com.oracle.truffle.js.runtime.array.TypedArray.TypedFloatArray;
+import com.oracle.truffle.js.runtime.array.TypedArray.TypedIntArray;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractDoubleArray;
 import com.oracle.truffle.js.runtime.array.dyn.AbstractIntArray;
 import com.oracle.truffle.js.runtime.array.dyn.ConstantByteArray;
@@ -2465,6 +2469,7 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
         private final BranchProfile arrayIsSparseBranch = BranchProfile.create();
         private final BranchProfile arrayHasHolesBranch = BranchProfile.create();
         private final BranchProfile arrayIsDefaultBranch = BranchProfile.create();
+        private final BranchProfile arrayIsPrimitiveBranch = BranchProfile.create();
         private final BranchProfile hasCompareFnBranch = BranchProfile.create();
         private final BranchProfile noCompareFnBranch = BranchProfile.create();
         private final BranchProfile growProfile = BranchProfile.create();
@@ -2484,7 +2489,15 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             ScriptArray scriptArray = classProfile.profile(arrayGetArrayType(thisObj));
             long len = getLength(thisObj);
 
-            if (scriptArray instanceof SparseArray) {
+            if (isDensePrimitiveArray(thisObj, scriptArray)) {
+                arrayIsPrimitiveBranch.enter();
+                if (scriptArray instanceof AbstractIntArray) {
+                    sortIntArray(thisObj, (AbstractIntArray) scriptArray, compare);
+                } else {
+                    sortDoubleArray(thisObj, (AbstractDoubleArray) scriptArray, compare);
+                }
+                return thisObj;
+            } else if (scriptArray instanceof SparseArray) {
                 arrayIsSparseBranch.enter();
                 array = getArraySparse(thisObj, scriptArray, len);
             } else if (scriptArray.isHolesType() || scriptArray.hasHoles(thisObj)) {
@@ -2528,6 +2541,146 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             deletePropertyNode.executeEvaluated(obj, i);
         }
 
+        /**
+         * Int- and double-backed arrays without holes starting at index 0 are sorted on a primitive
+         * copy of their elements, avoiding boxing.
+         */
+        private static boolean isDensePrimitiveArray(DynamicObject thisObj, ScriptArray scriptArray) {
+            return (scriptArray instanceof AbstractIntArray || scriptArray instanceof AbstractDoubleArray) && !scriptArray.isHolesType() && !scriptArray.isFrozen() &&
+                            scriptArray.firstElementIndex(thisObj) == 0;
+        }
+
+        @TruffleBoundary
+        private void sortIntArray(DynamicObject thisObj, AbstractIntArray scriptArray, Object compare) {
+            boolean condition = JSArray.isJSFastArray(thisObj);
+            int length = (int) (scriptArray.lastElementIndex(thisObj) + 1);
+            int[] values = new int[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = scriptArray.getInBoundsFastInt(thisObj, i, condition);
+            }
+            if (isCallable(compare)) {
+                PrimitiveArraySort.sort(values, length, new SortComparator(compare, null));
+            } else {
+                PrimitiveArraySort.sort(values, length, PrimitiveArraySort.INT_AS_STRING_COMPARATOR);
+            }
+            if (isUnmodified(thisObj, scriptArray, length)) {
+                for (int i = 0; i < length; i++) {
+                    scriptArray.setInBoundsFast(thisObj, i, values[i], condition);
+                }
+            } else {
+                // the compare function has modified the array
+                for (int i = 0; i < length; i++) {
+                    write(thisObj, i, values[i]);
+                }
+            }
+        }
+
+        @TruffleBoundary
+        private void sortDoubleArray(DynamicObject thisObj, AbstractDoubleArray scriptArray, Object compare) {
+            boolean condition = JSArray.isJSFastArray(thisObj);
+            int length = (int) (scriptArray.lastElementIndex(thisObj) + 1);
+            double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = scriptArray.getInBoundsFastDouble(thisObj, i, condition);
+            }
+            if (isCallable(compare)) {
+                PrimitiveArraySort.sort(values, length, new SortComparator(compare, null));
+            } else {
+                PrimitiveArraySort.sort(values, length, PrimitiveArraySort.DOUBLE_AS_STRING_COMPARATOR);
+            }
+            if (isUnmodified(thisObj, scriptArray, length)) {
+                for (int i = 0; i < length; i++) {
+                    scriptArray.setInBoundsFast(thisObj, i, values[i], condition);
+                }
+            } else {
+                // the compare function has modified the array
+                for (int i = 0; i < length; i++) {
+                    write(thisObj, i, values[i]);
+                }
+            }
+        }
+
+        private static boolean isUnmodified(DynamicObject thisObj, ScriptArray scriptArray, int length) {
+            return arrayGetArrayType(thisObj) == scriptArray && scriptArray.firstElementIndex(thisObj) == 0 && scriptArray.lastElementIndex(thisObj) == length - 1;
+        }
+
+        @Specialization(guards = {"isTypedArrayImplementation", "isJSArrayBufferView(thisObj)"})
+        protected DynamicObject sortTypedArray(DynamicObject thisObj, Object compare,
+                        @Cached("createClassProfile()") ValueProfile typedArrayProfile) {
+            checkCompareFunction(compare);
+            int length = (int) getLength(thisObj);
+            TypedArray typedArray = typedArrayProfile.profile(JSArrayBufferView.typedArrayGetArrayType(thisObj));
+            if (typedArray instanceof AbstractUint32Array) {
+                sortUint32Array(thisObj, (AbstractUint32Array<?>) typedArray, length, compare);
+            } else if (typedArray instanceof TypedIntArray) {
+                sortTypedIntArray(thisObj, (TypedIntArray<?>) typedArray, length, compare);
+            } else if (typedArray instanceof TypedFloatArray) {
+                sortTypedFloatArray(thisObj, (TypedFloatArray<?>) typedArray, length, compare);
+            } else {
+                Object[] array = typedArray.toArray(thisObj);
+                sortIntl(getComparator(thisObj, compare), array);
+                for (int i = 0; i < array.length; i++) {
+                    write(thisObj, i, array[i]);
+                }
+            }
+            return thisObj;
+        }
+
+        @TruffleBoundary
+        private void sortTypedIntArray(DynamicObject thisObj, TypedIntArray<?> typedArray, int length, Object compare) {
+            boolean condition = JSArrayBufferView.isJSArrayBufferView(thisObj);
+            int[] values = new int[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = typedArray.getInt(thisObj, i, condition);
+            }
+            if (isCallable(compare)) {
+                PrimitiveArraySort.sort(values, length, new SortComparator(compare, JSArrayBufferView.getArrayBuffer(thisObj)));
+            } else {
+                Arrays.sort(values);
+            }
+            for (int i = 0; i < length; i++) {
+                typedArray.setInt(thisObj, i, values[i], condition);
+            }
+        }
+
+        @TruffleBoundary
+        private void sortUint32Array(DynamicObject thisObj, AbstractUint32Array<?> typedArray, int length, Object compare) {
+            boolean condition = JSArrayBufferView.isJSArrayBufferView(thisObj);
+            long[] values = new long[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = typedArray.getInt(thisObj, i, condition) & 0xFFFFFFFFL;
+            }
+            if (isCallable(compare)) {
+                PrimitiveArraySort.sort(values, length, new SortComparator(compare, JSArrayBufferView.getArrayBuffer(thisObj)));
+            } else {
+                Arrays.sort(values);
+            }
+            for (int i = 0; i < length; i++) {
+                typedArray.setInt(thisObj, i, (int) values[i], condition);
+            }
+        }
+
+        /**
+         * Sorting a double[] with {@link Arrays#sort(double[])} yields the order required by
+         * %TypedArray%.prototype.sort: -0 sorts before +0 and NaN sorts last.
+         */
+        @TruffleBoundary
+        private void sortTypedFloatArray(DynamicObject thisObj, TypedFloatArray<?> typedArray, int length, Object compare) {
+            boolean condition = JSArrayBufferView.isJSArrayBufferView(thisObj);
+            double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = typedArray.getDouble(thisObj, i, condition);
+            }
+            if (isCallable(compare)) {
+                PrimitiveArraySort.sort(values, length, new SortComparator(compare, JSArrayBufferView.getArrayBuffer(thisObj)));
+            } else {
+                Arrays.sort(values);
+            }
+            for (int i = 0; i < length; i++) {
+                typedArray.setDouble(thisObj, i, values[i], condition);
+            }
+        }
+
         @Specialization
         protected Object sort(Object thisObj, final Object comparefn,
                         @Cached("createBinaryProfile()") ConditionProfile isJSObject) {
@@ -2657,15 +2810,21 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
             }
         }
 
-        private class SortComparator implements Comparator<Object> {
+        private class SortComparator implements Comparator<Object>, PrimitiveArraySort.IntComparator, PrimitiveArraySort.LongComparator, PrimitiveArraySort.DoubleComparator {
             private final Object compFnObj;
             private final DynamicObject arrayBufferObj;
             private final boolean isFunction;
+            /**
+             * Argument array reused for all calls of a JS function; {@link JSFunction#call} copies
+             * the arguments into a fresh frame arguments array.
+             */
+            private final Object[] arguments;
 
             SortComparator(Object compFnObj, DynamicObject arrayBufferObj) {
                 this.compFnObj = compFnObj;
                 this.arrayBufferObj = arrayBufferObj;
                 this.isFunction = JSFunction.isJSFunction(compFnObj);
+                this.arguments = isFunction ? new Object[2] : null;
             }
 
             @Override
@@ -2678,9 +2837,30 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                 } else if (arg1 == Undefined.instance) {
                     return -1;
                 }
+                return callCompareFunction(arg0, arg1);
+            }
+
+            @Override
+            public int compare(int arg0, int arg1) {
+                return callCompareFunction(arg0, arg1);
+            }
+
+            @Override
+            public int compare(long arg0, long arg1) {
+                return callCompareFunction(JSRuntime.longToIntOrDouble(arg0), JSRuntime.longToIntOrDouble(arg1));
+            }
+
+            @Override
+            public int compare(double arg0, double arg1) {
+                return callCompareFunction(arg0, arg1);
+            }
+
+            private int callCompareFunction(Object arg0, Object arg1) {
                 Object retObj;
                 if (isFunction) {
-                    retObj = JSFunction.call((DynamicObject) compFnObj, Undefined.instance, new Object[]{arg0, arg1});
+                    arguments[0] = arg0;
+                    arguments[1] = arg1;
+                    retObj = JSFunction.call((DynamicObject) compFnObj, Undefined.instance, arguments);
                 } else {
                     retObj = JSRuntime.call(compFnObj, Undefined.instance, new Object[]{arg0, arg1});
                 }
@@ -2691,7 +2871,7 @@ public final class ArrayPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum
                         throw Errors.createTypeErrorDetachedBuffer();
                     }
                 }
-                return d == 0 ? 0 : (d < 0 ? -1 : 1);
+                return PrimitiveArraySort.comparisonResult(d);
             }
         }
 
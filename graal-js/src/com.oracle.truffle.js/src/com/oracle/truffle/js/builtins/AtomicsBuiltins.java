@@ -65,9 +65,11 @@ import com.oracle.truffle.js.nodes.cast.JSToIntegerAsLongNode;
 import com.oracle.truffle.js.nodes.cast.JSToNumberNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
+import com.oracle.truffle.js.nodes.promise.NewPromiseCapabilityNode;
 import com.oracle.truffle.js.runtime.BigInt;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
+import com.oracle.truffle.js.runtime.JSAgentWaiterList.Waiter;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSException;
@@ -79,7 +81,11 @@ import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
+import com.oracle.truffle.js.runtime.builtins.JSUserObject;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
+import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
@@ -108,7 +114,10 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
         isLockFree(1),
 
         // ES9?
-        notify(3);
+        notify(3),
+
+        // ES2021 proposal
+        waitAsync(4);
 
         private final int length;
 
@@ -125,6 +134,8 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
         public int getECMAScriptVersion() {
             if (this.equals(notify)) {
                 return JSConfig.ECMAScript2019;
+            } else if (this.equals(waitAsync)) {
+                return JSConfig.ECMAScript2021;
             }
             return JSConfig.ECMAScript2017;
         }
@@ -156,7 +167,9 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
             case notify:
                 return AtomicsWakeNodeGen.create(context, builtin, args().fixedArgs(3).createArgumentNodes(context));
             case wait:
-                return AtomicsWaitNodeGen.create(context, builtin, args().fixedArgs(4).createArgumentNodes(context));
+                return AtomicsWaitNodeGen.create(context, builtin, false, args().fixedArgs(4).createArgumentNodes(context));
+            case waitAsync:
+                return AtomicsWaitNodeGen.create(context, builtin, true, args().fixedArgs(4).createArgumentNodes(context));
             case isLockFree:
                 return AtomicsIsLockFreeNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
         }
@@ -310,23 +323,23 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
         }
 
         protected int doCASInt8(DynamicObject target, int index, int expected, int replacement, boolean sign) {
-            return SharedMemorySync.atomicFetchOrGetByte(getContext(), target, index, (byte) expected, replacement, sign);
+            return SharedMemorySync.atomicFetchOrGetByte(target, index, (byte) expected, replacement, sign);
         }
 
         protected int doCASInt16(DynamicObject target, int index, int expected, int replacement, boolean sign) {
-            return SharedMemorySync.atomicFetchOrGetShort(getContext(), target, index, expected, replacement, sign);
+            return SharedMemorySync.atomicFetchOrGetShort(target, index, expected, replacement, sign);
         }
 
         protected Object doCASUint32(DynamicObject target, int index, Object expected, Object replacement) {
-            return SafeInteger.valueOf(SharedMemorySync.atomicFetchOrGetUnsigned(getContext(), target, index, expected, replacement));
+            return SafeInteger.valueOf(SharedMemorySync.atomicFetchOrGetUnsigned(target, index, expected, replacement));
         }
 
         protected int doCASInt(DynamicObject target, int index, int expected, int replacement) {
-            return SharedMemorySync.atomicFetchOrGetInt(getContext(), target, index, expected, replacement);
+            return SharedMemorySync.atomicFetchOrGetInt(target, index, expected, replacement);
         }
 
         protected BigInt doCASBigInt(DynamicObject target, int index, BigInt expected, BigInt replacement) {
-            return SharedMemorySync.atomicFetchOrGetBigInt(getContext(), target, index, expected, replacement);
+            return SharedMemorySync.atomicFetchOrGetBigInt(target, index, expected, replacement);
         }
 
         @Specialization(guards = {"isInt8SharedBufferView(target)", "inboundFast(target,index)"})
@@ -685,7 +698,7 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
             do {
                 initial = SharedMemorySync.doVolatileGet(target, index);
                 result = intOperator.applyAsInt(initial, value);
-            } while (!SharedMemorySync.compareAndSwapInt(getContext(), target, index, initial, result));
+            } while (!SharedMemorySync.compareAndSwapInt(target, index, initial, result));
             return initial;
         }
 
@@ -695,7 +708,7 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
             do {
                 initial = SharedMemorySync.doVolatileGetBigInt(target, index);
                 result = bigIntOperator.apply(initial, value);
-            } while (!SharedMemorySync.compareAndSwapBigInt(getContext(), target, index, initial, result));
+            } while (!SharedMemorySync.compareAndSwapBigInt(target, index, initial, result));
             return initial;
         }
 
@@ -815,12 +828,7 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
 
             SharedMemorySync.enterCriticalSection(getContext(), wl);
             try {
-                int[] waiters = SharedMemorySync.removeWaiters(getContext(), wl, c);
-                int n;
-                for (n = 0; n < waiters.length; n++) {
-                    SharedMemorySync.wakeWaiter(getContext(), waiters[n]);
-                }
-                return n;
+                return SharedMemorySync.notifyWaiters(getContext(), wl, c);
             } finally {
                 SharedMemorySync.leaveCriticalSection(getContext(), wl);
             }
@@ -828,7 +836,7 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
     }
 
     /**
-     * Thread Sleep.
+     * Thread Sleep ({@code Atomics.wait}) and non-blocking waiting ({@code Atomics.waitAsync}).
      */
     public abstract static class AtomicsWaitNode extends AtomicsOperationNode {
 
@@ -836,11 +844,15 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
         private static final String NOT_EQUAL = "not-equal";
         private static final String TIMED_OUT = "timed-out";
 
+        private final boolean waitAsync;
+
         @Child private JSToBigIntNode toBigIntNode;
         @Child private JSToInt32Node toInt32Node;
+        @Child private NewPromiseCapabilityNode newPromiseCapabilityNode;
 
-        public AtomicsWaitNode(JSContext context, JSBuiltin builtin) {
+        public AtomicsWaitNode(JSContext context, JSBuiltin builtin, boolean waitAsync) {
             super(context, builtin);
+            this.waitAsync = waitAsync;
         }
 
         protected AtomicsLoadNode createHelperNode() {
@@ -866,7 +878,7 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
                 t = Integer.max(tmp.intValue(), 0);
             }
 
-            if (!SharedMemorySync.agentCanSuspend(getContext())) {
+            if (!waitAsync && !SharedMemorySync.agentCanSuspend(getContext())) {
                 throw createTypeErrorUnsupported();
             }
             JSAgentWaiterListEntry wl = SharedMemorySync.getWaiterList(getContext(), target, i);
@@ -875,20 +887,20 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
                 Object w = loadNode.executeWithBufferAndIndex(frame, maybeTarget, i);
                 boolean isNotEqual = isInt32 ? !(w instanceof Integer) || (int) w != (int) v
                                 : !(w instanceof BigInt) || ((BigInt) w).longValue() != v;
+                if (waitAsync) {
+                    return doWaitAsync(wl, isNotEqual, t);
+                }
                 if (isNotEqual) {
                     return NOT_EQUAL;
                 }
-                int id = getContext().getJSAgent().getSignifier();
-                SharedMemorySync.addWaiter(getContext(), wl, id);
-                if (t < 0) {
-                    return TIMED_OUT;
-                }
-                boolean awoken = SharedMemorySync.suspendAgent(getContext(), wl, id, t);
+                Waiter waiter = Waiter.createBlocking(wl, t);
+                SharedMemorySync.addWaiter(getContext(), wl, waiter);
+                boolean awoken = SharedMemorySync.suspendAgent(getContext(), wl, waiter, this);
                 if (awoken) {
-                    assert !wl.contains(id);
+                    assert !wl.contains(waiter);
                     return OK;
                 } else {
-                    SharedMemorySync.removeWaiter(getContext(), wl, id);
+                    SharedMemorySync.removeWaiter(getContext(), wl, waiter);
                     return TIMED_OUT;
                 }
             } finally {
@@ -896,6 +908,42 @@ public final class AtomicsBuiltins extends JSBuiltinsContainer.SwitchEnum<Atomic
             }
         }
 
+        /**
+         * Returns {@code {async: false, value}} if the outcome is known immediately, otherwise
+         * registers a waiter and returns {@code {async: true, value: promise}}. The promise is
+         * resolved the next time this agent processes its job queue after the waiter has been
+         * notified or has timed out; neither event wakes an idle agent by itself.
+         */
+        private DynamicObject doWaitAsync(JSAgentWaiterListEntry wl, boolean isNotEqual, int t) {
+            if (isNotEqual) {
+                return createWaitAsyncResult(false, NOT_EQUAL);
+            }
+            if (t == 0) {
+                return createWaitAsyncResult(false, TIMED_OUT);
+            }
+            PromiseCapabilityRecord promiseCapability = newPromiseCapability();
+            Waiter waiter = Waiter.createAsync(wl, promiseCapability, getContext().getRealm(), t);
+            SharedMemorySync.addWaiter(getContext(), wl, waiter);
+            getContext().addAsyncWaiter(waiter);
+            return createWaitAsyncResult(true, promiseCapability.getPromise());
+        }
+
+        @TruffleBoundary
+        private DynamicObject createWaitAsyncResult(boolean async, Object value) {
+            DynamicObject result = JSUserObject.create(getContext());
+            JSObjectUtil.putDataProperty(getContext(), result, "async", async, JSAttributes.getDefault());
+            JSObjectUtil.putDataProperty(getContext(), result, "value", value, JSAttributes.getDefault());
+            return result;
+        }
+
+        private PromiseCapabilityRecord newPromiseCapability() {
+            if (newPromiseCapabilityNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                newPromiseCapabilityNode = insert(NewPromiseCapabilityNode.create(getContext()));
+            }
+            return newPromiseCapabilityNode.executeDefault();
+        }
+
         private int toInt32(Object v) {
             if (toInt32Node == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -111,6 +111,7 @@ import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.ConstructWeakRe
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.ConstructWeakSetNodeGen;
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.CreateDynamicFunctionNodeGen;
 import com.oracle.truffle.js.builtins.ConstructorBuiltinsFactory.PromiseConstructorNodeGen;
+import com.oracle.truffle.js.builtins.helper.DateParseStringNode;
 import com.oracle.truffle.js.nodes.CompileRegexNode;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
@@ -812,9 +813,9 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
 
         @Child private JSToPrimitiveNode toPrimitiveNode;
         @Child private JSToDoubleNode toDoubleNode;
+        @Child private DateParseStringNode parseDateNode;
         private final ConditionProfile stringOrNumberProfile = ConditionProfile.createBinaryProfile();
         private final ConditionProfile isDateProfile = ConditionProfile.createBinaryProfile();
-        private final ConditionProfile gotFieldsProfile = ConditionProfile.createBinaryProfile();
 
         private Object toPrimitive(Object target) {
             if (toPrimitiveNode == null) {
@@ -864,13 +865,12 @@ public final class ConstructorBuiltins extends JSBuiltinsContainer.SwitchEnum<Co
             return getContext().getRealm().currentTimeMillis();
         }
 
-        @TruffleBoundary
         private double parseDate(String target) {
-            Integer[] fields = getContext().getEvaluator().parseDate(getContext().getRealm(), target.trim());
-            if (gotFieldsProfile.profile(fields != null)) {
-                return JSDate.makeDate(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6], fields[7], getContext());
+            if (parseDateNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                parseDateNode = insert(DateParseStringNode.create(getContext()));
             }
-            return Double.NaN;
+            return parseDateNode.execute(target);
         }
 
         private double getDateValue(Object arg0, InteropLibrary interop) {
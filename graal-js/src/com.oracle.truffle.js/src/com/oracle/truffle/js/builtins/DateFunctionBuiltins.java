@@ -43,10 +43,10 @@ package com.oracle.truffle.js.builtins;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.js.builtins.DateFunctionBuiltinsFactory.DateNowNodeGen;
 import com.oracle.truffle.js.builtins.DateFunctionBuiltinsFactory.DateParseNodeGen;
 import com.oracle.truffle.js.builtins.DateFunctionBuiltinsFactory.DateUTCNodeGen;
+import com.oracle.truffle.js.builtins.helper.DateParseStringNode;
 import com.oracle.truffle.js.nodes.cast.JSToNumberNode;
 import com.oracle.truffle.js.nodes.cast.JSToStringNode;
 import com.oracle.truffle.js.nodes.function.JSBuiltin;
@@ -98,7 +98,6 @@ public final class DateFunctionBuiltins extends JSBuiltinsContainer.SwitchEnum<D
     }
 
     public abstract static class DateParseNode extends JSBuiltinNode {
-        private final ConditionProfile gotFieldsProfile = ConditionProfile.createBinaryProfile();
 
         public DateParseNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
@@ -106,13 +105,10 @@ public final class DateFunctionBuiltins extends JSBuiltinsContainer.SwitchEnum<D
 
         @Specialization
         protected double parse(Object parseDate,
-                        @Cached("create()") JSToStringNode toStringNode) {
+                        @Cached("create()") JSToStringNode toStringNode,
+                        @Cached("create(getContext())") DateParseStringNode parseDateNode) {
             String dateString = toStringNode.executeString(parseDate);
-            Integer[] fields = getContext().getEvaluator().parseDate(getContext().getRealm(), dateString.trim());
-            if (gotFieldsProfile.profile(fields != null)) {
-                return JSDate.makeDate(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6], fields[7], getContext());
-            }
-            return Double.NaN;
+            return parseDateNode.execute(dateString);
         }
 
     }
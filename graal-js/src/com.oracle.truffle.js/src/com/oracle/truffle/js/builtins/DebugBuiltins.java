@@ -73,12 +73,16 @@ import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugDumpCountersNode
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugDumpFunctionTreeNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugHeapDumpNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugInspectNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugIntlFormatterCacheCountersNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugIsHolesArrayNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugJSStackNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugLoadModuleNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugMegamorphicCallSiteCountersNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugMegamorphicPropertyCacheCountersNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugNeverPartOfCompilationNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugPrintObjectNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugPrintSourceAttributionNodeGen;
+import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugPromiseJobCountersNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugShapeNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugStringCompareNodeGen;
 import com.oracle.truffle.js.builtins.DebugBuiltinsFactory.DebugSystemPropertiesNodeGen;
@@ -95,6 +99,7 @@ import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.Evaluator;
+import com.oracle.truffle.js.runtime.JSAgent;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSErrorType;
 import com.oracle.truffle.js.runtime.JSException;
@@ -114,10 +119,12 @@ import com.oracle.truffle.js.runtime.objects.JSLazyString;
 import com.oracle.truffle.js.runtime.objects.JSModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
 import com.oracle.truffle.object.DynamicObjectImpl;
 
 /**
@@ -137,6 +144,10 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         className(1),
         shape(1),
         dumpCounters(0),
+        promiseJobCounters(0),
+        intlFormatterCacheCounters(0),
+        megamorphicPropertyCacheCounters(0),
+        megamorphicCallSiteCounters(0),
         dumpFunctionTree(1),
         compileFunction(2),
         inspect(2),
@@ -184,6 +195,14 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
                 return DebugShapeNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
             case dumpCounters:
                 return DebugDumpCountersNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case promiseJobCounters:
+                return DebugPromiseJobCountersNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case intlFormatterCacheCounters:
+                return DebugIntlFormatterCacheCountersNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case megamorphicPropertyCacheCounters:
+                return DebugMegamorphicPropertyCacheCountersNodeGen.create(context, builtin, args().createArgumentNodes(context));
+            case megamorphicCallSiteCounters:
+                return DebugMegamorphicCallSiteCountersNodeGen.create(context, builtin, args().createArgumentNodes(context));
             case dumpFunctionTree:
                 return DebugDumpFunctionTreeNodeGen.create(context, builtin, args().fixedArgs(1).createArgumentNodes(context));
             case compileFunction:
@@ -328,6 +347,82 @@ public final class DebugBuiltins extends JSBuiltinsContainer.SwitchEnum<DebugBui
         }
     }
 
+    /**
+     * Returns the microtask throughput counters of the current agent.
+     */
+    public abstract static class DebugPromiseJobCountersNode extends JSBuiltinNode {
+        public DebugPromiseJobCountersNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object promiseJobCounters() {
+            JSAgent agent = getContext().getRealm().getAgent();
+            DynamicObject result = JSUserObject.create(getContext());
+            JSObject.set(result, "enqueued", (double) agent.getPromiseJobsEnqueued());
+            JSObject.set(result, "run", (double) agent.getPromiseJobsRun());
+            JSObject.set(result, "batches", (double) agent.getPromiseJobBatches());
+            return result;
+        }
+    }
+
+    public abstract static class DebugIntlFormatterCacheCountersNode extends JSBuiltinNode {
+        public DebugIntlFormatterCacheCountersNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object intlFormatterCacheCounters() {
+            IntlFormatterCache cache = getContext().getIntlFormatterCache();
+            if (cache == null) {
+                return Undefined.instance;
+            }
+            DynamicObject result = JSUserObject.create(getContext());
+            JSObject.set(result, "hits", (double) cache.getHits());
+            JSObject.set(result, "misses", (double) cache.getMisses());
+            JSObject.set(result, "evictions", (double) cache.getEvictions());
+            JSObject.set(result, "size", cache.size());
+            return result;
+        }
+    }
+
+    public abstract static class DebugMegamorphicPropertyCacheCountersNode extends JSBuiltinNode {
+        public DebugMegamorphicPropertyCacheCountersNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object megamorphicPropertyCacheCounters() {
+            MegamorphicPropertyCache cache = getContext().getMegamorphicPropertyCache();
+            if (cache == null || !getContext().getContextOptions().isMegamorphicPropertyCacheStats()) {
+                return Undefined.instance;
+            }
+            DynamicObject result = JSUserObject.create(getContext());
+            JSObject.set(result, "hits", (double) cache.getHits());
+            JSObject.set(result, "misses", (double) cache.getMisses());
+            return result;
+        }
+    }
+
+    public abstract static class DebugMegamorphicCallSiteCountersNode extends JSBuiltinNode {
+        public DebugMegamorphicCallSiteCountersNode(JSContext context, JSBuiltin builtin) {
+            super(context, builtin);
+        }
+
+        @TruffleBoundary
+        @Specialization
+        protected Object megamorphicCallSiteCounters() {
+            DynamicObject result = JSUserObject.create(getContext());
+            JSObject.set(result, "sites", (double) getContext().getMegamorphicCallSites());
+            JSObject.set(result, "targets", (double) getContext().getMegamorphicCallSiteTargets());
+            JSObject.set(result, "full", (double) getContext().getMegamorphicCallSitesFull());
+            return result;
+        }
+    }
+
     public abstract static class DebugDumpFunctionTreeNode extends JSBuiltinNode {
         public DebugDumpFunctionTreeNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
@@ -40,12 +40,15 @@
  */
 package com.oracle.truffle.js.builtins;
 
+import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLanguage;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -65,12 +68,18 @@ import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.nodes.function.JSBuiltinNode;
 import com.oracle.truffle.js.nodes.unary.IsCallableNode;
 import com.oracle.truffle.js.nodes.unary.JSIsArrayNode;
+import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.builtins.BuiltinEnum;
+import com.oracle.truffle.js.runtime.builtins.JSAbstractBuffer;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBuffer;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.builtins.JSDataView;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
+import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
 import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.builtins.JSUserObject;
 import com.oracle.truffle.js.runtime.objects.JSAttributes;
@@ -138,6 +147,8 @@ public final class JSONBuiltins extends JSBuiltinsContainer.SwitchEnum<JSONBuilt
 
     public abstract static class JSONParseNode extends JSONOperation {
 
+        private final ConditionProfile isBufferSourceProfile = ConditionProfile.createBinaryProfile();
+
         public JSONParseNode(JSContext context, JSBuiltin builtin) {
             super(context, builtin);
         }
@@ -145,7 +156,7 @@ public final class JSONBuiltins extends JSBuiltinsContainer.SwitchEnum<JSONBuilt
         @Specialization(guards = "isCallable.executeBoolean(reviver)", limit = "1")
         protected Object parse(Object text, Object reviver,
                         @Cached @Shared("isCallable") @SuppressWarnings("unused") IsCallableNode isCallable) {
-            Object unfiltered = parseIntl(toString(text));
+            Object unfiltered = parseText(text);
             DynamicObject root = JSUserObject.create(getContext());
             JSObjectUtil.putDataProperty(getContext(), root, "", unfiltered, JSAttributes.getDefault());
             return walk((DynamicObject) reviver, root, "");
@@ -154,9 +165,74 @@ public final class JSONBuiltins extends JSBuiltinsContainer.SwitchEnum<JSONBuilt
         @Specialization(guards = "!isCallable.executeBoolean(reviver)", limit = "1")
         protected Object parseUnfiltered(Object text, @SuppressWarnings("unused") Object reviver,
                         @Cached @Shared("isCallable") @SuppressWarnings("unused") IsCallableNode isCallable) {
+            return parseText(text);
+        }
+
+        private Object parseText(Object text) {
+            if (getContext().isOptionJSONParseBuffers() && isBufferSourceProfile.profile(isBufferSource(text))) {
+                return parseBuffer(text);
+            }
             return parseIntl(toString(text));
         }
 
+        private boolean isBufferSource(Object text) {
+            if (JSAbstractBuffer.isJSAbstractBuffer(text) || JSArrayBufferView.isJSArrayBufferView(text) || JSDataView.isJSDataView(text)) {
+                return true;
+            }
+            if (JSRuntime.isForeignObject(text)) {
+                TruffleLanguage.Env env = getContext().getRealm().getEnv();
+                if (env.isHostObject(text)) {
+                    Object hostObject = env.asHostObject(text);
+                    return hostObject instanceof ByteBuffer || hostObject instanceof Reader;
+                }
+            }
+            return false;
+        }
+
+        @TruffleBoundary(transferToInterpreterOnException = false)
+        private Object parseBuffer(Object text) {
+            JSContext context = getContext();
+            if (JSObject.isDynamicObject(text)) {
+                DynamicObject obj = (DynamicObject) text;
+                DynamicObject arrayBuffer;
+                int offset;
+                int length;
+                if (JSArrayBufferView.isJSArrayBufferView(obj)) {
+                    arrayBuffer = JSArrayBufferView.getArrayBuffer(obj);
+                    offset = JSArrayBufferView.getByteOffset(obj, true, context);
+                    length = JSArrayBufferView.getByteLength(obj, true, context);
+                } else if (JSDataView.isJSDataView(obj)) {
+                    arrayBuffer = JSDataView.getArrayBuffer(obj);
+                    offset = JSDataView.typedArrayGetOffset(obj);
+                    length = JSDataView.typedArrayGetLength(obj);
+                } else {
+                    arrayBuffer = obj;
+                    offset = 0;
+                    length = -1;
+                }
+                if (!JSSharedArrayBuffer.isJSSharedArrayBuffer(arrayBuffer) && JSArrayBuffer.isDetachedBuffer(arrayBuffer)) {
+                    throw Errors.createTypeErrorDetachedBuffer();
+                }
+                if (JSArrayBuffer.isJSHeapArrayBuffer(arrayBuffer)) {
+                    byte[] bytes = JSAbstractBuffer.getByteArray(arrayBuffer);
+                    return TruffleJSONParser.parse(context, bytes, offset, length < 0 ? bytes.length : length);
+                } else {
+                    ByteBuffer buffer = JSArrayBuffer.getDirectByteBuffer(arrayBuffer).duplicate();
+                    buffer.position(offset);
+                    if (length >= 0) {
+                        buffer.limit(offset + length);
+                    }
+                    return TruffleJSONParser.parse(context, buffer);
+                }
+            }
+            Object hostObject = context.getRealm().getEnv().asHostObject(text);
+            if (hostObject instanceof ByteBuffer) {
+                return TruffleJSONParser.parse(context, ((ByteBuffer) hostObject).duplicate());
+            } else {
+                return TruffleJSONParser.parse(context, (Reader) hostObject);
+            }
+        }
+
         @TruffleBoundary(transferToInterpreterOnException = false)
         private Object parseIntl(String jsonString) {
             if (JSConfig.TruffleJSONParser) {
@@ -197,6 +197,16 @@ public final class MapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<M
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSMap(thisObj)")
+        protected static Object getInt(DynamicObject thisObj, int key) {
+            Object value = JSMap.getInternalMap(thisObj).getIntKey(key);
+            if (value != null) {
+                return value;
+            } else {
+                return Undefined.instance;
+            }
+        }
+
         @Specialization(guards = "isJSMap(thisObj)")
         protected Object get(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
@@ -224,6 +234,12 @@ public final class MapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<M
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSMap(thisObj)")
+        protected static DynamicObject setInt(DynamicObject thisObj, int key, Object value) {
+            JSMap.getInternalMap(thisObj).putIntKey(key, value);
+            return thisObj;
+        }
+
         @Specialization(guards = "isJSMap(thisObj)")
         protected DynamicObject set(DynamicObject thisObj, Object key, Object value) {
             Object normalizedKey = normalize(key);
@@ -247,6 +263,11 @@ public final class MapPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<M
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSMap(thisObj)")
+        protected static boolean hasInt(DynamicObject thisObj, int key) {
+            return JSMap.getInternalMap(thisObj).hasIntKey(key);
+        }
+
         @Specialization(guards = "isJSMap(thisObj)")
         protected boolean has(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
@@ -193,6 +193,12 @@ public final class SetPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<S
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSSet(thisObj)")
+        protected static DynamicObject addInt(DynamicObject thisObj, int key) {
+            JSSet.getInternalSet(thisObj).putIntKey(key, PRESENT);
+            return thisObj;
+        }
+
         @Specialization(guards = "isJSSet(thisObj)")
         protected DynamicObject add(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
@@ -216,6 +222,11 @@ public final class SetPrototypeBuiltins extends JSBuiltinsContainer.SwitchEnum<S
             super(context, builtin);
         }
 
+        @Specialization(guards = "isJSSet(thisObj)")
+        protected static boolean hasInt(DynamicObject thisObj, int key) {
+            return JSSet.getInternalSet(thisObj).hasIntKey(key);
+        }
+
         @Specialization(guards = "isJSSet(thisObj)")
         protected boolean has(DynamicObject thisObj, Object key) {
             Object normalizedKey = normalize(key);
@@ -54,6 +54,7 @@ import com.oracle.truffle.js.nodes.function.JSBuiltin;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSContextOptions;
 import com.oracle.truffle.js.runtime.JSErrorType;
 import com.oracle.truffle.js.runtime.JSException;
 import com.oracle.truffle.js.runtime.JSRealm;
@@ -66,6 +67,7 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Stack;
+import java.util.function.Supplier;
 
 import static com.oracle.truffle.js.builtins.commonjs.CommonJSResolution.isCoreModule;
 
@@ -197,8 +199,8 @@ public abstract class CommonJSRequireBuiltin extends GlobalBuiltins.JSFileLoadin
             return cached;
         }
         // Read the file.
-        Source source = sourceFromPath(modulePath.toString(), realm);
         String filenameBuiltin = normalizedPath.toString();
+        Source moduleSources = loadModuleSource(modulePath, filenameBuiltin, realm);
         if (modulePath.getParent() == null) {
             throw fail(moduleIdentifier);
         }
@@ -210,8 +212,6 @@ public abstract class CommonJSRequireBuiltin extends GlobalBuiltins.JSFileLoadin
         DynamicObject env = JSUserObject.create(getContext());
         JSObject.set(env, ENV_PROPERTY_NAME, JSUserObject.create(getContext()));
         // Parse the module
-        CharSequence characters = MODULE_PREAMBLE + source.getCharacters() + MODULE_END;
-        Source moduleSources = Source.newBuilder(JavaScriptLanguage.ID, characters, filenameBuiltin).mimeType(JavaScriptLanguage.TEXT_MIME_TYPE).build();
         CallTarget moduleCallTarget = realm.getEnv().parsePublic(moduleSources);
         Object moduleExecutableFunction = moduleCallTarget.call();
         // Execute the module.
@@ -235,6 +235,22 @@ public abstract class CommonJSRequireBuiltin extends GlobalBuiltins.JSFileLoadin
         return null;
     }
 
+    /**
+     * Reads the module file and wraps it into a function. The result is shared by all realms of
+     * the context, unless disabled by {@link JSContextOptions#COMMONJS_SOURCE_CACHE}.
+     */
+    private Source loadModuleSource(TruffleFile modulePath, String filenameBuiltin, JSRealm realm) {
+        CharSequence code = sourceFromPath(modulePath.toString(), realm).getCharacters();
+        Supplier<Source> wrapper = () -> {
+            CharSequence characters = MODULE_PREAMBLE + code + MODULE_END;
+            return Source.newBuilder(JavaScriptLanguage.ID, characters, filenameBuiltin).mimeType(JavaScriptLanguage.TEXT_MIME_TYPE).build();
+        };
+        if (getContext().getContextOptions().isCommonJSSourceCache()) {
+            return getContext().getCommonJSSourceCache().getModuleSource(filenameBuiltin, code, wrapper);
+        }
+        return wrapper.get();
+    }
+
     private DynamicObject evalJsonFile(TruffleFile jsonFile) {
         try {
             if (fileExists(jsonFile)) {
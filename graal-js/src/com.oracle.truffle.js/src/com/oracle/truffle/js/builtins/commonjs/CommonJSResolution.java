@@ -145,6 +145,14 @@ final class CommonJSResolution {
         if (isCoreModule(moduleIdentifier) || "".equals(moduleIdentifier)) {
             return null;
         }
+        CommonJSResolutionCache cache = context.getRealm().getCommonJSResolutionCache();
+        if (cache != null) {
+            return cache.resolve(entryPath, moduleIdentifier, () -> resolveUncached(context, moduleIdentifier, entryPath));
+        }
+        return resolveUncached(context, moduleIdentifier, entryPath);
+    }
+
+    private static TruffleFile resolveUncached(JSContext context, String moduleIdentifier, TruffleFile entryPath) {
         TruffleLanguage.Env env = context.getRealm().getEnv();
         // 2. If X begins with '/'
         TruffleFile currentWorkingPath = entryPath;
@@ -184,7 +192,7 @@ final class CommonJSResolution {
         return null;
     }
 
-    public static TruffleFile loadIndex(TruffleLanguage.Env env, TruffleFile modulePath) {
+    public static TruffleFile loadIndex(JSContext cx, TruffleLanguage.Env env, TruffleFile modulePath) {
         /* @formatter:off
          *
          * LOAD_INDEX(X)
@@ -195,20 +203,20 @@ final class CommonJSResolution {
          * @formatter:on
          */
         TruffleFile indexJs = joinPaths(env, modulePath, INDEX_JS);
-        if (fileExists(indexJs)) {
+        if (probe(cx, indexJs)) {
             return indexJs;
         }
         TruffleFile indexJson = joinPaths(env, modulePath, INDEX_JSON);
-        if (fileExists(indexJson)) {
+        if (probe(cx, indexJson)) {
             return indexJson;
-        } else if (fileExists(joinPaths(env, modulePath, INDEX_NODE))) {
+        } else if (probe(cx, joinPaths(env, modulePath, INDEX_NODE))) {
             // Ignore .node files.
             return null;
         }
         return null;
     }
 
-    static TruffleFile loadAsFile(TruffleLanguage.Env env, TruffleFile modulePath) {
+    static TruffleFile loadAsFile(JSContext cx, TruffleLanguage.Env env, TruffleFile modulePath) {
         /* @formatter:off
          *
          * LOAD_AS_FILE(X)
@@ -219,18 +227,18 @@ final class CommonJSResolution {
          *
          * @formatter:on
          */
-        if (fileExists(modulePath)) {
+        if (probe(cx, modulePath)) {
             return modulePath;
         }
         TruffleFile moduleJs = env.getPublicTruffleFile(modulePath.toString() + JS_EXT);
-        if (fileExists(moduleJs)) {
+        if (probe(cx, moduleJs)) {
             return moduleJs;
         }
         TruffleFile moduleJson = env.getPublicTruffleFile(modulePath.toString() + JSON_EXT);
-        if (fileExists(moduleJson)) {
+        if (probe(cx, moduleJson)) {
             return moduleJson;
         }
-        if (fileExists(env.getPublicTruffleFile(modulePath.toString() + NODE_EXT))) {
+        if (probe(cx, env.getPublicTruffleFile(modulePath.toString() + NODE_EXT))) {
             // .node files not supported.
             return null;
         }
@@ -253,7 +261,7 @@ final class CommonJSResolution {
     }
 
     private static TruffleFile loadAsFileOrDirectory(JSContext cx, TruffleLanguage.Env env, TruffleFile modulePath) {
-        TruffleFile maybeFile = loadAsFile(env, modulePath);
+        TruffleFile maybeFile = loadAsFile(cx, env, modulePath);
         if (maybeFile == null) {
             return loadAsDirectory(cx, env, modulePath);
         } else {
@@ -273,23 +281,23 @@ final class CommonJSResolution {
 
     private static TruffleFile loadAsDirectory(JSContext cx, TruffleLanguage.Env env, TruffleFile modulePath) {
         TruffleFile packageJson = joinPaths(env, modulePath, PACKAGE_JSON);
-        if (fileExists(packageJson)) {
+        if (probe(cx, packageJson)) {
             DynamicObject jsonObj = loadJsonObject(packageJson, cx);
             if (JSObject.isJSObject(jsonObj)) {
                 Object main = JSObject.get(jsonObj, PACKAGE_JSON_MAIN_PROPERTY_NAME);
                 if (!JSRuntime.isString(main)) {
-                    return loadIndex(env, modulePath);
+                    return loadIndex(cx, env, modulePath);
                 }
                 TruffleFile module = joinPaths(env, modulePath, JSRuntime.safeToString(main));
-                TruffleFile asFile = loadAsFile(env, module);
+                TruffleFile asFile = loadAsFile(cx, env, module);
                 if (asFile != null) {
                     return asFile;
                 } else {
-                    return loadIndex(env, module);
+                    return loadIndex(cx, env, module);
                 }
             }
         } else {
-            return loadIndex(env, modulePath);
+            return loadIndex(cx, env, modulePath);
         }
         return null;
     }
@@ -327,6 +335,14 @@ final class CommonJSResolution {
         }
     }
 
+    private static boolean probe(JSContext cx, TruffleFile modulePath) {
+        CommonJSResolutionCache cache = cx.getRealm().getCommonJSResolutionCache();
+        if (cache != null) {
+            cache.countProbe(modulePath);
+        }
+        return fileExists(modulePath);
+    }
+
     public static boolean fileExists(TruffleFile modulePath) {
         return modulePath.exists() && modulePath.isRegularFile();
     }
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.commonjs;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+
+/**
+ * Per-realm memoization of {@link CommonJSResolution#resolve CommonJS module resolution}, keyed by
+ * the directory the resolution starts from and the module identifier. Failed resolutions are
+ * cached as well.
+ *
+ * Entries are never revalidated unless directory watching is enabled, in which case any change in
+ * a directory that was probed while resolving flushes the whole cache. Watching is only possible
+ * for directories that the context's file system shares with the host file system; a resolution
+ * that probed any other directory is not cached in that mode. The watch service is closed when the
+ * realm is disposed.
+ */
+public final class CommonJSResolutionCache {
+
+    private static final Object NOT_FOUND = new Object();
+
+    private final Map<String, Object> entries = new HashMap<>();
+    private final boolean watch;
+    private WatchService watchService;
+    private final Set<Path> watchedDirectories = new HashSet<>();
+    private final Set<TruffleFile> unwatchableDirectories = new HashSet<>();
+    /** Files probed by the resolution currently in progress, or {@code null}. */
+    private Set<TruffleFile> probedFiles;
+
+    private long hits;
+    private long misses;
+    private long probes;
+
+    public CommonJSResolutionCache(boolean watch) {
+        this.watch = watch;
+    }
+
+    @TruffleBoundary
+    TruffleFile resolve(TruffleFile entryPath, String moduleIdentifier, Supplier<TruffleFile> resolver) {
+        pollChanges();
+        String key = entryPath + "\0" + moduleIdentifier;
+        Object cached = entries.get(key);
+        if (cached != null) {
+            hits++;
+            return cached == NOT_FOUND ? null : (TruffleFile) cached;
+        }
+        misses++;
+        TruffleFile resolved;
+        boolean cacheable = true;
+        if (watch) {
+            probedFiles = new HashSet<>();
+            try {
+                resolved = resolver.get();
+                cacheable = watchDirectories(probedFiles);
+            } finally {
+                probedFiles = null;
+            }
+        } else {
+            resolved = resolver.get();
+        }
+        if (cacheable) {
+            entries.put(key, resolved == null ? NOT_FOUND : resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Called for every file system probe done by the module resolution.
+     */
+    void countProbe(TruffleFile file) {
+        probes++;
+        if (probedFiles != null) {
+            probedFiles.add(file);
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @TruffleBoundary
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Stops watching directories.
+     */
+    @TruffleBoundary
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            watchService = null;
+            watchedDirectories.clear();
+        }
+        unwatchableDirectories.clear();
+    }
+
+    private void pollChanges() {
+        if (watchService == null) {
+            return;
+        }
+        boolean changed = false;
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            key.pollEvents();
+            if (!key.reset()) {
+                watchedDirectories.remove((Path) key.watchable());
+            }
+            changed = true;
+        }
+        if (changed) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Registers the directories of the given files with the watch service. Returns {@code false}
+     * if any of them cannot be watched.
+     */
+    private boolean watchDirectories(Set<TruffleFile> files) {
+        boolean allWatched = true;
+        for (TruffleFile file : files) {
+            TruffleFile directory = file.getAbsoluteFile().getParent();
+            // a missing directory shows up as a change of its closest existing ancestor
+            while (directory != null && !isDirectory(directory)) {
+                directory = directory.getParent();
+            }
+            if (directory == null || unwatchableDirectories.contains(directory)) {
+                allWatched = false;
+                continue;
+            }
+            Path path = toHostPath(directory);
+            if (path != null && watchedDirectories.contains(path)) {
+                continue;
+            }
+            if (path != null && register(path)) {
+                watchedDirectories.add(path);
+            } else {
+                unwatchableDirectories.add(directory);
+                allWatched = false;
+            }
+        }
+        return allWatched;
+    }
+
+    private boolean register(Path directory) {
+        try {
+            if (watchService == null) {
+                watchService = directory.getFileSystem().newWatchService();
+            }
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDirectory(TruffleFile file) {
+        try {
+            return file.isDirectory();
+        } catch (SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the host path of a directory of the context's file system, or {@code null} if the
+     * context's file system does not show the same directory there, e.g., because it is a virtual
+     * file system. Watching the host path is then pointless.
+     */
+    private static Path toHostPath(TruffleFile directory) {
+        try {
+            URI uri = directory.toUri();
+            if (!"file".equals(uri.getScheme())) {
+                return null;
+            }
+            Path path = Paths.get(uri);
+            if (!Files.isDirectory(path) || !directory.getLastModifiedTime().equals(Files.getLastModifiedTime(path))) {
+                return null;
+            }
+            return path;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.commonjs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * Cache of wrapped CommonJS module sources, shared by all realms of a
+ * {@link com.oracle.truffle.js.runtime.JSContext} and hence by all polyglot contexts of an engine.
+ *
+ * Entries are keyed by the normalized module file name and validated against a SHA-256 digest of
+ * the characters read from the file. Contexts of the same engine may use different file systems,
+ * and a file may change without its size or modification time changing, so the module is still
+ * read on every load; what is shared is the wrapped {@link Source}, which lets Truffle's source
+ * cache share the parsed call target among contexts.
+ */
+public final class CommonJSSourceCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        final byte[] digest;
+        final Source source;
+
+        Entry(byte[] digest, Source source) {
+            this.digest = digest;
+            this.source = source;
+        }
+    }
+
+    /**
+     * Returns the cached source of the module {@code fileName} if it was created from the same
+     * {@code code}, or creates it with {@code wrapper} otherwise.
+     */
+    @TruffleBoundary
+    public Source getModuleSource(String fileName, CharSequence code, Supplier<Source> wrapper) {
+        byte[] digest = digest(code);
+        Entry entry = entries.get(fileName);
+        if (entry != null && MessageDigest.isEqual(entry.digest, digest)) {
+            return entry.source;
+        }
+        Source source = wrapper.get();
+        entries.put(fileName, new Entry(digest, source));
+        return source;
+    }
+
+    private static byte[] digest(CharSequence code) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(code.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
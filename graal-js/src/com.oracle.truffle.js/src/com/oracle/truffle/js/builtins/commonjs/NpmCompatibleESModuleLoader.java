@@ -105,7 +105,7 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
             return loadCoreModule(specifier);
         }
         try {
-            TruffleFile file = resolveURL(referencingModule, specifier);
+            TruffleFile file = resolveModuleFile(referencingModule, specifier);
             return loadModuleFromUrl(specifier, file, file.getPath());
         } catch (IOException e) {
             log("IMPORT resolve ", specifier, " FAILED ", e.getMessage());
@@ -113,6 +113,14 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
         }
     }
 
+    @Override
+    protected TruffleFile resolveModuleFile(ScriptOrModule referencingModule, String specifier) {
+        if (isCoreModule(specifier)) {
+            return null;
+        }
+        return resolveURL(referencingModule, specifier);
+    }
+
     private JSModuleRecord loadCoreModule(String specifier) {
         log("IMPORT resolve built-in ", specifier);
         JSModuleRecord existingModule = moduleMap.get(specifier);
@@ -156,6 +164,7 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
         }
         JSModuleRecord record = realm.getContext().getEvaluator().parseModule(realm.getContext(), src, this);
         moduleMap.put(specifier, record);
+        preparseRequestedModules(record);
         return record;
     }
 
@@ -263,14 +272,14 @@ public final class NpmCompatibleESModuleLoader extends DefaultESModuleLoader {
                         throw failMessage("do not use import() to load non-ES modules.");
                     }
                     if (!JSRuntime.isString(main)) {
-                        return loadIndex(env, moduleFolder);
+                        return loadIndex(realm.getContext(), env, moduleFolder);
                     }
                     TruffleFile mainPackageFile = joinPaths(env, moduleFolder, JSRuntime.safeToString(main));
-                    TruffleFile asFile = loadAsFile(env, mainPackageFile);
+                    TruffleFile asFile = loadAsFile(realm.getContext(), env, mainPackageFile);
                     if (asFile != null) {
                         return asFile;
                     } else {
-                        return loadIndex(env, mainPackageFile);
+                        return loadIndex(realm.getContext(), env, mainPackageFile);
                     }
                 }
             }
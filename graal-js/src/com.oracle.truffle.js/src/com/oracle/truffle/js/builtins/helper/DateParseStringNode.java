@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.builtins.JSDate;
+import com.oracle.truffle.js.runtime.util.DateParseCache;
+
+/**
+ * Parses a date string as in {@code Date.parse}. Common formats are handled by the
+ * {@link FastDateParser}; other strings go through the general date parser and their results are
+ * cached per realm.
+ */
+public final class DateParseStringNode extends JavaScriptBaseNode {
+
+    private final JSContext context;
+    private final ConditionProfile fastPathProfile = ConditionProfile.createBinaryProfile();
+
+    private DateParseStringNode(JSContext context) {
+        this.context = context;
+    }
+
+    public static DateParseStringNode create(JSContext context) {
+        return new DateParseStringNode(context);
+    }
+
+    /**
+     * Returns the time value of the date string, or {@link Double#NaN} if it cannot be parsed.
+     */
+    public double execute(String dateString) {
+        String trimmed = trim(dateString);
+        double result = FastDateParser.parse(trimmed, context);
+        if (fastPathProfile.profile(!Double.isNaN(result))) {
+            return result;
+        }
+        return parseGeneral(trimmed);
+    }
+
+    @TruffleBoundary
+    private static String trim(String dateString) {
+        return dateString.trim();
+    }
+
+    @TruffleBoundary
+    private double parseGeneral(String dateString) {
+        JSRealm realm = context.getRealm();
+        DateParseCache cache = realm.getDateParseCache();
+        if (cache.contains(dateString)) {
+            return cache.get(dateString);
+        }
+        double result;
+        Integer[] fields = context.getEvaluator().parseDate(realm, dateString);
+        if (fields != null) {
+            result = JSDate.makeDate(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6], fields[7], context);
+        } else {
+            result = Double.NaN;
+        }
+        cache.put(dateString, result);
+        return result;
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.builtins.JSDate;
+
+/**
+ * Parser for the most common date string formats: the ECMAScript date time string
+ * format (a subset of ISO 8601, e.g. {@code 2020-01-01T00:00:00.000Z}) and the formats produced by
+ * {@code Date.prototype.toUTCString} (RFC 2822 style, e.g. {@code Wed, 01 Jan 2020 00:00:00 GMT})
+ * and {@code Date.prototype.toString} (e.g. {@code Wed Jan 01 2020 01:00:00 GMT+0100 (CET)}).
+ * Unlike the general date parser, it neither boxes the date fields nor creates substrings.
+ *
+ * Only strings that the general date parser would interpret in exactly the same way are accepted;
+ * for all other strings, {@link Double#NaN} is returned and the caller has to fall back to the
+ * general parser.
+ */
+public final class FastDateParser {
+
+    private static final String[] MONTH_NAMES = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+    private static final String[] WEEKDAY_NAMES = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
+
+    private final String string;
+    private final int length;
+    private int pos;
+
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+    private int second;
+    private int millisecond;
+    private boolean isLocal;
+    private int timezone;
+
+    private FastDateParser(String string) {
+        this.string = string;
+        this.length = string.length();
+    }
+
+    /**
+     * Parses a trimmed date string.
+     *
+     * @return the time value, or {@link Double#NaN} if the string is not in one of the supported
+     *         formats
+     */
+    @TruffleBoundary
+    public static double parse(String string, JSContext context) {
+        FastDateParser parser = new FastDateParser(string);
+        if (!parser.parseISODate() && !parser.parseRFCDate()) {
+            return Double.NaN;
+        }
+        return JSDate.makeDate(parser.year, parser.month - 1, parser.day, parser.hour, parser.minute, parser.second, parser.millisecond, parser.isLocal, parser.timezone, context);
+    }
+
+    /**
+     * {@code YYYY[-MM[-DD]][THH:mm[:ss[.sss]][Z|(+|-)HH:mm]]}. Date-only forms are UTC, date-time
+     * forms without an offset are local time.
+     */
+    private boolean parseISODate() {
+        pos = 0;
+        year = readDigits(4);
+        if (year < 0) {
+            return false;
+        }
+        month = 1;
+        day = 1;
+        hour = 0;
+        minute = 0;
+        second = 0;
+        millisecond = 0;
+        isLocal = false;
+        timezone = 0;
+        if (skip('-')) {
+            month = readDigits(2);
+            if (month < 1 || month > 12) {
+                return false;
+            }
+            if (skip('-')) {
+                day = readDigits(2);
+                if (day < 1 || day > 31) {
+                    return false;
+                }
+            }
+        }
+        if (pos == length) {
+            return true;
+        }
+        if (!skip('T')) {
+            return false;
+        }
+        hour = readDigits(2);
+        if (hour < 0 || hour > 24 || !skip(':')) {
+            return false;
+        }
+        minute = readDigits(2);
+        if (minute < 0 || minute > 59) {
+            return false;
+        }
+        if (skip(':')) {
+            second = readDigits(2);
+            if (second < 0 || second > 59) {
+                return false;
+            }
+            if (skip('.') && !readMilliseconds()) {
+                return false;
+            }
+        }
+        if (hour == 24 && (minute != 0 || second != 0 || millisecond != 0)) {
+            return false;
+        }
+        if (pos == length) {
+            isLocal = true;
+            return true;
+        }
+        if (skip('Z')) {
+            return pos == length;
+        }
+        return readOffset(true) && pos == length;
+    }
+
+    /**
+     * {@code [Ddd, ]DD Mon YYYY HH:mm:ss[ GMT|UTC|UT][(+|-)HHmm][ (zone name)]} and
+     * {@code [Ddd ]Mon DD YYYY HH:mm:ss[ GMT|UTC|UT][(+|-)HHmm][ (zone name)]}. Forms without a
+     * zone are local time.
+     */
+    private boolean parseRFCDate() {
+        pos = 0;
+        if (readName(WEEKDAY_NAMES) >= 0) {
+            skip(',');
+            if (!skip(' ')) {
+                return false;
+            }
+        }
+        int monthIndex = readName(MONTH_NAMES);
+        if (monthIndex >= 0) {
+            if (!skip(' ')) {
+                return false;
+            }
+            day = readDayOfMonth();
+        } else {
+            day = readDayOfMonth();
+            if (!skip(' ')) {
+                return false;
+            }
+            monthIndex = readName(MONTH_NAMES);
+        }
+        // The general parser swaps fields heuristically, only accept unambiguous values.
+        if (monthIndex < 0 || day < 1 || day > 31 || !skip(' ')) {
+            return false;
+        }
+        month = monthIndex + 1;
+        year = readDigits(4);
+        if (year < 100 || !skip(' ')) {
+            return false;
+        }
+        hour = readDigits(2);
+        if (hour < 0 || hour > 23 || !skip(':')) {
+            return false;
+        }
+        minute = readDigits(2);
+        if (minute < 0 || minute > 59 || !skip(':')) {
+            return false;
+        }
+        second = readDigits(2);
+        if (second < 0 || second > 59) {
+            return false;
+        }
+        millisecond = 0;
+        isLocal = true;
+        timezone = 0;
+        if (pos < length && string.charAt(pos) == ' ' && pos + 1 < length && string.charAt(pos + 1) != '(') {
+            pos++;
+            if (skipName("GMT") || skipName("UTC") || skipName("UT")) {
+                isLocal = false;
+            }
+            if (pos < length && string.charAt(pos) != ' ') {
+                if (!readOffset(false)) {
+                    return false;
+                }
+                isLocal = false;
+            }
+            if (isLocal) {
+                return false;
+            }
+        }
+        return skipZoneName() && pos == length;
+    }
+
+    private boolean skip(char c) {
+        if (pos < length && string.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean skipName(String name) {
+        if (string.startsWith(name, pos) && (pos + name.length() == length || !isAsciiLetter(string.charAt(pos + name.length())))) {
+            pos += name.length();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Skips a trailing {@code " (zone name)"} without nested parentheses.
+     */
+    private boolean skipZoneName() {
+        if (pos == length) {
+            return true;
+        }
+        if (!skip(' ') || !skip('(')) {
+            return false;
+        }
+        while (pos < length) {
+            char c = string.charAt(pos++);
+            if (c == ')') {
+                return true;
+            } else if (c == '(') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads exactly {@code count} ASCII digits that are not followed by another digit.
+     *
+     * @return the value or -1
+     */
+    private int readDigits(int count) {
+        if (pos + count > length) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            char c = string.charAt(pos + i);
+            if (!isAsciiDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        if (pos + count < length && isAsciiDigit(string.charAt(pos + count))) {
+            return -1;
+        }
+        pos += count;
+        return value;
+    }
+
+    private int readDayOfMonth() {
+        int value = readDigits(2);
+        return value >= 0 ? value : readDigits(1);
+    }
+
+    /**
+     * Reads 1 to 9 digits of a fraction of a second, truncated to milliseconds.
+     */
+    private boolean readMilliseconds() {
+        int start = pos;
+        int value = 0;
+        while (pos < length && pos - start < 9 && isAsciiDigit(string.charAt(pos))) {
+            value = value * 10 + (string.charAt(pos++) - '0');
+        }
+        int digits = pos - start;
+        if (digits == 0 || (pos < length && isAsciiDigit(string.charAt(pos)))) {
+            return false;
+        }
+        for (; digits < 3; digits++) {
+            value *= 10;
+        }
+        for (; digits > 3; digits--) {
+            value /= 10;
+        }
+        millisecond = value;
+        return true;
+    }
+
+    /**
+     * Reads a time zone offset {@code (+|-)HH:mm} (if {@code colon}) or {@code (+|-)HHmm}.
+     */
+    private boolean readOffset(boolean colon) {
+        if (pos >= length) {
+            return false;
+        }
+        char sign = string.charAt(pos);
+        if (sign != '+' && sign != '-') {
+            return false;
+        }
+        pos++;
+        int hours;
+        int minutes;
+        if (colon) {
+            hours = readDigits(2);
+            if (hours < 0 || !skip(':')) {
+                return false;
+            }
+            minutes = readDigits(2);
+        } else {
+            int value = readDigits(4);
+            hours = value / 100;
+            minutes = value % 100;
+        }
+        if (minutes < 0) {
+            return false;
+        }
+        int offset = 60 * hours + minutes;
+        timezone = sign == '-' ? -offset : offset;
+        return true;
+    }
+
+    private int readName(String[] names) {
+        if (pos + 3 > length || (pos + 3 < length && isAsciiLetter(string.charAt(pos + 3)))) {
+            return -1;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (string.startsWith(names[i], pos)) {
+                pos += 3;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return '0' <= c && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return ('A' <= c && c <= 'Z') || ('a' <= c && c <= 'z');
+    }
+}
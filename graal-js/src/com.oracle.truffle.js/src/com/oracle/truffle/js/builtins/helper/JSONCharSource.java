@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSRuntime;
+
+/**
+ * Characters read by {@link TruffleJSONParser}, addressed by their absolute index in the input.
+ * Accessing an index past the end of the input throws a {@link StringIndexOutOfBoundsException},
+ * like {@link String#charAt(int)}.
+ */
+abstract class JSONCharSource {
+
+    /**
+     * Returns {@code true} if the input has a character at {@code index}.
+     */
+    abstract boolean has(int index);
+
+    abstract char charAt(int index);
+
+    abstract String substring(int beginIndex, int endIndex);
+
+    abstract long parseSafeInteger(int beginIndex, int endIndex);
+
+    /**
+     * Returns {@code true} if the characters starting at {@code index} are exactly {@code str}.
+     */
+    abstract boolean regionMatches(int index, String str);
+
+    /**
+     * Signals that the characters before {@code index} will not be accessed any more.
+     */
+    abstract void release(int index);
+
+    /**
+     * Returns the whole input if it is available as a string, {@code null} otherwise.
+     */
+    abstract String getString();
+
+    static JSONCharSource fromString(String str) {
+        return new StringSource(str);
+    }
+
+    /**
+     * Decodes the UTF-8 encoded bytes between the position and the limit of the buffer. The
+     * buffer's position is not modified.
+     */
+    static JSONCharSource fromByteBuffer(ByteBuffer buffer) {
+        return new StreamSource(new ByteBufferInput(buffer));
+    }
+
+    /**
+     * Reads the characters provided by the reader until it is exhausted. The reader is not closed.
+     */
+    static JSONCharSource fromReader(Reader reader) {
+        return new StreamSource(new ReaderInput(reader));
+    }
+
+    private static final class StringSource extends JSONCharSource {
+        private final String str;
+
+        StringSource(String str) {
+            this.str = str;
+        }
+
+        @Override
+        boolean has(int index) {
+            return index < str.length();
+        }
+
+        @Override
+        char charAt(int index) {
+            return str.charAt(index);
+        }
+
+        @Override
+        String substring(int beginIndex, int endIndex) {
+            return str.substring(beginIndex, endIndex);
+        }
+
+        @Override
+        long parseSafeInteger(int beginIndex, int endIndex) {
+            return JSRuntime.parseSafeInteger(str, beginIndex, endIndex, 10);
+        }
+
+        @Override
+        boolean regionMatches(int index, String other) {
+            return str.regionMatches(index, other, 0, other.length());
+        }
+
+        @Override
+        void release(int index) {
+        }
+
+        @Override
+        String getString() {
+            return str;
+        }
+    }
+
+    /**
+     * Keeps a window of the input in memory, from the last released index to the furthest index
+     * accessed so far, and fills it chunk by chunk from a {@link CharInput}.
+     */
+    private static final class StreamSource extends JSONCharSource {
+        private static final int CHUNK_SIZE = 8192;
+
+        private final CharInput input;
+        private char[] buffer = new char[CHUNK_SIZE];
+        /** Absolute index of {@code buffer[0]}. */
+        private int start;
+        /** Number of valid characters in {@code buffer}. */
+        private int count;
+        private int released;
+        private boolean eof;
+
+        StreamSource(CharInput input) {
+            this.input = input;
+        }
+
+        @Override
+        boolean has(int index) {
+            while (index >= start + count) {
+                if (eof) {
+                    return false;
+                }
+                fill();
+            }
+            return true;
+        }
+
+        private void fill() {
+            int keep = released - start;
+            if (keep > 0) {
+                System.arraycopy(buffer, keep, buffer, 0, count - keep);
+                count -= keep;
+                start = released;
+            }
+            if (buffer.length - count < CHUNK_SIZE / 2) {
+                char[] newBuffer = new char[Math.max(buffer.length * 2, count + CHUNK_SIZE)];
+                System.arraycopy(buffer, 0, newBuffer, 0, count);
+                buffer = newBuffer;
+            }
+            int n;
+            try {
+                n = input.read(buffer, count, buffer.length - count);
+            } catch (IOException ex) {
+                throw Errors.createError(ex.getMessage(), ex);
+            }
+            if (n < 0) {
+                eof = true;
+            } else {
+                count += n;
+            }
+        }
+
+        @Override
+        char charAt(int index) {
+            assert index >= start;
+            if (!has(index)) {
+                throw new StringIndexOutOfBoundsException(index);
+            }
+            return buffer[index - start];
+        }
+
+        @Override
+        String substring(int beginIndex, int endIndex) {
+            assert beginIndex >= start && beginIndex <= endIndex;
+            if (endIndex > beginIndex && !has(endIndex - 1)) {
+                throw new StringIndexOutOfBoundsException(endIndex);
+            }
+            return new String(buffer, beginIndex - start, endIndex - beginIndex);
+        }
+
+        @Override
+        long parseSafeInteger(int beginIndex, int endIndex) {
+            return JSRuntime.parseSafeInteger(substring(beginIndex, endIndex));
+        }
+
+        @Override
+        boolean regionMatches(int index, String str) {
+            if (!has(index + str.length() - 1)) {
+                return false;
+            }
+            for (int i = 0; i < str.length(); i++) {
+                if (buffer[index - start + i] != str.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void release(int index) {
+            assert index >= released;
+            released = index;
+        }
+
+        @Override
+        String getString() {
+            return null;
+        }
+    }
+
+    private abstract static class CharInput {
+        /**
+         * Reads up to {@code length} characters into {@code dst}, returning the number of
+         * characters read, or -1 at the end of the input.
+         */
+        abstract int read(char[] dst, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Decodes UTF-8 on the fly. Supplementary characters are returned as surrogate pairs and
+     * malformed sequences are replaced with U+FFFD, like {@link java.nio.charset.CharsetDecoder}
+     * configured with {@code CodingErrorAction.REPLACE}.
+     */
+    private static final class ByteBufferInput extends CharInput {
+        private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+        private final ByteBuffer buffer;
+        private final int limit;
+        private int index;
+
+        ByteBufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.index = buffer.position();
+            this.limit = buffer.limit();
+        }
+
+        @Override
+        int read(char[] dst, int offset, int length) {
+            if (index >= limit) {
+                return -1;
+            }
+            assert length >= 2;
+            int n = 0;
+            // leave room for a surrogate pair
+            while (n < length - 1 && index < limit) {
+                int codePoint = decode();
+                if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                    dst[offset + n++] = Character.highSurrogate(codePoint);
+                    dst[offset + n++] = Character.lowSurrogate(codePoint);
+                } else {
+                    dst[offset + n++] = (char) codePoint;
+                }
+            }
+            return n;
+        }
+
+        private int decode() {
+            int b0 = buffer.get(index++) & 0xFF;
+            if (b0 < 0x80) {
+                return b0;
+            }
+            int length;
+            int codePoint;
+            int min;
+            if ((b0 & 0xE0) == 0xC0) {
+                length = 1;
+                codePoint = b0 & 0x1F;
+                min = 0x80;
+            } else if ((b0 & 0xF0) == 0xE0) {
+                length = 2;
+                codePoint = b0 & 0x0F;
+                min = 0x800;
+            } else if ((b0 & 0xF8) == 0xF0) {
+                length = 3;
+                codePoint = b0 & 0x07;
+                min = 0x10000;
+            } else {
+                return REPLACEMENT_CHARACTER;
+            }
+            for (int i = 0; i < length; i++) {
+                if (index >= limit) {
+                    return REPLACEMENT_CHARACTER;
+                }
+                int b = buffer.get(index) & 0xFF;
+                if ((b & 0xC0) != 0x80) {
+                    return REPLACEMENT_CHARACTER;
+                }
+                index++;
+                codePoint = (codePoint << 6) | (b & 0x3F);
+            }
+            if (codePoint < min || codePoint > Character.MAX_CODE_POINT || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+                return REPLACEMENT_CHARACTER;
+            }
+            return codePoint;
+        }
+    }
+
+    private static final class ReaderInput extends CharInput {
+        private final Reader reader;
+
+        ReaderInput(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        int read(char[] dst, int offset, int length) throws IOException {
+            int n;
+            do {
+                n = reader.read(dst, offset, length);
+            } while (n == 0);
+            return n;
+        }
+    }
+}
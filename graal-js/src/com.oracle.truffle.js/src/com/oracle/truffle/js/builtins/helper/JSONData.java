@@ -41,13 +41,22 @@
 package com.oracle.truffle.js.builtins.helper;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Shape;
 
 public class JSONData {
 
     protected List<Object> stack = new ArrayList<>();
+    /** Identity set of the objects in {@link #stack}, for constant-time cycle checks. */
+    private final Set<Object> stackSet = Collections.newSetFromMap(new IdentityHashMap<>());
+    /** Serialization plans of the ordinary object shapes seen so far; null values mark shapes without a plan. */
+    private Map<Shape, JSONStringifyStringNode.ShapePlan> shapePlans;
     private int indent;
     private final String gap;
     private final List<String> propertyList;
@@ -83,6 +92,15 @@ public class JSONData {
 
     public void pushStack(Object value) {
         stack.add(value);
+        stackSet.add(value);
+    }
+
+    public boolean isOnStack(Object value) {
+        if (value instanceof DynamicObject) {
+            return stackSet.contains(value);
+        }
+        // foreign objects may use equality rather than identity (e.g. host object wrappers)
+        return stack.contains(value);
     }
 
     public boolean stackTooDeep() {
@@ -90,6 +108,21 @@ public class JSONData {
     }
 
     public void popStack() {
-        stack.remove(stack.size() - 1);
+        stackSet.remove(stack.remove(stack.size() - 1));
+    }
+
+    boolean hasShapePlan(Shape shape) {
+        return shapePlans != null && shapePlans.containsKey(shape);
+    }
+
+    JSONStringifyStringNode.ShapePlan getShapePlan(Shape shape) {
+        return shapePlans == null ? null : shapePlans.get(shape);
+    }
+
+    void putShapePlan(Shape shape, JSONStringifyStringNode.ShapePlan plan) {
+        if (shapePlans == null) {
+            shapePlans = new IdentityHashMap<>();
+        }
+        shapePlans.put(shape, plan);
     }
 }
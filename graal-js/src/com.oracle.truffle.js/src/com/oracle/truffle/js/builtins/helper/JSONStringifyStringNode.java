@@ -51,12 +51,15 @@ import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.interop.UnknownIdentifierException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.nodes.JSGuards;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.nodes.access.PropertyGetNode;
 import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.Symbol;
@@ -67,6 +70,8 @@ import com.oracle.truffle.js.runtime.builtins.JSClass;
 import com.oracle.truffle.js.runtime.builtins.JSNumber;
 import com.oracle.truffle.js.runtime.builtins.JSString;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.truffleinterop.JSInteropUtil;
@@ -266,7 +271,13 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         boolean hasContent;
         if (data.getPropertyList() == null) {
             if (JSObject.isJSObject(value)) {
-                hasContent = serializeJSONObjectProperties(builder, data, value, indent, JSObject.enumerableOwnNames((DynamicObject) value));
+                DynamicObject valueObj = (DynamicObject) value;
+                ShapePlan plan = getShapePlan(data, valueObj);
+                if (plan != null) {
+                    hasContent = serializeJSONObjectProperties(builder, data, valueObj, indent, plan);
+                } else {
+                    hasContent = serializeJSONObjectProperties(builder, data, value, indent, JSObject.enumerableOwnNames(valueObj));
+                }
             } else {
                 hasContent = serializeForeignObjectProperties(builder, data, value, indent);
             }
@@ -301,6 +312,94 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
         return hasContent;
     }
 
+    private ShapePlan getShapePlan(JSONData data, DynamicObject obj) {
+        Shape shape = obj.getShape();
+        ShapePlan plan = data.getShapePlan(shape);
+        if (plan == null && !data.hasShapePlan(shape)) {
+            plan = createShapePlan(data, obj);
+            data.putShapePlan(shape, plan);
+        }
+        return plan;
+    }
+
+    private ShapePlan createShapePlan(JSONData data, DynamicObject obj) {
+        if (!JSConfig.FastOwnKeys || !JSObject.getJSClass(obj).hasOnlyShapeProperties(obj)) {
+            return null;
+        }
+        Shape shape = obj.getShape();
+        List<String> names = JSShape.getEnumerablePropertyNames(shape);
+        int count = names.size();
+        String[] keys = new String[count];
+        String[] quotedKeys = new String[count];
+        Property[] properties = new Property[count];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String key = names.get(i);
+            Property property = shape.getProperty(key);
+            if (property == null || !JSProperty.isData(property) || JSProperty.isProxy(property)) {
+                return null;
+            }
+            sb.setLength(0);
+            jsonQuote(sb, key);
+            appendColon(sb, data);
+            keys[i] = key;
+            quotedKeys[i] = sb.toString();
+            properties[i] = property;
+        }
+        return new ShapePlan(shape, keys, quotedKeys, properties);
+    }
+
+    /**
+     * Serializes the properties of an ordinary object using the plan of its shape. Values are read
+     * directly from their locations as long as the object keeps that shape; if a toJSON or
+     * replacer function modifies the object during serialization, the remaining values are read
+     * with a regular [[Get]].
+     */
+    private boolean serializeJSONObjectProperties(StringBuilder builder, JSONData data, DynamicObject obj, int indent, ShapePlan plan) {
+        boolean isFirst = true;
+        boolean hasContent = false;
+        for (int i = 0; i < plan.keys.length; i++) {
+            String name = plan.keys[i];
+            Object value;
+            if (obj.getShape() == plan.shape) {
+                value = plan.properties[i].get(obj, plan.shape);
+            } else {
+                value = JSObject.get(obj, name);
+            }
+            Object strPPrepared = jsonStrPreparePart2(data, name, obj, value);
+            if (isStringifyable(strPPrepared)) {
+                if (isFirst) {
+                    concatFirstStep(builder, data);
+                    isFirst = false;
+                } else {
+                    appendSeparator(builder, data, indent);
+                }
+                stringBuilderProfile.append(builder, plan.quotedKeys[i]);
+                jsonStrExecute(builder, data, strPPrepared);
+                hasContent = true;
+            }
+        }
+        return hasContent;
+    }
+
+    /**
+     * The enumerable data properties of an ordinary object shape in property key order, together
+     * with their quoted and escaped names followed by the colon (and space, if indenting).
+     */
+    static final class ShapePlan {
+        final Shape shape;
+        final String[] keys;
+        final String[] quotedKeys;
+        final Property[] properties;
+
+        ShapePlan(Shape shape, String[] keys, String[] quotedKeys, Property[] properties) {
+            this.shape = shape;
+            this.keys = keys;
+            this.quotedKeys = quotedKeys;
+            this.properties = properties;
+        }
+    }
+
     private void appendColon(StringBuilder builder, JSONData data) {
         stringBuilderProfile.append(builder, ':');
         if (data.getGap().length() > 0) {
@@ -448,7 +547,7 @@ public abstract class JSONStringifyStringNode extends JavaScriptBaseNode {
     }
 
     private static void checkCycle(JSONData data, Object value) {
-        if (data.stack.contains(value)) {
+        if (data.isOnStack(value)) {
             throw Errors.createTypeError("Converting circular structure to JSON");
         }
     }
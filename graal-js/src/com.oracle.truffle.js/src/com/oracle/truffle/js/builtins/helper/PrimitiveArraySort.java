@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.builtins.helper;
+
+import com.oracle.truffle.js.runtime.Boundaries;
+import com.oracle.truffle.js.runtime.JSRuntime;
+
+/**
+ * Stable sorting of primitive {@code int}, {@code long}, and {@code double} arrays with a custom
+ * comparator. Used by {@code Array.prototype.sort} and {@code %TypedArray%.prototype.sort} to sort
+ * int- and double-backed arrays without boxing every element.
+ *
+ * The sort is a merge sort that always terminates, even if the comparator is inconsistent (in
+ * which case the resulting order is unspecified, cf. ES2020 22.1.3.27).
+ */
+public final class PrimitiveArraySort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /** Largest integral double whose string representation is its plain decimal digits. */
+    private static final double MAX_SAFE_INTEGER = 9007199254740991d;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        long power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    public interface IntComparator {
+        int compare(int a, int b);
+    }
+
+    public interface LongComparator {
+        int compare(long a, long b);
+    }
+
+    public interface DoubleComparator {
+        int compare(double a, double b);
+    }
+
+    /**
+     * Default sort order of {@code Array.prototype.sort} for int arrays (i.e. comparison of the
+     * values' string representations).
+     */
+    public static final IntComparator INT_AS_STRING_COMPARATOR = new IntComparator() {
+        @Override
+        public int compare(int a, int b) {
+            return compareIntegersAsStrings(a, b);
+        }
+    };
+
+    /**
+     * Default sort order of {@code Array.prototype.sort} for double arrays (i.e. comparison of the
+     * values' string representations).
+     */
+    public static final DoubleComparator DOUBLE_AS_STRING_COMPARATOR = new DoubleComparator() {
+        @Override
+        public int compare(double a, double b) {
+            return compareDoublesAsStrings(a, b);
+        }
+    };
+
+    private PrimitiveArraySort() {
+    }
+
+    /**
+     * Compares two integral values by their decimal string representation without creating the
+     * strings. Both values must be in the range of safe integers.
+     */
+    public static int compareIntegersAsStrings(long a, long b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a < 0) {
+            if (b >= 0) {
+                return -1; // '-' sorts before all digits
+            }
+            return compareDigits(-a, -b);
+        } else if (b < 0) {
+            return 1;
+        }
+        return compareDigits(a, b);
+    }
+
+    private static int compareDigits(long a, long b) {
+        assert a >= 0 && b >= 0;
+        int digitsA = digitCount(a);
+        int digitsB = digitCount(b);
+        if (digitsA == digitsB) {
+            return Long.compare(a, b);
+        } else if (digitsA < digitsB) {
+            long prefixB = b / POWERS_OF_TEN[digitsB - digitsA];
+            if (a == prefixB) {
+                return -1; // a is a proper prefix of b
+            }
+            return a < prefixB ? -1 : 1;
+        } else {
+            long prefixA = a / POWERS_OF_TEN[digitsA - digitsB];
+            if (prefixA == b) {
+                return 1; // b is a proper prefix of a
+            }
+            return prefixA < b ? -1 : 1;
+        }
+    }
+
+    private static int digitCount(long value) {
+        assert value >= 0;
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * Compares two doubles by their string representation. Integral values in the safe integer
+     * range (including -0) are compared without creating strings.
+     */
+    public static int compareDoublesAsStrings(double a, double b) {
+        if (isSafeInteger(a) && isSafeInteger(b)) {
+            return compareIntegersAsStrings((long) a, (long) b);
+        }
+        if (a == b) {
+            return 0;
+        }
+        return Boundaries.stringCompareTo(JSRuntime.doubleToString(a), JSRuntime.doubleToString(b));
+    }
+
+    private static boolean isSafeInteger(double d) {
+        return d == (long) d && -MAX_SAFE_INTEGER <= d && d <= MAX_SAFE_INTEGER;
+    }
+
+    /**
+     * Maps the result of a comparison function (ES2020 22.1.3.27.1 SortCompare, step 4) to an int.
+     * NaN is treated as +0.
+     */
+    public static int comparisonResult(double d) {
+        return d < 0 ? -1 : (d > 0 ? 1 : 0);
+    }
+
+    public static void sort(int[] array, int length, IntComparator comparator) {
+        if (length < 2) {
+            return;
+        }
+        long[] values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = array[i];
+        }
+        sort(values, length, (a, b) -> comparator.compare((int) a, (int) b));
+        for (int i = 0; i < length; i++) {
+            array[i] = (int) values[i];
+        }
+    }
+
+    public static void sort(double[] array, int length, DoubleComparator comparator) {
+        if (length < 2) {
+            return;
+        }
+        long[] values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = Double.doubleToRawLongBits(array[i]);
+        }
+        sort(values, length, (a, b) -> comparator.compare(Double.longBitsToDouble(a), Double.longBitsToDouble(b)));
+        for (int i = 0; i < length; i++) {
+            array[i] = Double.longBitsToDouble(values[i]);
+        }
+    }
+
+    /**
+     * The merge sort shared by all element kinds; {@code int} and {@code double} arrays are sorted
+     * as {@code long} values (the latter as raw bits) with an adapted comparator.
+     */
+    public static void sort(long[] array, int length, LongComparator comparator) {
+        if (length < 2) {
+            return;
+        }
+        long[] buffer = length > INSERTION_SORT_THRESHOLD ? new long[length] : null;
+        mergeSort(array, buffer, 0, length, comparator);
+    }
+
+    private static void mergeSort(long[] array, long[] buffer, int from, int to, LongComparator comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(array, from, to, comparator);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(array, buffer, from, mid, comparator);
+        mergeSort(array, buffer, mid, to, comparator);
+        if (comparator.compare(array[mid - 1], array[mid]) <= 0) {
+            return; // already in order
+        }
+        System.arraycopy(array, from, buffer, from, mid - from);
+        int left = from;
+        int right = mid;
+        int dest = from;
+        while (left < mid && right < to) {
+            if (comparator.compare(buffer[left], array[right]) <= 0) {
+                array[dest++] = buffer[left++];
+            } else {
+                array[dest++] = array[right++];
+            }
+        }
+        System.arraycopy(buffer, left, array, dest, mid - left);
+    }
+
+    private static void insertionSort(long[] array, int from, int to, LongComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            long value = array[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(array[j], value) > 0) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = value;
+        }
+    }
+}
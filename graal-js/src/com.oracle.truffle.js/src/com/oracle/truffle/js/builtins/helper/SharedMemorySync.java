@@ -42,177 +42,247 @@ package com.oracle.truffle.js.builtins.helper;
 
 import static com.oracle.truffle.js.runtime.builtins.JSArrayBufferView.typedArrayGetArrayType;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.LockSupport;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.BigInt;
+import com.oracle.truffle.js.runtime.JSAgent;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
+import com.oracle.truffle.js.runtime.JSAgentWaiterList.Waiter;
+import com.oracle.truffle.js.runtime.JSCancelledExecutionException;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
-import com.oracle.truffle.js.runtime.util.Fences;
+import com.oracle.truffle.js.runtime.util.ByteBufferAtomics;
 
 /**
  * Implementation of the synchronization primitives of ECMA2017 Shared Memory model.
+ *
+ * Atomic accesses use the hardware atomics of the direct byte buffer backing a shared array buffer
+ * and take no locks. 8- and 16-bit elements are accessed through the aligned 32-bit word containing
+ * them, except at the end of a buffer whose length is not a multiple of 4, where that word would
+ * extend past the buffer: these last elements are accessed under the lock of the buffer instead.
  */
 public final class SharedMemorySync {
 
+    private static final boolean BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
     private SharedMemorySync() {
         // should not be constructed
     }
 
-    // ##### Getters and setters with ordering and memory barriers
-    @TruffleBoundary
-    public static int doVolatileGet(DynamicObject target, int intArrayOffset) {
-        Fences.acquireFence();
-        TypedArray array = typedArrayGetArrayType(target);
-        TypedArray.TypedIntArray<?> typedArray = (TypedArray.TypedIntArray<?>) array;
-        return typedArray.getInt(target, intArrayOffset, true);
+    private static ByteBuffer getBuffer(DynamicObject target) {
+        return JSArrayBufferView.typedArrayGetByteBuffer(target, JSArrayBufferView.isJSArrayBufferView(target));
     }
 
-    // ##### Getters and setters with ordering and memory barriers
-    @TruffleBoundary
-    public static BigInt doVolatileGetBigInt(DynamicObject target, int intArrayOffset) {
-        Fences.acquireFence();
-        TypedArray array = typedArrayGetArrayType(target);
-        TypedArray.TypedBigIntArray<?> typedArray = (TypedArray.TypedBigIntArray<?>) array;
-        return typedArray.getBigInt(target, intArrayOffset, true);
+    private static int getByteIndex(DynamicObject target, TypedArray array, int index) {
+        return JSArrayBufferView.typedArrayGetOffset(target) + index * array.bytesPerElement();
     }
 
-    @TruffleBoundary
-    public static void doVolatilePut(DynamicObject target, int index, int value) {
-        TypedArray array = typedArrayGetArrayType(target);
-        TypedArray.TypedIntArray<?> typedArray = (TypedArray.TypedIntArray<?>) array;
-        typedArray.setInt(target, index, value, true);
-        Fences.releaseFence();
+    /**
+     * Shift of an 8- or 16-bit element within its aligned 32-bit word.
+     */
+    private static int getShift(int byteIndex, int bytesPerElement) {
+        int position = byteIndex & 3;
+        return (BIG_ENDIAN ? 4 - bytesPerElement - position : position) << 3;
     }
 
-    @TruffleBoundary
-    public static void doVolatilePutBigInt(DynamicObject target, int index, BigInt value) {
-        TypedArray array = typedArrayGetArrayType(target);
-        TypedArray.TypedBigIntArray<?> typedArray = (TypedArray.TypedBigIntArray<?>) array;
-        typedArray.setBigInt(target, index, value, true);
-        Fences.releaseFence();
+    /**
+     * Whether the aligned 32-bit word containing the byte extends past the end of the buffer.
+     */
+    private static boolean inPartialWord(ByteBuffer buffer, int byteIndex) {
+        return (byteIndex | 3) >= buffer.capacity();
     }
 
-    // ##### Atomic CAS primitives
-    @TruffleBoundary
-    public static boolean compareAndSwapInt(JSContext cx, DynamicObject target, int intArrayOffset, int initial, int result) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        try {
-            int value = doVolatileGet(target, intArrayOffset);
-            if (value == initial) {
-                doVolatilePut(target, intArrayOffset, result);
-                return true;
-            }
-            return false;
-        } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+    private static int readElement(ByteBuffer buffer, int byteIndex, int bytesPerElement) {
+        if (bytesPerElement == 4) {
+            return ByteBufferAtomics.getInt32Volatile(buffer, byteIndex);
+        } else if (inPartialWord(buffer, byteIndex)) {
+            return readPartialWordElement(buffer, byteIndex, bytesPerElement);
         }
+        int word = ByteBufferAtomics.getInt32Volatile(buffer, byteIndex & ~3);
+        int value = word >>> getShift(byteIndex, bytesPerElement);
+        return bytesPerElement == 1 ? (byte) value : (short) value;
     }
 
-    @TruffleBoundary
-    public static boolean compareAndSwapBigInt(JSContext cx, DynamicObject target, int intArrayOffset, BigInt initial, BigInt result) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        try {
-            BigInt value = doVolatileGetBigInt(target, intArrayOffset);
-            if (value.compareTo(initial) == 0) {
-                doVolatilePutBigInt(target, intArrayOffset, result);
+    /**
+     * Atomically replaces the element if it equals {@code expected}, comparing only the low
+     * {@code bytesPerElement} bytes of both values.
+     */
+    private static boolean compareAndSetElement(ByteBuffer buffer, int byteIndex, int bytesPerElement, int expected, int replacement) {
+        if (bytesPerElement == 4) {
+            return ByteBufferAtomics.compareAndSetInt32(buffer, byteIndex, expected, replacement);
+        } else if (inPartialWord(buffer, byteIndex)) {
+            return compareAndSetPartialWordElement(buffer, byteIndex, bytesPerElement, expected, replacement);
+        }
+        int wordIndex = byteIndex & ~3;
+        int shift = getShift(byteIndex, bytesPerElement);
+        int mask = (bytesPerElement == 1 ? 0xFF : 0xFFFF) << shift;
+        int expectedBits = (expected << shift) & mask;
+        int replacementBits = (replacement << shift) & mask;
+        while (true) {
+            int word = ByteBufferAtomics.getInt32Volatile(buffer, wordIndex);
+            if ((word & mask) != expectedBits) {
+                return false;
+            }
+            if (ByteBufferAtomics.compareAndSetInt32(buffer, wordIndex, word, (word & ~mask) | replacementBits)) {
                 return true;
             }
-            return false;
-        } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+            // another element of the same word changed, retry
         }
     }
 
-    // ##### Atomic Fetch-or-Get primitives
-    @TruffleBoundary
-    public static long atomicFetchOrGetUnsigned(JSContext cx, DynamicObject target, int intArrayOffset, Object expected, Object replacement) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        long read = JSRuntime.toUInt32(doVolatileGet(target, intArrayOffset));
-        if (read == JSRuntime.toUInt32(expected)) {
-            doVolatilePut(target, intArrayOffset, (int) JSRuntime.toUInt32(replacement));
+    private static void writeElement(ByteBuffer buffer, int byteIndex, int bytesPerElement, int value) {
+        if (bytesPerElement == 4) {
+            ByteBufferAtomics.setInt32Volatile(buffer, byteIndex, value);
+            return;
+        } else if (inPartialWord(buffer, byteIndex)) {
+            writePartialWordElement(buffer, byteIndex, bytesPerElement, value);
+            return;
         }
-        cx.getJSAgent().atomicSectionLeave(target);
-        return read;
+        int wordIndex = byteIndex & ~3;
+        int shift = getShift(byteIndex, bytesPerElement);
+        int mask = (bytesPerElement == 1 ? 0xFF : 0xFFFF) << shift;
+        int bits = (value << shift) & mask;
+        int word;
+        do {
+            word = ByteBufferAtomics.getInt32Volatile(buffer, wordIndex);
+        } while (!ByteBufferAtomics.compareAndSetInt32(buffer, wordIndex, word, (word & ~mask) | bits));
     }
 
-    @TruffleBoundary
-    public static long atomicFetchOrGetLong(JSContext cx, DynamicObject target, int intArrayOffset, long expected, long replacement) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        try {
-            int read = doVolatileGet(target, intArrayOffset);
-            if (read == expected) {
-                doVolatilePut(target, intArrayOffset, (int) replacement);
+    /**
+     * Atomically replaces the element if it equals {@code expected}, and returns the previous
+     * (sign-extended) value.
+     */
+    private static int compareAndExchangeElement(ByteBuffer buffer, int byteIndex, int bytesPerElement, int expected, int replacement) {
+        while (true) {
+            int read = readElement(buffer, byteIndex, bytesPerElement);
+            if (!sameElement(read, expected, bytesPerElement) || compareAndSetElement(buffer, byteIndex, bytesPerElement, read, replacement)) {
+                return read;
             }
-            return read;
-        } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
         }
     }
 
-    @TruffleBoundary
-    public static int atomicFetchOrGetInt(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        try {
-            int read = doVolatileGet(target, intArrayOffset);
-            if (read == expected) {
-                doVolatilePut(target, intArrayOffset, replacement);
-            }
-            return read;
-        } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+    private static boolean sameElement(int a, int b, int bytesPerElement) {
+        int unused = (4 - bytesPerElement) << 3;
+        return (a << unused) == (b << unused);
+    }
+
+    // All accesses to the bytes of a partial word synchronize on the (shared) buffer instance.
+
+    private static int getElement(ByteBuffer buffer, int byteIndex, int bytesPerElement) {
+        if (bytesPerElement == 1) {
+            return buffer.get(byteIndex);
+        }
+        return buffer.duplicate().order(ByteOrder.nativeOrder()).getShort(byteIndex);
+    }
+
+    private static void putElement(ByteBuffer buffer, int byteIndex, int bytesPerElement, int value) {
+        if (bytesPerElement == 1) {
+            buffer.put(byteIndex, (byte) value);
+        } else {
+            buffer.duplicate().order(ByteOrder.nativeOrder()).putShort(byteIndex, (short) value);
         }
     }
 
     @TruffleBoundary
-    public static int atomicFetchOrGetShort(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement, boolean sign) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        int read = doVolatileGet(target, intArrayOffset);
-        read = sign ? read : read & 0xFFFF;
-        int expectedChopped = sign ? (short) expected : expected & 0xFFFF;
-        if (read == expectedChopped) {
-            int signed = sign ? replacement : replacement & 0xFFFF;
-            SharedMemorySync.doVolatilePut(target, intArrayOffset, (short) signed);
+    private static int readPartialWordElement(ByteBuffer buffer, int byteIndex, int bytesPerElement) {
+        synchronized (buffer) {
+            return getElement(buffer, byteIndex, bytesPerElement);
         }
-        cx.getJSAgent().atomicSectionLeave(target);
-        return read;
     }
 
     @TruffleBoundary
-    public static int atomicFetchOrGetByte(JSContext cx, DynamicObject target, int intArrayOffset, int expected, int replacement, boolean sign) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        try {
-            int read = doVolatileGet(target, intArrayOffset);
-            read = sign ? read : read & 0xFF;
-            int expectedChopped = sign ? (byte) expected : expected & 0xFF;
-            if (read == expectedChopped) {
-                int signed = sign ? replacement : replacement & 0xFF;
-                SharedMemorySync.doVolatilePut(target, intArrayOffset, (byte) signed);
-            }
-            return read;
-        } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+    private static void writePartialWordElement(ByteBuffer buffer, int byteIndex, int bytesPerElement, int value) {
+        synchronized (buffer) {
+            putElement(buffer, byteIndex, bytesPerElement, value);
         }
     }
 
     @TruffleBoundary
-    public static BigInt atomicFetchOrGetBigInt(JSContext cx, DynamicObject target, int intArrayOffset, BigInt expected, BigInt replacement) {
-        cx.getJSAgent().atomicSectionEnter(target);
-        try {
-            BigInt read = doVolatileGetBigInt(target, intArrayOffset);
-            if (read.compareTo(expected) == 0) {
-                doVolatilePutBigInt(target, intArrayOffset, replacement);
+    private static boolean compareAndSetPartialWordElement(ByteBuffer buffer, int byteIndex, int bytesPerElement, int expected, int replacement) {
+        synchronized (buffer) {
+            if (!sameElement(getElement(buffer, byteIndex, bytesPerElement), expected, bytesPerElement)) {
+                return false;
             }
-            return read;
-        } finally {
-            cx.getJSAgent().atomicSectionLeave(target);
+            putElement(buffer, byteIndex, bytesPerElement, replacement);
+            return true;
         }
     }
 
+    // ##### Getters and setters with ordering and memory barriers
+    public static int doVolatileGet(DynamicObject target, int index) {
+        TypedArray array = typedArrayGetArrayType(target);
+        return readElement(getBuffer(target), getByteIndex(target, array, index), array.bytesPerElement());
+    }
+
+    public static BigInt doVolatileGetBigInt(DynamicObject target, int index) {
+        TypedArray array = typedArrayGetArrayType(target);
+        long value = ByteBufferAtomics.getInt64Volatile(getBuffer(target), getByteIndex(target, array, index));
+        return array instanceof TypedArray.DirectBigUint64Array ? BigInt.valueOfUnsigned(value) : BigInt.valueOf(value);
+    }
+
+    public static void doVolatilePut(DynamicObject target, int index, int value) {
+        TypedArray array = typedArrayGetArrayType(target);
+        writeElement(getBuffer(target), getByteIndex(target, array, index), array.bytesPerElement(), value);
+    }
+
+    public static void doVolatilePutBigInt(DynamicObject target, int index, BigInt value) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBufferAtomics.setInt64Volatile(getBuffer(target), getByteIndex(target, array, index), value.longValue());
+    }
+
+    // ##### Atomic CAS primitives
+    public static boolean compareAndSwapInt(DynamicObject target, int index, int initial, int result) {
+        TypedArray array = typedArrayGetArrayType(target);
+        return compareAndSetElement(getBuffer(target), getByteIndex(target, array, index), array.bytesPerElement(), initial, result);
+    }
+
+    public static boolean compareAndSwapBigInt(DynamicObject target, int index, BigInt initial, BigInt result) {
+        TypedArray array = typedArrayGetArrayType(target);
+        return ByteBufferAtomics.compareAndSetInt64(getBuffer(target), getByteIndex(target, array, index), initial.longValue(), result.longValue());
+    }
+
+    // ##### Atomic Fetch-or-Get primitives
+    public static long atomicFetchOrGetUnsigned(DynamicObject target, int index, Object expected, Object replacement) {
+        return JSRuntime.toUInt32(atomicFetchOrGetInt(target, index, (int) JSRuntime.toUInt32(expected), (int) JSRuntime.toUInt32(replacement)));
+    }
+
+    public static int atomicFetchOrGetInt(DynamicObject target, int index, int expected, int replacement) {
+        TypedArray array = typedArrayGetArrayType(target);
+        return compareAndExchangeElement(getBuffer(target), getByteIndex(target, array, index), array.bytesPerElement(), expected, replacement);
+    }
+
+    public static int atomicFetchOrGetShort(DynamicObject target, int index, int expected, int replacement, boolean sign) {
+        int read = atomicFetchOrGetInt(target, index, expected, replacement);
+        return sign ? read : read & 0xFFFF;
+    }
+
+    public static int atomicFetchOrGetByte(DynamicObject target, int index, int expected, int replacement, boolean sign) {
+        int read = atomicFetchOrGetInt(target, index, expected, replacement);
+        return sign ? read : read & 0xFF;
+    }
+
+    public static BigInt atomicFetchOrGetBigInt(DynamicObject target, int index, BigInt expected, BigInt replacement) {
+        TypedArray array = typedArrayGetArrayType(target);
+        ByteBuffer buffer = getBuffer(target);
+        int byteIndex = getByteIndex(target, array, index);
+        long expectedValue = expected.longValue();
+        long replacementValue = replacement.longValue();
+        long read;
+        do {
+            read = ByteBufferAtomics.getInt64Volatile(buffer, byteIndex);
+        } while (read == expectedValue && !ByteBufferAtomics.compareAndSetInt64(buffer, byteIndex, read, replacementValue));
+        return array instanceof TypedArray.DirectBigUint64Array ? BigInt.valueOfUnsigned(read) : BigInt.valueOf(read);
+    }
+
     // ##### Thread Wake/Park primitives
 
     @SuppressWarnings("unused")
@@ -238,52 +308,74 @@ public final class SharedMemorySync {
     }
 
     @TruffleBoundary
-    public static void addWaiter(JSContext cx, JSAgentWaiterListEntry wl, int id) {
+    public static void addWaiter(JSContext cx, JSAgentWaiterListEntry wl, Waiter waiter) {
         assert cx.getJSAgent().inCriticalSection();
-        assert !wl.contains(id);
-        wl.add(id);
+        assert !wl.contains(waiter);
+        wl.add(waiter);
     }
 
     @TruffleBoundary
-    public static void removeWaiter(JSContext cx, JSAgentWaiterListEntry wl, int w) {
+    public static void removeWaiter(JSContext cx, JSAgentWaiterListEntry wl, Waiter waiter) {
         assert cx.getJSAgent().inCriticalSection();
-        assert wl.contains(w);
-        wl.remove(w);
+        assert wl.contains(waiter);
+        wl.remove(waiter);
     }
 
-    /* ECMA2017 24.4.1.9 - Suspend returns true if agent was woken by another agent */
+    /*
+     * ECMA2017 24.4.1.9 - Suspend returns true if agent was woken by another agent. The agent is
+     * parked until it is notified or its timeout expires. An interrupt of the thread cancels the
+     * wait, unless the agent reports it as the delivery of a message (see
+     * JSAgent.hasPendingMessageInterrupt()); such interrupts are preserved for the caller.
+     */
     @TruffleBoundary
-    public static boolean suspendAgent(JSContext cx, JSAgentWaiterListEntry wl, int w, int timeout) {
-        assert cx.getJSAgent().inCriticalSection();
-        assert wl.contains(w);
-        assert cx.getJSAgent().getSignifier() == w;
-        assert cx.getJSAgent().canBlock();
-        cx.getJSAgent().criticalSectionLeave(wl);
-        boolean interrupt = false;
+    public static boolean suspendAgent(JSContext cx, JSAgentWaiterListEntry wl, Waiter waiter, Node originatingNode) {
+        JSAgent agent = cx.getJSAgent();
+        assert agent.inCriticalSection();
+        assert wl.contains(waiter);
+        assert !waiter.isAsync();
+        assert agent.canBlock();
+        agent.criticalSectionLeave(wl);
+        boolean messageInterrupt = false;
+        boolean cancelled = false;
         try {
-            Thread.sleep(timeout);
-        } catch (InterruptedException e) {
-            interrupt = true;
+            long remaining;
+            while (!waiter.isNotified() && (remaining = waiter.getRemainingNanos()) > 0) {
+                LockSupport.parkNanos(wl, remaining);
+                if (Thread.interrupted()) {
+                    if (agent.hasPendingMessageInterrupt()) {
+                        messageInterrupt = true;
+                    } else {
+                        cancelled = true;
+                        break;
+                    }
+                }
+            }
+        } finally {
+            agent.criticalSectionEnter(wl);
+            if (messageInterrupt) {
+                Thread.currentThread().interrupt();
+            }
         }
-        cx.getJSAgent().criticalSectionEnter(wl);
-        return interrupt;
-    }
-
-    /* ECMA2017 24.4.1.10 - Wake up another agent */
-    @TruffleBoundary
-    public static void wakeWaiter(JSContext cx, int w) {
-        assert cx.getJSAgent().inCriticalSection();
-        cx.getJSAgent().wakeAgent(w);
+        if (cancelled && !waiter.isNotified()) {
+            removeWaiter(cx, wl, waiter);
+            throw new JSCancelledExecutionException("Thread was interrupted.", originatingNode);
+        }
+        return waiter.isNotified();
     }
 
+    /* ECMA2017 24.4.1.10 - Wake up other agents */
     @TruffleBoundary
-    public static int[] removeWaiters(JSContext cx, JSAgentWaiterListEntry wl, int count) {
+    public static int notifyWaiters(JSContext cx, JSAgentWaiterListEntry wl, int count) {
         assert cx.getJSAgent().inCriticalSection();
-        int c = Integer.min(wl.size(), count);
-        int[] removed = new int[c];
-        while (c-- > 0) {
-            removed[c] = wl.poll();
+        int n = 0;
+        while (n < count) {
+            Waiter waiter = wl.poll();
+            if (waiter == null) {
+                break;
+            }
+            waiter.notifyWaiter();
+            n++;
         }
-        return removed;
+        return n;
     }
 }
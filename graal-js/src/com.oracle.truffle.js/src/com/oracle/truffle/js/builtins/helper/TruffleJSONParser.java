@@ -40,9 +40,16 @@
  */
 package com.oracle.truffle.js.builtins.helper;
 
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Location;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSException;
 import com.oracle.truffle.js.runtime.JSRuntime;
@@ -56,9 +63,9 @@ public class TruffleJSONParser {
 
     protected final JSContext context;
     protected int pos;
-    protected int len;
-    protected String parseStr;
+    private JSONCharSource source;
     protected int parseDepth;
+    private ObjectTemplate[] templates;
 
     protected static final char[] NullLiteral = new char[]{'n', 'u', 'l', 'l'};
     protected static final char[] BooleanTrueLiteral = new char[]{'t', 'r', 'u', 'e'};
@@ -72,10 +79,39 @@ public class TruffleJSONParser {
     }
 
     public Object parse(String value) {
+        return parse(JSONCharSource.fromString(value));
+    }
+
+    /**
+     * Parses the UTF-8 encoded bytes between the position and the limit of the buffer, without
+     * first decoding them into a {@link String}. The buffer's position is not modified.
+     */
+    @TruffleBoundary
+    public static Object parse(JSContext context, ByteBuffer buffer) {
+        return new TruffleJSONParser(context).parse(JSONCharSource.fromByteBuffer(buffer));
+    }
+
+    /**
+     * Parses {@code length} UTF-8 encoded bytes of {@code array} starting at {@code offset}.
+     */
+    @TruffleBoundary
+    public static Object parse(JSContext context, byte[] array, int offset, int length) {
+        return parse(context, ByteBuffer.wrap(array, offset, length));
+    }
+
+    /**
+     * Parses the characters provided by the reader until it is exhausted, keeping only the
+     * current token in memory. The reader is not closed.
+     */
+    @TruffleBoundary
+    public static Object parse(JSContext context, Reader reader) {
+        return new TruffleJSONParser(context).parse(JSONCharSource.fromReader(reader));
+    }
+
+    private Object parse(JSONCharSource input) {
         this.pos = 0;
         this.parseDepth = 0;
-        this.parseStr = value;
-        this.len = parseStr.length();
+        this.source = input;
         try {
             skipWhitespace();
             Object result = parseJSONText();
@@ -93,7 +129,7 @@ public class TruffleJSONParser {
         } catch (Exception ex) {
             throwSyntaxError(null);
         } finally {
-            parseStr = null;
+            source = null;
         }
         return null;
     }
@@ -107,6 +143,7 @@ public class TruffleJSONParser {
     }
 
     protected Object parseJSONValue() {
+        source.release(pos);
         char c = get();
         if (c == 'n' && isNullLiteral()) {
             return parseNullLiteral();
@@ -146,7 +183,11 @@ public class TruffleJSONParser {
         read(); // parseJSONValue ensures this char is a "{"
         DynamicObject object = JSUserObject.create(context);
         if (get() != '}') {
-            parseJSONMemberList(object);
+            if (JSConfig.JSONParseShapeTemplates && parseDepth < JSConfig.JSONParseShapeTemplateMaxDepth) {
+                parseJSONMemberListWithTemplate(object);
+            } else {
+                parseJSONMemberList(object);
+            }
             if (get() != '}') {
                 error("closing quote } expected");
             }
@@ -166,7 +207,158 @@ public class TruffleJSONParser {
         }
     }
 
+    /**
+     * Parses the members of an object, trying to match them against the keys of the last object
+     * parsed at the same depth. If all keys match, the object is moved to the final shape in one
+     * step and the values are stored directly into their locations, reusing the key strings of
+     * the template. Otherwise, falls back to defining the properties one by one and records the
+     * resulting shape as the new template for this depth.
+     */
+    private void parseJSONMemberListWithTemplate(DynamicObject object) {
+        int depth = parseDepth;
+        Shape rootShape = object.getShape();
+        ObjectTemplate template = templates == null ? null : templates[depth];
+        if (template != null && template.rootShape == rootShape && template.shape.isValid()) {
+            String[] keys = template.keys;
+            Object[] values = new Object[keys.length];
+            int count = 0;
+            boolean hasMoreMembers = true;
+            while (count < keys.length && readTemplateKey(keys[count])) {
+                read(':');
+                values[count++] = parseJSONValue();
+                if (get() == ',') {
+                    read();
+                } else {
+                    hasMoreMembers = false;
+                    break;
+                }
+            }
+            if (!hasMoreMembers && count == keys.length && template.tryInitialize(object, values)) {
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                JSRuntime.createDataProperty(object, keys[i], values[i]);
+            }
+            if (hasMoreMembers) {
+                Member member = parseJSONMember();
+                JSRuntime.createDataProperty(object, member.getKey(), member.getValue());
+                while (get() == ',') {
+                    read();
+                    member = parseJSONMember();
+                    JSRuntime.createDataProperty(object, member.getKey(), member.getValue());
+                }
+            }
+        } else {
+            parseJSONMemberList(object);
+        }
+        recordTemplate(depth, rootShape, object);
+    }
+
+    /**
+     * Consumes the member name at the current position if it is exactly {@code key}, without
+     * creating a new string. Template keys never contain characters that need escaping.
+     */
+    private boolean readTemplateKey(String key) {
+        int start = pos + 1;
+        int end = start + key.length();
+        if (isStringQuote(get()) && source.has(end) && isStringQuote(source.charAt(end)) && source.regionMatches(start, key)) {
+            pos = end;
+            read();
+            return true;
+        }
+        return false;
+    }
+
+    private void recordTemplate(int depth, Shape rootShape, DynamicObject object) {
+        if (templates == null) {
+            templates = new ObjectTemplate[JSConfig.JSONParseShapeTemplateMaxDepth];
+        }
+        Shape shape = object.getShape();
+        if (templates[depth] != null && templates[depth].shape == shape) {
+            return;
+        }
+        templates[depth] = ObjectTemplate.create(rootShape, shape);
+    }
+
+    /**
+     * Keys and final shape of an object created by JSON.parse.
+     */
+    private static final class ObjectTemplate {
+        final Shape rootShape;
+        final Shape shape;
+        final String[] keys;
+        final Property[] properties;
+
+        private ObjectTemplate(Shape rootShape, Shape shape, String[] keys, Property[] properties) {
+            this.rootShape = rootShape;
+            this.shape = shape;
+            this.keys = keys;
+            this.properties = properties;
+        }
+
+        static ObjectTemplate create(Shape rootShape, Shape shape) {
+            int count = shape.getPropertyCount() - rootShape.getPropertyCount();
+            if (count <= 0 || count > JSConfig.JSONParseShapeTemplateMaxKeys || shape.getObjectType() != rootShape.getObjectType()) {
+                return null;
+            }
+            String[] keys = new String[count];
+            Property[] properties = new Property[count];
+            Shape current = shape;
+            for (int i = count - 1; i >= 0; i--) {
+                if (current == null || current == rootShape) {
+                    return null;
+                }
+                Object key = current.getLastProperty().getKey();
+                if (!(key instanceof String) || !isTemplateKey((String) key)) {
+                    return null;
+                }
+                Property property = shape.getProperty(key);
+                Location location = property.getLocation();
+                if (location.isValue() || location.isConstant() || location.isDeclared()) {
+                    return null;
+                }
+                keys[i] = (String) key;
+                properties[i] = property;
+                current = current.getParent();
+            }
+            if (current != rootShape) {
+                return null;
+            }
+            return new ObjectTemplate(rootShape, shape, keys, properties);
+        }
+
+        private static boolean isTemplateKey(String key) {
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c < ' ' || c == '"' || c == '\\') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Stores the values into a freshly created object in {@link #rootShape}. The property
+         * assumptions of the intermediate shapes have already been invalidated when the template
+         * object took the same transitions.
+         */
+        boolean tryInitialize(DynamicObject object, Object[] values) {
+            assert object.getShape() == rootShape;
+            for (int i = 0; i < properties.length; i++) {
+                if (!properties[i].getLocation().canStore(values[i])) {
+                    return false;
+                }
+            }
+            object.setShapeAndGrow(rootShape, shape);
+            for (int i = 0; i < properties.length; i++) {
+                properties[i].setSafe(object, values[i], null);
+            }
+            return true;
+        }
+    }
+
     private Member parseJSONMember() {
+        source.release(pos);
         String jsonString = parseJSONString();
         read(':');
         Object jsonValue = parseJSONValue();
@@ -255,7 +447,7 @@ public class TruffleJSONParser {
             pos++; // don't skip whitespace here
             c = get();
         }
-        String s = parseStr.substring(startPos, pos);
+        String s = source.substring(startPos, pos);
         if (hasEscapes) {
             return unquoteJSON(s);
         } else {
@@ -367,7 +559,7 @@ public class TruffleJSONParser {
             error("Expected number but found ident");
         } else if (firstPosIsZero) {
             // "0" should be parsable, but "08" not
-            if ((startPos + 1) < len) {
+            if (source.has(startPos + 1)) {
                 c = get(startPos + 1);
                 if (c == 'x' || c == 'X' || JSRuntime.isAsciiDigit(c)) {
                     error("octal and hexadecimal not allowed");
@@ -395,8 +587,7 @@ public class TruffleJSONParser {
             }
         } else if (fractionPos == -1 && !hasExponent && (endPos - startPos <= JSRuntime.MAX_SAFE_INTEGER_DIGITS)) {
             // safe integer but not zero
-            final int radix = 10;
-            long safeInt = JSRuntime.parseSafeInteger(parseStr, startPos, endPos, radix);
+            long safeInt = source.parseSafeInteger(startPos, endPos);
             assert safeInt != 0;
             if (safeInt != JSRuntime.INVALID_SAFE_INTEGER) {
                 safeInt *= sign;
@@ -407,7 +598,7 @@ public class TruffleJSONParser {
                 }
             }
         }
-        String valueStr = parseStr.substring(startPos, endPos);
+        String valueStr = source.substring(startPos, endPos);
         return parseAsDouble(sign, valueStr);
     }
 
@@ -440,7 +631,7 @@ public class TruffleJSONParser {
         if (pos == startPos) {
             error("Expected number but found ident");
         }
-        return sign * Integer.parseInt(parseStr.substring(startPos, pos));
+        return sign * Integer.parseInt(source.substring(startPos, pos));
     }
 
     protected boolean isExponentPart() {
@@ -478,6 +669,11 @@ public class TruffleJSONParser {
     }
 
     protected Object error(String message) {
+        String parseStr = source.getString();
+        if (parseStr == null) {
+            // no text to hand to the other parser, report the error of this one
+            throwSyntaxError(message);
+        }
         context.getEvaluator().parseJSON(context, parseStr);
         // TruffleJSONParser expects an error, but the string got parsed
         // without a problem using context.getEvaluator().parseJSON().
@@ -499,18 +695,17 @@ public class TruffleJSONParser {
     }
 
     protected char get(int posParam) {
-        return parseStr.charAt(posParam);
+        return source.charAt(posParam);
     }
 
     protected void read() {
-        assert len > pos;
+        assert source.has(pos);
         pos++;
         skipWhitespace();
     }
 
     protected void read(String expected) {
-        assert len >= pos + expected.length();
-        assert parseStr.substring(pos, pos + expected.length()).equals(expected);
+        assert source.regionMatches(pos, expected);
         pos += expected.length();
         skipWhitespace();
     }
@@ -530,11 +725,11 @@ public class TruffleJSONParser {
     }
 
     protected boolean posValid() {
-        return pos < len;
+        return source.has(pos);
     }
 
     protected boolean isLiteral(char[] literal) {
-        if (len < pos + literal.length) {
+        if (!source.has(pos + literal.length - 1)) {
             return false;
         }
         // fastpath for the cached current character
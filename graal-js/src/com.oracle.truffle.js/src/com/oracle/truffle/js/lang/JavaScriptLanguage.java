@@ -455,6 +455,9 @@ public final class JavaScriptLanguage extends AbstractJavaScriptLanguage {
         if (options.isProfileTime() && options.isProfileTimePrintCumulative()) {
             context.getTimeProfiler().printCumulative();
         }
+        if (realm.getCommonJSResolutionCache() != null) {
+            realm.getCommonJSResolutionCache().close();
+        }
         realm.setGlobalObject(Undefined.instance);
     }
 
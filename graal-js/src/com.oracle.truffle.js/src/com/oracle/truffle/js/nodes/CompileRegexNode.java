@@ -44,6 +44,7 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.ReportPolymorphism;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.js.runtime.CompiledRegexCache;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.RegexCompilerInterface;
@@ -95,6 +96,17 @@ public abstract class CompileRegexNode extends JavaScriptBaseNode {
 
     @Specialization(replaces = {"getCached"})
     protected Object doCompile(String pattern, String flags) {
-        return RegexCompilerInterface.compile(pattern, flags, context, executeCompilerNode);
+        CompiledRegexCache sharedCache = context.getCompiledRegexCache();
+        if (sharedCache != null) {
+            Object cachedCompiledRegex = sharedCache.get(pattern, flags);
+            if (cachedCompiledRegex != null) {
+                return cachedCompiledRegex;
+            }
+        }
+        Object compiledRegex = RegexCompilerInterface.compile(pattern, flags, context, executeCompilerNode);
+        if (sharedCache != null) {
+            sharedCache.put(pattern, flags, compiledRegex);
+        }
+        return compiledRegex;
     }
 }
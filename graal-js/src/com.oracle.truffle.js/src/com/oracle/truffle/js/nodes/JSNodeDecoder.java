@@ -46,6 +46,7 @@ import java.lang.reflect.Array;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.function.IntConsumer;
 
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameDescriptor;
@@ -144,6 +145,26 @@ public class JSNodeDecoder {
         return GEN.getChecksum();
     }
 
+    private final IntConsumer extractedCodeVerifier;
+
+    public JSNodeDecoder() {
+        this(null);
+    }
+
+    /**
+     * @param extractedCodeVerifier called with the position of an extracted function before it is
+     *            decoded, may throw to reject the code; {@code null} to skip verification
+     */
+    public JSNodeDecoder(IntConsumer extractedCodeVerifier) {
+        this.extractedCodeVerifier = extractedCodeVerifier;
+    }
+
+    private void verifyExtractedCode(int position) {
+        if (extractedCodeVerifier != null) {
+            extractedCodeVerifier.accept(position);
+        }
+    }
+
     public Object decodeNode(NodeDecoder.DecoderState state, NodeFactory nodeFactory, JSContext context, Source source) {
         while (state.hasRemaining()) {
             Bytecode bc = Bytecode.bcValues[state.getBytecode()];
@@ -281,6 +302,7 @@ public class JSNodeDecoder {
                         System.err.println("callex pos:" + position);
                     }
                     final Object[] arguments = getObjectArray(state);
+                    verifyExtractedCode(position);
                     final ByteBuffer buffer = ((ByteBuffer) asBaseBuffer(state.getBuffer().duplicate()).position(position));
                     NodeDecoder.DecoderState extracted = new NodeDecoder.DecoderState(new BinaryDecoder(buffer), arguments);
                     storeResult(state, decodeNode(extracted, nodeFactory, context, source));
@@ -296,14 +318,17 @@ public class JSNodeDecoder {
                     }
                     JSFunctionData functionData = (JSFunctionData) state.getObject();
                     final Object[] arguments = getObjectArray(state);
+                    // share the (possibly memory-mapped) snapshot buffer; only the function's
+                    // offset is kept until it is decoded on first call
+                    final ByteBuffer snapshot = state.getBuffer();
                     functionData.setLazyInit(new JSFunctionData.Initializer() {
-                        private final ByteBuffer buffer = ((ByteBuffer) asBaseBuffer(state.getBuffer().duplicate()).position(position));
-
                         @Override
                         public void initializeRoot(JSFunctionData fd) {
                             if (VERBOSE) {
                                 System.out.println("Decoding: " + fd.getName());
                             }
+                            verifyExtractedCode(position);
+                            ByteBuffer buffer = (ByteBuffer) asBaseBuffer(snapshot.duplicate()).position(position);
                             NodeDecoder.DecoderState extracted = new NodeDecoder.DecoderState(new BinaryDecoder(buffer), arguments);
                             decodeNode(extracted, nodeFactory, context, source);
                         }
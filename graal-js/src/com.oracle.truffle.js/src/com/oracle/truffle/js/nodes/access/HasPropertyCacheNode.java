@@ -59,6 +59,7 @@ import com.oracle.truffle.js.runtime.builtins.JSProxy;
 import com.oracle.truffle.js.runtime.java.JavaImporter;
 import com.oracle.truffle.js.runtime.java.JavaPackage;
 import com.oracle.truffle.js.runtime.objects.JSObject;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
 
 /**
@@ -221,16 +222,24 @@ public class HasPropertyCacheNode extends PropertyCacheNode<HasPropertyCacheNode
     public static final class GenericHasPropertyCacheNode extends HasCacheNode {
         @Child private InteropLibrary interop;
         private final JSClassProfile jsclassProfile = JSClassProfile.create();
+        private final MegamorphicPropertyCache megamorphicCache;
 
-        public GenericHasPropertyCacheNode() {
+        public GenericHasPropertyCacheNode(MegamorphicPropertyCache megamorphicCache) {
             super(null);
             this.interop = InteropLibrary.getFactory().createDispatched(3);
+            this.megamorphicCache = megamorphicCache;
         }
 
         @Override
         protected boolean hasProperty(Object thisObj, HasPropertyCacheNode root) {
             if (JSObject.isJSObject(thisObj)) {
                 Object key = root.getKey();
+                if (megamorphicCache != null) {
+                    Object result = megamorphicCache.has((DynamicObject) thisObj, key, root.isOwnProperty());
+                    if (result != MegamorphicPropertyCache.NOT_CACHEABLE) {
+                        return (boolean) result;
+                    }
+                }
                 if (root.isOwnProperty()) {
                     return JSObject.hasOwnProperty((DynamicObject) thisObj, key, jsclassProfile);
                 } else {
@@ -328,7 +337,7 @@ public class HasPropertyCacheNode extends PropertyCacheNode<HasPropertyCacheNode
      */
     @Override
     protected HasCacheNode createGenericPropertyNode() {
-        return new GenericHasPropertyCacheNode();
+        return new GenericHasPropertyCacheNode(getMegamorphicPropertyCache());
     }
 
     @Override
@@ -80,6 +80,7 @@ import com.oracle.truffle.js.runtime.objects.JSLazyString;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DebugCounter;
 
@@ -1121,6 +1122,14 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
 
     protected abstract T createTruffleObjectPropertyNode();
 
+    /**
+     * Creates a cache node for properties of a receiver in dictionary mode, or returns
+     * {@code null} if this kind of access has to go through the generic node.
+     */
+    protected T createDictionaryObjectPropertyNode() {
+        return null;
+    }
+
     @TruffleBoundary
     protected T specialize(Object thisObj) {
         return specialize(thisObj, null);
@@ -1215,8 +1224,13 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
             Shape cacheShape = store.getShape();
 
             if (JSConfig.DictionaryObject && JSDictionaryObject.isJSDictionaryObject(store)) {
-                // TODO: could probably specialize on shape as well.
-                return rewriteToGeneric(currentHead, "dictionary object");
+                if (depth == 0 && !(key instanceof HiddenKey)) {
+                    specialized = createDictionaryObjectPropertyNode();
+                }
+                if (specialized == null) {
+                    return rewriteToGeneric(currentHead, "dictionary object");
+                }
+                break;
             }
 
             if (JSConfig.MergeShapes && cachedCount > 0) {
@@ -1516,6 +1530,17 @@ public abstract class PropertyCacheNode<T extends PropertyCacheNode.CacheNode<T>
 
     protected abstract boolean isOwnProperty();
 
+    /**
+     * Returns the engine-wide lookup cache the generic case of this node may use, or {@code null}
+     * if it is disabled or not applicable to this property access.
+     */
+    protected final MegamorphicPropertyCache getMegamorphicPropertyCache() {
+        if (isGlobal() || !MegamorphicPropertyCache.isCacheableKey(key)) {
+            return null;
+        }
+        return context.getMegamorphicPropertyCache();
+    }
+
     public final JSContext getContext() {
         return context;
     }
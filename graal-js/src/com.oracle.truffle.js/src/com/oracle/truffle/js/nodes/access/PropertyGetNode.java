@@ -96,6 +96,7 @@ import com.oracle.truffle.js.runtime.builtins.JSAdapter;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
 import com.oracle.truffle.js.runtime.builtins.JSClass;
+import com.oracle.truffle.js.runtime.builtins.JSDictionaryObject;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSModuleNamespace;
@@ -109,6 +110,7 @@ import com.oracle.truffle.js.runtime.objects.Accessor;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.JSClassProfile;
@@ -901,6 +903,34 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         }
     }
 
+    /**
+     * Reads own data properties of a dictionary object directly from its property map; accessors,
+     * inherited and absent properties are looked up the regular way.
+     */
+    public static final class DictionaryObjectPropertyGetNode extends LinkedPropertyGetNode {
+        @Child private GetPropertyFromJSObjectNode getFromJSObjectNode;
+        private final BranchProfile slowPathBranch = BranchProfile.create();
+
+        public DictionaryObjectPropertyGetNode(ReceiverCheckNode receiverCheck) {
+            super(receiverCheck);
+        }
+
+        @Override
+        protected Object getValue(Object thisObj, Object receiver, Object defaultValue, PropertyGetNode root, boolean guard) {
+            DynamicObject store = receiverCheck.getStore(thisObj);
+            Object value = JSDictionaryObject.getDataValue(store, root.getKey());
+            if (value != null) {
+                return value;
+            }
+            slowPathBranch.enter();
+            if (getFromJSObjectNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getFromJSObjectNode = insert(GetPropertyFromJSObjectNode.create(root));
+            }
+            return getFromJSObjectNode.executeWithJSObject(store, receiver, defaultValue, root);
+        }
+    }
+
     public static final class ForeignPropertyGetNode extends LinkedPropertyGetNode {
 
         @Child private JSForeignToJSTypeNode toJSTypeNode;
@@ -1046,9 +1076,11 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         private final ConditionProfile isForeignObject = ConditionProfile.createBinaryProfile();
         private final BranchProfile notAJSObjectBranch = BranchProfile.create();
         private final BranchProfile fallbackBranch = BranchProfile.create();
+        private final MegamorphicPropertyCache megamorphicCache;
 
-        public GenericPropertyGetNode() {
+        public GenericPropertyGetNode(MegamorphicPropertyCache megamorphicCache) {
             super(null);
+            this.megamorphicCache = megamorphicCache;
         }
 
         @Override
@@ -1085,6 +1117,17 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
                     return getFallback(thisObj, root);
                 }
             } else {
+                if (megamorphicCache != null) {
+                    Object result = megamorphicCache.get(thisObj, receiver, root.getKey());
+                    if (result != MegamorphicPropertyCache.NOT_CACHEABLE) {
+                        if (result != null) {
+                            return result;
+                        } else if (!root.isRequired() && !root.getContext().isOptionNashornCompatibilityMode()) {
+                            // absent, and no __noSuchProperty__ hook to call
+                            return defaultValue;
+                        }
+                    }
+                }
                 if (getFromJSObjectNode == null) {
                     CompilerDirectives.transferToInterpreterAndInvalidate();
                     getFromJSObjectNode = insert(GetPropertyFromJSObjectNode.create(root));
@@ -1725,12 +1768,17 @@ public class PropertyGetNode extends PropertyCacheNode<PropertyGetNode.GetCacheN
         }
     }
 
+    @Override
+    protected GetCacheNode createDictionaryObjectPropertyNode() {
+        return new DictionaryObjectPropertyGetNode(new JSClassCheckNode(JSDictionaryObject.INSTANCE));
+    }
+
     /**
      * Make a generic-case node, for when polymorphism becomes too high.
      */
     @Override
     protected GetCacheNode createGenericPropertyNode() {
-        return new GenericPropertyGetNode();
+        return new GenericPropertyGetNode(getMegamorphicPropertyCache());
     }
 
     protected final boolean isRequired() {
@@ -82,6 +82,7 @@ import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.builtins.JSAdapter;
 import com.oracle.truffle.js.runtime.builtins.JSArray;
 import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.builtins.JSDictionaryObject;
 import com.oracle.truffle.js.runtime.builtins.JSGlobalObject;
 import com.oracle.truffle.js.runtime.builtins.JSProxy;
 import com.oracle.truffle.js.runtime.objects.Accessor;
@@ -90,6 +91,7 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
 import com.oracle.truffle.js.runtime.objects.JSShape;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
@@ -982,6 +984,30 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
         }
     }
 
+    /**
+     * Writes existing own writable data properties of a dictionary object directly into its
+     * property map; everything else is handled by the regular [[Set]].
+     */
+    public static final class DictionaryObjectPropertySetNode extends LinkedPropertySetNode {
+        private final JSClassProfile jsclassProfile = JSClassProfile.create();
+        private final BranchProfile slowPathBranch = BranchProfile.create();
+
+        public DictionaryObjectPropertySetNode(ReceiverCheckNode receiverCheckNode) {
+            super(receiverCheckNode);
+        }
+
+        @Override
+        protected boolean setValue(Object thisObj, Object value, Object receiver, PropertySetNode root, boolean guard) {
+            DynamicObject store = receiverCheck.getStore(thisObj);
+            if (receiver == store && JSDictionaryObject.setDataValue(store, root.getKey(), value)) {
+                return true;
+            }
+            slowPathBranch.enter();
+            JSObject.setWithReceiver(store, root.getKey(), value, receiver, root.isStrict(), jsclassProfile);
+            return true;
+        }
+    }
+
     @NodeInfo(cost = NodeCost.MEGAMORPHIC)
     public static final class GenericPropertySetNode extends SetCacheNode {
         @Child private JSToObjectNode toObjectNode;
@@ -990,10 +1016,12 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
         private final ConditionProfile isObject = ConditionProfile.createBinaryProfile();
         private final ConditionProfile isStrictSymbol = ConditionProfile.createBinaryProfile();
         private final ConditionProfile isForeignObject = ConditionProfile.createBinaryProfile();
+        private final MegamorphicPropertyCache megamorphicCache;
 
-        public GenericPropertySetNode(JSContext context) {
+        public GenericPropertySetNode(JSContext context, MegamorphicPropertyCache megamorphicCache) {
             super(null);
             this.toObjectNode = JSToObjectNode.createToObjectNoCheck(context);
+            this.megamorphicCache = megamorphicCache;
         }
 
         @Override
@@ -1028,7 +1056,7 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
                 } else {
                     JSObject.defineOwnProperty(thisJSObj, key, PropertyDescriptor.createData(value, root.getAttributeFlags()), root.isStrict());
                 }
-            } else {
+            } else if (megamorphicCache == null || !megamorphicCache.setOwn(thisJSObj, key, value, receiver, root.isStrict())) {
                 JSObject.setWithReceiver(thisJSObj, key, value, receiver, root.isStrict(), jsclassProfile);
             }
         }
@@ -1368,9 +1396,17 @@ public class PropertySetNode extends PropertyCacheNode<PropertySetNode.SetCacheN
         return null;
     }
 
+    @Override
+    protected SetCacheNode createDictionaryObjectPropertyNode() {
+        if (isOwnProperty() || isGlobal() || superProperty) {
+            return null;
+        }
+        return new DictionaryObjectPropertySetNode(new JSClassCheckNode(JSDictionaryObject.INSTANCE));
+    }
+
     @Override
     protected SetCacheNode createGenericPropertyNode() {
-        return new GenericPropertySetNode(context);
+        return new GenericPropertySetNode(context, getMegamorphicPropertyCache());
     }
 
     @Override
@@ -97,6 +97,7 @@ import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSContextOptions;
 import com.oracle.truffle.js.runtime.JSException;
 import com.oracle.truffle.js.runtime.JSNoSuchMethodAdapter;
 import com.oracle.truffle.js.runtime.JSRealm;
@@ -363,7 +364,8 @@ public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaS
 
     private AbstractCacheNode specializeGenericFunction(AbstractCacheNode head, boolean hasCached) {
         AbstractCacheNode otherGeneric = dropCachedNodes(head, hasCached);
-        AbstractCacheNode newNode = new GenericJSFunctionCacheNode(flags, otherGeneric);
+        JSContext context = JavaScriptLanguage.getCurrentJSRealm().getContext();
+        AbstractCacheNode newNode = new GenericJSFunctionCacheNode(flags, otherGeneric, context);
         insert(newNode);
         this.cacheNode = newNode;
         return newNode;
@@ -1537,20 +1539,48 @@ public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaS
 
     /**
      * Generic case for {@link JSFunction}s.
+     *
+     * Keeps a second-level table of direct calls for up to a few function data (see
+     * {@link JSContextOptions#MEGAMORPHIC_CALL_CACHE_SIZE}), so that frequent targets of a
+     * megamorphic site can still be inlined or split; all other functions are called indirectly. A
+     * function is only admitted to the table once it has been called often enough compared to the
+     * other targets of the site (counted with the Misra-Gries frequent items algorithm), and the
+     * table is only ever appended to, so it costs at most one deoptimization per entry. It is
+     * searched linearly: with the entries being compilation constants, each direct call in the
+     * compiled code then refers to a constant call node.
      */
     private static class GenericJSFunctionCacheNode extends AbstractCacheNode {
+        private static final Object NOT_DISPATCHED = new Object();
+        /** Number of counted calls after which a function is admitted to the dispatch table. */
+        private static final int ADMISSION_COUNT = 8;
+
         private final byte flags;
 
         @Child private IndirectCallNode indirectCallNode;
         @Child private AbstractCacheNode next;
         private final BranchProfile initBranch;
+        private final JSContext context;
+
+        @Children private final DispatchEntryNode[] dispatchEntries;
+        @CompilationFinal private boolean dispatchFull;
+
+        /** Candidates for the dispatch table and their counts, not synchronized. */
+        private final JSFunctionData[] candidates;
+        private final int[] candidateCounts;
 
-        GenericJSFunctionCacheNode(byte flags, AbstractCacheNode next) {
+        GenericJSFunctionCacheNode(byte flags, AbstractCacheNode next, JSContext context) {
             this.flags = flags;
             this.indirectCallNode = Truffle.getRuntime().createIndirectCallNode();
             this.next = next;
             this.initBranch = BranchProfile.create();
+            this.context = context;
+            int dispatchSize = Math.max(context.getContextOptions().getMegamorphicCallCacheSize(), 0);
+            this.dispatchEntries = new DispatchEntryNode[dispatchSize];
+            this.dispatchFull = dispatchSize == 0;
+            this.candidates = new JSFunctionData[dispatchSize];
+            this.candidateCounts = new int[dispatchSize];
             megamorphicCount.inc();
+            context.incMegamorphicCallSites();
         }
 
         @Override
@@ -1558,6 +1588,100 @@ public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaS
             Object function = JSArguments.getFunctionObject(arguments);
             DynamicObject functionObject = (DynamicObject) function;
             JSFunctionData functionData = JSFunction.getFunctionData(functionObject);
+            Object result = dispatch(functionData, arguments);
+            if (result != NOT_DISPATCHED) {
+                return result;
+            }
+            return callIndirect(functionData, arguments);
+        }
+
+        @ExplodeLoop
+        private Object dispatch(JSFunctionData functionData, Object[] arguments) {
+            for (int i = 0; i < dispatchEntries.length; i++) {
+                DispatchEntryNode entry = dispatchEntries[i];
+                if (entry == null) {
+                    if (countCandidate(functionData)) {
+                        CompilerDirectives.transferToInterpreterAndInvalidate();
+                        DirectCallNode callNode = addDispatchEntry(functionData);
+                        if (callNode != null) {
+                            return callNode.call(arguments);
+                        }
+                    }
+                    return NOT_DISPATCHED;
+                } else if (entry.functionData == functionData) {
+                    DirectCallNode callNode = entry.callNode;
+                    // the call node of an entry just added by another thread might not be visible
+                    return callNode == null ? NOT_DISPATCHED : callNode.call(arguments);
+                }
+            }
+            if (!dispatchFull) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                dispatchFull = true;
+                context.incMegamorphicCallSitesFull();
+            }
+            return NOT_DISPATCHED;
+        }
+
+        /**
+         * Counts a call of a function that is not in the dispatch table yet.
+         *
+         * @return whether the function should be admitted to the dispatch table
+         */
+        @TruffleBoundary
+        private boolean countCandidate(JSFunctionData functionData) {
+            int free = -1;
+            for (int i = 0; i < candidates.length; i++) {
+                if (candidates[i] == functionData) {
+                    if (++candidateCounts[i] < ADMISSION_COUNT) {
+                        return false;
+                    }
+                    candidates[i] = null;
+                    candidateCounts[i] = 0;
+                    return true;
+                } else if (candidates[i] == null && free < 0) {
+                    free = i;
+                }
+            }
+            if (free >= 0) {
+                candidates[free] = functionData;
+                candidateCounts[free] = 1;
+            } else {
+                // no room for another candidate: decrement all counts, dropping the ones at zero
+                for (int i = 0; i < candidates.length; i++) {
+                    if (--candidateCounts[i] <= 0) {
+                        candidates[i] = null;
+                        candidateCounts[i] = 0;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private DirectCallNode addDispatchEntry(JSFunctionData functionData) {
+            CompilerAsserts.neverPartOfCompilation();
+            Lock lock = getLock();
+            lock.lock();
+            try {
+                for (int i = 0; i < dispatchEntries.length; i++) {
+                    DispatchEntryNode entry = dispatchEntries[i];
+                    if (entry == null) {
+                        DirectCallNode callNode = Truffle.getRuntime().createDirectCallNode(getCallTarget(functionData, isNew(flags), isNewTarget(flags)));
+                        // publish key and call node with a single store
+                        dispatchEntries[i] = insert(new DispatchEntryNode(functionData, callNode));
+                        context.incMegamorphicCallSiteTargets();
+                        return callNode;
+                    } else if (entry.functionData == functionData) {
+                        return entry.callNode;
+                    }
+                }
+                // filled up by another thread in the meantime
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Object callIndirect(JSFunctionData functionData, Object[] arguments) {
             if (isNewTarget(flags)) {
                 return indirectCallNode.call(functionData.getConstructNewTarget(initBranch), arguments);
             } else if (isNew(flags)) {
@@ -1573,6 +1697,19 @@ public abstract class JSFunctionCallNode extends JavaScriptNode implements JavaS
         }
     }
 
+    /**
+     * An immutable entry of the dispatch table of {@link GenericJSFunctionCacheNode}.
+     */
+    private static final class DispatchEntryNode extends JavaScriptBaseNode {
+        final JSFunctionData functionData;
+        @Child DirectCallNode callNode;
+
+        DispatchEntryNode(JSFunctionData functionData, DirectCallNode callNode) {
+            this.functionData = functionData;
+            this.callNode = callNode;
+        }
+    }
+
     private static class JSProxyCacheNode extends AbstractCacheNode {
         @Child private JSProxyCallNode proxyCall;
         @Child private AbstractCacheNode next;
@@ -100,7 +100,7 @@ public abstract class InitializePluralRulesNode extends JavaScriptBaseNode {
             state.resolveLocaleAndNumberingSystem(context, locales, null);
             setNumberFormatDigitOptions.execute(state, options, 0, 3, false);
 
-            state.initializeNumberFormatter();
+            state.initializeNumberFormatter(context);
             state.initializePluralRules();
         } catch (MissingResourceException e) {
             throw Errors.createICU4JDataError(e);
@@ -65,6 +65,7 @@ import com.oracle.truffle.js.runtime.PromiseHook;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
 import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSPromise;
+import com.oracle.truffle.js.runtime.objects.PromiseJobRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.Pair;
 
@@ -76,8 +77,6 @@ public class CreateResolvingFunctionNode extends JavaScriptBaseNode {
 
     static final HiddenKey ALREADY_RESOLVED_KEY = new HiddenKey("AlreadyResolved");
     static final HiddenKey PROMISE_KEY = new HiddenKey("Promise");
-    static final HiddenKey THENABLE_KEY = new HiddenKey("thenable");
-    static final HiddenKey THEN_KEY = new HiddenKey("then");
 
     private final JSContext context;
     @Child private PropertySetNode setAlreadyResolvedNode;
@@ -122,11 +121,6 @@ public class CreateResolvingFunctionNode extends JavaScriptBaseNode {
             private final ValueProfile typeProfile = ValueProfile.createClassProfile();
             private final ConditionProfile alreadyResolvedProfile = ConditionProfile.createBinaryProfile();
 
-            // PromiseResolveThenableJob
-            @Child private PropertySetNode setPromiseNode;
-            @Child private PropertySetNode setThenableNode;
-            @Child private PropertySetNode setThenNode;
-
             @Override
             public Object execute(VirtualFrame frame) {
                 DynamicObject functionObject = JSFrameUtil.getFunctionObject(frame);
@@ -161,8 +155,7 @@ public class CreateResolvingFunctionNode extends JavaScriptBaseNode {
                 if (!isCallableNode.executeBoolean(then)) {
                     return fulfillPromise(promise, resolution);
                 }
-                DynamicObject job = promiseResolveThenableJob(promise, resolution, then);
-                context.promiseEnqueueJob(context.getRealm(), job);
+                context.promiseEnqueueJob(PromiseJobRecord.createResolveThenableJob(context.getRealm(), promise, resolution, then));
                 return Undefined.instance;
             }
 
@@ -203,21 +196,6 @@ public class CreateResolvingFunctionNode extends JavaScriptBaseNode {
                 }
             }
 
-            private DynamicObject promiseResolveThenableJob(DynamicObject promise, Object thenable, Object then) {
-                if (setPromiseNode == null || setThenableNode == null || setThenNode == null) {
-                    CompilerDirectives.transferToInterpreterAndInvalidate();
-                    setPromiseNode = insert(PropertySetNode.createSetHidden(PROMISE_KEY, context));
-                    setThenableNode = insert(PropertySetNode.createSetHidden(THENABLE_KEY, context));
-                    setThenNode = insert(PropertySetNode.createSetHidden(THEN_KEY, context));
-                }
-                JSFunctionData functionData = context.getOrCreateBuiltinFunctionData(JSContext.BuiltinFunctionKey.PromiseResolveThenableJob, (c) -> createPromiseResolveThenableJobImpl(c));
-                DynamicObject function = JSFunction.create(context.getRealm(), functionData);
-                setPromiseNode.setValue(function, promise);
-                setThenableNode.setValue(function, thenable);
-                setThenNode.setValue(function, then);
-                return function;
-            }
-
             @Override
             public AsyncStackTraceInfo getAsyncStackTraceInfo(DynamicObject handlerFunction) {
                 assert JSFunction.isJSFunction(handlerFunction) && ((RootCallTarget) JSFunction.getFunctionData(handlerFunction).getCallTarget()).getRootNode() == this;
@@ -228,26 +206,6 @@ public class CreateResolvingFunctionNode extends JavaScriptBaseNode {
         return JSFunctionData.createCallOnly(context, callTarget, 1, "");
     }
 
-    private static JSFunctionData createPromiseResolveThenableJobImpl(JSContext context) {
-        class PromiseResolveThenableJob extends JavaScriptRootNode {
-            @Child private PropertyGetNode getPromiseToResolveNode = PropertyGetNode.createGetHidden(PROMISE_KEY, context);
-            @Child private PropertyGetNode getThenableNode = PropertyGetNode.createGetHidden(THENABLE_KEY, context);
-            @Child private PropertyGetNode getThenNode = PropertyGetNode.createGetHidden(THEN_KEY, context);
-            @Child private PromiseResolveThenableNode promiseResolveThenable = PromiseResolveThenableNode.create(context);
-
-            @Override
-            public Object execute(VirtualFrame frame) {
-                DynamicObject functionObject = JSFrameUtil.getFunctionObject(frame);
-                DynamicObject promiseToResolve = (DynamicObject) getPromiseToResolveNode.getValue(functionObject);
-                Object thenable = getThenableNode.getValue(functionObject);
-                Object then = getThenNode.getValue(functionObject);
-                return promiseResolveThenable.execute(promiseToResolve, thenable, then);
-            }
-        }
-        CallTarget callTarget = Truffle.getRuntime().createCallTarget(new PromiseResolveThenableJob());
-        return JSFunctionData.createCallOnly(context, callTarget, 0, "");
-    }
-
     private DynamicObject createPromiseRejectFunction(DynamicObject promise, AlreadyResolved alreadyResolved) {
         JSFunctionData functionData = context.getOrCreateBuiltinFunctionData(JSContext.BuiltinFunctionKey.PromiseRejectFunction, (c) -> createPromiseRejectFunctionImpl(c));
         DynamicObject function = JSFunction.create(context.getRealm(), functionData);
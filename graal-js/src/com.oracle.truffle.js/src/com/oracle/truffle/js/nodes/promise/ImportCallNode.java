@@ -64,6 +64,7 @@ import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.builtins.JSPromise;
 import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
 import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
+import com.oracle.truffle.js.runtime.objects.PromiseJobRecord;
 import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
@@ -82,7 +83,6 @@ public class ImportCallNode extends JavaScriptNode {
     @Child private JavaScriptNode activeScriptOrModuleNode;
     @Child private NewPromiseCapabilityNode newPromiseCapabilityNode;
     @Child private JSToStringNode toStringNode;
-    @Child private PromiseReactionJobNode promiseReactionJobNode;
 
     // lazily initialized
     @Child private JSFunctionCallNode callRejectNode;
@@ -97,7 +97,6 @@ public class ImportCallNode extends JavaScriptNode {
         this.activeScriptOrModuleNode = activeScriptOrModuleNode;
         this.newPromiseCapabilityNode = NewPromiseCapabilityNode.create(context);
         this.toStringNode = JSToStringNode.create();
-        this.promiseReactionJobNode = PromiseReactionJobNode.create(context);
     }
 
     public static ImportCallNode create(JSContext context, JavaScriptNode argRefNode, JavaScriptNode activeScriptOrModuleNode) {
@@ -140,7 +139,7 @@ public class ImportCallNode extends JavaScriptNode {
             return promise;
         } else {
             PromiseCapabilityRecord promiseCapability = newPromiseCapability();
-            context.promiseEnqueueJob(realm, createImportModuleDynamicallyJob((ScriptOrModule) referencingScriptOrModule, specifier, promiseCapability));
+            context.promiseEnqueueJob(createImportModuleDynamicallyJob(realm, (ScriptOrModule) referencingScriptOrModule, specifier, promiseCapability));
             return promiseCapability.getPromise();
         }
     }
@@ -172,15 +171,15 @@ public class ImportCallNode extends JavaScriptNode {
     /**
      * Returns a promise job that performs both HostImportModuleDynamically and FinishDynamicImport.
      */
-    public DynamicObject createImportModuleDynamicallyJob(ScriptOrModule referencingScriptOrModule, String specifier, PromiseCapabilityRecord promiseCapability) {
+    public PromiseJobRecord createImportModuleDynamicallyJob(JSRealm realm, ScriptOrModule referencingScriptOrModule, String specifier, PromiseCapabilityRecord promiseCapability) {
         if (context.getEcmaScriptVersion() >= ECMAScript2021) {
             Triple<ScriptOrModule, String, PromiseCapabilityRecord> request = new Triple<>(referencingScriptOrModule, specifier, promiseCapability);
             PromiseCapabilityRecord startModuleLoadCapability = newPromiseCapability();
             PromiseReactionRecord startModuleLoad = PromiseReactionRecord.create(startModuleLoadCapability, createImportModuleDynamicallyHandler(), true);
-            return promiseReactionJobNode.execute(startModuleLoad, request);
+            return PromiseJobRecord.createReactionJob(realm, startModuleLoad, request);
         } else {
             Pair<ScriptOrModule, String> request = new Pair<>(referencingScriptOrModule, specifier);
-            return promiseReactionJobNode.execute(PromiseReactionRecord.create(promiseCapability, createImportModuleDynamicallyHandler(), true), request);
+            return PromiseJobRecord.createReactionJob(realm, PromiseReactionRecord.create(promiseCapability, createImportModuleDynamicallyHandler(), true), request);
         }
     }
 
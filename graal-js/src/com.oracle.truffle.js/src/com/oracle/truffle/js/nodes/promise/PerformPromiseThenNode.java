@@ -53,6 +53,7 @@ import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.builtins.JSPromise;
 import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
+import com.oracle.truffle.js.runtime.objects.PromiseJobRecord;
 import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
@@ -67,7 +68,6 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
     @Child private PropertyGetNode getPromiseResultNode;
     @Child private PropertyGetNode getPromiseIsHandledNode;
     @Child private PropertySetNode setPromiseIsHandledNode;
-    @Child private PromiseReactionJobNode promiseReactionJobNode;
     private final ConditionProfile pendingProf = ConditionProfile.createBinaryProfile();
     private final ConditionProfile fulfilledProf = ConditionProfile.createBinaryProfile();
     private final ConditionProfile unhandledProf = ConditionProfile.createBinaryProfile();
@@ -100,16 +100,14 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
             ((SimpleArrayList<? super PromiseReactionRecord>) getPromiseRejectReactionsNode.getValue(promise)).add(rejectReaction, growProfile);
         } else if (fulfilledProf.profile(promiseState == JSPromise.FULFILLED)) {
             Object value = getPromiseResult(promise);
-            DynamicObject job = getPromiseReactionJob(fulfillReaction, value);
-            context.promiseEnqueueJob(context.getRealm(), job);
+            context.promiseEnqueueJob(PromiseJobRecord.createReactionJob(context.getRealm(), fulfillReaction, value));
         } else {
             assert promiseState == JSPromise.REJECTED;
             Object reason = getPromiseResult(promise);
             if (unhandledProf.profile(!getPromiseIsHandled(promise))) {
                 context.notifyPromiseRejectionTracker(promise, JSPromise.REJECTION_TRACKER_OPERATION_HANDLE, Undefined.instance);
             }
-            DynamicObject job = getPromiseReactionJob(rejectReaction, reason);
-            context.promiseEnqueueJob(context.getRealm(), job);
+            context.promiseEnqueueJob(PromiseJobRecord.createReactionJob(context.getRealm(), rejectReaction, reason));
         }
         setPromiseIsHandledNode.setValueBoolean(promise, true);
         if (resultCapability == null) {
@@ -118,14 +116,6 @@ public class PerformPromiseThenNode extends JavaScriptBaseNode {
         return resultCapability.getPromise();
     }
 
-    private DynamicObject getPromiseReactionJob(PromiseReactionRecord reaction, Object value) {
-        if (promiseReactionJobNode == null) {
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-            promiseReactionJobNode = insert(PromiseReactionJobNode.create(context));
-        }
-        return promiseReactionJobNode.execute(reaction, value);
-    }
-
     private Object getPromiseResult(DynamicObject promise) {
         if (getPromiseResultNode == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.nodes.promise;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.RepeatingNode;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
+import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
+import com.oracle.truffle.js.runtime.JSAgent;
+import com.oracle.truffle.js.runtime.JSArguments;
+import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.JavaScriptRootNode;
+import com.oracle.truffle.js.runtime.objects.PromiseJobRecord;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Runs the jobs of an agent's "PromiseJobs" queue for as long as they belong to one realm, so that
+ * a batch of consecutive jobs is run in a single compilable loop and without re-entering the
+ * realm's context for every job. Arguments: the {@link JSAgent} and the {@link JSRealm}.
+ */
+public final class PromiseJobsRootNode extends JavaScriptRootNode {
+    @Child private LoopNode loop;
+
+    private PromiseJobsRootNode(JSContext context) {
+        super(context.getLanguage(), null, null);
+        this.loop = Truffle.getRuntime().createLoopNode(new PromiseJobsRepeatingNode(context));
+    }
+
+    public static PromiseJobsRootNode create(JSContext context) {
+        return new PromiseJobsRootNode(context);
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        loop.execute(frame);
+        return Undefined.instance;
+    }
+
+    @Override
+    public boolean isInternal() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "PromiseJobs";
+    }
+
+    static final class PromiseJobsRepeatingNode extends JavaScriptBaseNode implements RepeatingNode {
+        private final JSContext context;
+        @Child private PromiseReactionJobNode reactionJobNode;
+        @Child private PromiseResolveThenableNode resolveThenableNode;
+        @Child private JSFunctionCallNode callJobFunctionNode;
+        private final ConditionProfile jobRecordProfile = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile reactionJobProfile = ConditionProfile.createBinaryProfile();
+
+        PromiseJobsRepeatingNode(JSContext context) {
+            this.context = context;
+            this.reactionJobNode = PromiseReactionJobNode.create(context);
+        }
+
+        @Override
+        public boolean executeRepeating(VirtualFrame frame) {
+            Object[] arguments = frame.getArguments();
+            JSAgent agent = (JSAgent) arguments[0];
+            JSRealm realm = (JSRealm) arguments[1];
+            Object job = agent.pollPromiseJob(realm);
+            if (job == null) {
+                return false;
+            }
+            if (jobRecordProfile.profile(job instanceof PromiseJobRecord)) {
+                PromiseJobRecord jobRecord = (PromiseJobRecord) job;
+                if (reactionJobProfile.profile(jobRecord.getKind() == PromiseJobRecord.REACTION_JOB)) {
+                    reactionJobNode.execute(jobRecord);
+                } else {
+                    assert jobRecord.getKind() == PromiseJobRecord.RESOLVE_THENABLE_JOB;
+                    resolveThenable(jobRecord);
+                }
+            } else {
+                callJobFunction(job);
+            }
+            return true;
+        }
+
+        private void resolveThenable(PromiseJobRecord jobRecord) {
+            if (resolveThenableNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                resolveThenableNode = insert(PromiseResolveThenableNode.create(context));
+            }
+            resolveThenableNode.execute(jobRecord.getPromiseToResolve(), jobRecord.getThenable(), jobRecord.getThen());
+        }
+
+        private void callJobFunction(Object jobFunction) {
+            if (callJobFunctionNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                callJobFunctionNode = insert(JSFunctionCallNode.createCall());
+            }
+            callJobFunctionNode.executeCall(JSArguments.createZeroArg(Undefined.instance, jobFunction));
+        }
+    }
+}
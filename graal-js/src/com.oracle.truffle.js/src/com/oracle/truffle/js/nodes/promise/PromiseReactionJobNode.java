@@ -52,66 +52,52 @@ import com.oracle.truffle.api.instrumentation.InstrumentableNode;
 import com.oracle.truffle.api.instrumentation.ProbeNode;
 import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.instrumentation.Tag;
+import com.oracle.truffle.api.nodes.DirectCallNode;
 import com.oracle.truffle.api.object.DynamicObject;
-import com.oracle.truffle.api.object.HiddenKey;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
-import com.oracle.truffle.js.nodes.access.PropertyGetNode;
-import com.oracle.truffle.js.nodes.access.PropertySetNode;
 import com.oracle.truffle.js.nodes.control.AwaitNode;
 import com.oracle.truffle.js.nodes.control.TryCatchNode;
 import com.oracle.truffle.js.nodes.function.JSFunctionCallNode;
 import com.oracle.truffle.js.runtime.Errors;
 import com.oracle.truffle.js.runtime.JSArguments;
 import com.oracle.truffle.js.runtime.JSContext;
-import com.oracle.truffle.js.runtime.JSFrameUtil;
 import com.oracle.truffle.js.runtime.JavaScriptRootNode;
 import com.oracle.truffle.js.runtime.PromiseHook;
 import com.oracle.truffle.js.runtime.builtins.JSError;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
-import com.oracle.truffle.js.runtime.builtins.JSFunctionData;
 import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
+import com.oracle.truffle.js.runtime.objects.PromiseJobRecord;
 import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 import static com.oracle.truffle.js.runtime.JSConfig.ECMAScript2021;
 
+/**
+ * Runs PromiseReactionJob(reaction, argument) of a {@link PromiseJobRecord}.
+ */
 public class PromiseReactionJobNode extends JavaScriptBaseNode {
-    static final HiddenKey REACTION_KEY = new HiddenKey("Reaction");
-    static final HiddenKey ARGUMENT_KEY = new HiddenKey("Argument");
-
-    private final JSContext context;
-    @Child private PropertySetNode setReaction;
-    @Child private PropertySetNode setArgument;
+    @Child private DirectCallNode callNode;
 
     protected PromiseReactionJobNode(JSContext context) {
-        this.context = context;
-        this.setReaction = PropertySetNode.createSetHidden(REACTION_KEY, context);
-        this.setArgument = PropertySetNode.createSetHidden(ARGUMENT_KEY, context);
+        this.callNode = DirectCallNode.create(context.getPromiseReactionJobCallTarget());
     }
 
     public static PromiseReactionJobNode create(JSContext context) {
         return new PromiseReactionJobNode(context);
     }
 
-    public DynamicObject execute(Object reaction, Object argument) {
-        JSFunctionData functionData = context.getOrCreateBuiltinFunctionData(JSContext.BuiltinFunctionKey.PromiseReactionJob, (c) -> createPromiseReactionJobImpl(c));
-        DynamicObject function = JSFunction.create(context.getRealm(), functionData);
-        setReaction.setValue(function, reaction);
-        setArgument.setValue(function, argument);
-        return function;
+    public Object execute(PromiseJobRecord job) {
+        return callNode.call(JSArguments.create(Undefined.instance, Undefined.instance, job.getReaction(), job.getArgument()));
     }
 
-    private static JSFunctionData createPromiseReactionJobImpl(JSContext context) {
-        CallTarget callTarget = Truffle.getRuntime().createCallTarget(new PromiseReactionJobRootNode(context));
-        return JSFunctionData.createCallOnly(context, callTarget, 0, "");
+    public static CallTarget createPromiseReactionJobCallTarget(JSContext context) {
+        return Truffle.getRuntime().createCallTarget(new PromiseReactionJobRootNode(context));
     }
 
     public static class PromiseReactionJobRootNode extends JavaScriptRootNode implements InstrumentableNode {
         private final JSContext context;
-        @Child private PropertyGetNode getReaction;
-        @Child private PropertyGetNode getArgument;
         @Child private JSFunctionCallNode callResolveNode;
         @Child private JSFunctionCallNode callRejectNode;
         @Child private JSFunctionCallNode callHandlerNode;
@@ -122,15 +108,13 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
         PromiseReactionJobRootNode(JSContext context) {
             super(context.getLanguage(), null, null);
             this.context = context;
-            this.getReaction = PropertyGetNode.createGetHidden(REACTION_KEY, context);
-            this.getArgument = PropertyGetNode.createGetHidden(ARGUMENT_KEY, context);
         }
 
         @Override
         public Object execute(VirtualFrame frame) {
-            DynamicObject functionObject = JSFrameUtil.getFunctionObject(frame);
-            PromiseReactionRecord reaction = (PromiseReactionRecord) getReaction.getValue(functionObject);
-            Object argument = getArgument.getValue(functionObject);
+            Object[] arguments = frame.getArguments();
+            PromiseReactionRecord reaction = (PromiseReactionRecord) JSArguments.getUserArgument(arguments, 0);
+            Object argument = JSArguments.getUserArgument(arguments, 1);
 
             PromiseCapabilityRecord promiseCapability = reaction.getCapability();
             Object handler = reaction.getHandler();
@@ -221,8 +205,7 @@ public class PromiseReactionJobNode extends JavaScriptBaseNode {
                 return null;
             }
 
-            DynamicObject functionObject = JSFrameUtil.getFunctionObject(frame);
-            PromiseReactionRecord reaction = (PromiseReactionRecord) getReaction.getValue(functionObject);
+            PromiseReactionRecord reaction = (PromiseReactionRecord) JSArguments.getUserArgument(frame.getArguments(), 0);
             PromiseCapabilityRecord promiseCapability = reaction.getCapability();
             if (promiseCapability != null) {
                 return AwaitNode.findAsyncStackFramesFromPromise(promiseCapability.getPromise());
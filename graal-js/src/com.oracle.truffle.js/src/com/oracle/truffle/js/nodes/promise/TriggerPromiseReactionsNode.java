@@ -40,19 +40,19 @@
  */
 package com.oracle.truffle.js.nodes.promise;
 
-import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.nodes.JavaScriptBaseNode;
 import com.oracle.truffle.js.runtime.JSContext;
+import com.oracle.truffle.js.runtime.JSRealm;
+import com.oracle.truffle.js.runtime.objects.PromiseJobRecord;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.SimpleArrayList;
 
 public class TriggerPromiseReactionsNode extends JavaScriptBaseNode {
     private final JSContext context;
-    @Child private PromiseReactionJobNode promiseReactionJob;
 
     protected TriggerPromiseReactionsNode(JSContext context) {
         this.context = context;
-        this.promiseReactionJob = PromiseReactionJobNode.create(context);
     }
 
     public static TriggerPromiseReactionsNode create(JSContext context) {
@@ -65,10 +65,10 @@ public class TriggerPromiseReactionsNode extends JavaScriptBaseNode {
      */
     public Object execute(Object reactions, Object argument) {
         SimpleArrayList<?> list = (SimpleArrayList<?>) reactions;
+        JSRealm realm = context.getRealm();
         for (int i = 0; i < list.size(); i++) {
-            Object reaction = list.get(i);
-            DynamicObject job = promiseReactionJob.execute(reaction, argument);
-            context.promiseEnqueueJob(context.getRealm(), job);
+            PromiseReactionRecord reaction = (PromiseReactionRecord) list.get(i);
+            context.promiseEnqueueJob(PromiseJobRecord.createReactionJob(realm, reaction, argument));
         }
         return Undefined.instance;
     }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Engine-wide LRU cache of compiled TRegex objects keyed by pattern and flags, used when the
+ * inline caches of a call site are exhausted (e.g. for {@code new RegExp(dynamicPattern)}). Shared
+ * by all realms of a {@link JSContext}, like the regex engine that compiled the entries.
+ *
+ * The cache is bounded by the number of entries and by an estimate of the size of the compiled
+ * automata; TRegex does not expose the actual size, so it is derived from the pattern length.
+ */
+public final class CompiledRegexCache {
+
+    private static final int ENTRY_OVERHEAD = 512;
+    private static final int BYTES_PER_PATTERN_CHAR = 64;
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<String, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private long hits;
+    private long misses;
+
+    private static final class Entry {
+        final Object compiledRegex;
+        final long weight;
+
+        Entry(Object compiledRegex, long weight) {
+            this.compiledRegex = compiledRegex;
+            this.weight = weight;
+        }
+    }
+
+    public CompiledRegexCache(int maxEntries, long maxWeight) {
+        assert maxEntries > 0;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    private static String key(String pattern, String flags) {
+        // flags are not validated yet, length-prefix them to keep the key unambiguous
+        return flags.length() + ":" + flags + pattern;
+    }
+
+    private static long estimateWeight(String pattern) {
+        return ENTRY_OVERHEAD + (long) BYTES_PER_PATTERN_CHAR * pattern.length();
+    }
+
+    /**
+     * Returns the compiled regex for the pattern and flags, or {@code null} if not cached.
+     */
+    @TruffleBoundary
+    public synchronized Object get(String pattern, String flags) {
+        Entry entry = map.get(key(pattern, flags));
+        if (entry != null) {
+            hits++;
+            return entry.compiledRegex;
+        }
+        misses++;
+        return null;
+    }
+
+    @TruffleBoundary
+    public synchronized void put(String pattern, String flags, Object compiledRegex) {
+        long entryWeight = estimateWeight(pattern);
+        if (entryWeight > maxWeight) {
+            return;
+        }
+        Entry previous = map.put(key(pattern, flags), new Entry(compiledRegex, entryWeight));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entryWeight;
+        Iterator<Map.Entry<String, Entry>> iterator = map.entrySet().iterator();
+        while (map.size() > maxEntries || weight > maxWeight) {
+            Entry eldest = iterator.next().getValue();
+            weight -= eldest.weight;
+            iterator.remove();
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+}
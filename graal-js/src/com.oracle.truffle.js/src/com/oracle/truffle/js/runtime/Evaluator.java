@@ -50,6 +50,7 @@ import com.oracle.truffle.js.nodes.ScriptNode;
 import com.oracle.truffle.js.runtime.objects.ExportResolution;
 import com.oracle.truffle.js.runtime.objects.JSModuleLoader;
 import com.oracle.truffle.js.runtime.objects.JSModuleRecord;
+import com.oracle.truffle.js.runtime.objects.PreparsedModule;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 
 public interface Evaluator {
@@ -87,6 +88,18 @@ public interface Evaluator {
 
     JSModuleRecord parseModule(JSContext context, Source source, JSModuleLoader moduleLoader);
 
+    /**
+     * Parses a module without translating it. Does not require the context to be entered, so it
+     * may be called from a background thread.
+     */
+    PreparsedModule preparseModule(JSContext context, Source source);
+
+    /**
+     * Translates a module parsed by {@link #preparseModule}. Any error is reported as by
+     * {@link #parseModule(JSContext, Source, JSModuleLoader)}.
+     */
+    JSModuleRecord parseModule(JSContext context, PreparsedModule preparsedModule, JSModuleLoader moduleLoader);
+
     JSModuleRecord hostResolveImportedModule(JSContext context, ScriptOrModule referencingScriptOrModule, String specifier);
 
     void moduleInstantiation(JSRealm realm, JSModuleRecord moduleRecord);
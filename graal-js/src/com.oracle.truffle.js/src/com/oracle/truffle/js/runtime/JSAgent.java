@@ -42,8 +42,10 @@ package com.oracle.truffle.js.runtime;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.graalvm.collections.EconomicSet;
@@ -52,10 +54,11 @@ import org.graalvm.collections.Equivalence;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.JSAgentWaiterList.JSAgentWaiterListEntry;
-import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.JSAgentWaiterList.Waiter;
 import com.oracle.truffle.js.runtime.builtins.JSFinalizationRegistry;
 import com.oracle.truffle.js.runtime.builtins.JSFunction;
-import com.oracle.truffle.js.runtime.builtins.JSSharedArrayBuffer;
+import com.oracle.truffle.js.runtime.objects.PromiseJobRecord;
+import com.oracle.truffle.js.runtime.objects.PromiseReactionRecord;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
@@ -69,13 +72,17 @@ public abstract class JSAgent implements EcmaAgent {
     private final int signifier;
     private final boolean canBlock;
 
-    private boolean inAtomicSection;
     private boolean inCriticalSection;
 
     /**
-     * ECMA 8.4 "PromiseJobs" job queue.
+     * ECMA 8.4 "PromiseJobs" job queue. Contains {@link PromiseJobRecord}s and job functions.
      */
-    private final Deque<DynamicObject> promiseJobsQueue;
+    private final Deque<Object> promiseJobsQueue;
+
+    /* Microtask throughput counters. */
+    private long promiseJobsEnqueued;
+    private long promiseJobsRun;
+    private long promiseJobBatches;
 
     /**
      * According to ECMA2017 8.4 the queue of pending jobs (promises reactions) must be processed
@@ -94,6 +101,14 @@ public abstract class JSAgent implements EcmaAgent {
 
     private final Deque<WeakReference<DynamicObject>> finalizationRegistryQueue;
 
+    /**
+     * Pending {@code Atomics.waitAsync} waiters created by this agent. Only accessed by the thread of
+     * this agent; the promises of notified and timed-out waiters are settled when the "PromiseJobs"
+     * queue is next processed. There is no event loop, so nothing is scheduled when a waiter is
+     * notified or its timeout expires.
+     */
+    private List<Waiter> asyncWaiters;
+
     public JSAgent(boolean canBlock) {
         this.signifier = signifierGenerator.incrementAndGet();
         this.canBlock = canBlock;
@@ -101,8 +116,6 @@ public abstract class JSAgent implements EcmaAgent {
         this.finalizationRegistryQueue = new ArrayDeque<>(4);
     }
 
-    public abstract void wakeAgent(int w);
-
     public int getSignifier() {
         return signifier;
     }
@@ -115,6 +128,14 @@ public abstract class JSAgent implements EcmaAgent {
         return inCriticalSection;
     }
 
+    /**
+     * Whether the thread of this agent has been interrupted to deliver a message to it, rather
+     * than to cancel its execution. Blocking operations keep waiting on such interrupts.
+     */
+    public boolean hasPendingMessageInterrupt() {
+        return false;
+    }
+
     public void criticalSectionEnter(JSAgentWaiterListEntry wl) {
         assert !inCriticalSection;
         wl.lock();
@@ -127,42 +148,66 @@ public abstract class JSAgent implements EcmaAgent {
         wl.unlock();
     }
 
-    public void atomicSectionEnter(DynamicObject target) {
-        assert !inAtomicSection;
-        assert JSArrayBufferView.isJSArrayBufferView(target);
-        DynamicObject arrayBuffer = JSArrayBufferView.getArrayBuffer(target, JSArrayBufferView.isJSArrayBufferView(target));
-        JSAgentWaiterList waiterList = JSSharedArrayBuffer.getWaiterList(arrayBuffer);
-        waiterList.lock();
-        inAtomicSection = true;
+    @TruffleBoundary
+    public final void enqueuePromiseJob(DynamicObject job) {
+        promiseJobsQueue.push(job);
+        promiseJobsEnqueued++;
     }
 
-    public void atomicSectionLeave(DynamicObject target) {
-        assert inAtomicSection;
-        assert JSArrayBufferView.isJSArrayBufferView(target);
-        DynamicObject arrayBuffer = JSArrayBufferView.getArrayBuffer(target, JSArrayBufferView.isJSArrayBufferView(target));
-        JSAgentWaiterList waiterList = JSSharedArrayBuffer.getWaiterList(arrayBuffer);
-        inAtomicSection = false;
-        waiterList.unlock();
+    @TruffleBoundary
+    public final void enqueuePromiseJob(PromiseJobRecord job) {
+        promiseJobsQueue.push(job);
+        promiseJobsEnqueued++;
     }
 
+    /**
+     * Removes and returns the next job from the "PromiseJobs" queue if it is to be run in the given
+     * realm, otherwise returns {@code null}.
+     */
     @TruffleBoundary
-    public final void enqueuePromiseJob(DynamicObject job) {
-        promiseJobsQueue.push(job);
+    public final Object pollPromiseJob(JSRealm realm) {
+        Object nextJob = promiseJobsQueue.peekLast();
+        if (nextJob != null && getPromiseJobRealm(nextJob) == realm) {
+            promiseJobsQueue.pollLast();
+            promiseJobsRun++;
+            return nextJob;
+        }
+        return null;
     }
 
+    private static JSRealm getPromiseJobRealm(Object job) {
+        if (job instanceof PromiseJobRecord) {
+            return ((PromiseJobRecord) job).getRealm();
+        } else if (JSFunction.isJSFunction(job)) {
+            return JSFunction.getRealm((DynamicObject) job);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Runs all pending jobs. Consecutive jobs of the same realm are run as one batch, i.e., the
+     * realm's context is entered only once for all of them.
+     */
     @TruffleBoundary
     public final void processAllPromises() {
         try {
+            settleAsyncWaiters();
             while (!promiseJobsQueue.isEmpty()) {
-                DynamicObject nextJob = promiseJobsQueue.pollLast();
-                if (JSFunction.isJSFunction(nextJob)) {
-                    JSRealm functionRealm = JSFunction.getRealm(nextJob);
-                    Object prev = functionRealm.getTruffleContext().enter();
-                    try {
-                        JSFunction.call(nextJob, Undefined.instance, JSArguments.EMPTY_ARGUMENTS_ARRAY);
-                    } finally {
-                        functionRealm.getTruffleContext().leave(prev);
-                    }
+                JSRealm jobRealm = getPromiseJobRealm(promiseJobsQueue.peekLast());
+                if (jobRealm == null) {
+                    promiseJobsQueue.pollLast();
+                    continue;
+                }
+                promiseJobBatches++;
+                Object prev = jobRealm.getTruffleContext().enter();
+                try {
+                    jobRealm.getContext().getPromiseJobsCallTarget().call(this, jobRealm);
+                } finally {
+                    jobRealm.getTruffleContext().leave(prev);
+                }
+                if (promiseJobsQueue.isEmpty()) {
+                    settleAsyncWaiters();
                 }
             }
         } finally {
@@ -176,6 +221,71 @@ public abstract class JSAgent implements EcmaAgent {
         }
     }
 
+    @TruffleBoundary
+    public final void addAsyncWaiter(Waiter waiter) {
+        assert waiter.isAsync();
+        if (asyncWaiters == null) {
+            asyncWaiters = new ArrayList<>(4);
+        }
+        asyncWaiters.add(waiter);
+    }
+
+    /**
+     * Enqueues jobs resolving the promises of the async waiters that have been notified (with
+     * {@code "ok"}) or that have timed out (with {@code "timed-out"}).
+     */
+    private void settleAsyncWaiters() {
+        if (asyncWaiters == null || asyncWaiters.isEmpty()) {
+            return;
+        }
+        for (Iterator<Waiter> iter = asyncWaiters.iterator(); iter.hasNext();) {
+            Waiter waiter = iter.next();
+            String result;
+            if (waiter.isNotified()) {
+                result = "ok";
+            } else if (waiter.getRemainingNanos() <= 0) {
+                JSAgentWaiterListEntry wl = waiter.getList();
+                wl.lock();
+                try {
+                    if (waiter.isNotified()) {
+                        result = "ok";
+                    } else {
+                        wl.remove(waiter);
+                        result = "timed-out";
+                    }
+                } finally {
+                    wl.unlock();
+                }
+            } else {
+                continue;
+            }
+            iter.remove();
+            PromiseReactionRecord reaction = PromiseReactionRecord.create(waiter.getPromiseCapability(), Undefined.instance, true);
+            enqueuePromiseJob(PromiseJobRecord.createReactionJob(waiter.getRealm(), reaction, result));
+        }
+    }
+
+    /**
+     * Number of jobs that have been added to the "PromiseJobs" queue.
+     */
+    public final long getPromiseJobsEnqueued() {
+        return promiseJobsEnqueued;
+    }
+
+    /**
+     * Number of jobs from the "PromiseJobs" queue that have been run.
+     */
+    public final long getPromiseJobsRun() {
+        return promiseJobsRun;
+    }
+
+    /**
+     * Number of batches of consecutive same-realm jobs that have been run.
+     */
+    public final long getPromiseJobBatches() {
+        return promiseJobBatches;
+    }
+
     /**
      * Cleanup the finalizationRegistries that are unreferenced; cleanup referenced ones according
      * to 4.1.3 Execution and 4.1.4.1 HostCleanupFinalizatioRegistry.
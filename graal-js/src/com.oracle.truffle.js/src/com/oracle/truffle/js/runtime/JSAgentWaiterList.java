@@ -40,30 +40,46 @@
  */
 package com.oracle.truffle.js.runtime;
 
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import java.util.ArrayDeque;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.objects.PromiseCapabilityRecord;
+
 /**
  * Java-based implementation of ECMA2017 WaiterList (24.4.1.2).
+ *
+ * Each index of a shared buffer has its own queue of waiters. Queues are guarded by a small, fixed
+ * set of locks selected by index, so that agents waiting on (or notifying) different indices rarely
+ * contend with each other. Blocked agents are parked individually and woken by an unpark of their
+ * own thread.
  */
 public class JSAgentWaiterList {
 
-    private final Map<Integer, JSAgentWaiterListEntry> waiters;
+    private static final int LOCK_STRIPES = 16;
 
-    private final Lock globalMonitor;
+    private final Map<Integer, JSAgentWaiterListEntry> waiters;
+    private final Lock[] locks;
 
     @TruffleBoundary
     public JSAgentWaiterList() {
         this.waiters = new ConcurrentHashMap<>();
-        this.globalMonitor = new ReentrantLock();
+        this.locks = new Lock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
     }
 
     public JSAgentWaiterListEntry getListForIndex(int indexPos) {
-        JSAgentWaiterListEntry list = Boundaries.mapPutIfAbsent(waiters, indexPos, new JSAgentWaiterListEntry());
+        JSAgentWaiterListEntry list = Boundaries.mapGet(waiters, indexPos);
+        if (list != null) {
+            return list;
+        }
+        list = Boundaries.mapPutIfAbsent(waiters, indexPos, new JSAgentWaiterListEntry(locks[indexPos & (LOCK_STRIPES - 1)]));
         if (list == null) {
             return Boundaries.mapGet(waiters, indexPos);
         } else {
@@ -71,24 +87,19 @@ public class JSAgentWaiterList {
         }
     }
 
-    public void lock() {
-        globalMonitor.lock();
-    }
-
-    public void unlock() {
-        globalMonitor.unlock();
-    }
-
-    public static final class JSAgentWaiterListEntry extends ConcurrentLinkedQueue<Integer> {
-
-        private static final long serialVersionUID = 2655886588267252886L;
+    /**
+     * The waiters of a single index, in FIFO order. Must only be accessed while holding the lock of
+     * the entry.
+     */
+    public static final class JSAgentWaiterListEntry {
 
         private final Lock indexMonitor;
+        private final ArrayDeque<Waiter> queue;
 
         @TruffleBoundary
-        public JSAgentWaiterListEntry() {
-            super();
-            this.indexMonitor = new ReentrantLock();
+        JSAgentWaiterListEntry(Lock indexMonitor) {
+            this.indexMonitor = indexMonitor;
+            this.queue = new ArrayDeque<>(4);
         }
 
         public void lock() {
@@ -99,6 +110,100 @@ public class JSAgentWaiterList {
             indexMonitor.unlock();
         }
 
+        public void add(Waiter waiter) {
+            queue.add(waiter);
+        }
+
+        public boolean remove(Waiter waiter) {
+            return queue.remove(waiter);
+        }
+
+        public boolean contains(Waiter waiter) {
+            return queue.contains(waiter);
+        }
+
+        public Waiter poll() {
+            return queue.poll();
+        }
+
+        public int size() {
+            return queue.size();
+        }
+    }
+
+    /**
+     * A waiter record: either an agent blocked in {@code Atomics.wait} or a pending promise of
+     * {@code Atomics.waitAsync}.
+     */
+    public static final class Waiter {
+
+        private final JSAgentWaiterListEntry list;
+        private final Thread thread;
+        private final PromiseCapabilityRecord promiseCapability;
+        private final JSRealm realm;
+        private final long deadline;
+        private volatile boolean notified;
+
+        private Waiter(JSAgentWaiterListEntry list, Thread thread, PromiseCapabilityRecord promiseCapability, JSRealm realm, long timeout) {
+            this.list = list;
+            this.thread = thread;
+            this.promiseCapability = promiseCapability;
+            this.realm = realm;
+            this.deadline = System.nanoTime() + timeout * 1000000L;
+        }
+
+        /**
+         * Creates a waiter for the current thread that times out after {@code timeout} ms.
+         */
+        public static Waiter createBlocking(JSAgentWaiterListEntry list, long timeout) {
+            return new Waiter(list, Thread.currentThread(), null, null, timeout);
+        }
+
+        /**
+         * Creates a waiter that settles the given promise in the given realm.
+         */
+        public static Waiter createAsync(JSAgentWaiterListEntry list, PromiseCapabilityRecord promiseCapability, JSRealm realm, long timeout) {
+            return new Waiter(list, null, promiseCapability, realm, timeout);
+        }
+
+        public JSAgentWaiterListEntry getList() {
+            return list;
+        }
+
+        public boolean isAsync() {
+            return thread == null;
+        }
+
+        public PromiseCapabilityRecord getPromiseCapability() {
+            return promiseCapability;
+        }
+
+        public JSRealm getRealm() {
+            return realm;
+        }
+
+        /**
+         * Remaining time until the waiter times out, in ns.
+         */
+        public long getRemainingNanos() {
+            return deadline - System.nanoTime();
+        }
+
+        public boolean isNotified() {
+            return notified;
+        }
+
+        /**
+         * Marks the waiter as notified and wakes the blocked thread, if any. Must be called while
+         * holding the lock of the waiter's list, after removing the waiter from it.
+         */
+        @TruffleBoundary
+        public void notifyWaiter() {
+            notified = true;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
     }
 
 }
@@ -92,6 +92,10 @@ public final class JSConfig {
 
     // JSON options
     public static final boolean TruffleJSONParser = true;
+    /** Create objects with the same keys as the previous object at the same depth in its shape. */
+    public static final boolean JSONParseShapeTemplates = true;
+    public static final int JSONParseShapeTemplateMaxKeys = 64;
+    public static final int JSONParseShapeTemplateMaxDepth = 32;
 
     // LazyString options
     public static final boolean LazyStrings = true;
@@ -113,6 +117,8 @@ public final class JSConfig {
     // Regex options
     public static final int MaxCompiledRegexCacheLength = 4;
     public static final boolean TrimCompiledRegexCache = true;
+    /** Upper bound of the estimated size (in bytes) of all regexes in the engine-wide cache. */
+    public static final long MaxCompiledRegexCacheWeight = 16L * 1024 * 1024;
 
     // Runtime options
     public static final boolean RestrictForceSplittingBuiltins = true;
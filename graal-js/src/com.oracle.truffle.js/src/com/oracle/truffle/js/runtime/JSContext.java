@@ -46,6 +46,7 @@ import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import com.oracle.truffle.api.Assumption;
@@ -70,9 +71,13 @@ import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.Property;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.js.builtins.commonjs.CommonJSSourceCache;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.nodes.access.GetPrototypeNode;
 import com.oracle.truffle.js.nodes.cast.JSToObjectNode;
+import com.oracle.truffle.js.nodes.promise.PromiseJobsRootNode;
+import com.oracle.truffle.js.nodes.promise.PromiseReactionJobNode;
+import com.oracle.truffle.js.runtime.JSAgentWaiterList.Waiter;
 import com.oracle.truffle.js.runtime.array.TypedArray;
 import com.oracle.truffle.js.runtime.array.TypedArrayFactory;
 import com.oracle.truffle.js.runtime.builtins.Builtin;
@@ -126,12 +131,16 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSPrototypeData;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.JSShapeData;
+import com.oracle.truffle.js.runtime.objects.MegamorphicPropertyCache;
 import com.oracle.truffle.js.runtime.objects.Null;
+import com.oracle.truffle.js.runtime.objects.PromiseJobRecord;
 import com.oracle.truffle.js.runtime.objects.ScriptOrModule;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.CompilableBiFunction;
 import com.oracle.truffle.js.runtime.util.CompilableFunction;
 import com.oracle.truffle.js.runtime.util.DebugJSAgent;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
+import com.oracle.truffle.js.runtime.util.StringInterner;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
 import com.oracle.truffle.js.runtime.util.TimeProfiler;
 
@@ -210,6 +219,18 @@ public class JSContext {
     private volatile CallTarget boundFunctionCallTargetCache;
     private volatile CallTarget boundFunctionConstructTargetCache;
     private volatile CallTarget boundFunctionConstructNewTargetCache;
+    private volatile CallTarget promiseJobsCallTargetCache;
+    private volatile CallTarget promiseReactionJobCallTargetCache;
+    private volatile CommonJSSourceCache commonJSSourceCache;
+    private volatile IntlFormatterCache intlFormatterCache;
+    private volatile CompiledRegexCache compiledRegexCache;
+    private volatile MegamorphicPropertyCache megamorphicPropertyCache;
+    private final StringInterner stringInterner = new StringInterner();
+
+    /** Call sites that went megamorphic, direct calls they added, and sites that ran out of room. */
+    private final AtomicLong megamorphicCallSites = new AtomicLong();
+    private final AtomicLong megamorphicCallSiteTargets = new AtomicLong();
+    private final AtomicLong megamorphicCallSitesFull = new AtomicLong();
 
     public enum BuiltinFunctionKey {
         ArrayFlattenIntoArray,
@@ -227,8 +248,6 @@ public class JSContext {
         PromiseResolveFunction,
         PromiseRejectFunction,
         PromiseGetCapabilitiesExecutor,
-        PromiseResolveThenableJob,
-        PromiseReactionJob,
         PromiseAllResolveElement,
         PromiseAllSettledResolveElement,
         PromiseAllSettledRejectElement,
@@ -686,6 +705,23 @@ public class JSContext {
         realm.getAgent().enqueuePromiseJob(job);
     }
 
+    /**
+     * ECMA 8.4.1 EnqueueJob for the jobs defined by the promise abstract operations.
+     */
+    public final void promiseEnqueueJob(PromiseJobRecord job) {
+        invalidatePromiseQueueNotUsedAssumption();
+        job.getRealm().getAgent().enqueuePromiseJob(job);
+    }
+
+    /**
+     * Registers a pending {@code Atomics.waitAsync} waiter with the agent of its realm. Its promise
+     * is settled when the agent processes its "PromiseJobs" queue.
+     */
+    public final void addAsyncWaiter(Waiter waiter) {
+        invalidatePromiseQueueNotUsedAssumption();
+        waiter.getRealm().getAgent().addAsyncWaiter(waiter);
+    }
+
     private void invalidatePromiseQueueNotUsedAssumption() {
         Assumption promiseJobsQueueEmptyAssumption = language.getPromiseJobsQueueEmptyAssumption();
         if (promiseJobsQueueEmptyAssumption.isValid()) {
@@ -1044,6 +1080,120 @@ public class JSContext {
         });
     }
 
+    @TruffleBoundary
+    public CommonJSSourceCache getCommonJSSourceCache() {
+        CommonJSSourceCache result = commonJSSourceCache;
+        if (result == null) {
+            synchronized (this) {
+                result = commonJSSourceCache;
+                if (result == null) {
+                    result = commonJSSourceCache = new CommonJSSourceCache();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cache of ICU formatters, or {@code null} if disabled by
+     * {@link JSContextOptions#INTL_FORMATTER_CACHE_SIZE}.
+     */
+    @TruffleBoundary
+    public IntlFormatterCache getIntlFormatterCache() {
+        int maxSize = getContextOptions().getIntlFormatterCacheSize();
+        if (maxSize <= 0) {
+            return null;
+        }
+        IntlFormatterCache result = intlFormatterCache;
+        if (result == null) {
+            synchronized (this) {
+                result = intlFormatterCache;
+                if (result == null) {
+                    result = intlFormatterCache = new IntlFormatterCache(maxSize);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the engine-wide intern table for identifiers, string literals and property keys.
+     */
+    public StringInterner getStringInterner() {
+        return stringInterner;
+    }
+
+    public void incMegamorphicCallSites() {
+        megamorphicCallSites.incrementAndGet();
+    }
+
+    public void incMegamorphicCallSiteTargets() {
+        megamorphicCallSiteTargets.incrementAndGet();
+    }
+
+    public void incMegamorphicCallSitesFull() {
+        megamorphicCallSitesFull.incrementAndGet();
+    }
+
+    public long getMegamorphicCallSites() {
+        return megamorphicCallSites.get();
+    }
+
+    public long getMegamorphicCallSiteTargets() {
+        return megamorphicCallSiteTargets.get();
+    }
+
+    public long getMegamorphicCallSitesFull() {
+        return megamorphicCallSitesFull.get();
+    }
+
+    /**
+     * Returns the engine-wide cache of compiled regular expressions, or {@code null} if disabled by
+     * {@link JSContextOptions#REGEX_CACHE_SIZE}.
+     */
+    @TruffleBoundary
+    public CompiledRegexCache getCompiledRegexCache() {
+        int maxSize = getContextOptions().getRegexCacheSize();
+        if (maxSize <= 0) {
+            return null;
+        }
+        CompiledRegexCache result = compiledRegexCache;
+        if (result == null) {
+            synchronized (this) {
+                result = compiledRegexCache;
+                if (result == null) {
+                    result = compiledRegexCache = new CompiledRegexCache(maxSize, JSConfig.MaxCompiledRegexCacheWeight);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the engine-wide property lookup cache used by megamorphic property accesses, or
+     * {@code null} if disabled by {@link JSContextOptions#MEGAMORPHIC_PROPERTY_CACHE_SIZE}.
+     */
+    public MegamorphicPropertyCache getMegamorphicPropertyCache() {
+        MegamorphicPropertyCache result = megamorphicPropertyCache;
+        if (result == null) {
+            int size = getContextOptions().getMegamorphicPropertyCacheSize();
+            if (size <= 0) {
+                return null;
+            }
+            result = initMegamorphicPropertyCache(size);
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    private synchronized MegamorphicPropertyCache initMegamorphicPropertyCache(int size) {
+        MegamorphicPropertyCache result = megamorphicPropertyCache;
+        if (result == null) {
+            result = megamorphicPropertyCache = new MegamorphicPropertyCache(size, getContextOptions().isMegamorphicPropertyCacheStats());
+        }
+        return result;
+    }
+
     @TruffleBoundary
     public CallTarget getNotConstructibleCallTarget() {
         CallTarget result = notConstructibleCallTargetCache;
@@ -1072,6 +1222,42 @@ public class JSContext {
         return result;
     }
 
+    /**
+     * CallTarget of the loop that runs the jobs of the current agent's "PromiseJobs" queue.
+     *
+     * @see PromiseJobsRootNode
+     */
+    @TruffleBoundary
+    public CallTarget getPromiseJobsCallTarget() {
+        CallTarget result = promiseJobsCallTargetCache;
+        if (result == null) {
+            synchronized (this) {
+                result = promiseJobsCallTargetCache;
+                if (result == null) {
+                    result = promiseJobsCallTargetCache = Truffle.getRuntime().createCallTarget(PromiseJobsRootNode.create(this));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * CallTarget of PromiseReactionJob(reaction, argument).
+     */
+    @TruffleBoundary
+    public CallTarget getPromiseReactionJobCallTarget() {
+        CallTarget result = promiseReactionJobCallTargetCache;
+        if (result == null) {
+            synchronized (this) {
+                result = promiseReactionJobCallTargetCache;
+                if (result == null) {
+                    result = promiseReactionJobCallTargetCache = PromiseReactionJobNode.createPromiseReactionJobCallTarget(this);
+                }
+            }
+        }
+        return result;
+    }
+
     private static RootCallTarget createNotConstructibleCallTarget(JavaScriptLanguage lang, boolean generator, JSContext context) {
         return Truffle.getRuntime().createCallTarget(new JavaScriptRootNode(lang, null, null) {
             @Override
@@ -1248,6 +1434,10 @@ public class JSContext {
         return contextOptions.isDirectByteBuffer();
     }
 
+    public boolean isOptionJSONParseBuffers() {
+        return contextOptions.isJSONParseBuffers();
+    }
+
     public boolean isOptionParseOnly() {
         return contextOptions.isParseOnly();
     }
@@ -40,6 +40,7 @@
  */
 package com.oracle.truffle.js.runtime;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -388,6 +389,10 @@ public final class JSContextOptions {
     @Option(name = LOCALE_NAME, category = OptionCategory.EXPERT, help = "Use a specific default locale for locale-sensitive operations.") //
     public static final OptionKey<String> LOCALE = new OptionKey<>("");
 
+    public static final String CODE_CACHE_DIR_NAME = JS_OPTION_PREFIX + "code-cache-dir";
+    @Option(name = CODE_CACHE_DIR_NAME, category = OptionCategory.EXPERT, help = "Directory in which translated scripts are cached across runs.") //
+    public static final OptionKey<String> CODE_CACHE_DIR = new OptionKey<>("");
+
     public static final String FUNCTION_CONSTRUCTOR_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "function-constructor-cache-size";
     @Option(name = FUNCTION_CONSTRUCTOR_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum size of the parsing cache used by the Function constructor to avoid re-parsing known sources.") //
     public static final OptionKey<Integer> FUNCTION_CONSTRUCTOR_CACHE_SIZE = new OptionKey<>(32);
@@ -465,6 +470,61 @@ public final class JSContextOptions {
     public static final OptionKey<Integer> FUNCTION_CACHE_LIMIT = new OptionKey<>(JSConfig.FunctionCacheLimit);
     @CompilationFinal private int functionCacheLimit;
 
+    public static final String JSON_PARSE_BUFFERS_NAME = JS_OPTION_PREFIX + "json-parse-buffers";
+    @Option(name = JSON_PARSE_BUFFERS_NAME, category = OptionCategory.EXPERT, help = "Allow JSON.parse to read UTF-8 encoded text directly from ArrayBuffers, ArrayBuffer views, and host ByteBuffers or Readers.") //
+    public static final OptionKey<Boolean> JSON_PARSE_BUFFERS = new OptionKey<>(false);
+    @CompilationFinal private boolean jsonParseBuffers;
+
+    public static final String MODULE_PARSE_THREADS_NAME = JS_OPTION_PREFIX + "module-parse-threads";
+    @Option(name = MODULE_PARSE_THREADS_NAME, category = OptionCategory.EXPERT, help = "Number of background threads used to parse imported ES modules ahead of their evaluation (0 to parse modules on demand).") //
+    public static final OptionKey<Integer> MODULE_PARSE_THREADS = new OptionKey<>(0);
+    @CompilationFinal private int moduleParseThreads;
+
+    public static final String COMMONJS_SOURCE_CACHE_NAME = JS_OPTION_PREFIX + "commonjs-source-cache";
+    @Option(name = COMMONJS_SOURCE_CACHE_NAME, category = OptionCategory.EXPERT, help = "Share the sources of CommonJS modules among all contexts of an engine.") //
+    public static final OptionKey<Boolean> COMMONJS_SOURCE_CACHE = new OptionKey<>(false);
+    @CompilationFinal private boolean commonJSSourceCache;
+
+    public static final String COMMONJS_RESOLUTION_CACHE_NAME = JS_OPTION_PREFIX + "commonjs-resolution-cache";
+    @Option(name = COMMONJS_RESOLUTION_CACHE_NAME, category = OptionCategory.EXPERT, help = "Cache the results of CommonJS module resolution, including failed lookups.") //
+    public static final OptionKey<Boolean> COMMONJS_RESOLUTION_CACHE = new OptionKey<>(false);
+    @CompilationFinal private boolean commonJSResolutionCache;
+
+    public static final String COMMONJS_RESOLUTION_CACHE_WATCH_NAME = JS_OPTION_PREFIX + "commonjs-resolution-cache-watch";
+    @Option(name = COMMONJS_RESOLUTION_CACHE_WATCH_NAME, category = OptionCategory.EXPERT, help = "Invalidate the CommonJS resolution cache when a probed directory changes.") //
+    public static final OptionKey<Boolean> COMMONJS_RESOLUTION_CACHE_WATCH = new OptionKey<>(false);
+    @CompilationFinal private boolean commonJSResolutionCacheWatch;
+
+    public static final String LAZY_PARSING_NAME = JS_OPTION_PREFIX + "lazy-parsing";
+    @Option(name = LAZY_PARSING_NAME, category = OptionCategory.INTERNAL, help = "Only pre-parse function bodies and parse them on first call (requires lazy translation).") //
+    public static final OptionKey<Boolean> LAZY_PARSING = new OptionKey<>(false);
+    @CompilationFinal private boolean lazyParsing;
+
+    public static final String INTL_FORMATTER_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "intl-formatter-cache-size";
+    @Option(name = INTL_FORMATTER_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum number of ICU formatters shared among all contexts of an engine (0 disables the cache).") //
+    public static final OptionKey<Integer> INTL_FORMATTER_CACHE_SIZE = new OptionKey<>(64);
+    @CompilationFinal private int intlFormatterCacheSize;
+
+    public static final String REGEX_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "regex-cache-size";
+    @Option(name = REGEX_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Maximum number of compiled regular expressions shared among all contexts of an engine (0 disables the cache).") //
+    public static final OptionKey<Integer> REGEX_CACHE_SIZE = new OptionKey<>(256);
+    @CompilationFinal private int regexCacheSize;
+
+    public static final String MEGAMORPHIC_PROPERTY_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "megamorphic-property-cache-size";
+    @Option(name = MEGAMORPHIC_PROPERTY_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Number of entries of the property lookup cache used by megamorphic property accesses, shared among all contexts of an engine (0 disables the cache).") //
+    public static final OptionKey<Integer> MEGAMORPHIC_PROPERTY_CACHE_SIZE = new OptionKey<>(1024);
+    @CompilationFinal private int megamorphicPropertyCacheSize;
+
+    public static final String MEGAMORPHIC_PROPERTY_CACHE_STATS_NAME = JS_OPTION_PREFIX + "megamorphic-property-cache-stats";
+    @Option(name = MEGAMORPHIC_PROPERTY_CACHE_STATS_NAME, category = OptionCategory.INTERNAL, help = "Count hits and misses of the megamorphic property cache.") //
+    public static final OptionKey<Boolean> MEGAMORPHIC_PROPERTY_CACHE_STATS = new OptionKey<>(false);
+    @CompilationFinal private boolean megamorphicPropertyCacheStats;
+
+    public static final String MEGAMORPHIC_CALL_CACHE_SIZE_NAME = JS_OPTION_PREFIX + "megamorphic-call-cache-size";
+    @Option(name = MEGAMORPHIC_CALL_CACHE_SIZE_NAME, category = OptionCategory.EXPERT, help = "Number of frequently called functions a megamorphic call site keeps direct calls to; all other functions are called indirectly (0 disables).") //
+    public static final OptionKey<Integer> MEGAMORPHIC_CALL_CACHE_SIZE = new OptionKey<>(8);
+    @CompilationFinal private int megamorphicCallCacheSize;
+
     JSContextOptions(JSParserOptions parserOptions, OptionValues optionValues) {
         this.parserOptions = parserOptions;
         this.optionValues = optionValues;
@@ -551,6 +611,17 @@ public final class JSContextOptions {
 
         this.propertyCacheLimit = readIntegerOption(PROPERTY_CACHE_LIMIT);
         this.functionCacheLimit = readIntegerOption(FUNCTION_CACHE_LIMIT);
+        this.jsonParseBuffers = readBooleanOption(JSON_PARSE_BUFFERS);
+        this.moduleParseThreads = readIntegerOption(MODULE_PARSE_THREADS);
+        this.commonJSSourceCache = readBooleanOption(COMMONJS_SOURCE_CACHE);
+        this.commonJSResolutionCache = readBooleanOption(COMMONJS_RESOLUTION_CACHE);
+        this.commonJSResolutionCacheWatch = readBooleanOption(COMMONJS_RESOLUTION_CACHE_WATCH);
+        this.lazyParsing = readBooleanOption(LAZY_PARSING);
+        this.intlFormatterCacheSize = readIntegerOption(INTL_FORMATTER_CACHE_SIZE);
+        this.regexCacheSize = readIntegerOption(REGEX_CACHE_SIZE);
+        this.megamorphicPropertyCacheSize = readIntegerOption(MEGAMORPHIC_PROPERTY_CACHE_SIZE);
+        this.megamorphicPropertyCacheStats = readBooleanOption(MEGAMORPHIC_PROPERTY_CACHE_STATS);
+        this.megamorphicCallCacheSize = readIntegerOption(MEGAMORPHIC_CALL_CACHE_SIZE);
     }
 
     private boolean patchBooleanOption(OptionKey<Boolean> key, String name, boolean oldValue, Consumer<String> invalidate) {
@@ -827,6 +898,10 @@ public final class JSContextOptions {
         return LOCALE.getValue(optionValues);
     }
 
+    public String getCodeCacheDir() {
+        return CODE_CACHE_DIR.getValue(optionValues);
+    }
+
     public int getFunctionConstructorCacheSize() {
         return functionConstructorCacheSize;
     }
@@ -898,6 +973,63 @@ public final class JSContextOptions {
         return asyncStackTraces;
     }
 
+    public boolean isJSONParseBuffers() {
+        return jsonParseBuffers;
+    }
+
+    public int getModuleParseThreads() {
+        return moduleParseThreads;
+    }
+
+    public boolean isCommonJSSourceCache() {
+        return commonJSSourceCache;
+    }
+
+    public boolean isCommonJSResolutionCache() {
+        return commonJSResolutionCache;
+    }
+
+    public boolean isCommonJSResolutionCacheWatch() {
+        return commonJSResolutionCacheWatch;
+    }
+
+    public boolean isLazyParsing() {
+        return lazyParsing && lazyTranslation;
+    }
+
+    public int getIntlFormatterCacheSize() {
+        return intlFormatterCacheSize;
+    }
+
+    public int getRegexCacheSize() {
+        return regexCacheSize;
+    }
+
+    public int getMegamorphicPropertyCacheSize() {
+        return megamorphicPropertyCacheSize;
+    }
+
+    public boolean isMegamorphicPropertyCacheStats() {
+        return megamorphicPropertyCacheStats;
+    }
+
+    public int getMegamorphicCallCacheSize() {
+        return megamorphicCallCacheSize;
+    }
+
+    /**
+     * Returns the values of all options, sorted by option name. Unlike {@link #hashCode()}, this
+     * identifies the option values exactly, e.g., for keys of persistent caches.
+     */
+    public String toCanonicalString() {
+        List<String> entries = new ArrayList<>();
+        for (OptionDescriptor descriptor : optionValues.getDescriptors()) {
+            entries.add(descriptor.getName() + "=" + descriptor.getKey().getValue(optionValues));
+        }
+        Collections.sort(entries);
+        return String.join(";", entries);
+    }
+
     @Override
     public int hashCode() {
         int hash = 5;
@@ -945,6 +1077,17 @@ public final class JSContextOptions {
         hash = 53 * hash + this.maxPrototypeChainLength;
         hash = 53 * hash + this.propertyCacheLimit;
         hash = 53 * hash + this.functionCacheLimit;
+        hash = 53 * hash + (this.jsonParseBuffers ? 1 : 0);
+        hash = 53 * hash + this.moduleParseThreads;
+        hash = 53 * hash + (this.commonJSSourceCache ? 1 : 0);
+        hash = 53 * hash + (this.commonJSResolutionCache ? 1 : 0);
+        hash = 53 * hash + (this.commonJSResolutionCacheWatch ? 1 : 0);
+        hash = 53 * hash + (this.lazyParsing ? 1 : 0);
+        hash = 53 * hash + this.intlFormatterCacheSize;
+        hash = 53 * hash + this.regexCacheSize;
+        hash = 53 * hash + this.megamorphicPropertyCacheSize;
+        hash = 53 * hash + (this.megamorphicPropertyCacheStats ? 1 : 0);
+        hash = 53 * hash + this.megamorphicCallCacheSize;
         return hash;
     }
 
@@ -1089,6 +1232,39 @@ public final class JSContextOptions {
         if (this.functionCacheLimit != other.functionCacheLimit) {
             return false;
         }
+        if (this.jsonParseBuffers != other.jsonParseBuffers) {
+            return false;
+        }
+        if (this.moduleParseThreads != other.moduleParseThreads) {
+            return false;
+        }
+        if (this.commonJSSourceCache != other.commonJSSourceCache) {
+            return false;
+        }
+        if (this.commonJSResolutionCache != other.commonJSResolutionCache) {
+            return false;
+        }
+        if (this.commonJSResolutionCacheWatch != other.commonJSResolutionCacheWatch) {
+            return false;
+        }
+        if (this.lazyParsing != other.lazyParsing) {
+            return false;
+        }
+        if (this.intlFormatterCacheSize != other.intlFormatterCacheSize) {
+            return false;
+        }
+        if (this.regexCacheSize != other.regexCacheSize) {
+            return false;
+        }
+        if (this.megamorphicPropertyCacheSize != other.megamorphicPropertyCacheSize) {
+            return false;
+        }
+        if (this.megamorphicPropertyCacheStats != other.megamorphicPropertyCacheStats) {
+            return false;
+        }
+        if (this.megamorphicCallCacheSize != other.megamorphicCallCacheSize) {
+            return false;
+        }
         return Objects.equals(this.parserOptions, other.parserOptions);
     }
 }
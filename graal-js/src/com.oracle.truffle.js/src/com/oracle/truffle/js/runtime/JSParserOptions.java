@@ -257,6 +257,14 @@ public final class JSParserOptions {
         return this;
     }
 
+    @Override
+    public String toString() {
+        return "JSParserOptions [strict=" + strict + ", scripting=" + scripting + ", shebang=" + shebang + ", ecmaScriptVersion=" + ecmaScriptVersion +
+                        ", syntaxExtensions=" + syntaxExtensions + ", constAsVar=" + constAsVar + ", functionStatementError=" + functionStatementError +
+                        ", dumpOnError=" + dumpOnError + ", emptyStatements=" + emptyStatements + ", annexB=" + annexB + ", allowBigInt=" + allowBigInt +
+                        ", classFields=" + classFields + "]";
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
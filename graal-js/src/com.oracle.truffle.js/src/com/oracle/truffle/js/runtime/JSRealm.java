@@ -89,6 +89,7 @@ import com.oracle.truffle.js.builtins.RegExpStringIteratorPrototypeBuiltins;
 import com.oracle.truffle.js.builtins.SetIteratorPrototypeBuiltins;
 import com.oracle.truffle.js.builtins.StringIteratorPrototypeBuiltins;
 import com.oracle.truffle.js.builtins.commonjs.CommonJSRequireBuiltin;
+import com.oracle.truffle.js.builtins.commonjs.CommonJSResolutionCache;
 import com.oracle.truffle.js.builtins.commonjs.GlobalCommonJSRequireBuiltins;
 import com.oracle.truffle.js.builtins.commonjs.NpmCompatibleESModuleLoader;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
@@ -151,8 +152,10 @@ import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
 import com.oracle.truffle.js.runtime.objects.PropertyProxy;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.DateParseCache;
 import com.oracle.truffle.js.runtime.util.PrintWriterWrapper;
 import com.oracle.truffle.js.runtime.util.TRegexUtil;
+import com.oracle.truffle.js.runtime.util.TimeZoneOffsetCache;
 
 /**
  * Container for JavaScript globals (i.e. an ECMAScript 6 Realm object).
@@ -337,6 +340,11 @@ public class JSRealm {
      * Local time zone ID. Initialized lazily.
      */
     @CompilationFinal private ZoneId localTimeZoneId;
+    /**
+     * Offset cache for the local time zone. Initialized lazily.
+     */
+    private TimeZoneOffsetCache localTimeZoneOffsetCache;
+    private DateParseCache dateParseCache;
 
     public static final long NANOSECONDS_PER_MILLISECOND = 1000000;
     private SplittableRandom random;
@@ -386,6 +394,7 @@ public class JSRealm {
      * Per-realm CommonJs `require` cache.
      */
     private final Map<TruffleFile, DynamicObject> commonJSRequireCache;
+    private final CommonJSResolutionCache commonJSResolutionCache;
 
     public JSRealm(JSContext context, TruffleLanguage.Env env) {
         this.context = context;
@@ -636,6 +645,11 @@ public class JSRealm {
         } else {
             this.commonJSRequireCache = null;
         }
+        if (context.getContextOptions().isCommonJSResolutionCache()) {
+            this.commonJSResolutionCache = new CommonJSResolutionCache(context.getContextOptions().isCommonJSResolutionCacheWatch());
+        } else {
+            this.commonJSResolutionCache = null;
+        }
     }
 
     private void initializeTypedArrayConstructors() {
@@ -1187,10 +1201,9 @@ public class JSRealm {
             removeNashornIncompatibleBuiltins();
         }
         if (context.getContextOptions().isScriptEngineGlobalScopeImport()) {
-            for (String builtin : new String[]{"importScriptEngineGlobalBindings", "checkSyntaxForScriptEngine"}) {
-                JSObjectUtil.putDataProperty(context, getScriptEngineImportScope(), builtin,
-                                lookupFunction(GlobalBuiltins.GLOBAL_NASHORN_EXTENSIONS, builtin), JSAttributes.notConfigurableNotEnumerableNotWritable());
-            }
+            String builtin = "importScriptEngineGlobalBindings";
+            JSObjectUtil.putDataProperty(context, getScriptEngineImportScope(), builtin,
+                            lookupFunction(GlobalBuiltins.GLOBAL_NASHORN_EXTENSIONS, builtin), JSAttributes.notConfigurableNotEnumerableNotWritable());
         }
         if (context.getContextOptions().isPolyglotBuiltin() && (getEnv().isPolyglotEvalAllowed() || getEnv().isPolyglotBindingsAccessAllowed())) {
             setupPolyglot();
@@ -1805,6 +1818,8 @@ public class JSRealm {
         if (localTimeZoneId != null) {
             localTimeZoneId = getTimeZoneFromEnv();
         }
+        localTimeZoneOffsetCache = null;
+        dateParseCache = null;
         initTimeOffsetAndRandom();
 
         // Patch the RegExp constructor's static result properties
@@ -2081,6 +2096,32 @@ public class JSRealm {
         return id;
     }
 
+    public TimeZoneOffsetCache getLocalTimeZoneOffsetCache() {
+        TimeZoneOffsetCache cache = localTimeZoneOffsetCache;
+        if (CompilerDirectives.injectBranchProbability(CompilerDirectives.SLOWPATH_PROBABILITY, cache == null)) {
+            cache = createLocalTimeZoneOffsetCache();
+        }
+        return cache;
+    }
+
+    @TruffleBoundary
+    private TimeZoneOffsetCache createLocalTimeZoneOffsetCache() {
+        TimeZoneOffsetCache cache = new TimeZoneOffsetCache(getLocalTimeZoneId());
+        localTimeZoneOffsetCache = cache;
+        return cache;
+    }
+
+    /**
+     * Returns the cache of date strings parsed by the general date parser.
+     */
+    public DateParseCache getDateParseCache() {
+        DateParseCache cache = dateParseCache;
+        if (cache == null) {
+            cache = dateParseCache = new DateParseCache();
+        }
+        return cache;
+    }
+
     @TruffleBoundary
     private ZoneId getTimeZoneFromEnv() {
         OptionValues options = getEnv().getOptions();
@@ -2180,4 +2221,11 @@ public class JSRealm {
         return commonJSRequireCache;
     }
 
+    /**
+     * Returns the cache of CommonJS module resolutions, or {@code null} if disabled.
+     */
+    public final CommonJSResolutionCache getCommonJSResolutionCache() {
+        return commonJSResolutionCache;
+    }
+
 }
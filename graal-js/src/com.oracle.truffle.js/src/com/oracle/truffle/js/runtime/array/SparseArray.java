@@ -48,24 +48,30 @@ import static com.oracle.truffle.js.runtime.builtins.JSAbstractArray.arraySetLen
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.TreeMap;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.js.runtime.Boundaries;
+import com.oracle.truffle.js.runtime.JSConfig;
 import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.array.dyn.HolesObjectArray;
 import com.oracle.truffle.js.runtime.objects.Undefined;
 
 /**
- * Array that stores its elements in a HashMap-like structure, e.g. in a TreeMap.
+ * Array that stores its elements in an ordered map from index to element (see
+ * {@link SparseElements}).
  */
 public final class SparseArray extends DynamicArray {
 
     private static final SparseArray SPARSE_ARRAY = new SparseArray(INTEGRITY_LEVEL_NONE, createCache());
 
+    /**
+     * Minimum number of elements before a sparse array is turned back into a dense one. Density is
+     * checked whenever the number of elements reaches a power of two (from this size on), so that
+     * the cost of the transitions is amortized even if the array keeps going back and forth.
+     */
+    private static final int DENSE_TRANSITION_MIN_SIZE = 64;
+
     private SparseArray(int integrityLevel, DynamicArrayCache cache) {
         super(integrityLevel, cache);
     }
@@ -76,7 +82,7 @@ public final class SparseArray extends DynamicArray {
 
     public static SparseArray makeSparseArray(DynamicObject object, ScriptArray fromArray) {
         assert !(fromArray instanceof SparseArray);
-        TreeMap<Long, Object> arrayMap = createArrayMap();
+        SparseElements arrayMap = createArrayMap();
         copyArrayToMap(object, fromArray, arrayMap);
         arraySetLength(object, fromArray.length(object));
         arraySetArray(object, arrayMap);
@@ -84,20 +90,20 @@ public final class SparseArray extends DynamicArray {
     }
 
     @TruffleBoundary
-    public static TreeMap<Long, Object> createArrayMap() {
-        return new TreeMap<>();
+    public static SparseElements createArrayMap() {
+        return new SparseElements();
     }
 
-    protected static void copyArrayToMap(DynamicObject object, ScriptArray fromArray, Map<Long, Object> toMap) {
+    @TruffleBoundary
+    protected static void copyArrayToMap(DynamicObject object, ScriptArray fromArray, SparseElements toMap) {
         for (long index = fromArray.firstElementIndex(object); index <= fromArray.lastElementIndex(object); index = fromArray.nextElementIndex(object, index)) {
             assert fromArray.hasElement(object, index);
-            Boundaries.mapPut(toMap, index, fromArray.getElement(object, index));
+            toMap.put(index, fromArray.getElement(object, index));
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static TreeMap<Long, Object> arrayMap(DynamicObject object, boolean condition) {
-        return (TreeMap<Long, Object>) arrayGetArray(object, condition);
+    private static SparseElements arrayMap(DynamicObject object, boolean condition) {
+        return (SparseElements) arrayGetArray(object, condition);
     }
 
     @TruffleBoundary
@@ -118,13 +124,42 @@ public final class SparseArray extends DynamicArray {
     @TruffleBoundary
     @Override
     public ScriptArray setElementImpl(DynamicObject object, long index, Object value, boolean strict, boolean condition) {
-        arrayMap(object, condition).put(index, value);
+        SparseElements elements = arrayMap(object, condition);
+        Object previous = elements.put(index, value);
         if (index >= length(object, condition)) {
             arraySetLength(object, index + 1);
         }
+        if (previous == null && isDenseTransitionCandidate(elements.size())) {
+            return toDenseIfDenseEnough(object, elements, index, value);
+        }
         return this;
     }
 
+    private boolean isDenseTransitionCandidate(long size) {
+        return size >= DENSE_TRANSITION_MIN_SIZE && (size & (size - 1)) == 0 && integrityLevel == INTEGRITY_LEVEL_NONE;
+    }
+
+    /**
+     * Moves the elements into a holes array if at least half of the range between the first and
+     * the last element is occupied.
+     */
+    private ScriptArray toDenseIfDenseEnough(DynamicObject object, SparseElements elements, long index, Object value) {
+        long length = arrayGetLength(object);
+        long firstIndex = elements.firstKey();
+        long usedLength = elements.lastKey() - firstIndex + 1;
+        if (length > Integer.MAX_VALUE || usedLength > 2 * elements.size()) {
+            return this;
+        }
+        Object[] array = new Object[(int) usedLength];
+        elements.copyTo(array, firstIndex);
+        int holeCount = (int) (usedLength - elements.size());
+        ScriptArray newArray = HolesObjectArray.makeHolesObjectArray(object, (int) length, array, firstIndex, 0, (int) usedLength, holeCount, integrityLevel);
+        if (JSConfig.TraceArrayTransitions) {
+            traceArrayTransition(this, newArray, index, value);
+        }
+        return newArray;
+    }
+
     @Override
     public long length(DynamicObject object, boolean condition) {
         return arrayGetLength(object, condition);
@@ -143,42 +178,34 @@ public final class SparseArray extends DynamicArray {
     @Override
     public SparseArray setLengthImpl(DynamicObject object, long len, boolean condition, ProfileHolder profile) {
         arraySetLength(object, len);
-        arrayMap(object, condition).tailMap(len).clear();
+        arrayMap(object, condition).removeFrom(len);
         return this;
     }
 
     @TruffleBoundary
     @Override
     public long firstElementIndex(DynamicObject object, boolean condition) {
-        try {
-            return arrayMap(object, condition).firstKey();
-        } catch (NoSuchElementException ex) {
-            return 0;
-        }
+        SparseElements elements = arrayMap(object, condition);
+        return elements.isEmpty() ? 0 : elements.firstKey();
     }
 
     @TruffleBoundary
     @Override
     public long lastElementIndex(DynamicObject object, boolean condition) {
-        try {
-            return arrayMap(object, condition).lastKey();
-        } catch (NoSuchElementException ex) {
-            return -1;
-        }
+        return arrayMap(object, condition).lastKey();
     }
 
     @TruffleBoundary
     @Override
     public long nextElementIndex(DynamicObject object, long index, boolean condition) {
-        Long nextIndex = arrayMap(object, condition).higherKey(index);
-        return nextIndex != null ? nextIndex.longValue() : JSRuntime.MAX_SAFE_INTEGER_LONG;
+        long nextIndex = arrayMap(object, condition).higherKey(index);
+        return nextIndex >= 0 ? nextIndex : JSRuntime.MAX_SAFE_INTEGER_LONG;
     }
 
     @TruffleBoundary
     @Override
     public long previousElementIndex(DynamicObject object, long index, boolean condition) {
-        Long nextIndex = arrayMap(object, condition).lowerKey(index);
-        return nextIndex != null ? nextIndex.longValue() : -1;
+        return arrayMap(object, condition).lowerKey(index);
     }
 
     @Override
@@ -235,8 +262,7 @@ public final class SparseArray extends DynamicArray {
         }
         // move all element higher downwards
         while (pos < length(object)) {
-            setElement(object, pos - delta, getElement(object, pos), false);
-            deleteElementImpl(object, pos, false, arrayCondition());
+            moveElement(object, pos, pos - delta);
             pos = nextElementIndex(object, pos, arrayCondition());
         }
         return this;
@@ -252,19 +278,31 @@ public final class SparseArray extends DynamicArray {
         }
         // move all element higher upwards
         while (pos >= offset) {
-            setElement(object, pos + size, getElement(object, pos), false);
-            deleteElementImpl(object, pos, false, arrayCondition());
+            moveElement(object, pos, pos + size);
             pos = previousElementIndex(object, pos, arrayCondition());
         }
         return this;
     }
 
+    /**
+     * Moves an element without going through {@link #setElement}, which might change the array
+     * type in the middle of the shifting.
+     */
+    @TruffleBoundary
+    private void moveElement(DynamicObject object, long from, long to) {
+        SparseElements elements = arrayMap(object, arrayCondition());
+        elements.put(to, elements.remove(from));
+        if (to >= length(object)) {
+            arraySetLength(object, to + 1);
+        }
+    }
+
     @TruffleBoundary
     @Override
     public List<Object> ownPropertyKeys(DynamicObject object) {
-        Set<Long> keySet = arrayMap(object, arrayCondition()).keySet();
-        List<Object> list = new ArrayList<>(keySet.size());
-        for (long index : keySet) {
+        SparseElements elements = arrayMap(object, arrayCondition());
+        List<Object> list = new ArrayList<>((int) Math.min(elements.size(), Integer.MAX_VALUE));
+        for (long index = elements.firstKey(); index >= 0; index = elements.higherKey(index)) {
             list.add(Boundaries.stringValueOf(index));
         }
         return list;
@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.array;
+
+import java.util.Arrays;
+
+/**
+ * Ordered map from array index to element, used by {@link SparseArray}.
+ *
+ * Elements are kept in pages of {@value #PAGE_SIZE} consecutive indices. A page has a bit mask of
+ * the occupied indices and stores only the present elements, in index order. Pages are kept in
+ * sorted chunks of at most {@value #CHUNK_CAPACITY} pages. Indices are never boxed, runs of nearby
+ * indices share a page, and the next or previous element is found by scanning the bit masks.
+ */
+public final class SparseElements {
+    private static final int PAGE_SHIFT = 6;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int INITIAL_PAGE_CAPACITY = 2;
+    static final int CHUNK_CAPACITY = 64;
+
+    private static final class Chunk {
+        /** Sorted page keys, i.e., indices shifted right by {@link #PAGE_SHIFT}. */
+        final long[] keys = new long[CHUNK_CAPACITY];
+        /** Occupied indices of each page; never 0 for a page in use. */
+        final long[] bits = new long[CHUNK_CAPACITY];
+        /** Present elements of each page, ordered by index. */
+        final Object[][] values = new Object[CHUNK_CAPACITY][];
+        int count;
+    }
+
+    /** Non-empty chunks, sorted by their first page key. */
+    private Chunk[] chunks;
+    private int chunkCount;
+    private long size;
+    /** Chunk found by the last lookup; consecutive accesses are usually to the same chunk. */
+    private int lastChunk;
+
+    public SparseElements() {
+        this.chunks = new Chunk[4];
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        chunks = new Chunk[4];
+        chunkCount = 0;
+        size = 0;
+        lastChunk = 0;
+    }
+
+    /**
+     * Returns the element at the given index, or {@code null} if there is none.
+     */
+    public Object get(long index) {
+        if (chunkCount == 0) {
+            return null;
+        }
+        long key = index >>> PAGE_SHIFT;
+        Chunk chunk = chunks[findChunk(key)];
+        int pos = findPage(chunk, key);
+        if (pos < 0) {
+            return null;
+        }
+        long bits = chunk.bits[pos];
+        long bit = bit(index);
+        if ((bits & bit) == 0) {
+            return null;
+        }
+        return chunk.values[pos][Long.bitCount(bits & (bit - 1))];
+    }
+
+    public boolean containsKey(long index) {
+        if (chunkCount == 0) {
+            return false;
+        }
+        long key = index >>> PAGE_SHIFT;
+        Chunk chunk = chunks[findChunk(key)];
+        int pos = findPage(chunk, key);
+        return pos >= 0 && (chunk.bits[pos] & bit(index)) != 0;
+    }
+
+    /**
+     * Sets the element at the given index and returns the previous one, or {@code null} if there
+     * was none.
+     */
+    public Object put(long index, Object value) {
+        assert index >= 0 && value != null;
+        long key = index >>> PAGE_SHIFT;
+        if (chunkCount == 0) {
+            chunks[0] = new Chunk();
+            chunkCount = 1;
+        }
+        int c = findChunk(key);
+        Chunk chunk = chunks[c];
+        int pos = findPage(chunk, key);
+        if (pos < 0) {
+            pos = -(pos + 1);
+            if (chunk.count == CHUNK_CAPACITY) {
+                splitChunk(c);
+                if (pos > CHUNK_CAPACITY / 2) {
+                    c++;
+                    pos -= CHUNK_CAPACITY / 2;
+                    lastChunk = c;
+                }
+                chunk = chunks[c];
+            }
+            insertPage(chunk, pos, key);
+        }
+        long bits = chunk.bits[pos];
+        long bit = bit(index);
+        int rank = Long.bitCount(bits & (bit - 1));
+        Object[] values = chunk.values[pos];
+        if ((bits & bit) != 0) {
+            Object previous = values[rank];
+            values[rank] = value;
+            return previous;
+        }
+        int count = Long.bitCount(bits);
+        if (count == values.length) {
+            values = Arrays.copyOf(values, Math.min(count * 2, PAGE_SIZE));
+            chunk.values[pos] = values;
+        }
+        System.arraycopy(values, rank, values, rank + 1, count - rank);
+        values[rank] = value;
+        chunk.bits[pos] = bits | bit;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the element at the given index and returns it, or {@code null} if there was none.
+     */
+    public Object remove(long index) {
+        if (chunkCount == 0) {
+            return null;
+        }
+        long key = index >>> PAGE_SHIFT;
+        int c = findChunk(key);
+        Chunk chunk = chunks[c];
+        int pos = findPage(chunk, key);
+        if (pos < 0) {
+            return null;
+        }
+        long bits = chunk.bits[pos];
+        long bit = bit(index);
+        if ((bits & bit) == 0) {
+            return null;
+        }
+        int rank = Long.bitCount(bits & (bit - 1));
+        int count = Long.bitCount(bits);
+        Object[] values = chunk.values[pos];
+        Object previous = values[rank];
+        System.arraycopy(values, rank + 1, values, rank, count - rank - 1);
+        values[count - 1] = null;
+        bits &= ~bit;
+        chunk.bits[pos] = bits;
+        size--;
+        if (bits == 0) {
+            removePage(c, pos);
+        }
+        return previous;
+    }
+
+    /**
+     * Removes all elements at indices greater than or equal to {@code fromIndex}.
+     */
+    public void removeFrom(long fromIndex) {
+        if (chunkCount == 0) {
+            return;
+        } else if (fromIndex <= 0) {
+            clear();
+            return;
+        }
+        long key = fromIndex >>> PAGE_SHIFT;
+        int c = findChunk(key);
+        Chunk chunk = chunks[c];
+        int pos = findPage(chunk, key);
+        int keptPages;
+        if (pos >= 0) {
+            long bits = chunk.bits[pos];
+            long keptBits = bits & ~(-1L << (int) (fromIndex & PAGE_MASK));
+            int keptCount = Long.bitCount(keptBits);
+            Arrays.fill(chunk.values[pos], keptCount, Long.bitCount(bits), null);
+            size -= Long.bitCount(bits) - keptCount;
+            chunk.bits[pos] = keptBits;
+            keptPages = keptBits != 0 ? pos + 1 : pos;
+        } else {
+            keptPages = -(pos + 1);
+        }
+        for (int i = keptPages; i < chunk.count; i++) {
+            size -= Long.bitCount(chunk.bits[i]);
+            chunk.bits[i] = 0;
+            chunk.values[i] = null;
+        }
+        chunk.count = keptPages;
+        int keptChunks = keptPages == 0 ? c : c + 1;
+        for (int i = c + 1; i < chunkCount; i++) {
+            Chunk removed = chunks[i];
+            for (int j = 0; j < removed.count; j++) {
+                size -= Long.bitCount(removed.bits[j]);
+            }
+        }
+        Arrays.fill(chunks, keptChunks, chunkCount, null);
+        chunkCount = keptChunks;
+        lastChunk = 0;
+    }
+
+    /**
+     * Returns the lowest index with an element, or -1 if there is none.
+     */
+    public long firstKey() {
+        if (chunkCount == 0) {
+            return -1;
+        }
+        return firstKeyOfPage(chunks[0], 0);
+    }
+
+    /**
+     * Returns the highest index with an element, or -1 if there is none.
+     */
+    public long lastKey() {
+        if (chunkCount == 0) {
+            return -1;
+        }
+        Chunk chunk = chunks[chunkCount - 1];
+        return lastKeyOfPage(chunk, chunk.count - 1);
+    }
+
+    /**
+     * Returns the lowest index with an element that is greater than {@code index}, or -1 if there
+     * is none.
+     */
+    public long higherKey(long index) {
+        if (chunkCount == 0) {
+            return -1;
+        }
+        long start = Math.max(index + 1, 0);
+        long key = start >>> PAGE_SHIFT;
+        int c = findChunk(key);
+        Chunk chunk = chunks[c];
+        int pos = findPage(chunk, key);
+        if (pos >= 0) {
+            long bits = chunk.bits[pos] & (-1L << (int) (start & PAGE_MASK));
+            if (bits != 0) {
+                return (key << PAGE_SHIFT) | Long.numberOfTrailingZeros(bits);
+            }
+            pos++;
+        } else {
+            pos = -(pos + 1);
+        }
+        if (pos == chunk.count) {
+            if (++c == chunkCount) {
+                return -1;
+            }
+            chunk = chunks[c];
+            pos = 0;
+        }
+        return firstKeyOfPage(chunk, pos);
+    }
+
+    /**
+     * Returns the highest index with an element that is less than {@code index}, or -1 if there is
+     * none.
+     */
+    public long lowerKey(long index) {
+        if (chunkCount == 0 || index <= 0) {
+            return -1;
+        }
+        long end = index - 1;
+        long key = end >>> PAGE_SHIFT;
+        int c = findChunk(key);
+        Chunk chunk = chunks[c];
+        int pos = findPage(chunk, key);
+        if (pos >= 0) {
+            long bits = chunk.bits[pos] & (-1L >>> (PAGE_MASK - (int) (end & PAGE_MASK)));
+            if (bits != 0) {
+                return (key << PAGE_SHIFT) | (PAGE_MASK - Long.numberOfLeadingZeros(bits));
+            }
+            pos--;
+        } else {
+            pos = -(pos + 1) - 1;
+        }
+        if (pos < 0) {
+            if (--c < 0) {
+                return -1;
+            }
+            chunk = chunks[c];
+            pos = chunk.count - 1;
+        }
+        return lastKeyOfPage(chunk, pos);
+    }
+
+    /**
+     * Stores every element at {@code target[index - firstIndex]}.
+     */
+    public void copyTo(Object[] target, long firstIndex) {
+        for (int c = 0; c < chunkCount; c++) {
+            Chunk chunk = chunks[c];
+            for (int pos = 0; pos < chunk.count; pos++) {
+                long base = chunk.keys[pos] << PAGE_SHIFT;
+                long bits = chunk.bits[pos];
+                Object[] values = chunk.values[pos];
+                for (int rank = 0; bits != 0; rank++) {
+                    target[(int) (base + Long.numberOfTrailingZeros(bits) - firstIndex)] = values[rank];
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    private static long bit(long index) {
+        return 1L << (int) (index & PAGE_MASK);
+    }
+
+    private static long firstKeyOfPage(Chunk chunk, int pos) {
+        return (chunk.keys[pos] << PAGE_SHIFT) | Long.numberOfTrailingZeros(chunk.bits[pos]);
+    }
+
+    private static long lastKeyOfPage(Chunk chunk, int pos) {
+        return (chunk.keys[pos] << PAGE_SHIFT) | (PAGE_MASK - Long.numberOfLeadingZeros(chunk.bits[pos]));
+    }
+
+    /**
+     * Returns the chunk that contains or would contain the given page key, i.e. the last chunk
+     * whose first key is not greater than it (or the first chunk).
+     */
+    private int findChunk(long key) {
+        assert chunkCount > 0;
+        int last = lastChunk;
+        if (last < chunkCount && chunks[last].keys[0] <= key && (last + 1 == chunkCount || chunks[last + 1].keys[0] > key)) {
+            return last;
+        }
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunks[mid].keys[0] <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        lastChunk = low;
+        return low;
+    }
+
+    private static int findPage(Chunk chunk, long key) {
+        return Arrays.binarySearch(chunk.keys, 0, chunk.count, key);
+    }
+
+    private static void insertPage(Chunk chunk, int pos, long key) {
+        int moved = chunk.count - pos;
+        System.arraycopy(chunk.keys, pos, chunk.keys, pos + 1, moved);
+        System.arraycopy(chunk.bits, pos, chunk.bits, pos + 1, moved);
+        System.arraycopy(chunk.values, pos, chunk.values, pos + 1, moved);
+        chunk.keys[pos] = key;
+        chunk.bits[pos] = 0;
+        chunk.values[pos] = new Object[INITIAL_PAGE_CAPACITY];
+        chunk.count++;
+    }
+
+    private void removePage(int c, int pos) {
+        Chunk chunk = chunks[c];
+        int moved = chunk.count - pos - 1;
+        System.arraycopy(chunk.keys, pos + 1, chunk.keys, pos, moved);
+        System.arraycopy(chunk.bits, pos + 1, chunk.bits, pos, moved);
+        System.arraycopy(chunk.values, pos + 1, chunk.values, pos, moved);
+        chunk.count--;
+        chunk.bits[chunk.count] = 0;
+        chunk.values[chunk.count] = null;
+        if (chunk.count == 0) {
+            System.arraycopy(chunks, c + 1, chunks, c, chunkCount - c - 1);
+            chunks[--chunkCount] = null;
+            lastChunk = 0;
+        }
+    }
+
+    private void splitChunk(int c) {
+        Chunk left = chunks[c];
+        assert left.count == CHUNK_CAPACITY;
+        Chunk right = new Chunk();
+        int half = CHUNK_CAPACITY / 2;
+        System.arraycopy(left.keys, half, right.keys, 0, half);
+        System.arraycopy(left.bits, half, right.bits, 0, half);
+        System.arraycopy(left.values, half, right.values, 0, half);
+        Arrays.fill(left.bits, half, CHUNK_CAPACITY, 0);
+        Arrays.fill(left.values, half, CHUNK_CAPACITY, null);
+        left.count = half;
+        right.count = half;
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        System.arraycopy(chunks, c + 1, chunks, c + 2, chunkCount - c - 1);
+        chunks[c + 1] = right;
+        chunkCount++;
+    }
+}
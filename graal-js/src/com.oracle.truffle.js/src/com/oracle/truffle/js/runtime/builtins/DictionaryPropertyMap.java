@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.builtins;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
+import com.oracle.truffle.js.runtime.objects.JSProperty;
+import com.oracle.truffle.js.runtime.objects.PropertyDescriptor;
+import com.oracle.truffle.js.runtime.objects.Undefined;
+
+/**
+ * Property storage of {@link JSDictionaryObject}s.
+ *
+ * Entries are kept in insertion order in parallel key, value, and flags arrays; an open addressing
+ * index maps keys to entries. Flags are {@link JSAttributes} plus {@link JSProperty#ACCESSOR}, the
+ * value of an accessor property is an {@link Accessor}. {@link PropertyDescriptor}s are only
+ * materialized on request. Removed entries leave a tombstone that is dropped on the next rehash.
+ */
+public final class DictionaryPropertyMap {
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int FLAGS_MASK = JSAttributes.ATTRIBUTES_MASK | JSProperty.ACCESSOR;
+
+    private Object[] keys;
+    private Object[] values;
+    private byte[] flags;
+    /** Entry index + 1 for each occupied slot, 0 for empty slots; at most half full. */
+    private int[] index;
+    /** Number of entries in use, including tombstones. */
+    private int used;
+    /** Number of live entries. */
+    private int size;
+
+    public DictionaryPropertyMap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private DictionaryPropertyMap(int capacity) {
+        assert Integer.bitCount(capacity) == 1;
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.flags = new byte[capacity];
+        this.index = new int[capacity * 2];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the entry of the key, or -1 if not present.
+     */
+    public int find(Object key) {
+        assert key != null;
+        int[] idx = index;
+        int mask = idx.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            int slot = idx[i];
+            if (slot == 0) {
+                return -1;
+            }
+            Object k = keys[slot - 1];
+            if (k != null && (k == key || k.equals(key))) {
+                return slot - 1;
+            }
+        }
+    }
+
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    public Object getKey(int entry) {
+        return keys[entry];
+    }
+
+    public Object getValue(int entry) {
+        return values[entry];
+    }
+
+    public int getFlags(int entry) {
+        return flags[entry];
+    }
+
+    public boolean isAccessor(int entry) {
+        return (flags[entry] & JSProperty.ACCESSOR) != 0;
+    }
+
+    /**
+     * Returns {@code true} if the entry is a writable data property.
+     */
+    public boolean isWritableData(int entry) {
+        return (flags[entry] & (JSProperty.ACCESSOR | JSAttributes.NOT_WRITABLE)) == 0;
+    }
+
+    public boolean isConfigurable(int entry) {
+        return JSAttributes.isConfigurable(flags[entry]);
+    }
+
+    public void setValue(int entry, Object value) {
+        assert keys[entry] != null;
+        values[entry] = value;
+    }
+
+    /**
+     * Returns the value of a plain data property, or {@code null} if the key is absent or is an
+     * accessor property.
+     */
+    public Object getDataValue(Object key) {
+        int entry = find(key);
+        if (entry >= 0 && !isAccessor(entry)) {
+            return values[entry];
+        }
+        return null;
+    }
+
+    /**
+     * Adds or replaces a property. Replacing keeps the position of the key in insertion order.
+     */
+    public void put(Object key, Object value, int propertyFlags) {
+        assert (propertyFlags & ~FLAGS_MASK) == 0;
+        assert ((propertyFlags & JSProperty.ACCESSOR) != 0) == (value instanceof Accessor);
+        int entry = find(key);
+        if (entry < 0) {
+            if (used == keys.length) {
+                rehash(size >= keys.length / 2 ? keys.length * 2 : keys.length);
+            }
+            entry = used++;
+            keys[entry] = key;
+            insertIndex(key, entry);
+            size++;
+        }
+        values[entry] = value;
+        flags[entry] = (byte) propertyFlags;
+    }
+
+    /**
+     * Adds or replaces a property from a (possibly partial) property descriptor; absent fields
+     * default to {@code undefined} and {@code false}.
+     */
+    public void putDescriptor(Object key, PropertyDescriptor desc) {
+        if (desc.isAccessorDescriptor()) {
+            DynamicObject getter = desc.hasGet() ? (DynamicObject) desc.getGet() : Undefined.instance;
+            DynamicObject setter = desc.hasSet() ? (DynamicObject) desc.getSet() : Undefined.instance;
+            put(key, new Accessor(getter, setter), (desc.getFlags() & ~JSAttributes.NOT_WRITABLE) | JSProperty.ACCESSOR);
+        } else {
+            put(key, desc.hasValue() ? desc.getValue() : Undefined.instance, desc.getFlags());
+        }
+    }
+
+    /**
+     * Creates a property descriptor for the entry; the descriptor is a copy.
+     */
+    public PropertyDescriptor getDescriptor(int entry) {
+        int entryFlags = flags[entry];
+        if ((entryFlags & JSProperty.ACCESSOR) != 0) {
+            Accessor accessor = (Accessor) values[entry];
+            return PropertyDescriptor.createAccessor(accessor.getGetter(), accessor.getSetter(), entryFlags);
+        } else {
+            return PropertyDescriptor.createData(values[entry], entryFlags);
+        }
+    }
+
+    public boolean remove(Object key) {
+        int entry = find(key);
+        if (entry < 0) {
+            return false;
+        }
+        // the index slot keeps pointing to the tombstone until the next rehash
+        keys[entry] = null;
+        values[entry] = null;
+        flags[entry] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the first live entry after {@code entry} in insertion order, or -1. Start iteration
+     * with {@code nextEntry(-1)}.
+     */
+    public int nextEntry(int entry) {
+        for (int e = entry + 1; e < used; e++) {
+            if (keys[e] != null) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the keys in insertion order.
+     */
+    public List<Object> getKeys() {
+        List<Object> list = new ArrayList<>(size);
+        for (int e = nextEntry(-1); e >= 0; e = nextEntry(e)) {
+            list.add(keys[e]);
+        }
+        return list;
+    }
+
+    private void insertIndex(Object key, int entry) {
+        int[] idx = index;
+        int mask = idx.length - 1;
+        int i = hash(key) & mask;
+        while (idx[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        idx[i] = entry + 1;
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldFlags = flags;
+        int oldUsed = used;
+        if (newCapacity != oldKeys.length) {
+            keys = new Object[newCapacity];
+            values = new Object[newCapacity];
+            flags = new byte[newCapacity];
+            index = new int[newCapacity * 2];
+        } else {
+            // compact in place; entries only move towards the front
+            Arrays.fill(index, 0);
+        }
+        int e = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                keys[e] = key;
+                values[e] = oldValues[i];
+                flags[e] = oldFlags[i];
+                insertIndex(key, e);
+                e++;
+            }
+        }
+        if (keys == oldKeys) {
+            Arrays.fill(keys, e, oldUsed, null);
+            Arrays.fill(values, e, oldUsed, null);
+            Arrays.fill(flags, e, oldUsed, (byte) 0);
+        }
+        assert e == size;
+        used = e;
+    }
+}
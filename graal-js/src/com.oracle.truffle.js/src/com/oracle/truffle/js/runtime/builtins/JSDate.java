@@ -405,7 +405,7 @@ public final class JSDate extends JSBuiltinObject implements JSConstructorFactor
     }
 
     public static long localTZA(double t, boolean isUTC, JSContext context) {
-        return localTZA(t, isUTC, context.getRealm().getLocalTimeZoneId());
+        return context.getRealm().getLocalTimeZoneOffsetCache().getOffset(t, isUTC);
     }
 
     @TruffleBoundary
@@ -508,11 +508,23 @@ public final class JSDate extends JSBuiltinObject implements JSConstructorFactor
 
     @TruffleBoundary
     public static double makeDate(double y, double m, double d, double h, double min, double sec, double ms, Integer timezone, JSContext context) {
+        return makeDate(y, m, d, h, min, sec, ms, timezone == null, timezone == null ? 0 : timezone, context);
+    }
+
+    /**
+     * Like {@link #makeDate(double, double, double, double, double, double, double, Integer, JSContext)}
+     * but without boxing the time zone offset.
+     *
+     * @param isLocal whether the date is in the local time zone
+     * @param timezone the time zone offset in minutes, ignored if {@code isLocal}
+     */
+    @TruffleBoundary
+    public static double makeDate(double y, double m, double d, double h, double min, double sec, double ms, boolean isLocal, int timezone, JSContext context) {
         double day = makeDay(y, m, d);
         double time = makeTime(h, min, sec, ms);
         double date = makeDate(day, time);
 
-        if (timezone == null) {
+        if (isLocal) {
             date = utc(date, context);
         } else {
             date -= timezone * 60000;
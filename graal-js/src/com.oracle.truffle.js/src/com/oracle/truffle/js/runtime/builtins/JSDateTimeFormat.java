@@ -93,6 +93,7 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
 import com.oracle.truffle.js.runtime.util.IntlUtil;
 import com.oracle.truffle.js.runtime.util.LazyValue;
 
@@ -189,6 +190,44 @@ public final class JSDateTimeFormat extends JSBuiltinObject implements JSConstru
                     String numberingSystemOpt,
                     String dateStyleOpt,
                     String timeStyleOpt) {
+        IntlFormatterCache cache = ctx.getIntlFormatterCache();
+        if (cache == null) {
+            setupInternalDateTimeFormatUncached(ctx, state, locales, weekdayOpt, eraOpt, yearOpt, monthOpt, dayOpt, hourOpt, hcOpt, hour12Opt, minuteOpt, secondOpt, tzNameOpt,
+                            timeZone, calendarOpt, numberingSystemOpt, dateStyleOpt, timeStyleOpt);
+            return;
+        }
+        // The DateFormat is mutable and not thread-safe, so the cache holds a fully initialized
+        // template state that every new DateTimeFormat object copies (and clones the format of).
+        String key = String.join(",", locales) + '|' + weekdayOpt + '|' + eraOpt + '|' + yearOpt + '|' + monthOpt + '|' + dayOpt + '|' + hourOpt + '|' + hcOpt + '|' + hour12Opt + '|' +
+                        minuteOpt + '|' + secondOpt + '|' + tzNameOpt + '|' + timeZone.getID() + '|' + calendarOpt + '|' + numberingSystemOpt + '|' + dateStyleOpt + '|' + timeStyleOpt;
+        InternalState template = cache.get(key, () -> {
+            InternalState newTemplate = new InternalState();
+            setupInternalDateTimeFormatUncached(ctx, newTemplate, locales, weekdayOpt, eraOpt, yearOpt, monthOpt, dayOpt, hourOpt, hcOpt, hour12Opt, minuteOpt, secondOpt, tzNameOpt,
+                            timeZone, calendarOpt, numberingSystemOpt, dateStyleOpt, timeStyleOpt);
+            return newTemplate;
+        });
+        state.initializeFrom(template);
+    }
+
+    private static void setupInternalDateTimeFormatUncached(
+                    JSContext ctx,
+                    InternalState state, String[] locales,
+                    String weekdayOpt,
+                    String eraOpt,
+                    String yearOpt,
+                    String monthOpt,
+                    String dayOpt,
+                    String hourOpt,
+                    String hcOpt,
+                    Boolean hour12Opt,
+                    String minuteOpt,
+                    String secondOpt,
+                    String tzNameOpt,
+                    TimeZone timeZone,
+                    String calendarOpt,
+                    String numberingSystemOpt,
+                    String dateStyleOpt,
+                    String timeStyleOpt) {
         Locale selectedLocale = IntlUtil.selectedLocale(ctx, locales);
         Locale strippedLocale = selectedLocale.stripExtensions();
 
@@ -812,6 +851,28 @@ public final class JSDateTimeFormat extends JSBuiltinObject implements JSConstru
         private String dateStyle;
         private String timeStyle;
 
+        void initializeFrom(InternalState template) {
+            assert template.initialized && template.boundFormatFunction == null;
+            this.dateFormat = (DateFormat) template.dateFormat.clone();
+            this.locale = template.locale;
+            this.calendar = template.calendar;
+            this.numberingSystem = template.numberingSystem;
+            this.weekday = template.weekday;
+            this.era = template.era;
+            this.year = template.year;
+            this.month = template.month;
+            this.day = template.day;
+            this.hour = template.hour;
+            this.minute = template.minute;
+            this.second = template.second;
+            this.hourCycle = template.hourCycle;
+            this.timeZoneName = template.timeZoneName;
+            this.timeZone = template.timeZone;
+            this.dateStyle = template.dateStyle;
+            this.timeStyle = template.timeStyle;
+            this.initialized = true;
+        }
+
         DynamicObject toResolvedOptionsObject(JSContext context) {
             DynamicObject result = JSUserObject.create(context);
             JSObjectUtil.defineDataProperty(result, IntlUtil.LOCALE, locale, JSAttributes.getDefault());
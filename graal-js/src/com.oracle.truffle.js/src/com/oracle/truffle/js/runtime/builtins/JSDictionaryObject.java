@@ -43,9 +43,6 @@ package com.oracle.truffle.js.runtime.builtins;
 import java.util.Collections;
 import java.util.List;
 
-import org.graalvm.collections.EconomicMap;
-import org.graalvm.collections.MapCursor;
-
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -60,6 +57,7 @@ import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRuntime;
 import com.oracle.truffle.js.runtime.Symbol;
 import com.oracle.truffle.js.runtime.objects.Accessor;
+import com.oracle.truffle.js.runtime.objects.JSAttributes;
 import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSProperty;
@@ -70,8 +68,8 @@ import com.oracle.truffle.js.runtime.objects.Undefined;
 import com.oracle.truffle.js.runtime.util.DefinePropertyUtil;
 
 /**
- * This is a variant of {@link JSUserObject} that stores its contents as a HashMap of properties
- * (excepts hidden properties, incl. prototype).
+ * This is a variant of {@link JSUserObject} that stores its contents in a
+ * {@link DictionaryPropertyMap} (excepts hidden properties, incl. prototype).
  */
 public final class JSDictionaryObject extends JSBuiltinObject {
 
@@ -84,7 +82,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
 
     static {
         Shape.Allocator allocator = JSShape.makeAllocator(JSObject.LAYOUT);
-        HASHMAP_PROPERTY = JSObjectUtil.makeHiddenProperty(HASHMAP_PROPERTY_NAME, allocator.locationForType(EconomicMap.class));
+        HASHMAP_PROPERTY = JSObjectUtil.makeHiddenProperty(HASHMAP_PROPERTY_NAME, allocator.locationForType(DictionaryPropertyMap.class));
     }
 
     private JSDictionaryObject() {
@@ -114,25 +112,26 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @TruffleBoundary
     @Override
     public Object getOwnHelper(DynamicObject store, Object thisObj, Object key) {
-        PropertyDescriptor desc = getHashMap(store).get(key);
-        if (desc != null) {
-            return getValue(desc, thisObj);
+        DictionaryPropertyMap map = getHashMap(store);
+        int entry = map.find(key);
+        if (entry >= 0) {
+            return getValue(map, entry, thisObj);
         }
 
         return super.getOwnHelper(store, thisObj, key);
     }
 
-    public static Object getValue(PropertyDescriptor property, Object receiver) {
-        if (property.isAccessorDescriptor()) {
-            DynamicObject getter = (DynamicObject) property.getGet();
+    private static Object getValue(DictionaryPropertyMap map, int entry, Object receiver) {
+        Object value = map.getValue(entry);
+        if (map.isAccessor(entry)) {
+            DynamicObject getter = ((Accessor) value).getGetter();
             if (getter != Undefined.instance) {
                 return JSRuntime.call(getter, receiver, JSArguments.EMPTY_ARGUMENTS_ARRAY);
             } else {
                 return Undefined.instance;
             }
         } else {
-            assert property.isDataDescriptor();
-            return property.getValue();
+            return value;
         }
     }
 
@@ -154,16 +153,16 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @TruffleBoundary
     @Override
     public boolean delete(DynamicObject thisObj, Object key, boolean isStrict) {
-        EconomicMap<Object, PropertyDescriptor> hashMap = getHashMap(thisObj);
-        PropertyDescriptor desc = hashMap.get(key);
-        if (desc != null) {
-            if (!desc.getConfigurable()) {
+        DictionaryPropertyMap map = getHashMap(thisObj);
+        int entry = map.find(key);
+        if (entry >= 0) {
+            if (!map.isConfigurable(entry)) {
                 if (isStrict) {
                     throw Errors.createTypeErrorNotConfigurableProperty(key);
                 }
                 return false;
             }
-            hashMap.removeKey(key);
+            map.remove(key);
             return true;
         }
         return super.delete(thisObj, key, isStrict);
@@ -200,9 +199,10 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         if (receiver != thisObj) {
             return ordinarySetWithReceiver(thisObj, key, value, receiver, isStrict);
         }
-        PropertyDescriptor property = getHashMap(thisObj).get(key);
-        if (property != null) {
-            return setValue(key, property, thisObj, receiver, value, isStrict);
+        DictionaryPropertyMap map = getHashMap(thisObj);
+        int entry = map.find(key);
+        if (entry >= 0) {
+            return setValue(key, map, entry, thisObj, receiver, value, isStrict);
         }
         Property entry = DefinePropertyUtil.getPropertyByKey(thisObj, key);
         if (entry != null) {
@@ -211,9 +211,9 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return setPropertySlow(thisObj, key, value, receiver, isStrict, false);
     }
 
-    private static boolean setValue(Object key, PropertyDescriptor property, DynamicObject store, Object thisObj, Object value, boolean isStrict) {
-        if (property.isAccessorDescriptor()) {
-            DynamicObject setter = (DynamicObject) property.getSet();
+    private static boolean setValue(Object key, DictionaryPropertyMap map, int entry, DynamicObject store, Object thisObj, Object value, boolean isStrict) {
+        if (map.isAccessor(entry)) {
+            DynamicObject setter = ((Accessor) map.getValue(entry)).getSetter();
             if (setter != Undefined.instance) {
                 JSRuntime.call(setter, thisObj, new Object[]{value});
                 return true;
@@ -223,9 +223,8 @@ public final class JSDictionaryObject extends JSBuiltinObject {
                 return false;
             }
         } else {
-            assert property.isDataDescriptor();
-            if (property.getWritable()) {
-                property.setValue(value);
+            if (map.isWritableData(entry)) {
+                map.setValue(entry, value);
                 return true;
             } else {
                 if (isStrict) {
@@ -240,9 +239,10 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @Override
     public PropertyDescriptor getOwnProperty(DynamicObject thisObj, Object key) {
         assert JSRuntime.isPropertyKey(key);
-        PropertyDescriptor prop = getHashMap(thisObj).get(key);
-        if (prop != null) {
-            return prop;
+        DictionaryPropertyMap map = getHashMap(thisObj);
+        int entry = map.find(key);
+        if (entry >= 0) {
+            return map.getDescriptor(entry);
         }
         return super.getOwnProperty(thisObj, key);
     }
@@ -251,7 +251,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
     @Override
     public boolean defineOwnProperty(DynamicObject thisObj, Object key, PropertyDescriptor desc, boolean doThrow) {
         if (!hasOwnProperty(thisObj, key) && JSObject.isExtensible(thisObj)) {
-            getHashMap(thisObj).put(key, desc);
+            getHashMap(thisObj).putDescriptor(key, desc);
             return true;
         }
 
@@ -261,11 +261,35 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return super.defineOwnProperty(thisObj, key, desc, doThrow);
     }
 
-    @SuppressWarnings("unchecked")
-    static EconomicMap<Object, PropertyDescriptor> getHashMap(DynamicObject obj) {
+    static DictionaryPropertyMap getHashMap(DynamicObject obj) {
         assert JSDictionaryObject.isJSDictionaryObject(obj);
         Property hashMapProperty = obj.getShape().getProperty(HASHMAP_PROPERTY_NAME);
-        return (EconomicMap<Object, PropertyDescriptor>) hashMapProperty.get(obj, false);
+        return (DictionaryPropertyMap) hashMapProperty.get(obj, false);
+    }
+
+    /**
+     * Returns the value of an own data property stored in the dictionary, or {@code null} if
+     * there is no such property or it is an accessor.
+     */
+    @TruffleBoundary
+    public static Object getDataValue(DynamicObject obj, Object key) {
+        return getHashMap(obj).getDataValue(key);
+    }
+
+    /**
+     * Replaces the value of an existing, writable own data property stored in the dictionary.
+     *
+     * @return {@code false} if there is no such property
+     */
+    @TruffleBoundary
+    public static boolean setDataValue(DynamicObject obj, Object key, Object value) {
+        DictionaryPropertyMap map = getHashMap(obj);
+        int entry = map.find(key);
+        if (entry >= 0 && map.isWritableData(entry)) {
+            map.setValue(entry, value);
+            return true;
+        }
+        return false;
     }
 
     public static void makeDictionaryObject(DynamicObject obj, String reason) {
@@ -284,7 +308,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         JSContext context = JSObject.getJSContext(obj);
         Shape hashedShape = makeEmptyShapeForNewType(context, currentShape, JSDictionaryObject.INSTANCE);
 
-        EconomicMap<Object, PropertyDescriptor> hashMap = newHashMap();
+        DictionaryPropertyMap hashMap = newHashMap();
         List<Property> properties = currentShape.getPropertyListInternal(true);
         for (Property p : properties) {
             Object key = p.getKey();
@@ -296,7 +320,7 @@ public final class JSDictionaryObject extends JSBuiltinObject {
             } else {
                 // normal properties
                 Object value = p.get(obj, false);
-                hashMap.put(key, toPropertyDescriptor(p, value));
+                hashMap.put(key, value, p.getFlags() & (JSAttributes.ATTRIBUTES_MASK | JSProperty.ACCESSOR));
 
                 // invalidate property assumptions (for final properties)
                 JSShape.invalidatePropertyAssumption(currentShape, key);
@@ -328,26 +352,13 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         }
     }
 
-    private static PropertyDescriptor toPropertyDescriptor(Property p, Object value) {
-        PropertyDescriptor desc;
-        if (JSProperty.isAccessor(p)) {
-            desc = PropertyDescriptor.createAccessor(((Accessor) value).getGetter(), ((Accessor) value).getSetter());
-            desc.setConfigurable(JSProperty.isConfigurable(p));
-            desc.setEnumerable(JSProperty.isEnumerable(p));
-        } else {
-            assert JSProperty.isData(p);
-            desc = PropertyDescriptor.createData(value, JSProperty.isEnumerable(p), JSProperty.isWritable(p), JSProperty.isConfigurable(p));
-        }
-        return desc;
-    }
-
     private static void makeOrdinaryObject(DynamicObject obj, String reason) {
         CompilerAsserts.neverPartOfCompilation();
         if (JSConfig.TraceDictionaryObject) {
             System.out.printf("transitioning from dictionary object to ordinary object: %s\n", reason);
         }
 
-        EconomicMap<Object, PropertyDescriptor> hashMap = getHashMap(obj);
+        DictionaryPropertyMap hashMap = getHashMap(obj);
         Shape oldShape = obj.getShape();
         JSContext context = JSObject.getJSContext(obj);
         Shape newShape = makeEmptyShapeForNewType(context, oldShape, JSUserObject.INSTANCE);
@@ -363,14 +374,13 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         }
         obj.setShapeAndGrow(oldShape, newShape);
 
-        MapCursor<Object, PropertyDescriptor> cursor = hashMap.getEntries();
-        while (cursor.advance()) {
-            Object key = cursor.getKey();
-            PropertyDescriptor desc = cursor.getValue();
-            if (desc.isDataDescriptor()) {
-                JSObjectUtil.defineDataProperty(obj, key, desc.getValue(), desc.getFlags());
+        for (int entry = hashMap.nextEntry(-1); entry >= 0; entry = hashMap.nextEntry(entry)) {
+            Object key = hashMap.getKey(entry);
+            int flags = hashMap.getFlags(entry) & JSAttributes.ATTRIBUTES_MASK;
+            if (hashMap.isAccessor(entry)) {
+                JSObjectUtil.defineAccessorProperty(obj, key, (Accessor) hashMap.getValue(entry), flags);
             } else {
-                JSObjectUtil.defineAccessorProperty(obj, key, new Accessor((DynamicObject) desc.getGet(), (DynamicObject) desc.getSet()), desc.getFlags());
+                JSObjectUtil.defineDataProperty(obj, key, hashMap.getValue(entry), flags);
             }
         }
 
@@ -390,8 +400,8 @@ public final class JSDictionaryObject extends JSBuiltinObject {
         return JSObject.create(context, context.getDictionaryObjectFactory(), newHashMap());
     }
 
-    private static EconomicMap<Object, PropertyDescriptor> newHashMap() {
-        return EconomicMap.create();
+    private static DictionaryPropertyMap newHashMap() {
+        return new DictionaryPropertyMap();
     }
 
     @Override
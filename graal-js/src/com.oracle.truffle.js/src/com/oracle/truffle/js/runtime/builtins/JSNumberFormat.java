@@ -100,6 +100,7 @@ import com.oracle.truffle.js.runtime.objects.JSObject;
 import com.oracle.truffle.js.runtime.objects.JSObjectUtil;
 import com.oracle.truffle.js.runtime.objects.JSShape;
 import com.oracle.truffle.js.runtime.objects.Undefined;
+import com.oracle.truffle.js.runtime.util.IntlFormatterCache;
 import com.oracle.truffle.js.runtime.util.IntlUtil;
 import com.oracle.truffle.js.runtime.util.LazyValue;
 
@@ -590,6 +591,35 @@ public final class JSNumberFormat extends JSBuiltinObject implements JSConstruct
             this.numberFormatter = formatter;
         }
 
+        /**
+         * Like {@link #initializeNumberFormatter()}, but shares the (immutable) formatter with all
+         * objects of the engine that resolved to the same options.
+         */
+        @TruffleBoundary
+        public void initializeNumberFormatter(JSContext context) {
+            IntlFormatterCache cache = context.getIntlFormatterCache();
+            if (cache == null) {
+                initializeNumberFormatter();
+            } else {
+                this.numberFormatter = cache.get(formatterCacheKey(), () -> {
+                    initializeNumberFormatter();
+                    return numberFormatter;
+                });
+            }
+        }
+
+        private String formatterCacheKey() {
+            StringBuilder key = new StringBuilder(getClass().getName());
+            appendFormatterCacheKey(key);
+            return key.toString();
+        }
+
+        void appendFormatterCacheKey(StringBuilder key) {
+            key.append('|').append(javaLocale.toLanguageTag()).append('|').append(numberingSystem).append('|').append(minimumIntegerDigits);
+            key.append('|').append(minimumFractionDigits).append('|').append(maximumFractionDigits);
+            key.append('|').append(minimumSignificantDigits).append('|').append(maximumSignificantDigits);
+        }
+
         public LocalizedNumberFormatter getNumberFormatter() {
             return numberFormatter;
         }
@@ -733,6 +763,14 @@ public final class JSNumberFormat extends JSBuiltinObject implements JSConstruct
             this.setNumberFormatter(formatter);
         }
 
+        @Override
+        void appendFormatterCacheKey(StringBuilder key) {
+            super.appendFormatterCacheKey(key);
+            key.append('|').append(style).append('|').append(currency).append('|').append(currencyDisplay).append('|').append(currencySign);
+            key.append('|').append(unit).append('|').append(unitDisplay).append('|').append(useGrouping);
+            key.append('|').append(notation).append('|').append(compactDisplay).append('|').append(signDisplay);
+        }
+
         private String zeroWithSign;
         private String minusZeroWithSign;
 
@@ -40,23 +40,41 @@
  */
 package com.oracle.truffle.js.runtime.objects;
 
+import com.oracle.js.parser.ir.Module;
 import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.js.lang.JavaScriptLanguage;
 import com.oracle.truffle.js.runtime.Errors;
+import com.oracle.truffle.js.runtime.Evaluator;
+import com.oracle.truffle.js.runtime.JSContext;
 import com.oracle.truffle.js.runtime.JSRealm;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DefaultESModuleLoader implements JSModuleLoader {
 
     protected final JSRealm realm;
     protected final Map<String, JSModuleRecord> moduleMap = new HashMap<>();
 
+    /**
+     * Modules that are being parsed in the background, keyed like {@link #moduleMap}. Only
+     * accessed by the thread that loads modules; the worker threads never see the maps.
+     */
+    private final Map<String, PendingModule> pendingModules = new HashMap<>();
+    private ExecutorService parseExecutor;
+
     public static DefaultESModuleLoader create(JSRealm realm) {
         return new DefaultESModuleLoader(realm);
     }
@@ -79,21 +97,8 @@ public class DefaultESModuleLoader implements JSModuleLoader {
 
     @Override
     public JSModuleRecord resolveImportedModule(ScriptOrModule referrer, String specifier) {
-        String refPath = referrer == null ? null : referrer.getSource().getPath();
         try {
-            TruffleFile moduleFile;
-            if (refPath == null) {
-                // Importing module source does not originate from a file.
-                URI maybeUri = asURI(specifier);
-                if (maybeUri != null) {
-                    moduleFile = realm.getEnv().getPublicTruffleFile(maybeUri).getCanonicalFile();
-                } else {
-                    moduleFile = realm.getEnv().getPublicTruffleFile(specifier).getCanonicalFile();
-                }
-            } else {
-                TruffleFile refFile = realm.getEnv().getPublicTruffleFile(refPath);
-                moduleFile = refFile.resolveSibling(specifier).getCanonicalFile();
-            }
+            TruffleFile moduleFile = resolveModuleFile(referrer, specifier);
             String canonicalPath = moduleFile.getPath();
             return loadModuleFromUrl(specifier, moduleFile, canonicalPath);
         } catch (IOException | SecurityException e) {
@@ -101,17 +106,127 @@ public class DefaultESModuleLoader implements JSModuleLoader {
         }
     }
 
+    /**
+     * Resolves a module specifier to the file that is used as the key of {@link #moduleMap}, or
+     * returns {@code null} if the specifier does not denote a file.
+     */
+    protected TruffleFile resolveModuleFile(ScriptOrModule referrer, String specifier) throws IOException {
+        String refPath = referrer == null ? null : referrer.getSource().getPath();
+        if (refPath == null) {
+            // Importing module source does not originate from a file.
+            URI maybeUri = asURI(specifier);
+            if (maybeUri != null) {
+                return realm.getEnv().getPublicTruffleFile(maybeUri).getCanonicalFile();
+            } else {
+                return realm.getEnv().getPublicTruffleFile(specifier).getCanonicalFile();
+            }
+        } else {
+            TruffleFile refFile = realm.getEnv().getPublicTruffleFile(refPath);
+            return refFile.resolveSibling(specifier).getCanonicalFile();
+        }
+    }
+
     protected JSModuleRecord loadModuleFromUrl(String specifier, TruffleFile moduleFile, String canonicalPath) throws IOException {
         JSModuleRecord existingModule = moduleMap.get(canonicalPath);
         if (existingModule != null) {
             return existingModule;
         }
-        Source source = Source.newBuilder(JavaScriptLanguage.ID, moduleFile).name(specifier).build();
-        JSModuleRecord newModule = realm.getContext().getEvaluator().parseModule(realm.getContext(), source, this);
+        JSModuleRecord newModule = takePreparsedModule(specifier, canonicalPath);
+        if (newModule == null) {
+            Source source = Source.newBuilder(JavaScriptLanguage.ID, moduleFile).name(specifier).build();
+            newModule = realm.getContext().getEvaluator().parseModule(realm.getContext(), source, this);
+        }
         moduleMap.put(canonicalPath, newModule);
+        preparseRequestedModules(newModule);
         return newModule;
     }
 
+    /**
+     * Starts parsing the modules requested by the given module on background threads (if enabled
+     * by {@link com.oracle.truffle.js.runtime.JSContextOptions#MODULE_PARSE_THREADS}), so that they
+     * are ready by the time they are resolved. Modules are still translated, linked and evaluated
+     * one by one on the current thread, in the order mandated by the specification.
+     */
+    protected final void preparseRequestedModules(JSModuleRecord moduleRecord) {
+        int threads = realm.getContext().getContextOptions().getModuleParseThreads();
+        if (threads <= 0 || !(moduleRecord.getModule() instanceof Module)) {
+            return;
+        }
+        List<String> requestedModules = ((Module) moduleRecord.getModule()).getRequestedModules();
+        for (String specifier : requestedModules) {
+            TruffleFile moduleFile;
+            try {
+                moduleFile = resolveModuleFile(moduleRecord, specifier);
+            } catch (IOException | RuntimeException e) {
+                // reported once the import is actually resolved
+                continue;
+            }
+            if (moduleFile == null) {
+                continue;
+            }
+            String canonicalPath = moduleFile.getPath();
+            if (moduleMap.containsKey(canonicalPath) || pendingModules.containsKey(canonicalPath)) {
+                continue;
+            }
+            TruffleFile file = moduleFile;
+            JSContext context = realm.getContext();
+            Evaluator evaluator = context.getEvaluator();
+            Future<PreparsedModule> future = getParseExecutor(threads).submit(() -> {
+                Source source = Source.newBuilder(JavaScriptLanguage.ID, file).name(specifier).build();
+                return evaluator.preparseModule(context, source);
+            });
+            pendingModules.put(canonicalPath, new PendingModule(specifier, future));
+        }
+    }
+
+    private JSModuleRecord takePreparsedModule(String specifier, String canonicalPath) {
+        PendingModule pending = pendingModules.remove(canonicalPath);
+        if (pending == null) {
+            return null;
+        }
+        if (!pending.specifier.equals(specifier)) {
+            // the source name is derived from the specifier that first resolves the module
+            pending.future.cancel(false);
+            return null;
+        }
+        PreparsedModule preparsed;
+        try {
+            preparsed = pending.future.get();
+        } catch (ExecutionException e) {
+            // parse again on this thread to report the error
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return realm.getContext().getEvaluator().parseModule(realm.getContext(), preparsed, this);
+    }
+
+    private ExecutorService getParseExecutor(int threads) {
+        if (parseExecutor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (runnable) -> {
+                Thread thread = new Thread(runnable, "graaljs-module-parser-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            // idle workers terminate, so the pool does not outlive the realm
+            executor.allowCoreThreadTimeOut(true);
+            parseExecutor = executor;
+        }
+        return parseExecutor;
+    }
+
+    private static final class PendingModule {
+        final String specifier;
+        final Future<PreparsedModule> future;
+
+        PendingModule(String specifier, Future<PreparsedModule> future) {
+            this.specifier = specifier;
+            this.future = future;
+        }
+    }
+
     @Override
     public JSModuleRecord loadModule(Source source) {
         String path = source.getPath();
@@ -132,6 +247,13 @@ public class DefaultESModuleLoader implements JSModuleLoader {
                 throw Errors.createErrorFromException(e);
             }
         }
-        return moduleMap.computeIfAbsent(canonicalPath, (key) -> realm.getContext().getEvaluator().parseModule(realm.getContext(), source, this));
+        JSModuleRecord existingModule = moduleMap.get(canonicalPath);
+        if (existingModule != null) {
+            return existingModule;
+        }
+        JSModuleRecord newModule = realm.getContext().getEvaluator().parseModule(realm.getContext(), source, this);
+        moduleMap.put(canonicalPath, newModule);
+        preparseRequestedModules(newModule);
+        return newModule;
     }
 }
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.objects;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Property;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.js.runtime.JSRuntime;
+import com.oracle.truffle.js.runtime.builtins.JSArrayBufferView;
+import com.oracle.truffle.js.runtime.builtins.JSBuiltinObject;
+import com.oracle.truffle.js.runtime.builtins.JSClass;
+import com.oracle.truffle.js.runtime.builtins.JSDictionaryObject;
+import com.oracle.truffle.js.runtime.builtins.JSGlobalObject;
+import com.oracle.truffle.js.runtime.builtins.JSModuleNamespace;
+import com.oracle.truffle.js.runtime.builtins.JSPrimitiveObject;
+import com.oracle.truffle.js.runtime.java.JavaImporter;
+import com.oracle.truffle.js.runtime.java.JavaPackage;
+
+/**
+ * Engine-wide cache of property lookups for property accesses that have gone megamorphic, i.e.
+ * whose inline caches were exhausted and rewritten to the generic case. Maps a (receiver shape,
+ * key) pair to the result of the lookup along the prototype chain: the {@link Property} and the
+ * number of prototypes to skip to reach its holder, or the fact that the chain has no such
+ * property. The shapes of the prototypes walked are recorded in the entry, so that a hit only
+ * needs to compare the shapes of the actual prototypes instead of looking up the key in each of
+ * them.
+ *
+ * The property a shape maps a key to never changes, so an entry is valid for every receiver of
+ * that shape whose prototypes have the recorded shapes; entries that no longer match are replaced
+ * on use. The cache is a direct-mapped table of immutable entries and is shared by all threads
+ * without locking. To keep the table from being rewritten on every access when several hot
+ * lookups collide, a live entry is only evicted by a fraction of the misses. Hits and misses are
+ * only counted if enabled by {@code js.megamorphic-property-cache-stats}.
+ */
+public final class MegamorphicPropertyCache {
+
+    /** Maximum prototype chain length walked through the cache. */
+    private static final int MAX_DEPTH = 16;
+
+    /** One in this many misses may evict a live entry of another lookup. */
+    private static final int EVICTION_RATE = 8;
+
+    /** Result of {@link #get} if the lookup cannot be done through the cache. */
+    public static final Object NOT_CACHEABLE = new Object();
+
+    private static final Shape[] NO_SHAPES = new Shape[0];
+
+    private final Entry[] entries;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    private static final class Entry {
+        final Shape shape;
+        final Object key;
+        /** The property, or {@code null} if the prototype chain has no property with this key. */
+        final Property property;
+        /**
+         * The shapes of the prototypes up to the holder of the property, or of the whole prototype
+         * chain if the property is absent.
+         */
+        final Shape[] prototypeShapes;
+
+        Entry(Shape shape, Object key, Property property, Shape[] prototypeShapes) {
+            this.shape = shape;
+            this.key = key;
+            this.property = property;
+            this.prototypeShapes = prototypeShapes;
+        }
+
+        /**
+         * Returns the holder of the property, or {@link Null#instance} if the property is absent,
+         * or {@code null} if the prototype chain of the receiver does not match this entry.
+         */
+        DynamicObject findHolder(DynamicObject receiver) {
+            DynamicObject current = receiver;
+            for (Shape prototypeShape : prototypeShapes) {
+                current = JSObject.getPrototype(current);
+                if (current == Null.instance || current.getShape() != prototypeShape) {
+                    return null;
+                }
+            }
+            if (property != null) {
+                return current;
+            }
+            return JSObject.getPrototype(current) == Null.instance ? Null.instance : null;
+        }
+    }
+
+    /**
+     * @param size the number of entries, rounded up to a power of two
+     * @param stats whether to count hits and misses
+     */
+    public MegamorphicPropertyCache(int size, boolean stats) {
+        assert size > 0;
+        this.entries = new Entry[Integer.highestOneBit(Math.max(size - 1, 1)) << 1];
+        this.hits = stats ? new LongAdder() : null;
+        this.misses = stats ? new LongAdder() : null;
+    }
+
+    /**
+     * Whether accesses of this key may go through the cache. Array indices are excluded because
+     * many classes store elements outside of the shape.
+     */
+    public static boolean isCacheableKey(Object key) {
+        return JSRuntime.isPropertyKey(key) && !JSRuntime.isArrayIndex(key);
+    }
+
+    /**
+     * Whether all properties with {@link #isCacheableKey cacheable keys} of objects of this class
+     * are described by the shape and are accessed with ordinary semantics.
+     */
+    private static boolean isCacheableClass(JSClass jsclass) {
+        return jsclass instanceof JSBuiltinObject && !(jsclass instanceof JSPrimitiveObject) && jsclass != JSDictionaryObject.INSTANCE && jsclass != JSGlobalObject.INSTANCE &&
+                        jsclass != JSModuleNamespace.INSTANCE && jsclass != JSArrayBufferView.INSTANCE && !(jsclass instanceof JavaPackage) && !(jsclass instanceof JavaImporter);
+    }
+
+    private int index(Shape shape, Object key) {
+        return (System.identityHashCode(shape) * 31 + key.hashCode()) & (entries.length - 1);
+    }
+
+    /**
+     * Looks up the key along the prototype chain of the object.
+     *
+     * @return the matching entry, or {@code null} if the lookup cannot be done through the cache
+     */
+    private Entry lookup(DynamicObject object, Object key) {
+        Shape shape = object.getShape();
+        int index = index(shape, key);
+        Entry entry = entries[index];
+        boolean sameLookup = entry != null && entry.shape == shape && entry.key.equals(key);
+        if (sameLookup && entry.findHolder(object) != null) {
+            if (hits != null) {
+                hits.increment();
+            }
+            return entry;
+        }
+        if (misses != null) {
+            misses.increment();
+        }
+        Entry newEntry = createEntry(object, key);
+        if (newEntry != null && (entry == null || sameLookup || ThreadLocalRandom.current().nextInt(EVICTION_RATE) == 0)) {
+            entries[index] = newEntry;
+        }
+        return newEntry;
+    }
+
+    private static Entry createEntry(DynamicObject object, Object key) {
+        Shape shape = object.getShape();
+        if (!isCacheableClass(JSShape.getJSClass(shape))) {
+            return null;
+        }
+        Property property = shape.getProperty(key);
+        if (property != null) {
+            return new Entry(shape, key, property, NO_SHAPES);
+        }
+        Shape[] prototypeShapes = new Shape[MAX_DEPTH];
+        int depth = 0;
+        for (DynamicObject current = JSObject.getPrototype(object); current != Null.instance; current = JSObject.getPrototype(current)) {
+            Shape prototypeShape = current.getShape();
+            if (depth == MAX_DEPTH || !isCacheableClass(JSShape.getJSClass(prototypeShape))) {
+                return null;
+            }
+            prototypeShapes[depth++] = prototypeShape;
+            property = prototypeShape.getProperty(key);
+            if (property != null) {
+                return new Entry(shape, key, property, copyOf(prototypeShapes, depth));
+            }
+        }
+        return new Entry(shape, key, null, copyOf(prototypeShapes, depth));
+    }
+
+    private static Shape[] copyOf(Shape[] shapes, int length) {
+        if (length == 0) {
+            return NO_SHAPES;
+        }
+        Shape[] result = new Shape[length];
+        System.arraycopy(shapes, 0, result, 0, length);
+        return result;
+    }
+
+    /**
+     * [[Get]] of a cacheable key with ordinary semantics.
+     *
+     * @return the value, {@code null} if the property is not present, or {@link #NOT_CACHEABLE}
+     */
+    @TruffleBoundary
+    public Object get(DynamicObject object, Object receiver, Object key) {
+        assert isCacheableKey(key);
+        Entry entry = lookup(object, key);
+        if (entry == null) {
+            return NOT_CACHEABLE;
+        } else if (entry.property == null) {
+            return null;
+        }
+        DynamicObject holder = object;
+        for (int i = 0; i < entry.prototypeShapes.length; i++) {
+            holder = JSObject.getPrototype(holder);
+        }
+        return JSProperty.getValue(entry.property, holder, receiver, false);
+    }
+
+    /**
+     * [[HasProperty]] of a cacheable key with ordinary semantics.
+     *
+     * @return {@link Boolean#TRUE}, {@link Boolean#FALSE}, or {@link #NOT_CACHEABLE}
+     */
+    @TruffleBoundary
+    public Object has(DynamicObject object, Object key, boolean own) {
+        assert isCacheableKey(key);
+        Entry entry = lookup(object, key);
+        if (entry == null) {
+            return NOT_CACHEABLE;
+        } else if (own) {
+            return entry.property != null && entry.prototypeShapes.length == 0;
+        }
+        return entry.property != null;
+    }
+
+    /**
+     * [[Set]] of a cacheable key on an object that has an own property with this key.
+     *
+     * @return whether the set was handled; if not, the caller has to do a full [[Set]]
+     */
+    @TruffleBoundary
+    public boolean setOwn(DynamicObject object, Object key, Object value, Object receiver, boolean isStrict) {
+        assert isCacheableKey(key);
+        if (receiver != object) {
+            return false;
+        }
+        Entry entry = lookup(object, key);
+        if (entry == null || entry.property == null || entry.prototypeShapes.length != 0) {
+            return false;
+        }
+        JSProperty.setValue(entry.property, object, receiver, value, isStrict);
+        return true;
+    }
+
+    /**
+     * Returns the number of lookups answered by the cache, or -1 if not counted.
+     */
+    public long getHits() {
+        return hits == null ? -1 : hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to walk the prototype chain, or -1 if not counted.
+     */
+    public long getMisses() {
+        return misses == null ? -1 : misses.sum();
+    }
+}
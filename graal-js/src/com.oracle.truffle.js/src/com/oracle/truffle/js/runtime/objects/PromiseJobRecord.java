@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.objects;
+
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.js.runtime.JSRealm;
+
+/**
+ * A job of the ECMA 8.4 "PromiseJobs" queue that is run directly by the job loop, i.e., without
+ * creating a function object for it.
+ */
+public final class PromiseJobRecord {
+    /** PromiseReactionJob(reaction, argument). */
+    public static final int REACTION_JOB = 0;
+    /** PromiseResolveThenableJob(promiseToResolve, thenable, then). */
+    public static final int RESOLVE_THENABLE_JOB = 1;
+
+    private final int kind;
+    private final JSRealm realm;
+    private final Object first;
+    private final Object second;
+    private final Object third;
+
+    private PromiseJobRecord(int kind, JSRealm realm, Object first, Object second, Object third) {
+        this.kind = kind;
+        this.realm = realm;
+        this.first = first;
+        this.second = second;
+        this.third = third;
+    }
+
+    public static PromiseJobRecord createReactionJob(JSRealm realm, PromiseReactionRecord reaction, Object argument) {
+        return new PromiseJobRecord(REACTION_JOB, realm, reaction, argument, null);
+    }
+
+    public static PromiseJobRecord createResolveThenableJob(JSRealm realm, DynamicObject promiseToResolve, Object thenable, Object then) {
+        return new PromiseJobRecord(RESOLVE_THENABLE_JOB, realm, promiseToResolve, thenable, then);
+    }
+
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * The realm the job is run in.
+     */
+    public JSRealm getRealm() {
+        return realm;
+    }
+
+    public PromiseReactionRecord getReaction() {
+        assert kind == REACTION_JOB;
+        return (PromiseReactionRecord) first;
+    }
+
+    public Object getArgument() {
+        assert kind == REACTION_JOB;
+        return second;
+    }
+
+    public DynamicObject getPromiseToResolve() {
+        assert kind == RESOLVE_THENABLE_JOB;
+        return (DynamicObject) first;
+    }
+
+    public Object getThenable() {
+        assert kind == RESOLVE_THENABLE_JOB;
+        return second;
+    }
+
+    public Object getThen() {
+        assert kind == RESOLVE_THENABLE_JOB;
+        return third;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Atomic accesses to native-order 32- and 64-bit values of direct byte buffers. The byte index
+ * must be in bounds and aligned to the size of the value.
+ *
+ * This fallback serializes the accesses to each buffer on the lock of the buffer instance, so all
+ * accesses to the same memory have to go through the same instance (as they do for the buffer of a
+ * shared array buffer); the JDK-specific versions of this class use hardware atomics instead.
+ */
+public final class ByteBufferAtomics {
+    private ByteBufferAtomics() {
+    }
+
+    private static ByteBuffer nativeOrder(ByteBuffer buffer) {
+        return buffer.order() == ByteOrder.nativeOrder() ? buffer : buffer.duplicate().order(ByteOrder.nativeOrder());
+    }
+
+    @TruffleBoundary(allowInlining = false)
+    public static int getInt32Volatile(ByteBuffer buffer, int byteIndex) {
+        synchronized (buffer) {
+            return nativeOrder(buffer).getInt(byteIndex);
+        }
+    }
+
+    @TruffleBoundary(allowInlining = false)
+    public static void setInt32Volatile(ByteBuffer buffer, int byteIndex, int value) {
+        synchronized (buffer) {
+            nativeOrder(buffer).putInt(byteIndex, value);
+        }
+    }
+
+    @TruffleBoundary(allowInlining = false)
+    public static boolean compareAndSetInt32(ByteBuffer buffer, int byteIndex, int expected, int value) {
+        synchronized (buffer) {
+            ByteBuffer buf = nativeOrder(buffer);
+            if (buf.getInt(byteIndex) != expected) {
+                return false;
+            }
+            buf.putInt(byteIndex, value);
+            return true;
+        }
+    }
+
+    @TruffleBoundary(allowInlining = false)
+    public static long getInt64Volatile(ByteBuffer buffer, int byteIndex) {
+        synchronized (buffer) {
+            return nativeOrder(buffer).getLong(byteIndex);
+        }
+    }
+
+    @TruffleBoundary(allowInlining = false)
+    public static void setInt64Volatile(ByteBuffer buffer, int byteIndex, long value) {
+        synchronized (buffer) {
+            nativeOrder(buffer).putLong(byteIndex, value);
+        }
+    }
+
+    @TruffleBoundary(allowInlining = false)
+    public static boolean compareAndSetInt64(ByteBuffer buffer, int byteIndex, long expected, long value) {
+        synchronized (buffer) {
+            ByteBuffer buf = nativeOrder(buffer);
+            if (buf.getLong(byteIndex) != expected) {
+                return false;
+            }
+            buf.putLong(byteIndex, value);
+            return true;
+        }
+    }
+}
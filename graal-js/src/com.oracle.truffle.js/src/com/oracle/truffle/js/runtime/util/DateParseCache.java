@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+/**
+ * Small direct-mapped cache of date strings and their time values, for applications that parse
+ * the same (non-ISO) date strings over and over again. The results of local time strings depend on
+ * the time zone of the realm, so each realm has its own cache.
+ */
+public final class DateParseCache {
+
+    private static final int SIZE = 64;
+
+    private final String[] keys = new String[SIZE];
+    private final double[] values = new double[SIZE];
+
+    /**
+     * Returns whether the time value of the date string is cached.
+     */
+    public boolean contains(String dateString) {
+        return dateString.equals(keys[index(dateString)]);
+    }
+
+    /**
+     * Returns the cached time value for the date string, which must be {@link #contains contained}
+     * in the cache.
+     */
+    public double get(String dateString) {
+        assert contains(dateString);
+        return values[index(dateString)];
+    }
+
+    public void put(String dateString, double value) {
+        int index = index(dateString);
+        keys[index] = dateString;
+        values[index] = value;
+    }
+
+    private static int index(String dateString) {
+        int hash = dateString.hashCode();
+        return (hash ^ (hash >>> 16)) & (SIZE - 1);
+    }
+}
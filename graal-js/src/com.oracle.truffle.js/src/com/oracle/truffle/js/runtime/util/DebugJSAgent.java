@@ -70,6 +70,7 @@ public class DebugJSAgent extends JSAgent {
 
     private boolean quit;
     private Object debugReceiveBroadcast;
+    private volatile boolean messageInterrupt;
 
     @TruffleBoundary
     public DebugJSAgent(boolean canBlock, OptionValues optionValues) {
@@ -133,6 +134,11 @@ public class DebugJSAgent extends JSAgent {
         return result.get();
     }
 
+    @Override
+    public boolean hasPendingMessageInterrupt() {
+        return messageInterrupt;
+    }
+
     @TruffleBoundary
     public void setDebugReceiveBroadcast(Object lambda) {
         this.debugReceiveBroadcast = lambda;
@@ -181,16 +187,6 @@ public class DebugJSAgent extends JSAgent {
         quit = true;
     }
 
-    @Override
-    @TruffleBoundary
-    public void wakeAgent(int w) {
-        for (AgentExecutor e : spawnedAgent) {
-            if (e.jsAgent.getSignifier() == w) {
-                e.thread.interrupt();
-            }
-        }
-    }
-
     private static final class AgentExecutor {
 
         private final DebugJSAgent jsAgent;
@@ -208,12 +204,14 @@ public class DebugJSAgent extends JSAgent {
         @TruffleBoundary
         private void pushMessage(Object sab) {
             incoming.add(sab);
+            jsAgent.messageInterrupt = true;
             thread.interrupt();
         }
 
         @TruffleBoundary
         public void executeBroadcastCallback() {
             assert jsAgent.debugReceiveBroadcast != null;
+            jsAgent.messageInterrupt = false;
             while (incoming.size() > 0) {
                 DynamicObject cb = (DynamicObject) jsAgent.debugReceiveBroadcast;
                 JSFunction.call(cb, cb, new Object[]{incoming.pop()});
@@ -40,12 +40,18 @@
  */
 package com.oracle.truffle.js.runtime.util;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 /**
  * ES6-compliant hash map implementation.
+ *
+ * Deterministic hash table: entries are stored in insertion order in parallel key/value/hash
+ * arrays, and an open-addressing index table (linear probing) maps hashes to entry positions.
+ * Removed entries leave a hole that is skipped by iteration and dropped on the next rehash. Every
+ * rehash that drops holes starts a new {@link Generation} that records the removed positions, so
+ * that live cursors can translate their position into the compacted entry arrays.
  */
 public final class JSHashMap {
     public interface Cursor {
@@ -72,21 +78,33 @@ public final class JSHashMap {
         Cursor copy();
     }
 
-    private final HashMap<Object, Node> map;
-    private final Node head;
-    private Node tail;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+    private static final int[] EMPTY_INT_ARRAY = new int[0];
+
+    /** Entry keys in insertion order; {@code null} marks a removed entry. */
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    /** Index table: entry position + 1, or 0 for a free slot. Length is a power of 2. */
+    private int[] table;
+    /** Number of used entry positions, including removed entries. */
+    private int used;
+    private int size;
+    private Generation generation;
 
     @TruffleBoundary(allowInlining = true)
     public JSHashMap() {
-        this.map = new HashMap<>();
-        Node dummy = new Node(null, null, null, null);
-        this.head = dummy;
-        this.tail = dummy;
+        this.keys = EMPTY_ARRAY;
+        this.values = EMPTY_ARRAY;
+        this.hashes = EMPTY_INT_ARRAY;
+        this.table = EMPTY_INT_ARRAY;
+        this.generation = new Generation();
     }
 
     @TruffleBoundary(allowInlining = true)
     public int size() {
-        return map.size();
+        return size;
     }
 
     /**
@@ -94,172 +112,345 @@ public final class JSHashMap {
      */
     @TruffleBoundary
     public void put(Object key, Object value) {
-        Node newNode = new Node(key, value, null, null);
-        Node oldNode = map.putIfAbsent(key, newNode);
-        if (oldNode == null) {
-            newNode.setPrev(tail);
-            tail.setNext(newNode);
-            tail = newNode;
-        } else {
-            oldNode.setValue(value);
+        assert key != null && value != null;
+        int hash = hash(key);
+        int index = findEntry(key, hash);
+        if (index >= 0) {
+            values[index] = value;
+            return;
         }
+        if (used == keys.length) {
+            // drop holes if at least half of the entries have been removed, otherwise grow
+            rehash(size < (used >> 1) ? keys.length : Math.max(INITIAL_CAPACITY, keys.length << 1));
+        }
+        index = used++;
+        keys[index] = key;
+        values[index] = value;
+        hashes[index] = hash;
+        insertIntoTable(index, hash);
+        size++;
     }
 
     @TruffleBoundary
     public Object get(Object key) {
-        Node node = map.get(key);
-        return node == null ? null : node.getValue();
+        int index = findEntry(key, hash(key));
+        return index < 0 ? null : values[index];
     }
 
     @TruffleBoundary
     public boolean has(Object key) {
-        return map.containsKey(key);
+        return findEntry(key, hash(key)) >= 0;
     }
 
-    @TruffleBoundary
-    public boolean remove(Object key) {
-        Node node = map.remove(key);
-        if (node == null) {
-            return false;
+    /**
+     * Lookup of a (normalized) int key. Does not box the key and avoids virtual
+     * {@code equals}/{@code hashCode} calls, so it can be inlined into compiled code.
+     */
+    public Object getIntKey(int key) {
+        int index = findIntEntry(key);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * @see #getIntKey(int)
+     */
+    public boolean hasIntKey(int key) {
+        return findIntEntry(key) >= 0;
+    }
+
+    /**
+     * Insert or update with a (normalized) int key. Updating an existing entry does not box the key
+     * and can be inlined into compiled code.
+     */
+    public void putIntKey(int key, Object value) {
+        assert value != null;
+        int index = findIntEntry(key);
+        if (index >= 0) {
+            values[index] = value;
         } else {
-            unlink(node);
-            return true;
+            put(key, value);
         }
     }
 
-    private void unlink(Node node) {
-        Node next = node.getNext();
-        Node prev = node.getPrev();
-        prev.setNext(next);
-        if (next != null) {
-            next.setPrev(prev);
-        } else {
-            tail = prev;
+    @TruffleBoundary
+    public boolean remove(Object key) {
+        int index = findEntry(key, hash(key));
+        if (index < 0) {
+            return false;
         }
-        node.setEmpty();
+        // the index table slot is kept and acts as a tombstone until the next rehash
+        keys[index] = null;
+        values[index] = null;
+        size--;
+        if (keys.length > INITIAL_CAPACITY && size < (keys.length >> 2)) {
+            rehash(keys.length >> 1);
+        }
+        return true;
     }
 
     @TruffleBoundary
     public void clear() {
-        map.clear();
-        for (Node current = head.getNext(); current != null; current = current.getNext()) {
-            current.setEmpty();
+        if (used == 0) {
+            return;
         }
-        head.setNext(null);
-        tail = head;
+        keys = EMPTY_ARRAY;
+        values = EMPTY_ARRAY;
+        hashes = EMPTY_INT_ARRAY;
+        table = EMPTY_INT_ARRAY;
+        used = 0;
+        size = 0;
+        generation = generation.advance(null);
     }
 
     @TruffleBoundary
     @Override
     public String toString() {
-        return map.toString();
+        StringBuilder sb = new StringBuilder("{");
+        boolean first = true;
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != null) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(keys[i]).append('=').append(values[i]);
+                first = false;
+            }
+        }
+        return sb.append('}').toString();
     }
 
     public Cursor getEntries() {
-        return new CursorImpl(head);
+        return new CursorImpl(this, generation, 0);
     }
 
-    private static final class CursorImpl implements Cursor {
-        private Node current;
-
-        CursorImpl(Node head) {
-            this.current = head;
+    private static int hash(Object key) {
+        int h;
+        if (key instanceof Integer) {
+            h = (Integer) key;
+        } else if (key instanceof Double) {
+            long bits = Double.doubleToLongBits((Double) key);
+            h = (int) (bits ^ (bits >>> 32));
+        } else {
+            h = key.hashCode();
         }
+        return mix(h);
+    }
 
-        @Override
-        public boolean advance() {
-            if (current == null) {
-                return false;
-            } else {
-                // if current is no longer in the map, back up to a previous node still in the map
-                while (current.isEmpty() && current.getPrev() != null) {
-                    current = current.getPrev();
+    private static int mix(int h) {
+        int x = h * 0x9E3779B9;
+        return x ^ (x >>> 16);
+    }
+
+    private int findEntry(Object key, int hash) {
+        int[] t = table;
+        if (t.length == 0) {
+            return -1;
+        }
+        int mask = t.length - 1;
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            int entry = t[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int index = entry - 1;
+            if (hashes[index] == hash) {
+                Object k = keys[index];
+                if (k != null && (k == key || k.equals(key))) {
+                    return index;
                 }
-                Node next = current.getNext();
-                assert next == null || next.getKey() != null;
-                current = next;
-                return next != null;
             }
         }
+    }
 
-        @Override
-        public Object getKey() {
-            Object key = current.getKey();
-            assert key != null;
-            return key;
-        }
-
-        @Override
-        public Object getValue() {
-            Object value = current.getValue();
-            assert value != null;
-            return value;
+    private int findIntEntry(int key) {
+        int[] t = table;
+        if (t.length == 0) {
+            return -1;
         }
-
-        @Override
-        public String toString() {
-            return "Cursor [current=" + current + "]";
+        int hash = mix(key);
+        int mask = t.length - 1;
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            int entry = t[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int index = entry - 1;
+            if (hashes[index] == hash) {
+                Object k = keys[index];
+                if (k instanceof Integer && (Integer) k == key) {
+                    return index;
+                }
+            }
         }
+    }
 
-        @Override
-        public Cursor copy() {
-            return new CursorImpl(current);
+    private void insertIntoTable(int index, int hash) {
+        int[] t = table;
+        int mask = t.length - 1;
+        int slot = hash & mask;
+        // reuse the first free slot or slot of a removed entry
+        while (t[slot] != 0 && keys[t[slot] - 1] != null) {
+            slot = (slot + 1) & mask;
         }
+        t[slot] = index + 1;
     }
 
-    private static final class Node {
-        private Object key;
-        private Object value;
-        private Node prev;
-        private Node next;
-
-        Node(Object key, Object value, Node prev, Node next) {
-            this.key = key;
-            this.value = value;
-            this.prev = prev;
-            this.next = next;
+    /**
+     * Rebuilds the entry arrays with the given capacity, dropping removed entries, and rebuilds the
+     * index table with twice the capacity (i.e., a load factor of at most 0.5).
+     */
+    private void rehash(int newCapacity) {
+        assert newCapacity >= size;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        int oldUsed = used;
+        keys = new Object[newCapacity];
+        values = new Object[newCapacity];
+        hashes = new int[newCapacity];
+        table = new int[newCapacity << 1];
+        int[] removed = null;
+        int removedCount = 0;
+        int dest = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            Object key = oldKeys[i];
+            if (key == null) {
+                if (removed == null) {
+                    removed = new int[oldUsed - size];
+                }
+                removed[removedCount++] = i;
+                continue;
+            }
+            keys[dest] = key;
+            values[dest] = oldValues[i];
+            hashes[dest] = oldHashes[i];
+            insertIntoTable(dest, oldHashes[i]);
+            dest++;
         }
-
-        Object getKey() {
-            return key;
+        assert dest == size && removedCount == oldUsed - size;
+        used = dest;
+        if (removed != null) {
+            generation = generation.advance(removed);
         }
+    }
 
-        Object getValue() {
-            return value;
+    /**
+     * Entry positions are stable within a generation. A new generation starts whenever positions
+     * change, i.e., on a rehash that drops removed entries or on {@link JSHashMap#clear()}.
+     */
+    private static final class Generation {
+        private Generation next;
+        /** Sorted positions dropped when moving to {@link #next}; {@code null} if cleared. */
+        private int[] removed;
+
+        Generation advance(int[] removedPositions) {
+            Generation newGeneration = new Generation();
+            this.removed = removedPositions;
+            this.next = newGeneration;
+            return newGeneration;
         }
 
-        void setValue(Object value) {
-            this.value = value;
+        /**
+         * Translates a position in this generation into a position in the next generation.
+         */
+        int translate(int position) {
+            if (removed == null) {
+                return 0;
+            }
+            int insertionPoint = Arrays.binarySearch(removed, position);
+            int removedBefore = insertionPoint >= 0 ? insertionPoint : -(insertionPoint + 1);
+            return position - removedBefore;
         }
+    }
 
-        Node getPrev() {
-            return prev;
-        }
+    private static final class CursorImpl implements Cursor {
+        private final JSHashMap map;
+        private Generation generation;
+        /** Position of the next entry to examine, or -1 if the cursor is exhausted. */
+        private int position;
+        /** Position of the current entry (in {@link #generation}). */
+        private int current;
+        private Object key;
+        /** Value of the current entry when it was last read; returned if it has been removed. */
+        private Object value;
 
-        void setPrev(Node prev) {
-            this.prev = prev;
+        CursorImpl(JSHashMap map, Generation generation, int position) {
+            this.map = map;
+            this.generation = generation;
+            this.position = position;
         }
 
-        Node getNext() {
-            return next;
+        @Override
+        public boolean advance() {
+            if (position < 0) {
+                return false;
+            }
+            if (generation.next != null) {
+                translateToCurrentGeneration();
+            }
+            Object[] keys = map.keys;
+            int used = map.used;
+            while (position < used) {
+                Object k = keys[position];
+                if (k != null) {
+                    key = k;
+                    value = map.values[position];
+                    current = position;
+                    position++;
+                    return true;
+                }
+                position++;
+            }
+            position = -1;
+            key = null;
+            value = null;
+            return false;
         }
 
-        void setNext(Node next) {
-            this.next = next;
+        @TruffleBoundary
+        private void translateToCurrentGeneration() {
+            while (generation.next != null) {
+                if (position >= 0) {
+                    position = generation.translate(position);
+                }
+                current = generation.translate(current);
+                generation = generation.next;
+            }
         }
 
-        void setEmpty() {
-            this.key = null;
-            this.value = null;
+        @Override
+        public Object getKey() {
+            assert key != null;
+            return key;
         }
 
-        boolean isEmpty() {
-            return this.key == null;
+        /**
+         * Reads the value from the map, so that updates after {@link #advance()} are visible.
+         */
+        @Override
+        public Object getValue() {
+            assert value != null;
+            if (generation.next != null) {
+                translateToCurrentGeneration();
+            }
+            if (current < map.used && map.keys[current] == key) {
+                value = map.values[current];
+            }
+            return value;
         }
 
         @Override
         public String toString() {
-            return "Node [key=" + key + ", value=" + value + "]";
+            return "Cursor [key=" + key + ", value=" + value + "]";
+        }
+
+        @Override
+        public Cursor copy() {
+            CursorImpl copy = new CursorImpl(map, generation, position);
+            copy.current = current;
+            copy.key = key;
+            copy.value = value;
+            return copy;
         }
     }
 }
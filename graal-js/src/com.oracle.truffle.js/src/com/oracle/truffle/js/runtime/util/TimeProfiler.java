@@ -45,9 +45,17 @@ import java.util.concurrent.atomic.AtomicLong;
 public final class TimeProfiler {
     private static final String CLASS_NAME = "[" + TimeProfiler.class.getSimpleName() + "] ";
     private final AtomicLong counter;
+    /** Total source length of functions whose bodies were only pre-parsed. */
+    private final AtomicLong preparsedLength;
+    /** Total length and parse time of pre-parsed functions that were parsed on demand. */
+    private final AtomicLong lazyParsedLength;
+    private final AtomicLong lazyParseTime;
 
     public TimeProfiler() {
         counter = new AtomicLong();
+        preparsedLength = new AtomicLong();
+        lazyParsedLength = new AtomicLong();
+        lazyParseTime = new AtomicLong();
     }
 
     public void printElapsed(long startTime, String event) {
@@ -56,8 +64,25 @@ public final class TimeProfiler {
         System.out.println(CLASS_NAME + event + " took: " + TimeUtil.format(elapsed));
     }
 
+    public void preparsed(int length) {
+        preparsedLength.addAndGet(length);
+    }
+
+    public void printLazyParsed(long startTime, String functionName, int length) {
+        lazyParseTime.addAndGet(System.nanoTime() - startTime);
+        lazyParsedLength.addAndGet(length);
+        printElapsed(startTime, "lazy parsing " + functionName);
+    }
+
     public void printCumulative() {
         System.out.println(CLASS_NAME + "cumulative: " + TimeUtil.format(counter.get()));
+        long preparsed = preparsedLength.get();
+        if (preparsed > 0) {
+            long parsed = lazyParsedLength.get();
+            long unparsed = Math.max(0, preparsed - parsed);
+            String saved = parsed > 0 ? ", saved: ~" + TimeUtil.format(unparsed * lazyParseTime.get() / parsed) : "";
+            System.out.println(CLASS_NAME + "lazy parsing: " + unparsed + " of " + preparsed + " pre-parsed characters never parsed" + saved);
+        }
     }
 
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2020, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.js.runtime.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.js.runtime.builtins.JSDate;
+
+/**
+ * Caches the offset of a time zone for the interval between two offset transitions (e.g. the
+ * current DST period), so that most local time computations do not have to consult the
+ * {@link ZoneRules}.
+ */
+public final class TimeZoneOffsetCache {
+
+    private final ZoneId zoneId;
+    private Interval interval;
+
+    private static final class Interval {
+        /** First UTC time in milliseconds with this offset. */
+        final long start;
+        /** First UTC time in milliseconds after {@link #start} with a different offset. */
+        final long end;
+        final long offset;
+        /**
+         * Bounds for local time lookups, one day inside the interval so that local times around a
+         * transition (in a gap or overlap) always take the slow path.
+         */
+        final long localStart;
+        final long localEnd;
+
+        Interval(long start, long end, long offset) {
+            this.start = start;
+            this.end = end;
+            this.offset = offset;
+            this.localStart = start == Long.MIN_VALUE ? Long.MIN_VALUE : start + JSDate.MS_PER_DAY;
+            this.localEnd = end == Long.MAX_VALUE ? Long.MAX_VALUE : end - JSDate.MS_PER_DAY;
+        }
+    }
+
+    public TimeZoneOffsetCache(ZoneId zoneId) {
+        this.zoneId = zoneId;
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * LocalTZA(t, isUTC): the offset of the time zone in milliseconds.
+     */
+    public long getOffset(double t, boolean isUTC) {
+        Interval current = interval;
+        if (current != null) {
+            long time = (long) t;
+            if (isUTC) {
+                if (current.start <= time && time < current.end) {
+                    return current.offset;
+                }
+            } else {
+                long utc = time - current.offset;
+                if (current.localStart <= utc && utc < current.localEnd) {
+                    return current.offset;
+                }
+            }
+        }
+        return getOffsetSlow(t, isUTC);
+    }
+
+    @TruffleBoundary
+    private long getOffsetSlow(double t, boolean isUTC) {
+        long offset = JSDate.localTZA(t, isUTC, zoneId);
+        if (isUTC) {
+            updateInterval((long) t);
+        } else if (Math.abs(t) < JSDate.MAX_DATE + JSDate.MS_PER_DAY) {
+            updateInterval((long) t - offset);
+        }
+        return offset;
+    }
+
+    private void updateInterval(long utc) {
+        ZoneRules rules = zoneId.getRules();
+        Instant instant = Instant.ofEpochMilli(utc);
+        long offset = rules.getOffset(instant).getTotalSeconds() * 1000L;
+        if (rules.isFixedOffset()) {
+            interval = new Interval(Long.MIN_VALUE, Long.MAX_VALUE, offset);
+            return;
+        }
+        // latest transition at or before utc
+        ZoneOffsetTransition previous = rules.previousTransition(Instant.ofEpochMilli(utc + 1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        long start = previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000L;
+        long end = next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000L;
+        if (start <= utc && utc < end) {
+            interval = new Interval(start, end, offset);
+        }
+    }
+}